@@ -28,5 +28,7 @@ public class AccessConstants {
 
     public static final String TEE_FILTER_INCLUDES_PARAM = "includes";
     public static final String TEE_FILTER_EXCLUDES_PARAM = "excludes";
+    public static final String TEE_FILTER_MAX_CAPTURE_SIZE_PARAM = "maxCaptureSize";
+    public static final String TEE_FILTER_CONTENT_TYPES_PARAM = "contentTypes";
 
 }
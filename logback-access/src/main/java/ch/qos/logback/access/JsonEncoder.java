@@ -0,0 +1,146 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
+import ch.qos.logback.access.spi.IAccessEvent;
+import ch.qos.logback.core.encoder.JsonByteBuffer;
+import ch.qos.logback.core.encoder.JsonEncoderBase;
+
+/**
+ * Encodes access events as JSON objects, one per line, for example:
+ * 
+ * <pre>
+ * {"timestamp":1500000000000,"remoteHost":"10.0.0.1","method":"GET","uri":"/index.html","protocol":"HTTP/1.1",
+ *  "status":200,"contentLength":512,"elapsedTime":3,"referer":"http://x/","userAgent":"curl/7.1"}
+ * </pre>
+ * 
+ * <p>Values which are not available, see {@link IAccessEvent#NA}, are left
+ * out. Request and response headers are included when
+ * <code>includeRequestHeaders</code>, respectively
+ * <code>includeResponseHeaders</code>, is set to true.
+ * 
+ * @since 1.2.14
+ */
+public class JsonEncoder extends JsonEncoderBase<IAccessEvent> {
+
+    static final byte[] TIMESTAMP = firstFieldName("timestamp");
+    static final byte[] REMOTE_HOST = nextFieldName("remoteHost");
+    static final byte[] REMOTE_USER = nextFieldName("remoteUser");
+    static final byte[] THREAD = nextFieldName("thread");
+    static final byte[] METHOD = nextFieldName("method");
+    static final byte[] URI = nextFieldName("uri");
+    static final byte[] QUERY = nextFieldName("query");
+    static final byte[] PROTOCOL = nextFieldName("protocol");
+    static final byte[] STATUS = nextFieldName("status");
+    static final byte[] CONTENT_LENGTH = nextFieldName("contentLength");
+    static final byte[] ELAPSED_TIME = nextFieldName("elapsedTime");
+    static final byte[] REFERER = nextFieldName("referer");
+    static final byte[] USER_AGENT = nextFieldName("userAgent");
+    static final byte[] REQUEST_HEADERS = nextFieldName("requestHeaders");
+    static final byte[] RESPONSE_HEADERS = nextFieldName("responseHeaders");
+
+    boolean includeRequestHeaders = false;
+    boolean includeResponseHeaders = false;
+
+    @Override
+    public void start() {
+        // the referer and user agent fields are read from the request headers
+        EnumSet<CapturedData> required = EnumSet.of(CapturedData.REQUEST_HEADERS);
+        if (includeResponseHeaders) {
+            required.add(CapturedData.RESPONSE_HEADERS);
+        }
+        CapturedDataRegistry.require(getContext(), this, required);
+        super.start();
+    }
+
+    @Override
+    protected void writeEvent(JsonByteBuffer buffer, IAccessEvent event) {
+        buffer.append(TIMESTAMP);
+        buffer.appendLong(event.getTimeStamp());
+        writeAvailableField(buffer, REMOTE_HOST, event.getRemoteHost());
+        writeAvailableField(buffer, REMOTE_USER, event.getRemoteUser());
+        writeAvailableField(buffer, THREAD, event.getThreadName());
+        writeAvailableField(buffer, METHOD, event.getMethod());
+        writeAvailableField(buffer, URI, event.getRequestURI());
+        writeAvailableField(buffer, QUERY, event.getQueryString());
+        writeAvailableField(buffer, PROTOCOL, event.getProtocol());
+        writeNumberField(buffer, STATUS, event.getStatusCode());
+        writeNumberField(buffer, CONTENT_LENGTH, event.getContentLength());
+        writeNumberField(buffer, ELAPSED_TIME, event.getElapsedTime());
+        writeAvailableField(buffer, REFERER, event.getRequestHeader("Referer"));
+        writeAvailableField(buffer, USER_AGENT, event.getRequestHeader("User-Agent"));
+        if (includeRequestHeaders) {
+            writeMap(buffer, REQUEST_HEADERS, event.getRequestHeaderMap());
+        }
+        if (includeResponseHeaders) {
+            writeMap(buffer, RESPONSE_HEADERS, event.getResponseHeaderMap());
+        }
+        buffer.append((byte) '}');
+    }
+
+    private void writeAvailableField(JsonByteBuffer buffer, byte[] separatorAndName, String value) {
+        if (IAccessEvent.NA.equals(value)) {
+            return;
+        }
+        writeStringField(buffer, separatorAndName, value);
+    }
+
+    private void writeNumberField(JsonByteBuffer buffer, byte[] separatorAndName, long value) {
+        if (value == IAccessEvent.SENTINEL) {
+            return;
+        }
+        buffer.append(separatorAndName);
+        buffer.appendLong(value);
+    }
+
+    private void writeMap(JsonByteBuffer buffer, byte[] separatorAndName, Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        buffer.append(separatorAndName);
+        buffer.append((byte) '{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (!first) {
+                buffer.append((byte) ',');
+            }
+            first = false;
+            buffer.appendString(entry.getKey());
+            buffer.append((byte) ':');
+            buffer.appendString(entry.getValue());
+        }
+        buffer.append((byte) '}');
+    }
+
+    public boolean isIncludeRequestHeaders() {
+        return includeRequestHeaders;
+    }
+
+    public void setIncludeRequestHeaders(boolean includeRequestHeaders) {
+        this.includeRequestHeaders = includeRequestHeaders;
+    }
+
+    public boolean isIncludeResponseHeaders() {
+        return includeResponseHeaders;
+    }
+
+    public void setIncludeResponseHeaders(boolean includeResponseHeaders) {
+        this.includeResponseHeaders = includeResponseHeaders;
+    }
+}
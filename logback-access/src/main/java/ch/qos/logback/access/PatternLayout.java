@@ -43,6 +43,7 @@ import ch.qos.logback.access.pattern.ServerNameConverter;
 import ch.qos.logback.access.pattern.SessionIDConverter;
 import ch.qos.logback.access.pattern.StatusCodeConverter;
 import ch.qos.logback.access.pattern.ThreadNameConverter;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.pattern.PatternLayoutBase;
 import ch.qos.logback.core.pattern.color.*;
@@ -208,6 +209,9 @@ public class PatternLayout extends PatternLayoutBase<IAccessEvent> {
             setPattern(COMBINED_PATTERN);
         }
         super.start();
+        if (isStarted()) {
+            CapturedDataRegistry.require(getContext(), this, CapturedDataRegistry.collect(getHead()));
+        }
     }
 
     @Override
@@ -16,6 +16,8 @@ package ch.qos.logback.access.boolex;
 import java.util.ArrayList;
 import java.util.List;
 
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.boolex.JaninoEventEvaluatorBase;
@@ -42,6 +44,13 @@ public class JaninoEventEvaluator extends JaninoEventEvaluatorBase<IAccessEvent>
         return expression;
     }
 
+    @Override
+    public void start() {
+        // an expression may reach any part of the event
+        CapturedDataRegistry.require(getContext(), this, CapturedData.ALL);
+        super.start();
+    }
+
     @Override
     protected String[] getParameterNames() {
         List<String> fullNameList = new ArrayList<String>();
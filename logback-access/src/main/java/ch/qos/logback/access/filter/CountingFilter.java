@@ -13,6 +13,7 @@
  */
 package ch.qos.logback.access.filter;
 
+import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.filter.Filter;
 import ch.qos.logback.core.spi.FilterReply;
 
@@ -20,13 +21,31 @@ import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import javax.management.StandardMBean;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Counts requests and registers the resulting statistics with the platform
+ * MBean server, under the configured domain.
+ * 
+ * <p>Besides the periodic totals of {@link StatisticalView}, request rates and
+ * latency percentiles over a sliding window of <code>windowSeconds</code>
+ * are published as a {@link RequestStatisticsView}, overall, per status code
+ * and per URI pattern. URI patterns are added with
+ * <code>&lt;uriPattern&gt;/api/*&lt;/uriPattern&gt;</code> elements.
+ */
 public class CountingFilter extends Filter {
 
-    long total = 0;
+    static final int DEFAULT_WINDOW_SECONDS = 60;
+
+    final AtomicLong total = new AtomicLong();
     final StatisticalViewImpl accessStatsImpl;
+    RequestStatistics requestStatistics;
 
     String domain = "ch.qos.logback.access";
+    int windowSeconds = DEFAULT_WINDOW_SECONDS;
+    final List<String> uriPatterns = new ArrayList<String>();
 
     public CountingFilter() {
         accessStatsImpl = new StatisticalViewImpl(this);
@@ -34,38 +53,69 @@ public class CountingFilter extends Filter {
 
     @Override
     public FilterReply decide(Object event) {
-        total++;
-        accessStatsImpl.update();
+        total.incrementAndGet();
+        long now = System.currentTimeMillis();
+        accessStatsImpl.update(now);
+        RequestStatistics rs = requestStatistics;
+        if (rs != null && event instanceof IAccessEvent) {
+            IAccessEvent ae = (IAccessEvent) event;
+            rs.record(ae.getRequestURI(), ae.getStatusCode(), ae.getElapsedTime(), now);
+        }
         return FilterReply.NEUTRAL;
     }
 
     public long getTotal() {
-        return total;
+        return total.get();
+    }
+
+    /**
+     * @since 1.2.14
+     */
+    public RequestStatisticsView getRequestStatistics() {
+        return requestStatistics;
     }
 
     @Override
     public void start() {
+        requestStatistics = new RequestStatistics(windowSeconds * 1000L, uriPatterns);
         MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
         try {
-            ObjectName on = new ObjectName(domain + ":Name=" + getName());
-            StandardMBean mbean = new StandardMBean(accessStatsImpl, StatisticalView.class);
-            if (mbs.isRegistered(on)) {
-                mbs.unregisterMBean(on);
-            }
-            mbs.registerMBean(mbean, on);
+            register(mbs, statisticalViewName(), new StandardMBean(accessStatsImpl, StatisticalView.class));
+            register(mbs, requestStatisticsName(), new StandardMBean(requestStatistics, RequestStatisticsView.class));
             super.start();
         } catch (Exception e) {
             addError("Failed to create mbean", e);
         }
     }
 
+    private void register(MBeanServer mbs, ObjectName on, StandardMBean mbean) throws Exception {
+        if (mbs.isRegistered(on)) {
+            mbs.unregisterMBean(on);
+        }
+        mbs.registerMBean(mbean, on);
+    }
+
+    private void unregister(MBeanServer mbs, ObjectName on) throws Exception {
+        if (mbs.isRegistered(on)) {
+            mbs.unregisterMBean(on);
+        }
+    }
+
+    ObjectName statisticalViewName() throws Exception {
+        return new ObjectName(domain + ":Name=" + getName());
+    }
+
+    ObjectName requestStatisticsName() throws Exception {
+        return new ObjectName(domain + ":Name=" + getName() + ",Type=RequestStatistics");
+    }
+
     @Override
     public void stop() {
         super.stop();
         try {
             MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
-            ObjectName on = new ObjectName("totp:Filter=1");
-            mbs.unregisterMBean(on);
+            unregister(mbs, statisticalViewName());
+            unregister(mbs, requestStatisticsName());
         } catch (Exception e) {
             addError("Failed to unregister mbean", e);
         }
@@ -79,4 +129,28 @@ public class CountingFilter extends Filter {
         this.domain = domain;
     }
 
+    /**
+     * @since 1.2.14
+     */
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * The length of the sliding window over which request rates and latency
+     * percentiles are computed, 60 seconds by default.
+     * 
+     * @since 1.2.14
+     */
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * @since 1.2.14
+     */
+    public void addUriPattern(String uriPattern) {
+        uriPatterns.add(uriPattern.trim());
+    }
+
 }
@@ -15,11 +15,12 @@ package ch.qos.logback.access.filter;
 
 abstract public class PeriodicStats {
 
-    private long nextPeriodBegins = 0;
+    // read on every request, the rollover itself is rare and synchronized
+    private volatile long nextPeriodBegins = 0;
     private long lastTotal = 0;
-    private long lastCount = 0;
+    private volatile long lastCount = 0;
 
-    private double average;
+    private volatile double average;
     private int n;
 
     PeriodicStats() {
@@ -31,6 +32,12 @@ abstract public class PeriodicStats {
     }
 
     void update(long now, long total) {
+        if (now > nextPeriodBegins) {
+            rollover(now, total);
+        }
+    }
+
+    private synchronized void rollover(long now, long total) {
         if (now > nextPeriodBegins) {
             lastCount = total - lastTotal;
             lastTotal = total;
@@ -47,7 +54,7 @@ abstract public class PeriodicStats {
         return lastCount;
     }
 
-    void reset(long now) {
+    synchronized void reset(long now) {
         nextPeriodBegins = computeStartOfNextPeriod(now);
         lastTotal = 0;
         lastCount = 0;
@@ -0,0 +1,165 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tracks requests per URI pattern and per status code in
+ * {@link SlidingWindowStats}. URI patterns either match a URI exactly or, when
+ * ending with '*', match URIs starting with what precedes the '*'. A request
+ * is counted under the first matching pattern only.
+ * 
+ * @since 1.2.14
+ */
+class RequestStatistics implements RequestStatisticsView {
+
+    static final int SLOT_COUNT = 12;
+    static final int STATUS_CODE_LIMIT = 600;
+
+    final long windowMillis;
+    final String[] uriPatterns;
+    final SlidingWindowStats overall;
+    final SlidingWindowStats[] byUriPattern;
+    // indexed by status code, created on first use
+    final AtomicReferenceArray<SlidingWindowStats> byStatusCode = new AtomicReferenceArray<SlidingWindowStats>(STATUS_CODE_LIMIT);
+
+    RequestStatistics(long windowMillis, List<String> uriPatterns) {
+        this.windowMillis = windowMillis;
+        this.uriPatterns = uriPatterns.toArray(new String[uriPatterns.size()]);
+        this.overall = newStats();
+        this.byUriPattern = new SlidingWindowStats[this.uriPatterns.length];
+        for (int i = 0; i < byUriPattern.length; i++) {
+            byUriPattern[i] = newStats();
+        }
+    }
+
+    private SlidingWindowStats newStats() {
+        return new SlidingWindowStats(windowMillis, SLOT_COUNT);
+    }
+
+    void record(String uri, int statusCode, long elapsedMillis, long now) {
+        overall.record(now, elapsedMillis);
+        int i = indexOfUriPattern(uri);
+        if (i != -1) {
+            byUriPattern[i].record(now, elapsedMillis);
+        }
+        SlidingWindowStats statusStats = statusStats(statusCode, true);
+        if (statusStats != null) {
+            statusStats.record(now, elapsedMillis);
+        }
+    }
+
+    int indexOfUriPattern(String uri) {
+        if (uri == null) {
+            return -1;
+        }
+        for (int i = 0; i < uriPatterns.length; i++) {
+            if (matches(uriPatterns[i], uri)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean matches(String pattern, String uri) {
+        int last = pattern.length() - 1;
+        if (last >= 0 && pattern.charAt(last) == '*') {
+            return uri.regionMatches(0, pattern, 0, last);
+        }
+        return pattern.equals(uri);
+    }
+
+    private SlidingWindowStats statusStats(int statusCode, boolean create) {
+        if (statusCode < 0 || statusCode >= STATUS_CODE_LIMIT) {
+            return null;
+        }
+        SlidingWindowStats stats = byStatusCode.get(statusCode);
+        if (stats == null && create) {
+            byStatusCode.compareAndSet(statusCode, null, newStats());
+            stats = byStatusCode.get(statusCode);
+        }
+        return stats;
+    }
+
+    private SlidingWindowStats uriStats(String uriPattern) {
+        for (int i = 0; i < uriPatterns.length; i++) {
+            if (uriPatterns[i].equals(uriPattern)) {
+                return byUriPattern[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long getWindowSeconds() {
+        return windowMillis / 1000;
+    }
+
+    @Override
+    public double getRequestRate() {
+        return overall.getRate(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getLatencyPercentile(double percentile) {
+        return overall.getLatencyPercentile(System.currentTimeMillis(), percentile);
+    }
+
+    @Override
+    public String[] getUriPatterns() {
+        return uriPatterns.clone();
+    }
+
+    @Override
+    public double getUriRequestRate(String uriPattern) {
+        SlidingWindowStats stats = uriStats(uriPattern);
+        return stats == null ? 0 : stats.getRate(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getUriLatencyPercentile(String uriPattern, double percentile) {
+        SlidingWindowStats stats = uriStats(uriPattern);
+        return stats == null ? 0 : stats.getLatencyPercentile(System.currentTimeMillis(), percentile);
+    }
+
+    @Override
+    public int[] getStatusCodes() {
+        List<Integer> codes = new ArrayList<Integer>();
+        for (int i = 0; i < STATUS_CODE_LIMIT; i++) {
+            if (byStatusCode.get(i) != null) {
+                codes.add(i);
+            }
+        }
+        int[] result = new int[codes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = codes.get(i);
+        }
+        return result;
+    }
+
+    @Override
+    public double getStatusRequestRate(int statusCode) {
+        SlidingWindowStats stats = statusStats(statusCode, false);
+        return stats == null ? 0 : stats.getRate(System.currentTimeMillis());
+    }
+
+    @Override
+    public long getStatusLatencyPercentile(int statusCode, double percentile) {
+        SlidingWindowStats stats = statusStats(statusCode, false);
+        return stats == null ? 0 : stats.getLatencyPercentile(System.currentTimeMillis(), percentile);
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.filter;
+
+/**
+ * Request rates, in requests per second, and latency percentiles, in
+ * milliseconds, over the sliding window of a {@link CountingFilter}, overall,
+ * per URI pattern and per status code.
+ * 
+ * @since 1.2.14
+ */
+public interface RequestStatisticsView {
+
+    long getWindowSeconds();
+
+    double getRequestRate();
+
+    long getLatencyPercentile(double percentile);
+
+    String[] getUriPatterns();
+
+    double getUriRequestRate(String uriPattern);
+
+    long getUriLatencyPercentile(String uriPattern, double percentile);
+
+    int[] getStatusCodes();
+
+    double getStatusRequestRate(int statusCode);
+
+    long getStatusLatencyPercentile(int statusCode, double percentile);
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.core.metrics.LatencyHistogram;
+
+/**
+ * Request count and latencies over a sliding window, kept in a fixed ring of
+ * slots. Each slot covers <code>slotMillis</code> and is recycled, without
+ * locking, by the first request falling into it once its period is over. A
+ * few requests recorded concurrently with the recycling may be lost.
+ * 
+ * @since 1.2.14
+ */
+class SlidingWindowStats {
+
+    static class Slot {
+        final AtomicLong period = new AtomicLong(-1);
+        final AtomicLong count = new AtomicLong();
+        final LatencyHistogram latencies = new LatencyHistogram();
+    }
+
+    static final long NANOS_PER_MILLI = 1000L * 1000L;
+
+    final long slotMillis;
+    final Slot[] slots;
+
+    SlidingWindowStats(long windowMillis, int slotCount) {
+        this.slotMillis = Math.max(1, windowMillis / slotCount);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * @param elapsedMillis the time taken by the request, negative if unknown
+     */
+    void record(long now, long elapsedMillis) {
+        Slot slot = currentSlot(now);
+        slot.count.incrementAndGet();
+        if (elapsedMillis >= 0) {
+            slot.latencies.record(elapsedMillis * NANOS_PER_MILLI);
+        }
+    }
+
+    private Slot currentSlot(long now) {
+        long period = now / slotMillis;
+        Slot slot = slots[(int) (period % slots.length)];
+        long slotPeriod = slot.period.get();
+        if (slotPeriod < period && slot.period.compareAndSet(slotPeriod, period)) {
+            slot.count.set(0);
+            slot.latencies.reset();
+        }
+        return slot;
+    }
+
+    private boolean isInWindow(Slot slot, long now) {
+        long period = now / slotMillis;
+        long slotPeriod = slot.period.get();
+        return slotPeriod <= period && slotPeriod > period - slots.length;
+    }
+
+    long getCount(long now) {
+        long count = 0;
+        for (Slot slot : slots) {
+            if (isInWindow(slot, now)) {
+                count += slot.count.get();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return requests per second over the window
+     */
+    double getRate(long now) {
+        return getCount(now) * 1000.0 / (slotMillis * slots.length);
+    }
+
+    /**
+     * @return an upper bound of the given latency percentile over the window,
+     *         in milliseconds
+     */
+    long getLatencyPercentile(long now, double percentile) {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (Slot slot : slots) {
+            if (isInWindow(slot, now)) {
+                merged.merge(slot.latencies);
+            }
+        }
+        return merged.getPercentileNanos(percentile) / NANOS_PER_MILLI;
+    }
+}
@@ -18,6 +18,7 @@ import static ch.qos.logback.core.CoreConstants.LINE_SEPARATOR;
 import java.util.Map;
 
 import ch.qos.logback.access.PatternLayout;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.html.HTMLLayoutBase;
 import ch.qos.logback.core.pattern.Converter;
@@ -53,6 +54,14 @@ public class HTMLLayout extends HTMLLayoutBase<IAccessEvent> {
         cssBuilder = new DefaultCssBuilder();
     }
 
+    @Override
+    public void start() {
+        super.start();
+        if (isStarted()) {
+            CapturedDataRegistry.require(getContext(), this, CapturedDataRegistry.collect(head));
+        }
+    }
+
     @Override
     protected Map<String, String> getDefaultConverterMap() {
         return PatternLayout.defaultConverterMap;
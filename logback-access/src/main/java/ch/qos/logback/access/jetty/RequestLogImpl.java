@@ -21,6 +21,8 @@ import java.util.List;
 
 import ch.qos.logback.access.joran.JoranConfigurator;
 import ch.qos.logback.access.spi.AccessEvent;
+import ch.qos.logback.access.spi.AsyncAccessDispatcher;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.ContextBase;
@@ -224,6 +226,11 @@ public class RequestLogImpl extends ContextBase implements RequestLog, LifeCycle
     // Jetty 9.4.x and newer is considered modern.
     boolean modernJettyRequestLog;
     boolean quiet = false;
+    boolean async = false;
+    int asyncQueueSize = AsyncAccessDispatcher.DEFAULT_QUEUE_SIZE;
+    AsyncAccessDispatcher.DiscardPolicy asyncDiscardPolicy = AsyncAccessDispatcher.DiscardPolicy.DISCARD_NEWEST;
+    int asyncMaxFlushTime = AsyncAccessDispatcher.DEFAULT_MAX_FLUSH_TIME;
+    volatile AsyncAccessDispatcher asyncDispatcher;
 
     public RequestLogImpl() {
         putObject(CoreConstants.EVALUATOR_MAP, new HashMap<String, EventEvaluator<?>>());
@@ -251,7 +258,13 @@ public class RequestLogImpl extends ContextBase implements RequestLog, LifeCycle
     @Override
     public void log(Request jettyRequest, Response jettyResponse) {
         JettyServerAdapter adapter = newJettyServerAdapter(jettyRequest, jettyResponse);
-        IAccessEvent accessEvent = new AccessEvent(jettyRequest, jettyResponse, adapter);
+        AccessEvent accessEvent = new AccessEvent(jettyRequest, jettyResponse, adapter);
+        accessEvent.setCapturedData(CapturedDataRegistry.getCapturedData(this));
+        AsyncAccessDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.dispatch(accessEvent);
+            return;
+        }
         if (getFilterChainDecision(accessEvent) == FilterReply.DENY) {
             return;
         }
@@ -279,6 +292,7 @@ public class RequestLogImpl extends ContextBase implements RequestLog, LifeCycle
         state = State.STARTING;
         try {
             configure();
+            startAsyncDispatcher();
             if (!isQuiet()) {
                 StatusPrinter.print(getStatusManager());
             }
@@ -352,6 +366,7 @@ public class RequestLogImpl extends ContextBase implements RequestLog, LifeCycle
     @Override
     public void stop() {
         state = State.STOPPING;
+        stopAsyncDispatcher();
         aai.detachAndStopAllAppenders();
         state = State.STOPPED;
     }
@@ -401,8 +416,96 @@ public class RequestLogImpl extends ContextBase implements RequestLog, LifeCycle
         this.quiet = quiet;
     }
 
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * When true, access events are handed over to a background thread which
+     * runs the filters and appenders, see {@link AsyncAccessDispatcher}.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    /**
+     * @since 1.2.14
+     */
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+
+    public String getAsyncDiscardPolicy() {
+        return asyncDiscardPolicy.name();
+    }
+
+    /**
+     * Either DISCARD_NEWEST, the default, or DISCARD_OLDEST.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsyncDiscardPolicy(String asyncDiscardPolicy) {
+        this.asyncDiscardPolicy = AsyncAccessDispatcher.DiscardPolicy.valueOf(asyncDiscardPolicy.trim().toUpperCase());
+    }
+
+    public int getAsyncMaxFlushTime() {
+        return asyncMaxFlushTime;
+    }
+
+    /**
+     * The maximum time, in milliseconds, to wait on stop for queued access
+     * events to be processed. Defaults to 1000.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsyncMaxFlushTime(int asyncMaxFlushTime) {
+        this.asyncMaxFlushTime = asyncMaxFlushTime;
+    }
+
+    /**
+     * @return the number of access events discarded by the asynchronous
+     *         handoff, 0 when not asynchronous
+     * @since 1.2.14
+     */
+    public long getAsyncDiscardedCount() {
+        AsyncAccessDispatcher dispatcher = asyncDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDiscardedCount();
+    }
+
+    private void startAsyncDispatcher() {
+        asyncDispatcher = null;
+        if (!async) {
+            return;
+        }
+        AsyncAccessDispatcher dispatcher = new AsyncAccessDispatcher(this, aai);
+        dispatcher.setContext(this);
+        dispatcher.setQueueSize(asyncQueueSize);
+        dispatcher.setDiscardPolicy(asyncDiscardPolicy);
+        dispatcher.setMaxFlushTime(asyncMaxFlushTime);
+        dispatcher.start();
+        if (dispatcher.isStarted()) {
+            asyncDispatcher = dispatcher;
+        }
+    }
+
+    private void stopAsyncDispatcher() {
+        // kept until the next start, events still dispatched to it are
+        // counted as discarded
+        AsyncAccessDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
     @Override
     public void addAppender(Appender<IAccessEvent> newAppender) {
+        CapturedDataRegistry.requireFor(this, newAppender);
         aai.addAppender(newAppender);
     }
 
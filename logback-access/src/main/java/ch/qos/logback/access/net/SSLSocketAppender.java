@@ -13,6 +13,8 @@
  */
 package ch.qos.logback.access.net;
 
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.net.AbstractSSLSocketAppender;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
@@ -32,6 +34,13 @@ public class SSLSocketAppender extends AbstractSSLSocketAppender<IAccessEvent> {
     public SSLSocketAppender() {
     }
 
+    @Override
+    public void start() {
+        // the whole event is serialized
+        CapturedDataRegistry.require(getContext(), this, CapturedData.ALL);
+        super.start();
+    }
+
     @Override
     protected void postProcessEvent(IAccessEvent event) {
         event.prepareForDeferredProcessing();
@@ -14,6 +14,8 @@
 // Contributors: Dan MacDonald <dan@redknee.com>
 package ch.qos.logback.access.net;
 
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.net.AbstractSocketAppender;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
@@ -37,6 +39,13 @@ public class SocketAppender extends AbstractSocketAppender<IAccessEvent> {
     public SocketAppender() {
     }
 
+    @Override
+    public void start() {
+        // the whole event is serialized
+        CapturedDataRegistry.require(getContext(), this, CapturedData.ALL);
+        super.start();
+    }
+
     @Override
     protected void postProcessEvent(IAccessEvent event) {
         event.prepareForDeferredProcessing();
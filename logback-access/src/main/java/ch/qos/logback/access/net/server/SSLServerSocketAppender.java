@@ -14,6 +14,8 @@
 package ch.qos.logback.access.net.server;
 
 import ch.qos.logback.access.net.AccessEventPreSerializationTransformer;
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.net.server.SSLServerSocketAppenderBase;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
@@ -29,6 +31,13 @@ public class SSLServerSocketAppender extends SSLServerSocketAppenderBase<IAccess
 
     private static final PreSerializationTransformer<IAccessEvent> pst = new AccessEventPreSerializationTransformer();
 
+    @Override
+    public void start() {
+        // the whole event is serialized
+        CapturedDataRegistry.require(getContext(), this, CapturedData.ALL);
+        super.start();
+    }
+
     @Override
     protected void postProcessEvent(IAccessEvent event) {
         event.prepareForDeferredProcessing();
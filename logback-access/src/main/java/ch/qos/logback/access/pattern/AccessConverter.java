@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.Context;
 import ch.qos.logback.core.pattern.DynamicConverter;
@@ -27,6 +30,18 @@ abstract public class AccessConverter extends DynamicConverter<IAccessEvent> imp
 
     ContextAwareBase cab = new ContextAwareBase();
 
+    /**
+     * Returns the data this converter reads from events which must be captured
+     * when events are prepared for deferred processing. Converters of unknown
+     * needs should not override this method, which conservatively returns all
+     * data.
+     *
+     * @since 1.2.14
+     */
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.ALL;
+    }
+
     @Override
     public void setContext(Context context) {
         cab.setContext(context);
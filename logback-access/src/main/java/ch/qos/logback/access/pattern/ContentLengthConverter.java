@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class ContentLengthConverter extends AccessConverter {
@@ -27,4 +30,18 @@ public class ContentLengthConverter extends AccessConverter {
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder buf, IAccessEvent accessEvent) {
+        long len = accessEvent.getContentLength();
+        if (len == IAccessEvent.SENTINEL) {
+            buf.append(IAccessEvent.NA);
+        } else {
+            buf.append(len);
+        }
+    }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
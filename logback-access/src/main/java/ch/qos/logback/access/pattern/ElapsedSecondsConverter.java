@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class ElapsedSecondsConverter extends AccessConverter {
@@ -21,4 +24,13 @@ public class ElapsedSecondsConverter extends AccessConverter {
     return Long.toString(accessEvent.getElapsedSeconds());
   }
 
+  @Override
+  public void appendTo(StringBuilder buf, IAccessEvent accessEvent) {
+    buf.append(accessEvent.getElapsedSeconds());
+  }
+
+  @Override
+  public Set<CapturedData> getRequiredData() {
+    return CapturedData.NONE;
+  }
 }
@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class ElapsedTimeConverter extends AccessConverter {
@@ -22,4 +25,13 @@ public class ElapsedTimeConverter extends AccessConverter {
         return Long.toString(accessEvent.getElapsedTime());
     }
 
+    @Override
+    public void appendTo(StringBuilder buf, IAccessEvent accessEvent) {
+        buf.append(accessEvent.getElapsedTime());
+    }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
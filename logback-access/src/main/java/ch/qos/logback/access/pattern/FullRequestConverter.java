@@ -13,8 +13,11 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.Set;
 
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.CoreConstants;
 
@@ -32,6 +35,12 @@ public class FullRequestConverter extends AccessConverter {
     @Override
     public String convert(IAccessEvent ae) {
         StringBuilder buf = new StringBuilder();
+        appendTo(buf, ae);
+        return buf.toString();
+    }
+
+    @Override
+    public void appendTo(StringBuilder buf, IAccessEvent ae) {
         buf.append(ae.getRequestURL());
         buf.append(CoreConstants.LINE_SEPARATOR);
 
@@ -45,7 +54,10 @@ public class FullRequestConverter extends AccessConverter {
         }
         buf.append(CoreConstants.LINE_SEPARATOR);
         buf.append(ae.getRequestContent());
-        return buf.toString();
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.REQUEST_HEADERS, CapturedData.REQUEST_CONTENT);
+    }
 }
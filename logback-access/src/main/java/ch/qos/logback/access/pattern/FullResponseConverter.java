@@ -13,8 +13,11 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.CoreConstants;
 
@@ -23,7 +26,12 @@ public class FullResponseConverter extends AccessConverter {
     @Override
     public String convert(IAccessEvent ae) {
         StringBuilder buf = new StringBuilder();
+        appendTo(buf, ae);
+        return buf.toString();
+    }
 
+    @Override
+    public void appendTo(StringBuilder buf, IAccessEvent ae) {
         buf.append("HTTP/1.1 ");
         int statusCode = ae.getStatusCode();
         buf.append(statusCode);
@@ -41,7 +49,6 @@ public class FullResponseConverter extends AccessConverter {
         buf.append(CoreConstants.LINE_SEPARATOR);
         buf.append(ae.getResponseContent());
         buf.append(CoreConstants.LINE_SEPARATOR);
-        return buf.toString();
     }
 
     static String getStatusCodeDescription(int sc) {
@@ -128,4 +135,9 @@ public class FullResponseConverter extends AccessConverter {
             return "NA";
         }
     }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.RESPONSE_HEADERS, CapturedData.RESPONSE_CONTENT);
+    }
 }
@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.CoreConstants;
 
@@ -22,4 +25,9 @@ public class LineSeparatorConverter extends AccessConverter {
     public String convert(IAccessEvent event) {
         return CoreConstants.LINE_SEPARATOR;
     }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class RemoteHostConverter extends AccessConverter {
@@ -22,4 +25,8 @@ public class RemoteHostConverter extends AccessConverter {
         return accessEvent.getRemoteHost();
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
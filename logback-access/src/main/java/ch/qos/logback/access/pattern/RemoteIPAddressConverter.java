@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class RemoteIPAddressConverter extends AccessConverter {
@@ -22,4 +25,8 @@ public class RemoteIPAddressConverter extends AccessConverter {
         return accessEvent.getRemoteAddr();
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
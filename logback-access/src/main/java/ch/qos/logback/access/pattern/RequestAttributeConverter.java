@@ -13,6 +13,10 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.util.OptionHelper;
 
@@ -39,4 +43,8 @@ public class RequestAttributeConverter extends AccessConverter {
         return accessEvent.getAttribute(key);
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.ATTRIBUTES);
+    }
 }
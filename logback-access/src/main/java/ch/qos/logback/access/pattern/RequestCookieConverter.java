@@ -13,6 +13,10 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.util.OptionHelper;
 
@@ -38,4 +42,9 @@ public class RequestCookieConverter extends AccessConverter {
 
         return accessEvent.getCookie(key);
     }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.COOKIES);
+    }
 }
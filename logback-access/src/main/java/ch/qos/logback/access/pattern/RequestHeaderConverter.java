@@ -13,6 +13,10 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.util.OptionHelper;
 
@@ -43,4 +47,8 @@ public class RequestHeaderConverter extends AccessConverter {
         }
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.REQUEST_HEADERS);
+    }
 }
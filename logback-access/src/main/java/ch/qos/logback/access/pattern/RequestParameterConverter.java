@@ -14,7 +14,10 @@
 package ch.qos.logback.access.pattern;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.util.OptionHelper;
 
@@ -48,4 +51,8 @@ public class RequestParameterConverter extends AccessConverter {
         }
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.REQUEST_PARAMETERS);
+    }
 }
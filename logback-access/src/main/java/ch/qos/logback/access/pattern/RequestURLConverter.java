@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 /**
@@ -26,4 +29,9 @@ public class RequestURLConverter extends AccessConverter {
     public String convert(IAccessEvent accessEvent) {
         return accessEvent.getRequestURL();
     }
+
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return CapturedData.NONE;
+    }
 }
@@ -13,6 +13,10 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 /**
@@ -31,4 +35,8 @@ public class ResponseContentConverter extends AccessConverter {
         return accessEvent.getResponseContent();
     }
 
+    @Override
+    public Set<CapturedData> getRequiredData() {
+        return EnumSet.of(CapturedData.RESPONSE_CONTENT);
+    }
 }
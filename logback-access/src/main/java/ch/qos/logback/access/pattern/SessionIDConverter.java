@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class SessionIDConverter extends AccessConverter {
@@ -20,4 +23,9 @@ public class SessionIDConverter extends AccessConverter {
   public String convert(IAccessEvent accessEvent) {
     return accessEvent.getSessionID();
   }
+
+  @Override
+  public Set<CapturedData> getRequiredData() {
+    return CapturedData.NONE;
+  }
 }
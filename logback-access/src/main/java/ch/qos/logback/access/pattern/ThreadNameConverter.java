@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.access.pattern;
 
+import java.util.Set;
+
+import ch.qos.logback.access.spi.CapturedData;
 import ch.qos.logback.access.spi.IAccessEvent;
 
 public class ThreadNameConverter extends AccessConverter {
@@ -21,4 +24,8 @@ public class ThreadNameConverter extends AccessConverter {
     return accessEvent.getThreadName();
   }
 
+  @Override
+  public Set<CapturedData> getRequiredData() {
+    return CapturedData.NONE;
+  }
 }
@@ -0,0 +1,76 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.servlet;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer which silently stops accepting bytes once its limit
+ * is reached. Instances are reused across requests, see {@link ContentCapture}.
+ * 
+ * @since 1.2.14
+ */
+class CaptureBuffer {
+
+    static final int INITIAL_CAPACITY = 1024;
+
+    byte[] buf;
+    int count;
+    int limit;
+    boolean truncated;
+
+    CaptureBuffer(int limit) {
+        this.buf = new byte[Math.min(INITIAL_CAPACITY, Math.max(limit, 1))];
+        this.limit = limit;
+    }
+
+    void reset(int limit) {
+        this.count = 0;
+        this.limit = limit;
+        this.truncated = false;
+    }
+
+    void write(int b) {
+        if (count >= limit) {
+            truncated = true;
+            return;
+        }
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    void write(byte[] b, int off, int len) {
+        int accepted = Math.min(len, limit - count);
+        if (accepted < len) {
+            truncated = true;
+        }
+        if (accepted <= 0) {
+            return;
+        }
+        ensureCapacity(count + accepted);
+        System.arraycopy(b, off, buf, count, accepted);
+        count += accepted;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            int newCapacity = Math.max(buf.length << 1, minCapacity);
+            buf = Arrays.copyOf(buf, Math.min(newCapacity, limit));
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+}
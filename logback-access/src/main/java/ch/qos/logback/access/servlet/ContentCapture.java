@@ -0,0 +1,110 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which request and response bodies {@link TeeFilter} captures and how
+ * much of them, and hands out the buffers used for capturing.
+ * 
+ * <p>Bodies are captured up to <code>maxCaptureSize</code> bytes. When a list
+ * of content types is set, only bodies whose content type starts with one of
+ * its entries are captured. Buffers are pooled and reused across requests, the
+ * captured bytes being copied out once the request is complete.
+ * 
+ * @since 1.2.14
+ */
+class ContentCapture {
+
+    static final int DEFAULT_MAX_CAPTURE_SIZE = 1024 * 1024;
+    static final int DEFAULT_POOL_SIZE = 16;
+    // larger buffers are left to the garbage collector
+    static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    int maxCaptureSize = DEFAULT_MAX_CAPTURE_SIZE;
+    List<String> contentTypes = new ArrayList<String>();
+
+    final BlockingQueue<CaptureBuffer> pool;
+    final AtomicLong truncatedCount = new AtomicLong();
+    final AtomicLong skippedCount = new AtomicLong();
+
+    ContentCapture() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    ContentCapture(int poolSize) {
+        this.pool = new ArrayBlockingQueue<CaptureBuffer>(poolSize);
+    }
+
+    /**
+     * Returns a buffer for capturing a body of the given content type, or null
+     * if such bodies are not captured.
+     */
+    CaptureBuffer acquire(String contentType) {
+        if (maxCaptureSize <= 0 || !isCapturedContentType(contentType)) {
+            skippedCount.incrementAndGet();
+            return null;
+        }
+        CaptureBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return new CaptureBuffer(maxCaptureSize);
+        }
+        buffer.reset(maxCaptureSize);
+        return buffer;
+    }
+
+    boolean isCapturedContentType(String contentType) {
+        if (contentTypes.isEmpty()) {
+            return true;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        for (String prefix : contentTypes) {
+            if (contentType.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies out the bytes captured so far.
+     */
+    byte[] contentsOf(CaptureBuffer buffer) {
+        if (buffer.truncated) {
+            truncatedCount.incrementAndGet();
+        }
+        return buffer.toByteArray();
+    }
+
+    void release(CaptureBuffer buffer) {
+        if (buffer.buf.length <= MAX_POOLED_CAPACITY) {
+            pool.offer(buffer);
+        }
+    }
+
+    long getTruncatedCount() {
+        return truncatedCount.get();
+    }
+
+    long getSkippedCount() {
+        return skippedCount.get();
+    }
+}
@@ -28,13 +28,27 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import ch.qos.logback.core.util.FileSize;
+
+import static ch.qos.logback.access.AccessConstants.LB_INPUT_BUFFER;
 import static ch.qos.logback.access.AccessConstants.LB_OUTPUT_BUFFER;
+import static ch.qos.logback.access.AccessConstants.TEE_FILTER_CONTENT_TYPES_PARAM;
 import static ch.qos.logback.access.AccessConstants.TEE_FILTER_INCLUDES_PARAM;
 import static ch.qos.logback.access.AccessConstants.TEE_FILTER_EXCLUDES_PARAM;
+import static ch.qos.logback.access.AccessConstants.TEE_FILTER_MAX_CAPTURE_SIZE_PARAM;
 
+/**
+ * Makes request and response bodies available to logback-access.
+ * 
+ * <p>Bodies are captured as they stream through, up to the size given by the
+ * <code>maxCaptureSize</code> init parameter, 1MB by default. If the
+ * <code>contentTypes</code> init parameter lists content type prefixes, bodies
+ * of other content types are not captured at all.
+ */
 public class TeeFilter implements Filter {
 
     boolean active;
+    final ContentCapture contentCapture = new ContentCapture();
 
     @Override
     public void destroy() {
@@ -45,10 +59,9 @@ public class TeeFilter implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain) throws IOException, ServletException {
 
         if (active && request instanceof HttpServletRequest) {
+            TeeHttpServletRequest teeRequest = new TeeHttpServletRequest((HttpServletRequest) request, contentCapture);
+            TeeHttpServletResponse teeResponse = new TeeHttpServletResponse((HttpServletResponse) response, contentCapture);
             try {
-                TeeHttpServletRequest teeRequest = new TeeHttpServletRequest((HttpServletRequest) request);
-                TeeHttpServletResponse teeResponse = new TeeHttpServletResponse((HttpServletResponse) response);
-
                 // System.out.println("BEFORE TeeFilter. filterChain.doFilter()");
                 filterChain.doFilter(teeRequest, teeResponse);
                 // System.out.println("AFTER TeeFilter. filterChain.doFilter()");
@@ -63,6 +76,15 @@ public class TeeFilter implements Filter {
             } catch (ServletException e) {
                 e.printStackTrace();
                 throw e;
+            } finally {
+                if (!teeRequest.isPostedParametersMode()) {
+                    teeRequest.setAttribute(LB_INPUT_BUFFER, teeRequest.getInputBuffer());
+                }
+                // an asynchronous request may still be read from or written to
+                // by another thread, its buffers are not reused
+                boolean reusable = !request.isAsyncStarted();
+                teeRequest.releaseCaptureBuffer(reusable);
+                teeResponse.releaseCaptureBuffer(reusable);
             }
         } else {
             filterChain.doFilter(request, response);
@@ -77,6 +99,13 @@ public class TeeFilter implements Filter {
         String localhostName = getLocalhostName();
 
         active = computeActivation(localhostName, includeListAsStr, excludeListAsStr);
+
+        String maxCaptureSizeAsStr = filterConfig.getInitParameter(TEE_FILTER_MAX_CAPTURE_SIZE_PARAM);
+        if (maxCaptureSizeAsStr != null) {
+            long maxCaptureSize = FileSize.valueOf(maxCaptureSizeAsStr.trim()).getSize();
+            contentCapture.maxCaptureSize = (int) Math.min(maxCaptureSize, Integer.MAX_VALUE - 8);
+        }
+        contentCapture.contentTypes = extractNameList(filterConfig.getInitParameter(TEE_FILTER_CONTENT_TYPES_PARAM));
         if (active)
             System.out.println("TeeFilter will be ACTIVE on this host [" + localhostName + "]");
         else
@@ -84,6 +113,23 @@ public class TeeFilter implements Filter {
 
     }
 
+    /**
+     * @return the number of bodies captured only partially because they
+     *         exceeded <code>maxCaptureSize</code>
+     * @since 1.2.14
+     */
+    public long getTruncatedCaptureCount() {
+        return contentCapture.getTruncatedCount();
+    }
+
+    /**
+     * @return the number of bodies not captured because of their content type
+     * @since 1.2.14
+     */
+    public long getSkippedCaptureCount() {
+        return contentCapture.getSkippedCount();
+    }
+
     static List<String> extractNameList(String nameListAsStr) {
         List<String> nameList = new ArrayList<String>();
         if (nameListAsStr == null) {
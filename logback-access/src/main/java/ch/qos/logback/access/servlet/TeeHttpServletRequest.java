@@ -21,45 +21,55 @@ import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
-import static ch.qos.logback.access.AccessConstants.LB_INPUT_BUFFER;
-
 /**
  * As the "tee" program on Unix, duplicate the request's input stream.
+ * 
+ * <p>The request body is captured while the application reads it. Bytes
+ * the application never reads are not captured.
  *
  * @author Ceki G&uuml;lc&uuml;
  */
 class TeeHttpServletRequest extends HttpServletRequestWrapper {
 
+    private final ContentCapture contentCapture;
     private TeeServletInputStream inStream;
     private BufferedReader reader;
     boolean postedParametersMode = false;
 
     TeeHttpServletRequest(HttpServletRequest request) {
+        this(request, new ContentCapture());
+    }
+
+    TeeHttpServletRequest(HttpServletRequest request, ContentCapture contentCapture) {
         super(request);
+        this.contentCapture = contentCapture;
         // we can't access the input stream and access the request parameters
         // at the same time
         if (Util.isFormUrlEncoded(request)) {
             postedParametersMode = true;
-        } else {
-            inStream = new TeeServletInputStream(request);
-            // add the contents of the input buffer as an attribute of the request
-            request.setAttribute(LB_INPUT_BUFFER, inStream.getInputBuffer());
-            reader = new BufferedReader(new InputStreamReader(inStream));
         }
-
     }
 
+    /**
+     * Returns the part of the request body captured so far, null if the body
+     * is not captured.
+     */
     byte[] getInputBuffer() {
         if (postedParametersMode) {
             throw new IllegalStateException("Call disallowed in postedParametersMode");
         }
-        return inStream.getInputBuffer();
+        if (inStream == null) {
+            // the application did not read the body
+            return new byte[0];
+        }
+        CaptureBuffer cb = inStream.captureBuffer;
+        return cb == null ? null : contentCapture.contentsOf(cb);
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
         if (!postedParametersMode) {
-            return inStream;
+            return teeInputStream();
         } else {
             return super.getInputStream();
         }
@@ -70,12 +80,35 @@ class TeeHttpServletRequest extends HttpServletRequestWrapper {
     @Override
     public BufferedReader getReader() throws IOException {
         if (!postedParametersMode) {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(teeInputStream()));
+            }
             return reader;
         } else {
             return super.getReader();
         }
     }
 
+    private TeeServletInputStream teeInputStream() throws IOException {
+        if (inStream == null) {
+            inStream = new TeeServletInputStream((HttpServletRequest) getRequest(), contentCapture.acquire(getContentType()));
+        }
+        return inStream;
+    }
+
+    /**
+     * Returns the capture buffer, if any, to the pool. Bytes read afterwards are
+     * no longer captured.
+     */
+    void releaseCaptureBuffer(boolean reusable) {
+        if (inStream != null) {
+            CaptureBuffer cb = inStream.detachCaptureBuffer();
+            if (cb != null && reusable) {
+                contentCapture.release(cb);
+            }
+        }
+    }
+
     public boolean isPostedParametersMode() {
         return postedParametersMode;
     }
@@ -23,17 +23,23 @@ import javax.servlet.http.HttpServletResponseWrapper;
 
 public class TeeHttpServletResponse extends HttpServletResponseWrapper {
 
+    final ContentCapture contentCapture;
     TeeServletOutputStream teeServletOutputStream;
     PrintWriter teeWriter;
 
     public TeeHttpServletResponse(HttpServletResponse httpServletResponse) {
+        this(httpServletResponse, new ContentCapture());
+    }
+
+    TeeHttpServletResponse(HttpServletResponse httpServletResponse, ContentCapture contentCapture) {
         super(httpServletResponse);
+        this.contentCapture = contentCapture;
     }
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
         if (teeServletOutputStream == null) {
-            teeServletOutputStream = new TeeServletOutputStream(this.getResponse());
+            teeServletOutputStream = new TeeServletOutputStream(this.getResponse(), contentCapture);
         }
         return teeServletOutputStream;
     }
@@ -63,6 +69,19 @@ public class TeeHttpServletResponse extends HttpServletResponseWrapper {
         }
     }
 
+    /**
+     * Returns the capture buffer, if any, to the pool. Bytes written afterwards
+     * are no longer captured.
+     */
+    void releaseCaptureBuffer(boolean reusable) {
+        if (teeServletOutputStream != null) {
+            CaptureBuffer cb = teeServletOutputStream.detachCaptureBuffer();
+            if (cb != null && reusable) {
+                contentCapture.release(cb);
+            }
+        }
+    }
+
     void finish() throws IOException {
         if (this.teeWriter != null) {
             this.teeWriter.close();
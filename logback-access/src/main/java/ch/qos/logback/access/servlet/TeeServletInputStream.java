@@ -13,78 +13,77 @@
  */
 package ch.qos.logback.access.servlet;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 
+/**
+ * Copies the bytes read from the request's input stream, up to the limits set
+ * by {@link ContentCapture}, as they stream through.
+ */
 class TeeServletInputStream extends ServletInputStream {
 
-    InputStream in;
-    byte[] inputBuffer;
+    final ServletInputStream in;
+    CaptureBuffer captureBuffer;
 
-    TeeServletInputStream(HttpServletRequest request) {
-        duplicateInputStream(request);
+    TeeServletInputStream(HttpServletRequest request, CaptureBuffer captureBuffer) throws IOException {
+        this.in = request.getInputStream();
+        this.captureBuffer = captureBuffer;
     }
 
-    private void duplicateInputStream(HttpServletRequest request) {
-        ServletInputStream originalSIS = null;
-        try {
-            originalSIS = request.getInputStream();
-            inputBuffer = consumeBufferAndReturnAsByteArray(originalSIS);
-            this.in = new ByteArrayInputStream(inputBuffer);
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            closeStream(originalSIS);
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        CaptureBuffer cb = captureBuffer;
+        if (b != -1 && cb != null) {
+            cb.write(b);
         }
+        return b;
     }
 
     @Override
-    public int read() throws IOException {
-        return in.read();
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        CaptureBuffer cb = captureBuffer;
+        if (n > 0 && cb != null) {
+            cb.write(b, off, n);
+        }
+        return n;
     }
 
-    byte[] consumeBufferAndReturnAsByteArray(InputStream is) throws IOException {
-        int len = 1024;
-        byte[] temp = new byte[len];
-        int c = -1;
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        while ((c = is.read(temp, 0, len)) != -1) {
-            baos.write(temp, 0, c);
-        }
-        return baos.toByteArray();
+    @Override
+    public int available() throws IOException {
+        return in.available();
     }
 
-    void closeStream(ServletInputStream is) {
-        if (is != null) {
-            try {
-                is.close();
-            } catch (IOException e) {
-            }
-        }
+    @Override
+    public void close() throws IOException {
+        in.close();
     }
 
-    byte[] getInputBuffer() {
-        return inputBuffer;
+    /**
+     * Stops capturing and returns the buffer used so far, if any.
+     */
+    CaptureBuffer detachCaptureBuffer() {
+        CaptureBuffer cb = captureBuffer;
+        captureBuffer = null;
+        return cb;
     }
 
     @Override
     public boolean isFinished() {
-        throw new RuntimeException("Not yet implemented");
+        return in.isFinished();
     }
 
     @Override
     public boolean isReady() {
-        throw new RuntimeException("Not yet implemented");
+        return in.isReady();
     }
 
     @Override
     public void setReadListener(ReadListener listener) {
-        throw new RuntimeException("Not yet implemented");
+        in.setReadListener(listener);
     }
 }
@@ -13,7 +13,6 @@
  */
 package ch.qos.logback.access.servlet;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import javax.servlet.ServletOutputStream;
@@ -23,23 +22,54 @@ import javax.servlet.WriteListener;
 public class TeeServletOutputStream extends ServletOutputStream {
 
     final ServletOutputStream underlyingStream;
-    final ByteArrayOutputStream baosCopy;
+    final ServletResponse response;
+    final ContentCapture contentCapture;
+    // the response's content type is usually known by the time the first byte
+    // is written, hence the capture buffer is acquired lazily
+    boolean captureDecided;
+    CaptureBuffer captureBuffer;
 
-    TeeServletOutputStream(ServletResponse httpServletResponse) throws IOException {
+    TeeServletOutputStream(ServletResponse httpServletResponse, ContentCapture contentCapture) throws IOException {
         // System.out.println("TeeServletOutputStream.constructor() called");
         this.underlyingStream = httpServletResponse.getOutputStream();
-        baosCopy = new ByteArrayOutputStream();
+        this.response = httpServletResponse;
+        this.contentCapture = contentCapture;
     }
 
     byte[] getOutputStreamAsByteArray() {
-        return baosCopy.toByteArray();
+        CaptureBuffer cb = captureBuffer;
+        if (cb == null) {
+            return new byte[0];
+        }
+        return contentCapture.contentsOf(cb);
+    }
+
+    /**
+     * Stops capturing and returns the buffer used so far, if any.
+     */
+    CaptureBuffer detachCaptureBuffer() {
+        CaptureBuffer cb = captureBuffer;
+        captureBuffer = null;
+        captureDecided = true;
+        return cb;
+    }
+
+    private CaptureBuffer captureBuffer() {
+        if (!captureDecided) {
+            captureDecided = true;
+            captureBuffer = contentCapture.acquire(response.getContentType());
+        }
+        return captureBuffer;
     }
- 
+
     @Override
     public void write(int val) throws IOException {
         if (underlyingStream != null) {
             underlyingStream.write(val);
-            baosCopy.write(val);
+            CaptureBuffer cb = captureBuffer();
+            if (cb != null) {
+                cb.write(val);
+            }
         }
     }
 
@@ -61,7 +91,10 @@ public class TeeServletOutputStream extends ServletOutputStream {
         // called");
         // System.out.println(new String(byteArray, offset, length));
         underlyingStream.write(byteArray, offset, length);
-        baosCopy.write(byteArray, offset, length);
+        CaptureBuffer cb = captureBuffer();
+        if (cb != null) {
+            cb.write(byteArray, offset, length);
+        }
     }
 
     @Override
@@ -81,7 +114,6 @@ public class TeeServletOutputStream extends ServletOutputStream {
         }
         // System.out.println("FLUSH TeeServletOutputStream.flush() called");
         underlyingStream.flush();
-        baosCopy.flush();
     }
 
     @Override
@@ -13,6 +13,8 @@
  */
 package ch.qos.logback.access.sift;
 
+import ch.qos.logback.access.spi.CapturedData;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.joran.spi.DefaultClass;
 import ch.qos.logback.core.sift.Discriminator;
@@ -32,6 +34,9 @@ public class SiftingAppender extends SiftingAppenderBase<IAccessEvent> {
 
     @Override
     public void start() {
+        // nested appenders are built lazily, after the first events may
+        // already have been prepared for deferred processing
+        CapturedDataRegistry.require(getContext(), this, CapturedData.ALL);
         super.start();
     }
 
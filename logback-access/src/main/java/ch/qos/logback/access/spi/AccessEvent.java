@@ -28,6 +28,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
 
@@ -72,6 +73,7 @@ public class AccessEvent implements Serializable, IAccessEvent {
     Map<String, String[]> requestParameterMap;
     Map<String, String> responseHeaderMap;
     Map<String, Object> attributeMap;
+    Map<String, String> cookieMap;
 
     long contentLength = SENTINEL;
     int statusCode = SENTINEL;
@@ -79,6 +81,9 @@ public class AccessEvent implements Serializable, IAccessEvent {
 
     transient ServerAdapter serverAdapter;
 
+    // the costly data copied by prepareForDeferredProcessing, null for all
+    transient Set<CapturedData> capturedData;
+
     /**
      * The number of milliseconds elapsed from 1/1/1970 until logging event was
      * created.
@@ -93,6 +98,54 @@ public class AccessEvent implements Serializable, IAccessEvent {
         this.elapsedTime = calculateElapsedTime();
     }
 
+    /**
+     * Copies the data of a prepared event. Data which was not captured is
+     * replaced by empty values.
+     */
+    private AccessEvent(AccessEvent other) {
+        this.httpRequest = null;
+        this.httpResponse = null;
+        this.timeStamp = other.timeStamp;
+        this.elapsedTime = other.elapsedTime;
+        this.capturedData = other.capturedData;
+        this.queryString = other.queryString;
+        this.requestURI = other.requestURI;
+        this.requestURL = other.requestURL;
+        this.remoteHost = other.remoteHost;
+        this.remoteUser = other.remoteUser;
+        this.remoteAddr = other.remoteAddr;
+        this.threadName = other.threadName;
+        this.protocol = other.protocol;
+        this.method = other.method;
+        this.serverName = other.serverName;
+        this.sessionID = other.sessionID;
+        this.contentLength = other.contentLength;
+        this.statusCode = other.statusCode;
+        this.localPort = other.localPort;
+        this.requestContent = other.requestContent != null ? other.requestContent : EMPTY;
+        this.responseContent = other.responseContent != null ? other.responseContent : EMPTY;
+        this.requestHeaderMap = other.requestHeaderMap != null ? other.requestHeaderMap : new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        this.requestParameterMap = other.requestParameterMap != null ? other.requestParameterMap : new HashMap<String, String[]>();
+        this.responseHeaderMap = other.responseHeaderMap != null ? other.responseHeaderMap : new HashMap<String, String>();
+        this.attributeMap = other.attributeMap != null ? other.attributeMap : new HashMap<String, Object>();
+        this.cookieMap = other.cookieMap != null ? other.cookieMap : new HashMap<String, String>();
+    }
+
+    /**
+     * Prepares this event for deferred processing and returns a copy of it
+     * which no longer references the request, the response or the server
+     * adapter, as these may be recycled by the container once the request is
+     * complete. Cookies are available from the copy when captured, and the
+     * session id when a session existed.
+     * 
+     * @since 1.2.14
+     */
+    public AccessEvent detachedCopy() {
+        prepareForDeferredProcessing();
+        getQueryString();
+        return new AccessEvent(this);
+    }
+
     /**
      * Returns the underlying HttpServletRequest. After serialization the returned
      * value will be null.
@@ -376,6 +429,37 @@ public class AccessEvent implements Serializable, IAccessEvent {
         return value != null ? value.toString() : NA;
     }
 
+    private void copyCookieMap() {
+        if (httpRequest == null || cookieMap != null) {
+            return;
+        }
+        cookieMap = new HashMap<String, String>();
+        Cookie[] cookieArray = httpRequest.getCookies();
+        if (cookieArray == null) {
+            return;
+        }
+        for (Cookie cookie : cookieArray) {
+            // the first cookie of a given name wins, as in getCookie()
+            if (!cookieMap.containsKey(cookie.getName())) {
+                cookieMap.put(cookie.getName(), cookie.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads the id of the current session, without creating a session as
+     * {@link #getSessionID()} would.
+     */
+    private void copySessionID() {
+        if (httpRequest == null || sessionID != null) {
+            return;
+        }
+        HttpSession session = httpRequest.getSession(false);
+        if (session != null) {
+            sessionID = session.getId();
+        }
+    }
+
     private void copyAttributeMap() {
 
         if (httpRequest == null) {
@@ -430,6 +514,11 @@ public class AccessEvent implements Serializable, IAccessEvent {
     @Override
     public String getCookie(String key) {
 
+        if (cookieMap != null) {
+            String value = cookieMap.get(key);
+            return value != null ? value : NA;
+        }
+
         if (httpRequest != null) {
             Cookie[] cookieArray = httpRequest.getCookies();
             if (cookieArray == null) {
@@ -593,10 +682,31 @@ public class AccessEvent implements Serializable, IAccessEvent {
         return new ArrayList<String>(responseHeaderMap.keySet());
     }
 
+    /**
+     * Restricts the data copied by {@link #prepareForDeferredProcessing()} to
+     * the given set, see {@link CapturedDataRegistry}. Scalar values are always
+     * copied. A null value, the default, captures everything.
+     *
+     * @since 1.2.14
+     */
+    public void setCapturedData(Set<CapturedData> capturedData) {
+        this.capturedData = capturedData;
+    }
+
+    private boolean isCaptured(CapturedData data) {
+        return capturedData == null || capturedData.contains(data);
+    }
+
     public void prepareForDeferredProcessing() {
-        getRequestHeaderMap();
-        getRequestParameterMap();
-        getResponseHeaderMap();
+        if (isCaptured(CapturedData.REQUEST_HEADERS)) {
+            getRequestHeaderMap();
+        }
+        if (isCaptured(CapturedData.REQUEST_PARAMETERS)) {
+            getRequestParameterMap();
+        }
+        if (isCaptured(CapturedData.RESPONSE_HEADERS)) {
+            getResponseHeaderMap();
+        }
         getLocalPort();
         getMethod();
         getProtocol();
@@ -611,9 +721,18 @@ public class AccessEvent implements Serializable, IAccessEvent {
 
         getStatusCode();
         getContentLength();
-        getRequestContent();
-        getResponseContent();
-
-        copyAttributeMap();
+        if (isCaptured(CapturedData.REQUEST_CONTENT)) {
+            getRequestContent();
+        }
+        if (isCaptured(CapturedData.RESPONSE_CONTENT)) {
+            getResponseContent();
+        }
+        if (isCaptured(CapturedData.ATTRIBUTES)) {
+            copyAttributeMap();
+        }
+        if (isCaptured(CapturedData.COOKIES)) {
+            copyCookieMap();
+        }
+        copySessionID();
     }
 }
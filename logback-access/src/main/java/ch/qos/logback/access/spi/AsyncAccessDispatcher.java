@@ -0,0 +1,214 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.spi;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.spi.FilterAttachable;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.spi.LifeCycle;
+
+/**
+ * Hands access events over from the container's request threads to a
+ * background thread which runs the filters and the appenders.
+ * 
+ * <p>Request threads never block: events are detached from the request, see
+ * {@link AccessEvent#detachedCopy()}, and added to a lock-free queue. When the
+ * queue holds <code>queueSize</code> events, either the new event or the
+ * oldest queued one is discarded depending on the {@link DiscardPolicy}.
+ * 
+ * @since 1.2.14
+ */
+public class AsyncAccessDispatcher extends ContextAwareBase implements LifeCycle {
+
+    public enum DiscardPolicy {
+        DISCARD_NEWEST, DISCARD_OLDEST
+    }
+
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+    public static final int DEFAULT_MAX_FLUSH_TIME = 1000;
+    // the worker is woken up by producers, this is merely a safety net
+    static final long PARK_NANOS = 100L * 1000L * 1000L;
+
+    final FilterAttachable<IAccessEvent> filters;
+    final AppenderAttachableImpl<IAccessEvent> aai;
+    final ConcurrentLinkedQueue<IAccessEvent> queue = new ConcurrentLinkedQueue<IAccessEvent>();
+    final AtomicInteger size = new AtomicInteger();
+    final AtomicLong discardedCount = new AtomicLong();
+
+    int queueSize = DEFAULT_QUEUE_SIZE;
+    DiscardPolicy discardPolicy = DiscardPolicy.DISCARD_NEWEST;
+    int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
+
+    volatile boolean started;
+    Thread worker;
+
+    public AsyncAccessDispatcher(FilterAttachable<IAccessEvent> filters, AppenderAttachableImpl<IAccessEvent> aai) {
+        this.filters = filters;
+        this.aai = aai;
+    }
+
+    /**
+     * Queues a detached copy of the event, or discards it if the queue is full
+     * or if this dispatcher is stopped.
+     * 
+     * @return false if the event was discarded
+     */
+    public boolean dispatch(AccessEvent event) {
+        if (!started) {
+            discardedCount.incrementAndGet();
+            return false;
+        }
+        IAccessEvent copy = event.detachedCopy();
+        if (size.incrementAndGet() > queueSize) {
+            if (discardPolicy == DiscardPolicy.DISCARD_NEWEST) {
+                size.decrementAndGet();
+                discardedCount.incrementAndGet();
+                return false;
+            }
+            if (queue.poll() != null) {
+                size.decrementAndGet();
+                discardedCount.incrementAndGet();
+            }
+        }
+        queue.offer(copy);
+        if (!started && queue.remove(copy)) {
+            // stopped meanwhile, the worker may be gone
+            size.decrementAndGet();
+            discardedCount.incrementAndGet();
+            return false;
+        }
+        LockSupport.unpark(worker);
+        return true;
+    }
+
+    void process(IAccessEvent event) {
+        try {
+            if (filters.getFilterChainDecision(event) == FilterReply.DENY) {
+                return;
+            }
+            aai.appendLoopOnAppenders(event);
+        } catch (RuntimeException e) {
+            addError("Failed to process access event", e);
+        }
+    }
+
+    class Worker extends Thread {
+
+        Worker() {
+            super("logback-access-async-dispatcher");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (started) {
+                IAccessEvent event = queue.poll();
+                if (event == null) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    continue;
+                }
+                size.decrementAndGet();
+                process(event);
+            }
+            // flush what remains once stopped
+            IAccessEvent event;
+            while ((event = queue.poll()) != null) {
+                size.decrementAndGet();
+                process(event);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (started) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            return;
+        }
+        worker = new Worker();
+        started = true;
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+            if (worker.isAlive()) {
+                addWarn("Max flush time of " + maxFlushTime + "ms exceeded, " + size.get() + " queued access events may be lost.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            addError("Interrupted while flushing queued access events", e);
+        }
+    }
+
+    @Override
+    public boolean isStarted() {
+        return started;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public DiscardPolicy getDiscardPolicy() {
+        return discardPolicy;
+    }
+
+    public void setDiscardPolicy(DiscardPolicy discardPolicy) {
+        this.discardPolicy = discardPolicy;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    /**
+     * @return the number of events currently queued
+     */
+    public int getNumberOfElementsInQueue() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of events discarded because the queue was full or
+     *         because this dispatcher was stopped
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+}
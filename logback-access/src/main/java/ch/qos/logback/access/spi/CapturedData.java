@@ -0,0 +1,36 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.spi;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The request and response data of an {@link AccessEvent} which are costly to
+ * copy and are therefore only captured by
+ * {@link AccessEvent#prepareForDeferredProcessing()} when a component of the
+ * context needs them. Scalar values such as the request URI or the status code
+ * are always captured.
+ *
+ * @see CapturedDataRegistry
+ * @since 1.2.14
+ */
+public enum CapturedData {
+
+    REQUEST_HEADERS, REQUEST_PARAMETERS, RESPONSE_HEADERS, ATTRIBUTES, REQUEST_CONTENT, RESPONSE_CONTENT, COOKIES;
+
+    public static final Set<CapturedData> NONE = Collections.unmodifiableSet(EnumSet.noneOf(CapturedData.class));
+    public static final Set<CapturedData> ALL = Collections.unmodifiableSet(EnumSet.allOf(CapturedData.class));
+}
@@ -0,0 +1,154 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.spi;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+import ch.qos.logback.access.pattern.AccessConverter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.pattern.CompositeConverter;
+import ch.qos.logback.core.pattern.Converter;
+import ch.qos.logback.core.pattern.LiteralConverter;
+import ch.qos.logback.core.spi.AppenderAttachable;
+
+/**
+ * Collects the {@link CapturedData} required by the components of a context.
+ * Layouts, encoders and appenders declare what they read from access events
+ * when they start, and the union decides what
+ * {@link AccessEvent#prepareForDeferredProcessing()} copies.
+ * 
+ * <p>As long as no component declared its needs, everything is captured.
+ * Appenders attached to a context through {@link #requireFor} whose needs were
+ * not declared, neither by the appender itself nor by its encoder or layout,
+ * require everything.
+ *
+ * @since 1.2.14
+ */
+public class CapturedDataRegistry {
+
+    static final String CAPTURED_DATA_REGISTRY_KEY = "ACCESS_CAPTURED_DATA_REGISTRY";
+
+    private final EnumSet<CapturedData> required = EnumSet.noneOf(CapturedData.class);
+    private final Set<Object> declaredComponents = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    private volatile Set<CapturedData> snapshot = CapturedData.NONE;
+
+    /**
+     * Declares that <code>component</code>, which belongs to <code>context</code>,
+     * reads the given data from access events after they were prepared for
+     * deferred processing.
+     */
+    public static void require(Context context, Object component, Set<CapturedData> data) {
+        if (context == null) {
+            return;
+        }
+        synchronized (context.getConfigurationLock()) {
+            CapturedDataRegistry registry = (CapturedDataRegistry) context.getObject(CAPTURED_DATA_REGISTRY_KEY);
+            if (registry == null) {
+                registry = new CapturedDataRegistry();
+                context.putObject(CAPTURED_DATA_REGISTRY_KEY, registry);
+            }
+            registry.declaredComponents.add(component);
+            registry.add(data);
+        }
+    }
+
+    /**
+     * Called when <code>appender</code> is attached to <code>context</code>.
+     * Unless the appender, its encoder or its layout declared their needs, or
+     * the appender only forwards to appenders which did, everything is
+     * required on its behalf.
+     */
+    public static void requireFor(Context context, Appender<IAccessEvent> appender) {
+        if (context == null) {
+            return;
+        }
+        synchronized (context.getConfigurationLock()) {
+            CapturedDataRegistry registry = (CapturedDataRegistry) context.getObject(CAPTURED_DATA_REGISTRY_KEY);
+            if (registry == null || !registry.isDeclared(appender)) {
+                require(context, appender, CapturedData.ALL);
+            }
+        }
+    }
+
+    /**
+     * Returns the data to capture for events of <code>context</code>, or null if
+     * no component declared its needs in which case everything is captured.
+     */
+    public static Set<CapturedData> getCapturedData(Context context) {
+        if (context == null) {
+            return null;
+        }
+        CapturedDataRegistry registry = (CapturedDataRegistry) context.getObject(CAPTURED_DATA_REGISTRY_KEY);
+        return registry == null ? null : registry.snapshot;
+    }
+
+    /**
+     * Computes the data needed by a chain of converters, descending into
+     * composite converters. Converters other than {@link AccessConverter} and
+     * {@link LiteralConverter} may read anything.
+     */
+    public static Set<CapturedData> collect(Converter<IAccessEvent> head) {
+        Set<CapturedData> result = EnumSet.noneOf(CapturedData.class);
+        for (Converter<IAccessEvent> c = head; c != null; c = c.getNext()) {
+            if (c instanceof AccessConverter) {
+                result.addAll(((AccessConverter) c).getRequiredData());
+            } else if (c instanceof CompositeConverter) {
+                result.addAll(collect(((CompositeConverter<IAccessEvent>) c).getChildConverter()));
+            } else if (!(c instanceof LiteralConverter)) {
+                return CapturedData.ALL;
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isDeclared(Appender<IAccessEvent> appender) {
+        if (declaredComponents.contains(appender)) {
+            return true;
+        }
+        if (appender instanceof AppenderAttachable) {
+            Iterator<Appender<IAccessEvent>> it = ((AppenderAttachable<IAccessEvent>) appender).iteratorForAppenders();
+            if (!it.hasNext()) {
+                return false;
+            }
+            while (it.hasNext()) {
+                if (!isDeclared(it.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (appender instanceof OutputStreamAppender) {
+            Encoder<IAccessEvent> encoder = ((OutputStreamAppender<IAccessEvent>) appender).getEncoder();
+            if (declaredComponents.contains(encoder)) {
+                return true;
+            }
+            return encoder instanceof LayoutWrappingEncoder && declaredComponents.contains(((LayoutWrappingEncoder<IAccessEvent>) encoder).getLayout());
+        }
+        return false;
+    }
+
+    private void add(Set<CapturedData> data) {
+        required.addAll(data);
+        snapshot = Collections.unmodifiableSet(EnumSet.copyOf(required));
+    }
+}
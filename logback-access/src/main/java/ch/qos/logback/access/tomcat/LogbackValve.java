@@ -39,6 +39,8 @@ import org.apache.catalina.valves.ValveBase;
 import ch.qos.logback.access.AccessConstants;
 import ch.qos.logback.access.joran.JoranConfigurator;
 import ch.qos.logback.access.spi.AccessEvent;
+import ch.qos.logback.access.spi.AsyncAccessDispatcher;
+import ch.qos.logback.access.spi.CapturedDataRegistry;
 import ch.qos.logback.access.spi.IAccessEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.BasicStatusManager;
@@ -55,12 +57,15 @@ import ch.qos.logback.core.spi.FilterAttachableImpl;
 import ch.qos.logback.core.spi.FilterReply;
 import ch.qos.logback.core.spi.LifeCycle;
 import ch.qos.logback.core.spi.LogbackLock;
+import ch.qos.logback.core.spi.NamedExecutorProvider;
 import ch.qos.logback.core.status.ErrorStatus;
 import ch.qos.logback.core.status.InfoStatus;
 import ch.qos.logback.core.status.OnConsoleStatusListener;
 import ch.qos.logback.core.status.Status;
 import ch.qos.logback.core.status.StatusManager;
 import ch.qos.logback.core.status.WarnStatus;
+import ch.qos.logback.core.util.ExecutorConfig;
+import ch.qos.logback.core.util.ExecutorRegistry;
 import ch.qos.logback.core.util.ExecutorServiceUtil;
 import ch.qos.logback.core.util.Loader;
 import ch.qos.logback.core.util.OptionHelper;
@@ -80,7 +85,7 @@ import ch.qos.logback.core.util.StatusListenerConfigHelper;
  * @author Ceki G&uuml;lc&uuml;
  * @author S&eacute;bastien Pennec
  */
-public class LogbackValve extends ValveBase implements Lifecycle, Context, AppenderAttachable<IAccessEvent>, FilterAttachable<IAccessEvent> {
+public class LogbackValve extends ValveBase implements Lifecycle, Context, NamedExecutorProvider, AppenderAttachable<IAccessEvent>, FilterAttachable<IAccessEvent> {
 
     public final static String DEFAULT_FILENAME = "logback-access.xml";
     public final static String DEFAULT_CONFIG_FILE = "conf" + File.separatorChar + DEFAULT_FILENAME;
@@ -106,9 +111,15 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
     String filenameOption;
     boolean quiet;
     boolean started;
+    boolean async = false;
+    int asyncQueueSize = AsyncAccessDispatcher.DEFAULT_QUEUE_SIZE;
+    AsyncAccessDispatcher.DiscardPolicy asyncDiscardPolicy = AsyncAccessDispatcher.DiscardPolicy.DISCARD_NEWEST;
+    int asyncMaxFlushTime = AsyncAccessDispatcher.DEFAULT_MAX_FLUSH_TIME;
+    volatile AsyncAccessDispatcher asyncDispatcher;
     boolean alreadySetLogbackStatusManager = false;
 
     private ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorRegistry executorRegistry = new ExecutorRegistry(this);
 
     public LogbackValve() {
         putObject(CoreConstants.EVALUATOR_MAP, new HashMap<String, EventEvaluator<?>>());
@@ -155,6 +166,7 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
             StatusListenerConfigHelper.addOnConsoleListenerInstance(this, new OnConsoleStatusListener());
         }
 
+        startAsyncDispatcher();
         started = true;
         setState(LifecycleState.STARTING);
     }
@@ -239,6 +251,93 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
         this.quiet = quiet;
     }
 
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * When true, access events are handed over to a background thread which
+     * runs the filters and appenders, see {@link AsyncAccessDispatcher}.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    /**
+     * @since 1.2.14
+     */
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+
+    public String getAsyncDiscardPolicy() {
+        return asyncDiscardPolicy.name();
+    }
+
+    /**
+     * Either DISCARD_NEWEST, the default, or DISCARD_OLDEST.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsyncDiscardPolicy(String asyncDiscardPolicy) {
+        this.asyncDiscardPolicy = AsyncAccessDispatcher.DiscardPolicy.valueOf(asyncDiscardPolicy.trim().toUpperCase());
+    }
+
+    public int getAsyncMaxFlushTime() {
+        return asyncMaxFlushTime;
+    }
+
+    /**
+     * The maximum time, in milliseconds, to wait on stop for queued access
+     * events to be processed. Defaults to 1000.
+     * 
+     * @since 1.2.14
+     */
+    public void setAsyncMaxFlushTime(int asyncMaxFlushTime) {
+        this.asyncMaxFlushTime = asyncMaxFlushTime;
+    }
+
+    /**
+     * @return the number of access events discarded by the asynchronous
+     *         handoff, 0 when not asynchronous
+     * @since 1.2.14
+     */
+    public long getAsyncDiscardedCount() {
+        AsyncAccessDispatcher dispatcher = asyncDispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDiscardedCount();
+    }
+
+    private void startAsyncDispatcher() {
+        asyncDispatcher = null;
+        if (!async) {
+            return;
+        }
+        AsyncAccessDispatcher dispatcher = new AsyncAccessDispatcher(this, aai);
+        dispatcher.setContext(this);
+        dispatcher.setQueueSize(asyncQueueSize);
+        dispatcher.setDiscardPolicy(asyncDiscardPolicy);
+        dispatcher.setMaxFlushTime(asyncMaxFlushTime);
+        dispatcher.start();
+        if (dispatcher.isStarted()) {
+            asyncDispatcher = dispatcher;
+        }
+    }
+
+    private void stopAsyncDispatcher() {
+        // kept until the next start, events still dispatched to it are
+        // counted as discarded
+        AsyncAccessDispatcher dispatcher = asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
     @Override
     public void invoke(Request request, Response response) throws IOException, ServletException {
         try {
@@ -256,10 +355,17 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
             getNext().invoke(request, response);
 
             TomcatServerAdapter adapter = new TomcatServerAdapter(request, response);
-            IAccessEvent accessEvent = new AccessEvent(request, response, adapter);
+            AccessEvent accessEvent = new AccessEvent(request, response, adapter);
+            accessEvent.setCapturedData(CapturedDataRegistry.getCapturedData(this));
 
             addThreadName(accessEvent);
 
+            AsyncAccessDispatcher dispatcher = asyncDispatcher;
+            if (dispatcher != null) {
+                dispatcher.dispatch(accessEvent);
+                return;
+            }
+
             if (getFilterChainDecision(accessEvent) == FilterReply.DENY) {
                 return;
             }
@@ -285,7 +391,9 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
     protected void stopInternal() throws LifecycleException {
         started = false;
         setState(LifecycleState.STOPPING);
+        stopAsyncDispatcher();
         lifeCycleManager.reset();
+        executorRegistry.stop();
         if (scheduledExecutorService != null) {
             ExecutorServiceUtil.shutdown(scheduledExecutorService);
             scheduledExecutorService = null;
@@ -294,6 +402,7 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
 
     @Override
     public void addAppender(Appender<IAccessEvent> newAppender) {
+        CapturedDataRegistry.requireFor(this, newAppender);
         aai.addAppender(newAppender);
     }
 
@@ -451,6 +560,17 @@ public class LogbackValve extends ValveBase implements Lifecycle, Context, Appen
         return scheduledExecutorService;
     }
 
+    @Override
+    public ScheduledExecutorService getScheduledExecutorService(String name) {
+        ScheduledExecutorService executor = executorRegistry.getExecutor(name);
+        return executor != null ? executor : getScheduledExecutorService();
+    }
+
+    @Override
+    public void addExecutorConfig(ExecutorConfig config) {
+        executorRegistry.addExecutorConfig(config);
+    }
+
     @Override
     public void addScheduledFuture(ScheduledFuture<?> scheduledFuture) {
         throw new UnsupportedOperationException();
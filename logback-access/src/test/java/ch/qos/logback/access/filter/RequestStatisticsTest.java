@@ -0,0 +1,80 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class RequestStatisticsTest {
+
+    long now = 1164128736000L;
+    RequestStatistics rs = new RequestStatistics(60 * 1000, Arrays.asList("/api/*", "/index.html"));
+
+    @Test
+    public void requestsAreCountedPerUriPatternAndStatus() {
+        rs.record("/api/users", 200, 10, now);
+        rs.record("/api/orders", 500, 10, now);
+        rs.record("/index.html", 200, 10, now);
+        rs.record("/other", 404, 10, now);
+
+        assertEquals(4, rs.overall.getCount(now));
+        assertEquals(2, rs.byUriPattern[0].getCount(now));
+        assertEquals(1, rs.byUriPattern[1].getCount(now));
+        assertEquals("[200, 404, 500]", Arrays.toString(rs.getStatusCodes()));
+        assertEquals(2, rs.byStatusCode.get(200).getCount(now));
+    }
+
+    @Test
+    public void oldRequestsLeaveTheWindow() {
+        rs.record("/api/users", 200, 10, now);
+        rs.record("/api/users", 200, 10, now + 30 * 1000);
+
+        assertEquals(2, rs.overall.getCount(now + 30 * 1000));
+        assertEquals(1, rs.overall.getCount(now + 61 * 1000));
+        assertEquals(0, rs.overall.getCount(now + 120 * 1000));
+
+        // the slot of the first request is recycled
+        rs.record("/api/users", 200, 10, now + 60 * 1000);
+        assertEquals(2, rs.overall.getCount(now + 60 * 1000));
+    }
+
+    @Test
+    public void latencyPercentiles() {
+        for (int i = 0; i < 99; i++) {
+            rs.record("/api/users", 200, 10, now);
+        }
+        rs.record("/api/users", 200, 5000, now + 5000);
+
+        long p50 = rs.overall.getLatencyPercentile(now + 5000, 50);
+        assertTrue("p50=" + p50, p50 >= 10 && p50 <= 20);
+        long p100 = rs.overall.getLatencyPercentile(now + 5000, 100);
+        assertEquals(5000, p100);
+        // unknown elapsed time is counted but not measured
+        rs.record("/api/users", 200, -1, now + 5000);
+        assertEquals(101, rs.overall.getCount(now + 5000));
+        assertEquals(5000, rs.overall.getLatencyPercentile(now + 5000, 100));
+    }
+
+    @Test
+    public void rateIsPerSecondOverTheWindow() {
+        for (int i = 0; i < 120; i++) {
+            rs.record("/index.html", 200, 1, now + i * 100);
+        }
+        assertEquals(2.0, rs.overall.getRate(now + 12 * 1000), 0.01);
+    }
+}
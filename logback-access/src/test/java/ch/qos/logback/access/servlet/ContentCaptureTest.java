@@ -0,0 +1,100 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.servlet.ServletOutputStream;
+
+import org.junit.Test;
+
+import ch.qos.logback.access.dummy.DummyResponse;
+import ch.qos.logback.access.dummy.DummyServletOutputStream;
+
+public class ContentCaptureTest {
+
+    ContentCapture contentCapture = new ContentCapture();
+
+    @Test
+    public void bodiesLargerThanTheLimitAreTruncated() {
+        contentCapture.maxCaptureSize = 4;
+        CaptureBuffer cb = contentCapture.acquire(null);
+        cb.write(new byte[] { 1, 2, 3 }, 0, 3);
+        cb.write(new byte[] { 4, 5, 6 }, 0, 3);
+        cb.write(7);
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, contentCapture.contentsOf(cb));
+        assertEquals(1, contentCapture.getTruncatedCount());
+    }
+
+    @Test
+    public void bufferGrowsUpToTheLimit() {
+        contentCapture.maxCaptureSize = 3000;
+        CaptureBuffer cb = contentCapture.acquire(null);
+        byte[] bytes = new byte[5000];
+        Arrays.fill(bytes, (byte) 'x');
+        cb.write(bytes, 0, bytes.length);
+
+        assertEquals(3000, cb.buf.length);
+        assertEquals(3000, contentCapture.contentsOf(cb).length);
+    }
+
+    @Test
+    public void onlyListedContentTypesAreCaptured() {
+        contentCapture.contentTypes = TeeFilter.extractNameList("text/, application/json");
+
+        assertNull(contentCapture.acquire("image/png"));
+        assertNull(contentCapture.acquire(null));
+        contentCapture.acquire("text/html; charset=UTF-8");
+        contentCapture.acquire("APPLICATION/JSON");
+        assertEquals(2, contentCapture.getSkippedCount());
+    }
+
+    @Test
+    public void releasedBuffersAreReused() {
+        CaptureBuffer cb = contentCapture.acquire(null);
+        cb.write('a');
+        contentCapture.release(cb);
+
+        CaptureBuffer reused = contentCapture.acquire(null);
+        assertSame(cb, reused);
+        assertEquals(0, contentCapture.contentsOf(reused).length);
+    }
+
+    @Test
+    public void responseIsCapturedAsItStreamsThrough() throws IOException {
+        contentCapture.maxCaptureSize = 5;
+        ByteArrayOutputStream underlying = new ByteArrayOutputStream();
+        DummyResponse dummyResponse = new DummyResponse();
+        dummyResponse.setOutputStream(new DummyServletOutputStream(underlying));
+
+        TeeHttpServletResponse teeResponse = new TeeHttpServletResponse(dummyResponse, contentCapture);
+        ServletOutputStream out = teeResponse.getOutputStream();
+        out.write("hello world".getBytes());
+        teeResponse.finish();
+
+        assertEquals("hello world", underlying.toString());
+        assertArrayEquals("hello".getBytes(), teeResponse.getOutputBuffer());
+        teeResponse.releaseCaptureBuffer(true);
+        out.write('!');
+        assertEquals(1, contentCapture.pool.size());
+    }
+}
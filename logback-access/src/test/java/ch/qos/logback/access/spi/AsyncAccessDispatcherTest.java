@@ -0,0 +1,132 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import ch.qos.logback.access.dummy.DummyRequest;
+import ch.qos.logback.access.dummy.DummyResponse;
+import ch.qos.logback.access.dummy.DummyServerAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import ch.qos.logback.core.spi.FilterAttachableImpl;
+
+public class AsyncAccessDispatcherTest {
+
+    AccessContext context = new AccessContext();
+    AppenderAttachableImpl<IAccessEvent> aai = new AppenderAttachableImpl<IAccessEvent>();
+    AsyncAccessDispatcher dispatcher = new AsyncAccessDispatcher(new FilterAttachableImpl<IAccessEvent>(), aai);
+    ListAppender<IAccessEvent> listAppender = new ListAppender<IAccessEvent>();
+
+    void start() {
+        listAppender.setContext(context);
+        listAppender.start();
+        aai.addAppender(listAppender);
+        dispatcher.setContext(context);
+        dispatcher.start();
+    }
+
+    AccessEvent newEvent() {
+        DummyRequest request = new DummyRequest();
+        request.setRequestUri("/index.html");
+        DummyResponse response = new DummyResponse();
+        return new AccessEvent(request, response, new DummyServerAdapter(request, response));
+    }
+
+    @Test
+    public void eventsAreDetachedAndAppendedInTheBackground() {
+        start();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(dispatcher.dispatch(newEvent()));
+        }
+        dispatcher.stop();
+
+        assertEquals(10, listAppender.list.size());
+        IAccessEvent event = listAppender.list.get(0);
+        assertNull(event.getRequest());
+        assertEquals("/index.html", event.getRequestURI());
+    }
+
+    @Test
+    public void cookiesSurviveTheDetachedCopy() {
+        start();
+        assertTrue(dispatcher.dispatch(newEvent()));
+        dispatcher.stop();
+
+        IAccessEvent event = listAppender.list.get(0);
+        assertEquals("testCookie", event.getCookie("testName"));
+        assertEquals(IAccessEvent.NA, event.getCookie("missing"));
+        assertEquals(IAccessEvent.NA, event.getSessionID());
+    }
+
+    @Test
+    public void newestEventsAreDiscardedWhenTheQueueIsFull() throws InterruptedException {
+        BlockingAppender blockingAppender = new BlockingAppender();
+        aai.addAppender(blockingAppender);
+        dispatcher.setQueueSize(2);
+        start();
+
+        dispatcher.dispatch(newEvent());
+        blockingAppender.entered.await();
+        // the worker is now busy with the first event
+        assertTrue(dispatcher.dispatch(newEvent()));
+        assertTrue(dispatcher.dispatch(newEvent()));
+        assertFalse(dispatcher.dispatch(newEvent()));
+        assertEquals(1, dispatcher.getDiscardedCount());
+
+        blockingAppender.release.countDown();
+        dispatcher.stop();
+        assertEquals(3, listAppender.list.size());
+    }
+
+    @Test
+    public void notStarted() {
+        assertFalse(dispatcher.dispatch(newEvent()));
+    }
+
+    @Test
+    public void eventsDispatchedAfterStopAreDiscarded() {
+        start();
+        dispatcher.stop();
+        assertFalse(dispatcher.dispatch(newEvent()));
+        assertEquals(1, dispatcher.getDiscardedCount());
+        assertEquals(0, listAppender.list.size());
+    }
+
+    static class BlockingAppender extends ListAppender<IAccessEvent> {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingAppender() {
+            start();
+        }
+
+        @Override
+        protected void append(IAccessEvent e) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
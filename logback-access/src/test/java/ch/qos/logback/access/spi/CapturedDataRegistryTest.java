@@ -0,0 +1,103 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.access.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import ch.qos.logback.access.PatternLayout;
+import ch.qos.logback.access.net.SocketAppender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.read.ListAppender;
+
+public class CapturedDataRegistryTest {
+
+    AccessContext context = new AccessContext();
+
+    PatternLayout startLayout(String pattern) {
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern(pattern);
+        layout.start();
+        return layout;
+    }
+
+    OutputStreamAppender<IAccessEvent> makeAppender(String pattern) {
+        LayoutWrappingEncoder<IAccessEvent> encoder = new LayoutWrappingEncoder<IAccessEvent>();
+        encoder.setLayout(startLayout(pattern));
+        OutputStreamAppender<IAccessEvent> appender = new OutputStreamAppender<IAccessEvent>();
+        appender.setEncoder(encoder);
+        return appender;
+    }
+
+    @Test
+    public void nothingRegisteredMeansEverything() {
+        assertNull(CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void scalarConvertersRequireNothing() {
+        startLayout("%h %l %u [%t] \"%r\" %s %b %D");
+        assertEquals(CapturedData.NONE, CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void layoutsAreCombined() {
+        startLayout("%h %i{Referer}");
+        startLayout("%s %replace(%reqAttribute{user}){'a', 'b'}");
+        assertEquals(EnumSet.of(CapturedData.REQUEST_HEADERS, CapturedData.ATTRIBUTES), CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void appendersWithDeclaredLayouts() {
+        CapturedDataRegistry.requireFor(context, makeAppender("%h %i{Referer}"));
+        assertEquals(EnumSet.of(CapturedData.REQUEST_HEADERS), CapturedDataRegistry.getCapturedData(context));
+
+        AsyncAppenderBase<IAccessEvent> async = new AsyncAppenderBase<IAccessEvent>();
+        async.setContext(context);
+        async.addAppender(makeAppender("%s"));
+        CapturedDataRegistry.requireFor(context, async);
+        assertEquals(EnumSet.of(CapturedData.REQUEST_HEADERS), CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void undeclaredAppendersRequireEverything() {
+        startLayout("%h");
+        CapturedDataRegistry.requireFor(context, new ListAppender<IAccessEvent>());
+        assertEquals(CapturedData.ALL, CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void socketAppendersRequireEverything() {
+        startLayout("%h");
+        SocketAppender appender = new SocketAppender();
+        appender.setContext(context);
+        // fails for lack of a remote host, after having declared its needs
+        appender.start();
+        assertEquals(CapturedData.ALL, CapturedDataRegistry.getCapturedData(context));
+    }
+
+    @Test
+    public void resetForgetsRegistrations() {
+        startLayout("%fullRequest");
+        context.reset();
+        assertNull(CapturedDataRegistry.getCapturedData(context));
+    }
+}
@@ -20,6 +20,6 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ AccessEventSerializationTest.class })
+@SuiteClasses({ AccessEventSerializationTest.class, CapturedDataRegistryTest.class, AsyncAccessDispatcherTest.class })
 public class PackageTest extends TestCase {
 }
\ No newline at end of file
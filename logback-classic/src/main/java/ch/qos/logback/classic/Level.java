@@ -84,12 +84,39 @@ public final class Level implements java.io.Serializable {
     public final int levelInt;
     public final String levelStr;
 
+    /**
+     * The bit of this level in the enabled levels mask of a {@link Logger}.
+     */
+    final transient int enabledBit;
+
     /**
      * Instantiate a Level object.
      */
     private Level(int levelInt, String levelStr) {
         this.levelInt = levelInt;
         this.levelStr = levelStr;
+        this.enabledBit = enabledBitOf(levelInt);
+    }
+
+    private static int enabledBitOf(int levelInt) {
+        switch (levelInt) {
+        case ALL_INT:
+            return 1;
+        case TRACE_INT:
+            return 1 << 1;
+        case DEBUG_INT:
+            return 1 << 2;
+        case INFO_INT:
+            return 1 << 3;
+        case WARN_INT:
+            return 1 << 4;
+        case ERROR_INT:
+            return 1 << 5;
+        case OFF_INT:
+            return 1 << 6;
+        default:
+            throw new IllegalStateException("Level " + levelInt + " is unknown.");
+        }
     }
 
     /**
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.spi.LocationAwareLogger;
 
+import ch.qos.logback.classic.spi.CompiledTurboFilterChain;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.classic.util.LoggerNameUtil;
@@ -49,11 +50,33 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     private String name;
 
     // The assigned levelInt of this logger. Can be null.
-    transient private Level level;
+    transient private volatile Level level;
+
+    // Tag of an effective level cache which was never filled. Level generations
+    // are even whenever no level change is in progress, so an odd tag never
+    // matches.
+    private static final long UNKNOWN_EFFECTIVE_LEVEL = -1L << 32;
 
     // The effective levelInt is the assigned levelInt and if null, a levelInt is
-    // inherited form a parent.
-    transient private int effectiveLevelInt;
+    // inherited form a parent. It is computed lazily and cached together with the
+    // level generation of the context it was computed in: the upper 32 bits hold
+    // the generation, the lower 32 bits the levelInt. Packing both into a single
+    // long keeps the pair consistent without locking.
+    transient private volatile long effectiveLevelCache = UNKNOWN_EFFECTIVE_LEVEL;
+
+    // Set in the enabled levels mask when the context has turbo filters, in
+    // which case the mask alone cannot answer whether a level is enabled.
+    private static final int TURBO_FILTERS_PRESENT = 1 << 7;
+
+    private static final Level[] MASKED_LEVELS = { Level.ALL, Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR, Level.OFF };
+
+    // The levels enabled for this logger as a bit mask, see Level.enabledBit,
+    // plus the TURBO_FILTERS_PRESENT flag. Cached like the effective level: the
+    // upper 32 bits hold the level generation of the context, which also moves
+    // whenever the turbo filters change. Without turbo filters, deciding whether
+    // a statement is enabled costs a read of this field, a read of the
+    // generation and a bit test.
+    transient private volatile long enabledLevelsCache = UNKNOWN_EFFECTIVE_LEVEL;
 
     /**
      * The parent of this category. All categories have at least one ancestor
@@ -99,6 +122,12 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
 
     final transient LoggerContext loggerContext;
 
+    /**
+     * The turbo filter chain of the context compiled for this logger, see
+     * {@link CompiledTurboFilterChain}. Set lazily by the logger context.
+     */
+    transient volatile CompiledTurboFilterChain compiledTurboFilterChain;
+
     Logger(String name, Logger parent, LoggerContext loggerContext) {
         this.name = name;
         this.parent = parent;
@@ -106,11 +135,94 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public Level getEffectiveLevel() {
-        return Level.toLevel(effectiveLevelInt);
+        return Level.toLevel(getEffectiveLevelInt());
     }
 
+    /**
+     * Returns the effective levelInt of this logger. The cached value is valid
+     * as long as the level generation of the context did not move since it was
+     * computed, so that a level change costs O(1) instead of a walk over all the
+     * descendants of the changed logger.
+     */
     int getEffectiveLevelInt() {
-        return effectiveLevelInt;
+        final long cached = effectiveLevelCache;
+        final int generation = loggerContext.levelGeneration;
+        if ((int) (cached >>> 32) == generation) {
+            return (int) cached;
+        }
+        return refreshEffectiveLevelInt(cached, generation);
+    }
+
+    private int refreshEffectiveLevelInt(long cached, int generation) {
+        if ((generation & 1) != 0) {
+            // a batch of level changes is in progress. Loggers keep the view they
+            // had before the batch so that the batch appears atomic.
+            if ((int) (cached >>> 32) == generation - 1) {
+                return (int) cached;
+            }
+            // nothing to keep, compute without caching
+            return computeEffectiveLevelInt();
+        }
+        int levelInt = computeEffectiveLevelInt();
+        // only cache if no level change started while we were walking up the
+        // hierarchy, otherwise we might tag a partially updated view as current
+        if (loggerContext.levelGeneration == generation) {
+            effectiveLevelCache = ((long) generation << 32) | (levelInt & 0xFFFFFFFFL);
+        }
+        return levelInt;
+    }
+
+    /**
+     * Returns the mask of levels enabled for this logger, see
+     * {@link #enabledLevelsCache}.
+     */
+    int getEnabledLevels() {
+        final long cached = enabledLevelsCache;
+        final int generation = loggerContext.levelGeneration;
+        if ((int) (cached >>> 32) == generation) {
+            return (int) cached;
+        }
+        return refreshEnabledLevels(cached, generation);
+    }
+
+    private int refreshEnabledLevels(long cached, int generation) {
+        if ((generation & 1) != 0) {
+            // same reasoning as in refreshEffectiveLevelInt, the effective level
+            // keeps the view from before the batch if it has one
+            if ((int) (cached >>> 32) == generation - 1) {
+                return (int) cached;
+            }
+            return computeEnabledLevels(getEffectiveLevelInt());
+        }
+        int mask = computeEnabledLevels(getEffectiveLevelInt());
+        if (loggerContext.levelGeneration == generation) {
+            enabledLevelsCache = ((long) generation << 32) | (mask & 0xFFFFFFFFL);
+        }
+        return mask;
+    }
+
+    private int computeEnabledLevels(int effectiveLevelInt) {
+        int mask = 0;
+        for (Level l : MASKED_LEVELS) {
+            if (effectiveLevelInt <= l.levelInt) {
+                mask |= l.enabledBit;
+            }
+        }
+        if (!loggerContext.getTurboFilterList().isEmpty()) {
+            mask |= TURBO_FILTERS_PRESENT;
+        }
+        return mask;
+    }
+
+    private int computeEffectiveLevelInt() {
+        for (Logger l = this; l != null; l = l.parent) {
+            Level l_level = l.level;
+            if (l_level != null) {
+                return l_level.levelInt;
+            }
+        }
+        // unreachable, the level of the root logger is never null
+        return Level.DEBUG_INT;
     }
 
     public Level getLevel() {
@@ -144,58 +256,38 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
         }
     }
 
-    public synchronized void setLevel(Level newLevel) {
+    /**
+     * Sets the level of this logger. Descendants are not visited: the change
+     * moves the level generation of the context which invalidates the cached
+     * effective level of every logger at once. See also
+     * {@link LoggerContext#setLevels(java.util.Map)} for changing several levels
+     * atomically. Within {@link LoggerContext#beginLevelStaging()}, the change
+     * is only recorded.
+     */
+    public void setLevel(Level newLevel) {
+        if (newLevel == null && isRootLogger()) {
+            throw new IllegalArgumentException("The level of the root logger cannot be set to null");
+        }
+        if (loggerContext.stageLevel(this, newLevel)) {
+            return;
+        }
         if (level == newLevel) {
             // nothing to do;
             return;
         }
-        if (newLevel == null && isRootLogger()) {
-            throw new IllegalArgumentException("The level of the root logger cannot be set to null");
+        loggerContext.beginLevelBatch();
+        try {
+            level = newLevel;
+        } finally {
+            loggerContext.endLevelBatch();
         }
-
-        level = newLevel;
         if (newLevel == null) {
-            effectiveLevelInt = parent.effectiveLevelInt;
-            newLevel = parent.getEffectiveLevel();
-        } else {
-            effectiveLevelInt = newLevel.levelInt;
-        }
-
-        if (childrenList != null) {
-            int len = childrenList.size();
-            for (int i = 0; i < len; i++) {
-                Logger child = (Logger) childrenList.get(i);
-                // tell child to handle parent levelInt change
-                child.handleParentLevelChange(effectiveLevelInt);
-            }
+            newLevel = Level.toLevel(parent.computeEffectiveLevelInt());
         }
         // inform listeners
         loggerContext.fireOnLevelChange(this, newLevel);
     }
 
-    /**
-     * This method is invoked by parent logger to let this logger know that the
-     * prent's levelInt changed.
-     * 
-     * @param newParentLevelInt
-     */
-    private synchronized void handleParentLevelChange(int newParentLevelInt) {
-        // changes in the parent levelInt affect children only if their levelInt is
-        // null
-        if (level == null) {
-            effectiveLevelInt = newParentLevelInt;
-
-            // propagate the parent levelInt change to this logger's children
-            if (childrenList != null) {
-                int len = childrenList.size();
-                for (int i = 0; i < len; i++) {
-                    Logger child = (Logger) childrenList.get(i);
-                    child.handleParentLevelChange(newParentLevelInt);
-                }
-            }
-        }
-    }
-
     /**
      * Remove all previously added appenders from this logger instance.
      * <p/>
@@ -318,12 +410,11 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
             childLogger = new Logger(name + CoreConstants.DOT + lastPart, this, this.loggerContext);
         }
         childrenList.add(childLogger);
-        childLogger.effectiveLevelInt = this.effectiveLevelInt;
         return childLogger;
     }
 
+    // must be called within a level batch of the context
     private void localLevelReset() {
-        effectiveLevelInt = Level.DEBUG_INT;
         if (isRootLogger()) {
             level = Level.DEBUG;
         } else {
@@ -333,7 +424,6 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
 
     void recursiveReset() {
         detachAndStopAllAppenders();
-        localLevelReset();
         additive = true;
         if (childrenList == null) {
             return;
@@ -343,6 +433,17 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
         }
     }
 
+    // must be called within a level batch of the context
+    void recursiveLevelReset() {
+        localLevelReset();
+        if (childrenList == null) {
+            return;
+        }
+        for (Logger childLogger : childrenList) {
+            childLogger.recursiveLevelReset();
+        }
+    }
+
     /**
      * The default size of child list arrays. The JDK 1.5 default is 10. We use a
      * smaller value to save a little space.
@@ -369,8 +470,7 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
         // 创建子节点, 并绑定到childrenList上
         childLogger = new Logger(childName, this, this.loggerContext);
         childrenList.add(childLogger);
-        // // 子类继承父类的有效level等级
-        childLogger.effectiveLevelInt = this.effectiveLevelInt;
+        // 子类的有效level等级在首次使用时从父类继承
         return childLogger;
     }
 
@@ -391,16 +491,24 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
      */
     private void filterAndLog_0_Or3Plus(final String localFQCN, final Marker marker, final Level level, final String msg, final Object[] params,
                     final Throwable t) {
-        //  判断是否可以通过上下文的过滤器. logback初始化完成后该方法都是返回NEUTRAL, 不展开
-        final FilterReply decision = loggerContext.getTurboFilterChainDecision_0_3OrMore(marker, this, level, msg, params, t);
+        final int enabledLevels = getEnabledLevels();
+        if ((enabledLevels & TURBO_FILTERS_PRESENT) == 0) {
+            // no turbo filters, the enabled levels mask decides alone
+            if ((enabledLevels & level.enabledBit) == 0) {
+                return;
+            }
+        } else {
+            //  判断是否可以通过上下文的过滤器, 不展开
+            final FilterReply decision = loggerContext.getTurboFilterChainDecision_0_3OrMore(marker, this, level, msg, params, t);
 
-        if (decision == FilterReply.NEUTRAL) {
-            // logback初始化完成后都会进入该位置. 这里判断当前logger的level是否 大于 输出日志的level, 大于则结束
-            if (effectiveLevelInt > level.levelInt) {
+            if (decision == FilterReply.NEUTRAL) {
+                // logback初始化完成后都会进入该位置. 这里判断当前logger的level是否 大于 输出日志的level, 大于则结束
+                if ((enabledLevels & level.enabledBit) == 0) {
+                    return;
+                }
+            } else if (decision == FilterReply.DENY) {
                 return;
             }
-        } else if (decision == FilterReply.DENY) {
-            return;
         }
         // 核心代码: 构建LoggingEvent并输出日志
         buildLoggingEventAndAppend(localFQCN, marker, level, msg, params, t);
@@ -408,14 +516,21 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
 
     private void filterAndLog_1(final String localFQCN, final Marker marker, final Level level, final String msg, final Object param, final Throwable t) {
 
-        final FilterReply decision = loggerContext.getTurboFilterChainDecision_1(marker, this, level, msg, param, t);
+        final int enabledLevels = getEnabledLevels();
+        if ((enabledLevels & TURBO_FILTERS_PRESENT) == 0) {
+            if ((enabledLevels & level.enabledBit) == 0) {
+                return;
+            }
+        } else {
+            final FilterReply decision = loggerContext.getTurboFilterChainDecision_1(marker, this, level, msg, param, t);
 
-        if (decision == FilterReply.NEUTRAL) {
-            if (effectiveLevelInt > level.levelInt) {
+            if (decision == FilterReply.NEUTRAL) {
+                if ((enabledLevels & level.enabledBit) == 0) {
+                    return;
+                }
+            } else if (decision == FilterReply.DENY) {
                 return;
             }
-        } else if (decision == FilterReply.DENY) {
-            return;
         }
 
         buildLoggingEventAndAppend(localFQCN, marker, level, msg, new Object[] { param }, t);
@@ -424,14 +539,21 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     private void filterAndLog_2(final String localFQCN, final Marker marker, final Level level, final String msg, final Object param1, final Object param2,
                     final Throwable t) {
 
-        final FilterReply decision = loggerContext.getTurboFilterChainDecision_2(marker, this, level, msg, param1, param2, t);
+        final int enabledLevels = getEnabledLevels();
+        if ((enabledLevels & TURBO_FILTERS_PRESENT) == 0) {
+            if ((enabledLevels & level.enabledBit) == 0) {
+                return;
+            }
+        } else {
+            final FilterReply decision = loggerContext.getTurboFilterChainDecision_2(marker, this, level, msg, param1, param2, t);
 
-        if (decision == FilterReply.NEUTRAL) {
-            if (effectiveLevelInt > level.levelInt) {
+            if (decision == FilterReply.NEUTRAL) {
+                if ((enabledLevels & level.enabledBit) == 0) {
+                    return;
+                }
+            } else if (decision == FilterReply.DENY) {
                 return;
             }
-        } else if (decision == FilterReply.DENY) {
-            return;
         }
 
         buildLoggingEventAndAppend(localFQCN, marker, level, msg, new Object[] { param1, param2 }, t);
@@ -501,16 +623,7 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public boolean isDebugEnabled(Marker marker) {
-        final FilterReply decision = callTurboFilters(marker, Level.DEBUG);
-        if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= Level.DEBUG_INT;
-        } else if (decision == FilterReply.DENY) {
-            return false;
-        } else if (decision == FilterReply.ACCEPT) {
-            return true;
-        } else {
-            throw new IllegalStateException("Unknown FilterReply value: " + decision);
-        }
+        return isEnabled(marker, Level.DEBUG);
     }
 
     public void debug(String msg) {
@@ -598,16 +711,7 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public boolean isInfoEnabled(Marker marker) {
-        FilterReply decision = callTurboFilters(marker, Level.INFO);
-        if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= Level.INFO_INT;
-        } else if (decision == FilterReply.DENY) {
-            return false;
-        } else if (decision == FilterReply.ACCEPT) {
-            return true;
-        } else {
-            throw new IllegalStateException("Unknown FilterReply value: " + decision);
-        }
+        return isEnabled(marker, Level.INFO);
     }
 
     public void info(String msg) {
@@ -656,16 +760,7 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public boolean isTraceEnabled(Marker marker) {
-        final FilterReply decision = callTurboFilters(marker, Level.TRACE);
-        if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= Level.TRACE_INT;
-        } else if (decision == FilterReply.DENY) {
-            return false;
-        } else if (decision == FilterReply.ACCEPT) {
-            return true;
-        } else {
-            throw new IllegalStateException("Unknown FilterReply value: " + decision);
-        }
+        return isEnabled(marker, Level.TRACE);
     }
 
     public boolean isErrorEnabled() {
@@ -673,16 +768,7 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public boolean isErrorEnabled(Marker marker) {
-        FilterReply decision = callTurboFilters(marker, Level.ERROR);
-        if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= Level.ERROR_INT;
-        } else if (decision == FilterReply.DENY) {
-            return false;
-        } else if (decision == FilterReply.ACCEPT) {
-            return true;
-        } else {
-            throw new IllegalStateException("Unknown FilterReply value: " + decision);
-        }
+        return isEnabled(marker, Level.ERROR);
     }
 
     public boolean isWarnEnabled() {
@@ -690,23 +776,21 @@ public final class Logger implements org.slf4j.Logger, LocationAwareLogger, Appe
     }
 
     public boolean isWarnEnabled(Marker marker) {
-        FilterReply decision = callTurboFilters(marker, Level.WARN);
-        if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= Level.WARN_INT;
-        } else if (decision == FilterReply.DENY) {
-            return false;
-        } else if (decision == FilterReply.ACCEPT) {
-            return true;
-        } else {
-            throw new IllegalStateException("Unknown FilterReply value: " + decision);
-        }
-
+        return isEnabled(marker, Level.WARN);
     }
 
     public boolean isEnabledFor(Marker marker, Level level) {
+        return isEnabled(marker, level);
+    }
+
+    private boolean isEnabled(Marker marker, Level level) {
+        final int enabledLevels = getEnabledLevels();
+        if ((enabledLevels & TURBO_FILTERS_PRESENT) == 0) {
+            return (enabledLevels & level.enabledBit) != 0;
+        }
         FilterReply decision = callTurboFilters(marker, level);
         if (decision == FilterReply.NEUTRAL) {
-            return effectiveLevelInt <= level.levelInt;
+            return (enabledLevels & level.enabledBit) != 0;
         } else if (decision == FilterReply.DENY) {
             return false;
         } else if (decision == FilterReply.ACCEPT) {
@@ -19,10 +19,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Marker;
@@ -30,6 +33,7 @@ import org.slf4j.Marker;
 import ch.qos.logback.classic.spi.LoggerComparator;
 import ch.qos.logback.classic.spi.LoggerContextListener;
 import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.CompiledTurboFilterChain;
 import ch.qos.logback.classic.spi.TurboFilterList;
 import ch.qos.logback.classic.turbo.TurboFilter;
 import ch.qos.logback.classic.util.LoggerNameUtil;
@@ -70,7 +74,7 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
     private Map<String, Logger> loggerCache;
 
     private LoggerContextVO loggerContextRemoteView;
-    private final TurboFilterList turboFilterList = new TurboFilterList();
+    private final TurboFilterList turboFilterList = new TurboFilterList(this);
     private boolean packagingDataEnabled = DEFAULT_PACKAGING_DATA;
 
     private int maxCallerDataDepth = ClassicConstants.DEFAULT_MAX_CALLEDER_DATA_DEPTH;
@@ -78,6 +82,21 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
     int resetCount = 0;
     private List<String> frameworkPackages;
 
+    /**
+     * Level generation, moved on every level change. Loggers cache their
+     * effective level together with the generation it was computed in. The
+     * generation is odd while a level batch is in progress.
+     */
+    volatile int levelGeneration = 0;
+    // serializes level writers, readers never take it
+    private final ReentrantLock levelLock = new ReentrantLock();
+    // nesting depth of level batches, guarded by levelLock
+    private int levelBatchDepth = 0;
+    // level changes recorded by threads which are staging, see beginLevelStaging()
+    private final ThreadLocal<LevelStaging> levelStaging = new ThreadLocal<LevelStaging>();
+    // number of threads currently staging, lets setLevel skip the thread local
+    private final AtomicInteger stagingThreadCount = new AtomicInteger();
+
     public LoggerContext() {
         super();
         this.loggerCache = new ConcurrentHashMap<String, Logger>();
@@ -126,18 +145,10 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (name == null) {
             throw new IllegalArgumentException("name argument cannot be null");
         }
-        // 如果获取的是根logger则直接返回. 根logger在LoggerContext构造器中就创建出来(name=ROOT, level=DEBUG)
-        // if we are asking for the root logger, then let us return it without
-        // wasting time
-        if (Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(name)) {
-            return root;
-        }
-
-        int i = 0;
-        Logger logger = root;
-
         // check if the desired logger exists, if it does, return it
-        // without further ado.
+        // without further ado. The root logger is cached under its canonical
+        // name, so the common case does not need the case insensitive
+        // comparison below.
         // 缓存有则从缓存中获取
         Logger childLogger = (Logger) loggerCache.get(name);
         // if we have the child, then let us return it without wasting time
@@ -145,6 +156,14 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
             return childLogger;
         }
 
+        // 如果获取的是根logger则直接返回. 根logger在LoggerContext构造器中就创建出来(name=ROOT, level=DEBUG)
+        if (Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(name)) {
+            return root;
+        }
+
+        int i = 0;
+        Logger logger = root;
+
         // if the desired logger does not exist, them create all the loggers
         // in between as well (if they don't already exist)
         // 根据入参name获取logger. 示例name=com.qiankun.Test, 假设初始化时只存在一个根root
@@ -239,7 +258,14 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         super.reset();
         initEvaluatorMap();
         initCollisionMaps();
+        // appenders are stopped outside of the level lock
         root.recursiveReset();
+        beginLevelBatch();
+        try {
+            root.recursiveLevelReset();
+        } finally {
+            endLevelBatch();
+        }
         resetTurboFilterList();
         cancelScheduledTasks();
         fireOnReset();
@@ -285,7 +311,12 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (turboFilterList.size() == 0) {
             return FilterReply.NEUTRAL;
         }
-        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, params, t);
+        final CompiledTurboFilterChain chain = getCompiledTurboFilterChain(logger);
+        final FilterReply staticDecision = chain.getStaticDecision(level, marker);
+        if (staticDecision != null) {
+            return staticDecision;
+        }
+        return chain.decide(marker, logger, level, format, params, t);
     }
 
     final FilterReply getTurboFilterChainDecision_1(final Marker marker, final Logger logger, final Level level, final String format, final Object param,
@@ -293,7 +324,12 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (turboFilterList.size() == 0) {
             return FilterReply.NEUTRAL;
         }
-        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, new Object[] { param }, t);
+        final CompiledTurboFilterChain chain = getCompiledTurboFilterChain(logger);
+        final FilterReply staticDecision = chain.getStaticDecision(level, marker);
+        if (staticDecision != null) {
+            return staticDecision;
+        }
+        return chain.decide(marker, logger, level, format, new Object[] { param }, t);
     }
 
     final FilterReply getTurboFilterChainDecision_2(final Marker marker, final Logger logger, final Level level, final String format, final Object param1,
@@ -301,7 +337,25 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (turboFilterList.size() == 0) {
             return FilterReply.NEUTRAL;
         }
-        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, new Object[] { param1, param2 }, t);
+        final CompiledTurboFilterChain chain = getCompiledTurboFilterChain(logger);
+        final FilterReply staticDecision = chain.getStaticDecision(level, marker);
+        if (staticDecision != null) {
+            return staticDecision;
+        }
+        return chain.decide(marker, logger, level, format, new Object[] { param1, param2 }, t);
+    }
+
+    /**
+     * Returns the turbo filter chain compiled for the given logger, compiling it
+     * anew if the turbo filter list or the logger's effective level changed.
+     */
+    private CompiledTurboFilterChain getCompiledTurboFilterChain(final Logger logger) {
+        CompiledTurboFilterChain chain = logger.compiledTurboFilterChain;
+        if (chain == null || !chain.isValidFor(turboFilterList.getGeneration(), logger.getEffectiveLevelInt())) {
+            chain = turboFilterList.compile(logger);
+            logger.compiledTurboFilterChain = chain;
+        }
+        return chain;
     }
 
     // === start listeners ==============================================
@@ -332,6 +386,141 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         return new ArrayList<LoggerContextListener>(loggerContextListenerList);
     }
 
+    /**
+     * Starts a batch of level changes. Until the matching
+     * {@link #endLevelBatch()}, loggers which were already in use keep
+     * answering with the effective level they had before the batch, so that all
+     * the changes of the batch become visible to them at once. Batches may be nested by the same thread.
+     * Calls must be paired in a try/finally block.
+     *
+     * @since 1.2.14
+     */
+    public void beginLevelBatch() {
+        levelLock.lock();
+        if (levelBatchDepth++ == 0) {
+            levelGeneration++;
+        }
+    }
+
+    /**
+     * Ends a batch of level changes started by {@link #beginLevelBatch()}.
+     *
+     * @since 1.2.14
+     */
+    public void endLevelBatch() {
+        try {
+            if (--levelBatchDepth == 0) {
+                levelGeneration++;
+            }
+        } finally {
+            levelLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the enabled levels cached by loggers, for example after the
+     * turbo filters of this context changed. Costs O(1), loggers refresh their
+     * cache lazily.
+     *
+     * @since 1.2.14
+     */
+    public void invalidateEnabledLevels() {
+        beginLevelBatch();
+        endLevelBatch();
+    }
+
+    /**
+     * Sets the levels of several loggers atomically. A null level makes the
+     * corresponding logger inherit its level.
+     *
+     * @param levels level by logger name
+     * @since 1.2.14
+     */
+    public void setLevels(Map<String, Level> levels) {
+        for (Map.Entry<String, Level> entry : levels.entrySet()) {
+            if (entry.getValue() == null && Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(entry.getKey())) {
+                throw new IllegalArgumentException("The level of the root logger cannot be set to null");
+            }
+        }
+        beginLevelBatch();
+        try {
+            for (Map.Entry<String, Level> entry : levels.entrySet()) {
+                getLogger(entry.getKey()).setLevel(entry.getValue());
+            }
+        } finally {
+            endLevelBatch();
+        }
+    }
+
+    /**
+     * Starts recording the level changes made by the calling thread instead of
+     * applying them. The recorded changes are applied by the matching
+     * {@link #endLevelStaging()} within a single level batch, so that the level
+     * lock is held only while they are committed and not during the lengthy
+     * work, e.g. starting appenders, which may come in between. Until then,
+     * {@link Logger#getLevel()} keeps returning the previous level. Staging may
+     * be nested by the same thread. Calls must be paired in a try/finally block.
+     *
+     * @since 1.2.14
+     */
+    public void beginLevelStaging() {
+        LevelStaging staging = levelStaging.get();
+        if (staging == null) {
+            staging = new LevelStaging();
+            levelStaging.set(staging);
+            stagingThreadCount.incrementAndGet();
+        }
+        staging.depth++;
+    }
+
+    /**
+     * Ends the staging started by {@link #beginLevelStaging()}. The outermost
+     * call applies the recorded level changes atomically.
+     *
+     * @since 1.2.14
+     */
+    public void endLevelStaging() {
+        LevelStaging staging = levelStaging.get();
+        if (staging == null || --staging.depth > 0) {
+            return;
+        }
+        levelStaging.remove();
+        stagingThreadCount.decrementAndGet();
+        if (staging.levels.isEmpty()) {
+            return;
+        }
+        beginLevelBatch();
+        try {
+            for (Map.Entry<Logger, Level> entry : staging.levels.entrySet()) {
+                entry.getKey().setLevel(entry.getValue());
+            }
+        } finally {
+            endLevelBatch();
+        }
+    }
+
+    /**
+     * Records the level change if the calling thread is staging.
+     *
+     * @return true if the change was recorded, false if it must be applied
+     */
+    boolean stageLevel(Logger logger, Level level) {
+        if (stagingThreadCount.get() == 0) {
+            return false;
+        }
+        LevelStaging staging = levelStaging.get();
+        if (staging == null) {
+            return false;
+        }
+        staging.levels.put(logger, level);
+        return true;
+    }
+
+    private static class LevelStaging {
+        final Map<Logger, Level> levels = new LinkedHashMap<Logger, Level>();
+        int depth;
+    }
+
     void fireOnLevelChange(Logger logger, Level level) {
         for (LoggerContextListener listener : loggerContextListenerList) {
             listener.onLevelChange(logger, level);
@@ -16,7 +16,10 @@ package ch.qos.logback.classic.boolex;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+import org.codehaus.janino.ClassBodyEvaluator;
 import org.slf4j.Marker;
 
 import ch.qos.logback.classic.Level;
@@ -28,10 +31,29 @@ import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.boolex.JaninoEventEvaluatorBase;
 import ch.qos.logback.core.boolex.Matcher;
 
+/**
+ * Evaluates a java expression against logging events.
+ * 
+ * <p>By default the expression is compiled into a class implementing
+ * {@link LoggingEventPredicate}. The variables the expression refers to are
+ * read straight from the event, so that evaluation requires neither an array
+ * of parameter values nor reflection. Unless the thread context class loader
+ * differs from the one of logback, compiled classes are shared by all
+ * evaluators with the same expression and matchers, including those created
+ * by later reconfigurations. Setting <code>compiled</code> to false, or a
+ * compilation failure, falls back to script evaluation.
+ */
 public class JaninoEventEvaluator extends JaninoEventEvaluatorBase<ILoggingEvent> {
 
     public final static String IMPORT_LEVEL = "import ch.qos.logback.classic.Level;\r\n";
 
+    static final int MAX_COMPILED_CLASSES = 256;
+    // class body -> compiled class
+    static final Map<String, Class<?>> COMPILED_CLASS_CACHE = new ConcurrentHashMap<String, Class<?>>();
+
+    boolean compiled = true;
+    LoggingEventPredicate predicate;
+
     public final static List<String> DEFAULT_PARAM_NAME_LIST = new ArrayList<String>();
     public final static List<Class> DEFAULT_PARAM_TYPE_LIST = new ArrayList<Class>();
 
@@ -72,6 +94,14 @@ public class JaninoEventEvaluator extends JaninoEventEvaluatorBase<ILoggingEvent
         DEFAULT_PARAM_TYPE_LIST.add(Throwable.class);
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     protected String getDecoratedExpression() {
         String expression = getExpression();
         if (!expression.contains("return")) {
@@ -83,6 +113,98 @@ public class JaninoEventEvaluator extends JaninoEventEvaluatorBase<ILoggingEvent
         return IMPORT_LEVEL + expression;
     }
 
+    @Override
+    protected CompiledExpression<ILoggingEvent> compile() {
+        predicate = null;
+        if (!compiled) {
+            return null;
+        }
+        try {
+            ClassLoader parent = getParentClassLoader();
+            // classes compiled against other loaders, e.g. those of web
+            // applications, are not cached so as not to pin these loaders
+            boolean cacheable = parent == JaninoEventEvaluator.class.getClassLoader();
+            String classBody = buildClassBody();
+            Class<?> clazz = cacheable ? COMPILED_CLASS_CACHE.get(classBody) : null;
+            if (clazz == null) {
+                ClassBodyEvaluator cbe = new ClassBodyEvaluator();
+                cbe.setImplementedInterfaces(new Class[] { LoggingEventPredicate.class });
+                cbe.setParentClassLoader(parent);
+                cbe.cook(classBody);
+                clazz = cbe.getClazz();
+                if (cacheable) {
+                    if (COMPILED_CLASS_CACHE.size() >= MAX_COMPILED_CLASSES) {
+                        COMPILED_CLASS_CACHE.clear();
+                    }
+                    COMPILED_CLASS_CACHE.put(classBody, clazz);
+                }
+            }
+            final LoggingEventPredicate p = (LoggingEventPredicate) clazz.newInstance();
+            p.setMatchers(matcherList.toArray(new Matcher[matcherList.size()]));
+            predicate = p;
+            return new CompiledExpression<ILoggingEvent>() {
+                public boolean evaluate(ILoggingEvent event) throws Exception {
+                    return p.evaluate(event);
+                }
+            };
+        } catch (Exception e) {
+            addWarn("Could not compile expression [" + getExpression() + "], falling back to script evaluation", e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the body of a class implementing {@link LoggingEventPredicate}.
+     * Only the variables the expression refers to are read from the event.
+     */
+    String buildClassBody() {
+        String expression = getExpression();
+        StringBuilder sb = new StringBuilder(256 + expression.length());
+        sb.append(IMPORT_LEVEL);
+        sb.append("import ch.qos.logback.core.boolex.Matcher;\n");
+
+        for (int i = 0; i < matcherList.size(); i++) {
+            sb.append("private Matcher ").append(matcherList.get(i).getName()).append(";\n");
+        }
+        sb.append("public void setMatchers(Matcher[] matchers) {\n");
+        for (int i = 0; i < matcherList.size(); i++) {
+            sb.append(matcherList.get(i).getName()).append(" = matchers[").append(i).append("];\n");
+        }
+        sb.append("}\n");
+
+        sb.append("public boolean evaluate(ch.qos.logback.classic.spi.ILoggingEvent event) throws Exception {\n");
+        declareIfReferenced(sb, expression, "int", "DEBUG", Integer.toString(Level.DEBUG_INT));
+        declareIfReferenced(sb, expression, "int", "INFO", Integer.toString(Level.INFO_INT));
+        declareIfReferenced(sb, expression, "int", "WARN", Integer.toString(Level.WARN_INT));
+        declareIfReferenced(sb, expression, "int", "ERROR", Integer.toString(Level.ERROR_INT));
+        declareIfReferenced(sb, expression, "String", "message", "event.getMessage()");
+        declareIfReferenced(sb, expression, "String", "formattedMessage", "event.getFormattedMessage()");
+        declareIfReferenced(sb, expression, "String", "logger", "event.getLoggerName()");
+        declareIfReferenced(sb, expression, "ch.qos.logback.classic.spi.LoggerContextVO", "loggerContext", "event.getLoggerContextVO()");
+        declareIfReferenced(sb, expression, "int", "level", "event.getLevel().toInt()");
+        declareIfReferenced(sb, expression, "long", "timeStamp", "event.getTimeStamp()");
+        declareIfReferenced(sb, expression, "org.slf4j.Marker", "marker", "event.getMarker()");
+        declareIfReferenced(sb, expression, "java.util.Map", "mdc", "event.getMDCPropertyMap()");
+        declareIfReferenced(sb, expression, "ch.qos.logback.classic.spi.IThrowableProxy", "throwableProxy", "event.getThrowableProxy()");
+        declareIfReferenced(sb, expression, "Throwable", "throwable", "(event.getThrowableProxy() instanceof ch.qos.logback.classic.spi.ThrowableProxy) ? "
+                        + "((ch.qos.logback.classic.spi.ThrowableProxy) event.getThrowableProxy()).getThrowable() : null");
+        if (expression.contains("return")) {
+            sb.append(expression);
+        } else {
+            sb.append("return ").append(expression).append(";");
+        }
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private static void declareIfReferenced(StringBuilder sb, String expression, String type, String name, String initializer) {
+        // a conservative test, a name within a string literal only costs an
+        // unneeded read
+        if (Pattern.compile("(?<![\\w$.])" + name + "(?![\\w$])").matcher(expression).find()) {
+            sb.append("final ").append(type).append(' ').append(name).append(" = ").append(initializer).append(";\n");
+        }
+    }
+
     protected String[] getParameterNames() {
         List<String> fullNameList = new ArrayList<String>();
         fullNameList.addAll(DEFAULT_PARAM_NAME_LIST);
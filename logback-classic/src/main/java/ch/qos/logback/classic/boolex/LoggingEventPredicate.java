@@ -0,0 +1,34 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.boolex;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.boolex.Matcher;
+
+/**
+ * Implemented by the classes {@link JaninoEventEvaluator} compiles its
+ * expression into.
+ * 
+ * @since 1.2.14
+ */
+public interface LoggingEventPredicate {
+
+    /**
+     * Called once, before the first evaluation, with the matchers of the
+     * evaluator in declaration order.
+     */
+    void setMatchers(Matcher[] matchers);
+
+    boolean evaluate(ILoggingEvent event) throws Exception;
+}
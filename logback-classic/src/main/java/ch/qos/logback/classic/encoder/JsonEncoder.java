@@ -0,0 +1,276 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.encoder.JsonByteBuffer;
+import ch.qos.logback.core.encoder.JsonEncoderBase;
+
+/**
+ * Encodes logging events as JSON objects, one per line, for example:
+ * 
+ * <pre>
+ * {"timestamp":1500000000000,"level":"ERROR","thread":"main","logger":"a.b.C","message":"Failed to open x","arguments":["x"],
+ *  "markers":["AUDIT"],"mdc":{"user":"alice"},"throwable":{"class":"java.io.IOException","message":"boom","frames":["a.b.C.m(C.java:12)"]}}
+ * </pre>
+ * 
+ * <p>Optional parts can be left out with the <code>includeArguments</code>,
+ * <code>includeMarkers</code>, <code>includeMdc</code> and
+ * <code>includeThrowable</code> properties. The JSON text is written directly
+ * as UTF-8 bytes, see {@link JsonEncoderBase}.
+ * 
+ * @since 1.2.14
+ */
+public class JsonEncoder extends JsonEncoderBase<ILoggingEvent> {
+
+    static final byte[] TIMESTAMP = firstFieldName("timestamp");
+    static final byte[] LEVEL = nextFieldName("level");
+    static final byte[] THREAD = nextFieldName("thread");
+    static final byte[] LOGGER = nextFieldName("logger");
+    static final byte[] MESSAGE = nextFieldName("message");
+    static final byte[] ARGUMENTS = nextFieldName("arguments");
+    static final byte[] MARKERS = nextFieldName("markers");
+    static final byte[] MDC = nextFieldName("mdc");
+    static final byte[] THROWABLE = nextFieldName("throwable");
+
+    static final byte[] CLASS = firstFieldName("class");
+    static final byte[] EXCEPTION_MESSAGE = nextFieldName("message");
+    static final byte[] FRAMES = nextFieldName("frames");
+    static final byte[] COMMON_FRAMES = nextFieldName("commonFrames");
+    static final byte[] CAUSE = nextFieldName("cause");
+    static final byte[] SUPPRESSED = nextFieldName("suppressed");
+
+    static final byte[] TRACE_BYTES = quoted(Level.TRACE);
+    static final byte[] DEBUG_BYTES = quoted(Level.DEBUG);
+    static final byte[] INFO_BYTES = quoted(Level.INFO);
+    static final byte[] WARN_BYTES = quoted(Level.WARN);
+    static final byte[] ERROR_BYTES = quoted(Level.ERROR);
+
+    static final byte[] NATIVE_METHOD = "(Native Method)".getBytes();
+    static final byte[] UNKNOWN_SOURCE = "(Unknown Source)".getBytes();
+
+    boolean includeArguments = true;
+    boolean includeMarkers = true;
+    boolean includeMdc = true;
+    boolean includeThrowable = true;
+
+    static byte[] quoted(Level level) {
+        JsonByteBuffer jbb = new JsonByteBuffer(16);
+        jbb.appendString(level.toString());
+        return jbb.toByteArray();
+    }
+
+    @Override
+    protected void writeEvent(JsonByteBuffer buffer, ILoggingEvent event) {
+        buffer.append(TIMESTAMP);
+        buffer.appendLong(event.getTimeStamp());
+        buffer.append(LEVEL);
+        writeLevel(buffer, event.getLevel());
+        writeStringField(buffer, THREAD, event.getThreadName());
+        writeStringField(buffer, LOGGER, event.getLoggerName());
+        writeStringField(buffer, MESSAGE, event.getFormattedMessage());
+
+        if (includeArguments) {
+            writeArguments(buffer, event.getArgumentArray());
+        }
+        if (includeMarkers && event.getMarker() != null) {
+            writeMarkers(buffer, event.getMarker());
+        }
+        if (includeMdc) {
+            writeMdc(buffer, event.getMDCPropertyMap());
+        }
+        if (includeThrowable && event.getThrowableProxy() != null) {
+            buffer.append(THROWABLE);
+            writeThrowable(buffer, event.getThrowableProxy());
+        }
+        buffer.append((byte) '}');
+    }
+
+    private void writeLevel(JsonByteBuffer buffer, Level level) {
+        switch (level.levelInt) {
+        case Level.TRACE_INT:
+            buffer.append(TRACE_BYTES);
+            break;
+        case Level.DEBUG_INT:
+            buffer.append(DEBUG_BYTES);
+            break;
+        case Level.INFO_INT:
+            buffer.append(INFO_BYTES);
+            break;
+        case Level.WARN_INT:
+            buffer.append(WARN_BYTES);
+            break;
+        case Level.ERROR_INT:
+            buffer.append(ERROR_BYTES);
+            break;
+        default:
+            buffer.appendString(level.toString());
+        }
+    }
+
+    private void writeArguments(JsonByteBuffer buffer, Object[] arguments) {
+        if (arguments == null || arguments.length == 0) {
+            return;
+        }
+        buffer.append(ARGUMENTS);
+        buffer.append((byte) '[');
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                buffer.append((byte) ',');
+            }
+            Object argument = arguments[i];
+            buffer.appendString(argument == null ? null : argument.toString());
+        }
+        buffer.append((byte) ']');
+    }
+
+    // the marker and its direct references
+    private void writeMarkers(JsonByteBuffer buffer, Marker marker) {
+        buffer.append(MARKERS);
+        buffer.append((byte) '[');
+        buffer.appendString(marker.getName());
+        if (marker.hasReferences()) {
+            Iterator<Marker> it = marker.iterator();
+            while (it.hasNext()) {
+                buffer.append((byte) ',');
+                buffer.appendString(it.next().getName());
+            }
+        }
+        buffer.append((byte) ']');
+    }
+
+    private void writeMdc(JsonByteBuffer buffer, Map<String, String> mdc) {
+        if (mdc == null || mdc.isEmpty()) {
+            return;
+        }
+        buffer.append(MDC);
+        buffer.append((byte) '{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            if (!first) {
+                buffer.append((byte) ',');
+            }
+            first = false;
+            buffer.appendString(entry.getKey());
+            buffer.append((byte) ':');
+            buffer.appendString(entry.getValue());
+        }
+        buffer.append((byte) '}');
+    }
+
+    private void writeThrowable(JsonByteBuffer buffer, IThrowableProxy tp) {
+        buffer.append(CLASS);
+        buffer.appendString(tp.getClassName());
+        writeStringField(buffer, EXCEPTION_MESSAGE, tp.getMessage());
+
+        StackTraceElementProxy[] stepArray = tp.getStackTraceElementProxyArray();
+        int commonFrames = tp.getCommonFrames();
+        buffer.append(FRAMES);
+        buffer.append((byte) '[');
+        int len = stepArray == null ? 0 : stepArray.length - commonFrames;
+        for (int i = 0; i < len; i++) {
+            if (i > 0) {
+                buffer.append((byte) ',');
+            }
+            writeStackTraceElement(buffer, stepArray[i].getStackTraceElement());
+        }
+        buffer.append((byte) ']');
+        if (commonFrames > 0) {
+            buffer.append(COMMON_FRAMES);
+            buffer.appendLong(commonFrames);
+        }
+
+        IThrowableProxy[] suppressed = tp.getSuppressed();
+        if (suppressed != null && suppressed.length > 0) {
+            buffer.append(SUPPRESSED);
+            buffer.append((byte) '[');
+            for (int i = 0; i < suppressed.length; i++) {
+                if (i > 0) {
+                    buffer.append((byte) ',');
+                }
+                writeThrowable(buffer, suppressed[i]);
+            }
+            buffer.append((byte) ']');
+        }
+        if (tp.getCause() != null) {
+            buffer.append(CAUSE);
+            writeThrowable(buffer, tp.getCause());
+        }
+        buffer.append((byte) '}');
+    }
+
+    // same format as StackTraceElement.toString(), without the intermediary String
+    private void writeStackTraceElement(JsonByteBuffer buffer, StackTraceElement ste) {
+        buffer.append((byte) '"');
+        buffer.appendEscaped(ste.getClassName());
+        buffer.append((byte) '.');
+        buffer.appendEscaped(ste.getMethodName());
+        String fileName = ste.getFileName();
+        int lineNumber = ste.getLineNumber();
+        if (ste.isNativeMethod()) {
+            buffer.append(NATIVE_METHOD);
+        } else if (fileName == null) {
+            buffer.append(UNKNOWN_SOURCE);
+        } else {
+            buffer.append((byte) '(');
+            buffer.appendEscaped(fileName);
+            if (lineNumber >= 0) {
+                buffer.append((byte) ':');
+                buffer.appendLong(lineNumber);
+            }
+            buffer.append((byte) ')');
+        }
+        buffer.append((byte) '"');
+    }
+
+    public boolean isIncludeArguments() {
+        return includeArguments;
+    }
+
+    public void setIncludeArguments(boolean includeArguments) {
+        this.includeArguments = includeArguments;
+    }
+
+    public boolean isIncludeMarkers() {
+        return includeMarkers;
+    }
+
+    public void setIncludeMarkers(boolean includeMarkers) {
+        this.includeMarkers = includeMarkers;
+    }
+
+    public boolean isIncludeMdc() {
+        return includeMdc;
+    }
+
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    public boolean isIncludeThrowable() {
+        return includeThrowable;
+    }
+
+    public void setIncludeThrowable(boolean includeThrowable) {
+        this.includeThrowable = includeThrowable;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.flush;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.flush.PeriodicFlushPolicy;
+
+/**
+ * Flushes immediately after events at or above <code>level</code>, WARN by
+ * default. Output written on behalf of other events is flushed periodically or
+ * once enough bytes accumulate, as in {@link PeriodicFlushPolicy}.
+ * 
+ * <pre>
+ * &lt;appender name="FILE" class="ch.qos.logback.core.FileAppender"&gt;
+ *   &lt;flushPolicy class="ch.qos.logback.classic.flush.LevelFlushPolicy"&gt;
+ *     &lt;level&gt;WARN&lt;/level&gt;
+ *     &lt;maxDelay&gt;500 milliseconds&lt;/maxDelay&gt;
+ *     &lt;maxBytes&gt;32KB&lt;/maxBytes&gt;
+ *   &lt;/flushPolicy&gt;
+ *   ...
+ * &lt;/appender&gt;
+ * </pre>
+ * 
+ * @since 1.2.14
+ */
+public class LevelFlushPolicy extends PeriodicFlushPolicy<ILoggingEvent> {
+
+    Level level = Level.WARN;
+
+    @Override
+    public boolean isFlushRequired(ILoggingEvent event, int byteCount) {
+        boolean sizeReached = super.isFlushRequired(event, byteCount);
+        return sizeReached || (event != null && event.getLevel().isGreaterOrEqual(level));
+    }
+
+    public String getLevel() {
+        return level.toString();
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.WARN);
+    }
+}
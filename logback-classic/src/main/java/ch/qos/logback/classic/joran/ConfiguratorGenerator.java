@@ -0,0 +1,670 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.joran;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.Configurator;
+import ch.qos.logback.classic.util.DefaultNestedComponentRules;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.joran.action.ActionConst;
+import ch.qos.logback.core.joran.spi.DefaultNestedComponentRegistry;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.joran.spi.NoAutoStartUtil;
+import ch.qos.logback.core.joran.util.PropertySetter;
+import ch.qos.logback.core.joran.util.StringToObjectConverter;
+import ch.qos.logback.core.joran.util.beans.BeanDescriptionCache;
+import ch.qos.logback.core.joran.util.beans.BeanUtil;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.ContextAware;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.spi.LifeCycle;
+import ch.qos.logback.core.util.Loader;
+import ch.qos.logback.core.util.OptionHelper;
+import ch.qos.logback.core.util.StatusPrinter;
+
+/**
+ * Translates a configuration file into the Java source of a {@link Configurator}
+ * at build time. Once compiled and registered with the {@link java.util.ServiceLoader},
+ * the generated class configures logback without parsing XML, without looking up
+ * setters by reflection and without Janino.
+ *
+ * <p>Components are resolved exactly as {@link JoranConfigurator} would resolve
+ * them, including default nested component types, so the build classpath must
+ * contain the appenders, encoders, etc. referenced by the configuration file.
+ * Variable substitution is deferred to runtime.
+ *
+ * <p>Only the static subset of the configuration syntax is supported, that is
+ * &lt;configuration&gt;, &lt;contextName&gt;, &lt;property&gt; (or &lt;variable&gt;)
+ * with a value, &lt;appender&gt; with its nested components, &lt;logger&gt;,
+ * &lt;root&gt;, &lt;level&gt; and &lt;appender-ref&gt;. Any other element, e.g.
+ * &lt;if&gt;, &lt;include&gt; or &lt;define&gt;, as well as configuration file
+ * scanning, is reported as an error.
+ *
+ * <p>A {@link Configurator} registered with the service loader takes precedence
+ * over logback-test.xml and logback.xml, but not over the configuration file
+ * named by the <b>logback.configurationFile</b> system property.
+ *
+ * <p>Usage from the command line or from a build plugin:
+ * <pre>
+ * java ch.qos.logback.classic.joran.ConfiguratorGenerator logback.xml com.example.LogbackConfigurator target/generated-sources/logback target/classes
+ * </pre>
+ *
+ * @since 1.2.14
+ */
+public class ConfiguratorGenerator extends ContextAwareBase {
+
+    static final String SERVICE_FILE = "META-INF/services/" + Configurator.class.getName();
+    static final String INDENT = "        ";
+
+    static final String LEVEL = Level.class.getName();
+    static final String OPTION_HELPER = OptionHelper.class.getName();
+
+    private BeanDescriptionCache beanDescriptionCache;
+    private final DefaultNestedComponentRegistry registry = new DefaultNestedComponentRegistry();
+
+    private StringBuilder body;
+    private int variableCount;
+    // appender name to the name of the variable holding it
+    private Map<String, String> appenderVariables;
+
+    public ConfiguratorGenerator() {
+        DefaultNestedComponentRules.addDefaultNestedComponentRegistryRules(registry);
+    }
+
+    /**
+     * Returns the source of a class named <code>className</code> which applies the
+     * configuration read from <code>in</code>.
+     *
+     * @param in the configuration file
+     * @param className the fully qualified name of the generated class
+     * @throws JoranException if the configuration cannot be translated
+     */
+    public String generate(InputStream in, String className) throws JoranException {
+        Element root = parse(in).getDocumentElement();
+        if (!"configuration".equals(root.getTagName())) {
+            throw error("Expected <configuration> as root element but found <" + root.getTagName() + ">");
+        }
+
+        beanDescriptionCache = new BeanDescriptionCache(getContext());
+        body = new StringBuilder();
+        variableCount = 0;
+        appenderVariables = new HashMap<String, String>();
+
+        handleConfigurationAttributes(root);
+        for (Element child : childElements(root)) {
+            handleTopLevelElement(child);
+        }
+        return classSource(className);
+    }
+
+    /**
+     * Writes the source of the generated class below <code>sourceDir</code> and the
+     * file registering it with the service loader below <code>resourceDir</code>.
+     */
+    public void write(String className, String source, File sourceDir, File resourceDir) throws IOException {
+        writeFile(new File(sourceDir, className.replace('.', File.separatorChar) + ".java"), source);
+        writeFile(new File(resourceDir, SERVICE_FILE), className + CoreConstants.LINE_SEPARATOR);
+    }
+
+    private void writeFile(File file, String content) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Failed to create directory [" + parent + "]");
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        addInfo("Wrote [" + file + "]");
+    }
+
+    private Document parse(InputStream in) throws JoranException {
+        try {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            dbf.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            dbf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            dbf.setExpandEntityReferences(false);
+            DocumentBuilder db = dbf.newDocumentBuilder();
+            return db.parse(new InputSource(in));
+        } catch (Exception e) {
+            String errMsg = "Failed to parse configuration file";
+            addError(errMsg, e);
+            throw new JoranException(errMsg, e);
+        }
+    }
+
+    private void handleConfigurationAttributes(Element configuration) throws JoranException {
+        String debug = literalAttribute(configuration, "debug");
+        if (!OptionHelper.isEmpty(debug) && !"false".equalsIgnoreCase(debug) && !"null".equalsIgnoreCase(debug)) {
+            statement("ch.qos.logback.core.util.StatusListenerConfigHelper.addOnConsoleListenerInstance(lc, new ch.qos.logback.core.status.OnConsoleStatusListener());");
+        }
+        String scan = literalAttribute(configuration, "scan");
+        if (!OptionHelper.isEmpty(scan) && !"false".equalsIgnoreCase(scan)) {
+            throw error("Configuration file scanning requires the configuration file and cannot be generated");
+        }
+        String packagingData = attribute(configuration, "packagingData");
+        if (packagingData != null) {
+            String value;
+            if (needsSubstitution(packagingData)) {
+                value = OPTION_HELPER + ".toBoolean(subst(" + quote(packagingData) + "), " + LoggerContext.DEFAULT_PACKAGING_DATA + ")";
+            } else {
+                value = String.valueOf(OptionHelper.toBoolean(packagingData, LoggerContext.DEFAULT_PACKAGING_DATA));
+            }
+            statement("lc.setPackagingDataEnabled(" + value + ");");
+        }
+    }
+
+    private void handleTopLevelElement(Element element) throws JoranException {
+        String tagName = element.getTagName();
+        if ("contextName".equals(tagName)) {
+            statement("lc.setName(" + stringValue(text(element)) + ");");
+        } else if ("property".equals(tagName) || "variable".equals(tagName)) {
+            handleProperty(element);
+        } else if ("appender".equals(tagName)) {
+            handleAppender(element);
+        } else if ("logger".equals(tagName)) {
+            handleLogger(element, "lc.getLogger(" + stringValue(requiredAttribute(element, "name")) + ")", false);
+        } else if ("root".equals(tagName)) {
+            handleLogger(element, "lc.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)", true);
+        } else {
+            throw unsupported(element);
+        }
+    }
+
+    private void handleProperty(Element element) throws JoranException {
+        if (attribute(element, "file") != null || attribute(element, "resource") != null) {
+            throw error("Properties read from a file or a resource are not supported in <" + element.getTagName() + ">");
+        }
+        String name = requiredAttribute(element, "name");
+        String value = stringValue(requiredAttribute(element, "value"));
+        String scope = attribute(element, "scope");
+        if (scope == null || ActionConst.NULL.equalsIgnoreCase(scope) || "local".equalsIgnoreCase(scope)) {
+            statement("properties.put(" + quote(name) + ", " + value + ");");
+        } else if ("context".equalsIgnoreCase(scope)) {
+            statement("lc.putProperty(" + quote(name) + ", " + value + ");");
+        } else if ("system".equalsIgnoreCase(scope)) {
+            statement(OPTION_HELPER + ".setSystemProperty(this, " + quote(name) + ", " + value + ");");
+        } else {
+            throw error("Unknown scope [" + scope + "] for property [" + name + "]");
+        }
+    }
+
+    private void handleAppender(Element element) throws JoranException {
+        String name = literalAttribute(element, "name");
+        if (OptionHelper.isEmpty(name)) {
+            throw error("Missing appender name in <appender>");
+        }
+        Object appender = newComponent(element, requiredAttribute(element, "class"));
+        if (!(appender instanceof Appender)) {
+            throw error("[" + appender.getClass().getName() + "] does not implement " + Appender.class.getName());
+        }
+        String variable = declare(appender);
+        statement(variable + ".setContext(lc);");
+        statement(variable + ".setName(" + quote(name) + ");");
+        appenderVariables.put(name, variable);
+
+        handleNestedElements(element, appender, variable);
+        statement(variable + ".start();");
+    }
+
+    private void handleLogger(Element element, String loggerExpression, boolean root) throws JoranException {
+        String variable = "logger" + variableCount++;
+        statement("ch.qos.logback.classic.Logger " + variable + " = " + loggerExpression + ";");
+
+        String level = attribute(element, "level");
+        if (level != null) {
+            setLevel(variable, level, root);
+        }
+        String additivity = attribute(element, ActionConst.ADDITIVITY_ATTRIBUTE);
+        if (!root && !OptionHelper.isEmpty(additivity)) {
+            String value;
+            if (needsSubstitution(additivity)) {
+                value = OPTION_HELPER + ".toBoolean(subst(" + quote(additivity) + "), true)";
+            } else {
+                value = String.valueOf(OptionHelper.toBoolean(additivity, true));
+            }
+            statement(variable + ".setAdditive(" + value + ");");
+        }
+
+        for (Element child : childElements(element)) {
+            String tagName = child.getTagName();
+            if ("level".equals(tagName)) {
+                setLevel(variable, requiredAttribute(child, "value"), root);
+            } else if ("appender-ref".equals(tagName)) {
+                appenderRef(child, variable);
+            } else {
+                throw unsupported(child);
+            }
+        }
+    }
+
+    private void setLevel(String variable, String level, boolean root) {
+        String value;
+        if (needsSubstitution(level)) {
+            value = (root ? LEVEL + ".toLevel" : "toLevel") + "(subst(" + quote(level) + "))";
+        } else if (!root && (ActionConst.INHERITED.equalsIgnoreCase(level) || ActionConst.NULL.equalsIgnoreCase(level))) {
+            value = "null";
+        } else {
+            value = LEVEL + "." + Level.toLevel(level);
+        }
+        statement(variable + ".setLevel(" + value + ");");
+    }
+
+    private void appenderRef(Element element, String variable) throws JoranException {
+        String ref = literalAttribute(element, ActionConst.REF_ATTRIBUTE);
+        String appenderVariable = appenderVariables.get(ref);
+        if (appenderVariable == null) {
+            throw error("Could not find an appender named [" + ref + "]. Appenders must be defined before being referenced");
+        }
+        statement(variable + ".addAppender(" + appenderVariable + ");");
+    }
+
+    /**
+     * Mirrors NestedBasicPropertyIA and NestedComplexPropertyIA for the children
+     * of <code>element</code>, <code>component</code> being the object built for
+     * <code>element</code> at build time.
+     */
+    private void handleNestedElements(Element element, Object component, String variable) throws JoranException {
+        PropertySetter setter = new PropertySetter(beanDescriptionCache, component);
+        setter.setContext(context);
+
+        for (Element child : childElements(element)) {
+            String tagName = child.getTagName();
+            if ("appender-ref".equals(tagName) && component instanceof AppenderAttachable) {
+                appenderRef(child, variable);
+                continue;
+            }
+            switch (setter.computeAggregationType(tagName)) {
+            case AS_BASIC_PROPERTY:
+                basicProperty(child, variable, findMethod(setter, tagName, false));
+                break;
+            case AS_BASIC_PROPERTY_COLLECTION:
+                basicProperty(child, variable, findMethod(setter, tagName, true));
+                break;
+            case AS_COMPLEX_PROPERTY:
+                complexProperty(child, setter, variable, findMethod(setter, tagName, false));
+                break;
+            case AS_COMPLEX_PROPERTY_COLLECTION:
+                complexProperty(child, setter, variable, findMethod(setter, tagName, true));
+                break;
+            default:
+                throw error("No property, component or supported element named <" + tagName + "> in [" + component.getClass().getName() + "]");
+            }
+        }
+    }
+
+    private Method findMethod(PropertySetter setter, String tagName, boolean adder) {
+        String propertyName = BeanUtil.toLowerCamelCase(tagName);
+        if (adder) {
+            return beanDescriptionCache.getBeanDescription(setter.getObjClass()).getAdder(propertyName);
+        } else {
+            return beanDescriptionCache.getBeanDescription(setter.getObjClass()).getSetter(propertyName);
+        }
+    }
+
+    private void basicProperty(Element element, String variable, Method method) throws JoranException {
+        String text = text(element);
+        // as with Joran, an empty body leaves the property untouched
+        if (text.trim().length() == 0) {
+            return;
+        }
+        statement(variable + "." + method.getName() + "(" + convertedValue(text, method.getParameterTypes()[0]) + ");");
+    }
+
+    private void complexProperty(Element element, PropertySetter parentSetter, String parentVariable, Method method) throws JoranException {
+        String tagName = element.getTagName();
+        String className = attribute(element, "class");
+        Object component;
+        if (!OptionHelper.isEmpty(className)) {
+            component = newComponent(element, className);
+        } else {
+            Class<?> componentClass = parentSetter.getClassNameViaImplicitRules(tagName, parentSetter.computeAggregationType(tagName), registry);
+            if (componentClass == null) {
+                throw error("Could not find an appropriate class for property [" + tagName + "]");
+            }
+            component = newComponent(element, componentClass.getName());
+        }
+        if (!method.getParameterTypes()[0].isInstance(component)) {
+            throw error("[" + component.getClass().getName() + "] is not assignable to [" + method.getParameterTypes()[0].getName() + "] in <" + tagName + ">");
+        }
+
+        String variable = declare(component);
+        if (component instanceof ContextAware) {
+            statement(variable + ".setContext(lc);");
+        }
+        handleNestedElements(element, component, variable);
+
+        Method parentMethod = beanDescriptionCache.getBeanDescription(component.getClass()).getSetter("parent");
+        if (parentMethod != null && parentMethod.getParameterTypes()[0].isInstance(parentSetter.getObj())) {
+            statement(variable + ".setParent(" + parentVariable + ");");
+        }
+        if (component instanceof LifeCycle && NoAutoStartUtil.notMarkedWithNoAutoStart(component)) {
+            statement(variable + ".start();");
+        }
+        statement(parentVariable + "." + method.getName() + "(" + variable + ");");
+    }
+
+    private Object newComponent(Element element, String className) throws JoranException {
+        if (needsSubstitution(className)) {
+            throw error("The class of <" + element.getTagName() + "> must be known at build time, found [" + className + "]");
+        }
+        try {
+            Class<?> componentClass = Loader.loadClass(className.trim(), context);
+            if (!Modifier.isPublic(componentClass.getModifiers()) || componentClass.getCanonicalName() == null) {
+                throw error("[" + componentClass.getName() + "] used in <" + element.getTagName() + "> is not a public class");
+            }
+            return componentClass.newInstance();
+        } catch (JoranException e) {
+            throw e;
+        } catch (Exception e) {
+            String errMsg = "Could not create component [" + element.getTagName() + "] of type [" + className + "]";
+            addError(errMsg, e);
+            throw new JoranException(errMsg, e);
+        }
+    }
+
+    private String declare(Object component) {
+        Class<?> componentClass = component.getClass();
+        String simpleName = componentClass.getSimpleName();
+        String variable = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1) + variableCount++;
+        statement(componentClass.getCanonicalName() + " " + variable + " = new " + componentClass.getCanonicalName() + "();");
+        return variable;
+    }
+
+    /**
+     * Returns an expression of the given type for the value <code>text</code>, as
+     * {@link StringToObjectConverter} would convert it. Values free of variables are
+     * converted at build time.
+     */
+    String convertedValue(String text, Class<?> type) throws JoranException {
+        if (String.class.isAssignableFrom(type)) {
+            return stringValue(text);
+        }
+        String typeName = type.getCanonicalName();
+        if (needsSubstitution(text)) {
+            String value = stringValue(text);
+            if (type.isPrimitive()) {
+                return boxedTypeName(type) + ".valueOf(" + value + ")";
+            } else if (Charset.class.isAssignableFrom(type)) {
+                return "java.nio.charset.Charset.forName(" + value + ")";
+            } else {
+                return typeName + ".valueOf(" + value + ")";
+            }
+        }
+
+        Object converted;
+        try {
+            converted = StringToObjectConverter.convertArg(this, text, type);
+        } catch (Exception e) {
+            converted = null;
+        }
+        if (converted == null) {
+            throw error("Failed to convert [" + text.trim() + "] to type [" + type.getName() + "]");
+        }
+        String value = text.trim();
+        if (type == Integer.TYPE || type == Boolean.TYPE) {
+            return converted.toString();
+        } else if (type == Long.TYPE) {
+            return converted + "L";
+        } else if (type == Float.TYPE) {
+            return converted + "f";
+        } else if (type == Double.TYPE) {
+            return converted + "d";
+        } else if (type.isEnum()) {
+            return typeName + "." + value;
+        } else if (Charset.class.isAssignableFrom(type)) {
+            return "java.nio.charset.Charset.forName(" + quote(text) + ")";
+        } else {
+            return typeName + ".valueOf(" + quote(value) + ")";
+        }
+    }
+
+    private static String boxedTypeName(Class<?> primitiveType) {
+        if (primitiveType == Integer.TYPE) {
+            return "Integer";
+        } else if (primitiveType == Long.TYPE) {
+            return "Long";
+        } else if (primitiveType == Float.TYPE) {
+            return "Float";
+        } else if (primitiveType == Double.TYPE) {
+            return "Double";
+        } else {
+            return "Boolean";
+        }
+    }
+
+    /**
+     * Returns a String expression for the trimmed value of <code>text</code>,
+     * substituting variables at runtime if necessary.
+     */
+    String stringValue(String text) {
+        if (needsSubstitution(text)) {
+            return "subst(" + quote(text) + ").trim()";
+        }
+        return quote(text.trim());
+    }
+
+    static boolean needsSubstitution(String text) {
+        return text.indexOf(CoreConstants.DOLLAR) != -1;
+    }
+
+    static String quote(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private String attribute(Element element, String name) {
+        return element.hasAttribute(name) ? element.getAttribute(name) : null;
+    }
+
+    private String requiredAttribute(Element element, String name) throws JoranException {
+        String value = attribute(element, name);
+        if (value == null) {
+            throw error("Missing attribute [" + name + "] in <" + element.getTagName() + ">");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of an attribute which must be known at build time.
+     */
+    private String literalAttribute(Element element, String name) throws JoranException {
+        String value = attribute(element, name);
+        if (value != null && needsSubstitution(value)) {
+            throw error("Attribute [" + name + "] of <" + element.getTagName() + "> must be known at build time, found [" + value + "]");
+        }
+        return value;
+    }
+
+    private static String text(Element element) {
+        StringBuilder sb = new StringBuilder();
+        NodeList nodes = element.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+                sb.append(node.getNodeValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Iterable<Element> childElements(Element element) {
+        List<Element> children = new ArrayList<Element>();
+        NodeList nodes = element.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                children.add((Element) nodes.item(i));
+            }
+        }
+        return children;
+    }
+
+    private JoranException unsupported(Element element) {
+        return error("Element <" + element.getTagName() + "> is not supported by " + getClass().getSimpleName());
+    }
+
+    private JoranException error(String errMsg) {
+        addError(errMsg);
+        return new JoranException(errMsg);
+    }
+
+    private void statement(String statement) {
+        body.append(INDENT).append(statement).append(CoreConstants.LINE_SEPARATOR);
+    }
+
+    private String classSource(String className) {
+        int dot = className.lastIndexOf('.');
+        String packageName = dot == -1 ? null : className.substring(0, dot);
+        String simpleName = className.substring(dot + 1);
+
+        String n = CoreConstants.LINE_SEPARATOR;
+        String i1 = INDENT.substring(4);
+        String i2 = INDENT;
+        StringBuilder sb = new StringBuilder();
+        if (packageName != null) {
+            sb.append("package ").append(packageName).append(';').append(n).append(n);
+        }
+        sb.append("/**").append(n);
+        sb.append(" * Generated by ").append(getClass().getName()).append(". Do not edit.").append(n);
+        sb.append(" */").append(n);
+        sb.append("public class ").append(simpleName).append(" extends ").append(ContextAwareBase.class.getName());
+        sb.append(" implements ").append(Configurator.class.getName()).append(", ch.qos.logback.core.spi.PropertyContainer {").append(n).append(n);
+        sb.append(i1).append("private final java.util.Map<String, String> properties = new java.util.HashMap<String, String>();").append(n).append(n);
+
+        sb.append(i1).append("public void configure(").append(LoggerContext.class.getName()).append(" lc) {").append(n);
+        sb.append(i2).append("synchronized (lc.getConfigurationLock()) {").append(n);
+        sb.append(i2).append(i1).append("lc.beginLevelStaging();").append(n);
+        sb.append(i2).append(i1).append("try {").append(n);
+        sb.append(i2).append(i2).append("doConfigure(lc);").append(n);
+        sb.append(i2).append(i1).append("} finally {").append(n);
+        sb.append(i2).append(i2).append("lc.endLevelStaging();").append(n);
+        sb.append(i2).append(i1).append('}').append(n);
+        sb.append(i2).append('}').append(n);
+        sb.append(i1).append('}').append(n).append(n);
+
+        sb.append(i1).append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })").append(n);
+        sb.append(i1).append("private void doConfigure(").append(LoggerContext.class.getName()).append(" lc) {").append(n);
+        sb.append(body);
+        sb.append(i1).append('}').append(n).append(n);
+
+        sb.append(i1).append("private String subst(String value) {").append(n);
+        sb.append(i2).append("return ").append(OPTION_HELPER).append(".substVars(value, this, context);").append(n);
+        sb.append(i1).append('}').append(n).append(n);
+
+        sb.append(i1).append("private static ").append(LEVEL).append(" toLevel(String levelStr) {").append(n);
+        sb.append(i2).append("if (\"").append(ActionConst.INHERITED).append("\".equalsIgnoreCase(levelStr) || \"").append(ActionConst.NULL);
+        sb.append("\".equalsIgnoreCase(levelStr)) {").append(n);
+        sb.append(i2).append(i1).append("return null;").append(n);
+        sb.append(i2).append('}').append(n);
+        sb.append(i2).append("return ").append(LEVEL).append(".toLevel(levelStr);").append(n);
+        sb.append(i1).append('}').append(n).append(n);
+
+        sb.append(i1).append("public String getProperty(String key) {").append(n);
+        sb.append(i2).append("return properties.get(key);").append(n);
+        sb.append(i1).append('}').append(n).append(n);
+
+        sb.append(i1).append("public java.util.Map<String, String> getCopyOfPropertyMap() {").append(n);
+        sb.append(i2).append("return new java.util.HashMap<String, String>(properties);").append(n);
+        sb.append(i1).append('}').append(n);
+        sb.append('}').append(n);
+        return sb.toString();
+    }
+
+    static void usage(String msg) {
+        System.err.println(msg);
+        System.err.println("Usage: java " + ConfiguratorGenerator.class.getName() + " configFile className sourceDir [resourceDir]");
+        System.exit(1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || args.length > 4) {
+            usage("Wrong number of arguments.");
+        }
+        File configFile = new File(args[0]);
+        String className = args[1];
+        File sourceDir = new File(args[2]);
+        File resourceDir = args.length == 4 ? new File(args[3]) : sourceDir;
+
+        LoggerContext lc = new LoggerContext();
+        ConfiguratorGenerator generator = new ConfiguratorGenerator();
+        generator.setContext(lc);
+        InputStream in = new FileInputStream(configFile);
+        try {
+            String source = generator.generate(in, className);
+            generator.write(className, source, sourceDir, resourceDir);
+        } catch (JoranException e) {
+            StatusPrinter.print(lc);
+            System.exit(1);
+        } finally {
+            in.close();
+        }
+    }
+}
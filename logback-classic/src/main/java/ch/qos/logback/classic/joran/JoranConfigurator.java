@@ -13,6 +13,9 @@
  */
 package ch.qos.logback.classic.joran;
 
+import java.util.List;
+
+import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.action.*;
 import ch.qos.logback.classic.sift.SiftAction;
 import ch.qos.logback.classic.spi.ILoggingEvent;
@@ -25,8 +28,10 @@ import ch.qos.logback.core.joran.action.NOPAction;
 import ch.qos.logback.core.joran.conditional.ElseAction;
 import ch.qos.logback.core.joran.conditional.IfAction;
 import ch.qos.logback.core.joran.conditional.ThenAction;
+import ch.qos.logback.core.joran.event.SaxEvent;
 import ch.qos.logback.core.joran.spi.DefaultNestedComponentRegistry;
 import ch.qos.logback.core.joran.spi.ElementSelector;
+import ch.qos.logback.core.joran.spi.JoranException;
 import ch.qos.logback.core.joran.spi.RuleStore;
 
 /**
@@ -36,6 +41,26 @@ import ch.qos.logback.core.joran.spi.RuleStore;
  */
 public class JoranConfigurator extends JoranConfiguratorBase<ILoggingEvent> {
 
+    /**
+     * Stages the levels set by the configuration and commits them at the end,
+     * so that they become visible to logging threads all at once while the
+     * level lock is only held for the commit.
+     */
+    @Override
+    public void doConfigure(final List<SaxEvent> eventList) throws JoranException {
+        if (!(context instanceof LoggerContext)) {
+            super.doConfigure(eventList);
+            return;
+        }
+        LoggerContext lc = (LoggerContext) context;
+        lc.beginLevelStaging();
+        try {
+            super.doConfigure(eventList);
+        } finally {
+            lc.endLevelStaging();
+        }
+    }
+
     @Override
     public void addInstanceRules(RuleStore rs) {
         // parent rules already added
@@ -32,6 +32,7 @@ import ch.qos.logback.core.util.ContextUtil;
 import ch.qos.logback.core.util.Duration;
 import ch.qos.logback.core.util.OptionHelper;
 import ch.qos.logback.core.util.StatusListenerConfigHelper;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 public class ConfigurationAction extends Action {
     static final String INTERNAL_DEBUG_ATTR = "debug";
@@ -91,7 +92,7 @@ public class ConfigurationAction extends Action {
         String scanAttrib = ic.subst(attributes.getValue(SCAN_ATTR));
         if (!OptionHelper.isEmpty(scanAttrib) && !"false".equalsIgnoreCase(scanAttrib)) {
 
-            ScheduledExecutorService scheduledExecutorService = context.getScheduledExecutorService();
+            ScheduledExecutorService scheduledExecutorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.HOUSEKEEPING_EXECUTOR_NAME);
             URL mainURL = ConfigurationWatchListUtil.getMainWatchURL(context);
             if (mainURL == null) {
                 addWarn("Due to missing top level configuration file, reconfiguration on change (configuration file scanning) cannot be done.");
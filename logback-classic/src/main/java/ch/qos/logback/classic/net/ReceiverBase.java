@@ -13,8 +13,10 @@
  */
 package ch.qos.logback.classic.net;
 
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.spi.LifeCycle;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * An abstract base for components that receive logging events from a remote
@@ -36,7 +38,7 @@ public abstract class ReceiverBase extends ContextAwareBase implements LifeCycle
             throw new IllegalStateException("context not set");
         }
         if (shouldStart()) {
-            getContext().getScheduledExecutorService().execute(getRunnableTask());
+            ExecutorServiceUtil.getScheduledExecutorService(getContext(), CoreConstants.NETWORK_EXECUTOR_NAME).execute(getRunnableTask());
             started = true;
         }
     }
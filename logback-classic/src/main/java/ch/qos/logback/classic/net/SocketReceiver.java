@@ -137,6 +137,8 @@ public class SocketReceiver extends ReceiverBase implements Runnable, SocketConn
 
     private Future<Socket> activateConnector(SocketConnector connector) {
         try {
+            // not the network executor, run() occupies one of its threads
+            // while waiting for the connector
             return getContext().getScheduledExecutorService().submit(connector);
         } catch (RejectedExecutionException ex) {
             return null;
@@ -15,10 +15,9 @@ package ch.qos.logback.classic.net;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.SocketException;
-import java.net.UnknownHostException;
 
 import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.pattern.Syslog5424StartConverter;
 import ch.qos.logback.classic.pattern.SyslogStartConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
@@ -27,7 +26,6 @@ import ch.qos.logback.classic.util.LevelToSyslogSeverity;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.net.SyslogAppenderBase;
-import ch.qos.logback.core.net.SyslogOutputStream;
 
 /**
  * This appender can be used to send messages to a remote syslog daemon. <p> For
@@ -46,18 +44,52 @@ public class SyslogAppender extends SyslogAppenderBase<ILoggingEvent> {
 
     boolean throwableExcluded = false;
 
+    boolean rfc5424 = false;
+    String appName;
+    String structuredDataId;
+
     public void start() {
+        if (rfc5424) {
+            checkQuotable("appName", appName);
+            checkQuotable("structuredDataId", structuredDataId);
+        }
         super.start();
         setupStackTraceLayout();
     }
 
     String getPrefixPattern() {
+        if (rfc5424) {
+            String quotedAppName = appName == null ? null : quoteOption(appName);
+            String options = getFacility() + ", " + (quotedAppName == null ? "-" : quotedAppName);
+            String quotedSdId = structuredDataId == null ? null : quoteOption(structuredDataId);
+            if (quotedSdId != null) {
+                options += ", " + quotedSdId;
+            }
+            return "%syslog5424Start{" + options + "}%nopex{}";
+        }
         return "%syslogStart{" + getFacility() + "}%nopex{}";
     }
 
-    @Override
-    public SyslogOutputStream createOutputStream() throws SocketException, UnknownHostException {
-        return new SyslogOutputStream(getSyslogHost(), getPort());
+    /**
+     * Options of the prefix pattern are quoted so that characters such as '}'
+     * or ',' are passed through. Within quotes, a backslash is kept along with
+     * the character following it, hence values containing both quote
+     * characters or ending with a backslash cannot be passed.
+     *
+     * @return the quoted value, null if it cannot be quoted
+     */
+    static String quoteOption(String value) {
+        char quote = value.indexOf('"') < 0 ? '"' : '\'';
+        if (value.indexOf(quote) >= 0 || value.endsWith("\\")) {
+            return null;
+        }
+        return quote + value + quote;
+    }
+
+    private void checkQuotable(String property, String value) {
+        if (value != null && quoteOption(value) == null) {
+            addError("The " + property + " [" + value + "] contains both quote characters or ends with a backslash, it is ignored");
+        }
     }
 
     /**
@@ -123,6 +155,7 @@ public class SyslogAppender extends SyslogAppenderBase<ILoggingEvent> {
     public Layout<ILoggingEvent> buildLayout() {
         PatternLayout layout = new PatternLayout();
         layout.getInstanceConverterMap().put("syslogStart", SyslogStartConverter.class.getName());
+        layout.getInstanceConverterMap().put("syslog5424Start", Syslog5424StartConverter.class.getName());
         if (suffixPattern == null) {
             suffixPattern = DEFAULT_SUFFIX_PATTERN;
         }
@@ -134,6 +167,7 @@ public class SyslogAppender extends SyslogAppenderBase<ILoggingEvent> {
 
     private void setupStackTraceLayout() {
         stackTraceLayout.getInstanceConverterMap().put("syslogStart", SyslogStartConverter.class.getName());
+        stackTraceLayout.getInstanceConverterMap().put("syslog5424Start", Syslog5424StartConverter.class.getName());
 
         stackTraceLayout.setPattern(getPrefixPattern() + stackTracePattern);
         stackTraceLayout.setContext(getContext());
@@ -177,4 +211,46 @@ public class SyslogAppender extends SyslogAppenderBase<ILoggingEvent> {
     public void setStackTracePattern(String stackTracePattern) {
         this.stackTracePattern = stackTracePattern;
     }
-}
\ No newline at end of file
+
+    public boolean isRfc5424() {
+        return rfc5424;
+    }
+
+    /**
+     * When true, messages are formatted according to RFC 5424 instead of the
+     * legacy BSD format of RFC 3164. MDC entries are then sent as structured
+     * data.
+     *
+     * @since 1.2.14
+     */
+    public void setRfc5424(boolean rfc5424) {
+        this.rfc5424 = rfc5424;
+    }
+
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * The APP-NAME field of RFC 5424 messages. Defaults to the NILVALUE '-'.
+     *
+     * @since 1.2.14
+     */
+    public void setAppName(String appName) {
+        this.appName = appName;
+    }
+
+    public String getStructuredDataId() {
+        return structuredDataId;
+    }
+
+    /**
+     * The SD-ID under which MDC entries are emitted in RFC 5424 messages.
+     * Defaults to "mdc@32473".
+     *
+     * @since 1.2.14
+     */
+    public void setStructuredDataId(String structuredDataId) {
+        this.structuredDataId = structuredDataId;
+    }
+}
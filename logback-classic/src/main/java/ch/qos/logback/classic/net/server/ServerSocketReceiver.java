@@ -56,7 +56,9 @@ public class ServerSocketReceiver extends ReceiverBase {
 
             ServerListener<RemoteAppenderClient> listener = createServerListener(serverSocket);
 
-            runner = createServerRunner(listener, getContext().getExecutorService());
+            // clients are served on the shared executor, the runner itself
+            // occupies a thread of the network executor
+            runner = createServerRunner(listener, getContext().getScheduledExecutorService());
             runner.setContext(getContext());
             return true;
         } catch (Exception ex) {
@@ -111,7 +111,12 @@ public class CallerDataConverter extends ClassicConverter {
 
     public String convert(ILoggingEvent le) {
         StringBuilder buf = new StringBuilder();
+        appendTo(buf, le);
+        return buf.toString();
+    }
 
+    @Override
+    public void appendTo(StringBuilder buf, ILoggingEvent le) {
         if (evaluatorList != null) {
             boolean printCallerData = false;
             for (int i = 0; i < evaluatorList.size(); i++) {
@@ -136,7 +141,7 @@ public class CallerDataConverter extends ClassicConverter {
             }
 
             if (!printCallerData) {
-                return CoreConstants.EMPTY_STRING;
+                return;
             }
         }
 
@@ -151,9 +156,8 @@ public class CallerDataConverter extends ClassicConverter {
                 buf.append(cda[i]);
                 buf.append(CoreConstants.LINE_SEPARATOR);
             }
-            return buf.toString();
         } else {
-            return CallerData.CALLER_DATA_NA;
+            buf.append(CallerData.CALLER_DATA_NA);
         }
     }
 
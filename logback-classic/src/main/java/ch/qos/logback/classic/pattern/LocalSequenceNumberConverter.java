@@ -33,4 +33,9 @@ public class LocalSequenceNumberConverter extends ClassicConverter {
     public String convert(ILoggingEvent event) {
         return Long.toString(sequenceNumber.getAndIncrement());
     }
+
+    @Override
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(sequenceNumber.getAndIncrement());
+    }
 }
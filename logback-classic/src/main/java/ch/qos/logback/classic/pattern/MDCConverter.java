@@ -61,11 +61,30 @@ public class MDCConverter extends ClassicConverter {
         }
     }
 
+    @Override
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        Map<String, String> mdcPropertyMap = event.getMDCPropertyMap();
+
+        if (mdcPropertyMap == null) {
+            buf.append(defaultValue);
+        } else if (key == null) {
+            appendMDCForAllKeys(buf, mdcPropertyMap);
+        } else {
+            String value = mdcPropertyMap.get(key);
+            buf.append(value != null ? value : defaultValue);
+        }
+    }
+
     /**
      * if no key is specified, return all the values present in the MDC, in the format "k1=v1, k2=v2, ..."
      */
     private String outputMDCForAllKeys(Map<String, String> mdcPropertyMap) {
         StringBuilder buf = new StringBuilder();
+        appendMDCForAllKeys(buf, mdcPropertyMap);
+        return buf.toString();
+    }
+
+    private void appendMDCForAllKeys(StringBuilder buf, Map<String, String> mdcPropertyMap) {
         boolean first = true;
         for (Map.Entry<String, String> entry : mdcPropertyMap.entrySet()) {
             if (first) {
@@ -76,7 +95,6 @@ public class MDCConverter extends ClassicConverter {
             // format: key0=value0, key1=value1
             buf.append(entry.getKey()).append('=').append(entry.getValue());
         }
-        return buf.toString();
     }
     
     /**
@@ -32,4 +32,10 @@ public class RelativeTimeConverter extends ClassicConverter {
             return timesmapCache;
         }
     }
+
+    @Override
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        // appending the long directly needs neither the cache nor its lock
+        buf.append(event.getTimeStamp() - event.getLoggerContextVO().getBirthTime());
+    }
 }
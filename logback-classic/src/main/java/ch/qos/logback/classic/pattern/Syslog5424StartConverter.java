@@ -0,0 +1,213 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.pattern;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LevelToSyslogSeverity;
+import ch.qos.logback.core.net.SyslogAppenderBase;
+
+/**
+ * Outputs the header of an RFC 5424 syslog message, that is
+ * <pre>&lt;PRI&gt;1 TIMESTAMP HOSTNAME APP-NAME PROCID MSGID STRUCTURED-DATA </pre>
+ * 
+ * <p>The first option is the facility, the second, optional, the APP-NAME and
+ * the third, optional, the SD-ID under which MDC entries are emitted as
+ * structured data. PROCID and MSGID are always NILVALUEs.
+ * 
+ * @since 1.2.14
+ */
+public class Syslog5424StartConverter extends ClassicConverter {
+
+    static final String NILVALUE = "-";
+    static final String DEFAULT_SD_ID = "mdc@32473";
+    static final int MAX_PARAM_NAME_LENGTH = 32;
+    static final int MAX_APP_NAME_LENGTH = 48;
+    static final int MAX_SD_ID_LENGTH = 32;
+
+    long lastTimestamp = -1;
+    String secondsStr;
+    String zoneStr;
+    SimpleDateFormat secondsFormat;
+    SimpleDateFormat zoneFormat;
+
+    String localHostName;
+    int facility;
+    String appName = NILVALUE;
+    String sdId = DEFAULT_SD_ID;
+
+    public void start() {
+        List<String> optionList = getOptionList();
+        String facilityStr = getFirstOption();
+        if (facilityStr == null) {
+            addError("was expecting a facility string as an option");
+            return;
+        }
+        facility = SyslogAppenderBase.facilityStringToint(facilityStr);
+
+        if (optionList.size() > 1 && optionList.get(1).trim().length() > 0) {
+            String name = optionList.get(1).trim();
+            if (isPrintableAscii(name, MAX_APP_NAME_LENGTH)) {
+                appName = name;
+            } else {
+                addError("APP-NAME [" + name + "] is not made of at most " + MAX_APP_NAME_LENGTH
+                                + " printable US-ASCII characters, using the NILVALUE instead");
+            }
+        }
+        if (optionList.size() > 2 && optionList.get(2).trim().length() > 0) {
+            String id = optionList.get(2).trim();
+            if (isPrintableAscii(id, MAX_SD_ID_LENGTH) && id.indexOf('=') < 0 && id.indexOf(']') < 0 && id.indexOf('"') < 0) {
+                sdId = id;
+            } else {
+                addError("SD-ID [" + id + "] is not made of at most " + MAX_SD_ID_LENGTH
+                                + " printable US-ASCII characters other than '=', ']' and '\"', using [" + DEFAULT_SD_ID + "] instead");
+            }
+        }
+
+        localHostName = getLocalHostname();
+        secondsFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+        zoneFormat = new SimpleDateFormat("Z", Locale.US);
+        super.start();
+    }
+
+    public String convert(ILoggingEvent event) {
+        StringBuilder sb = new StringBuilder(128);
+
+        int pri = facility + LevelToSyslogSeverity.convert(event);
+
+        sb.append('<').append(pri).append(">1 ");
+        appendTimestamp(sb, event.getTimeStamp());
+        sb.append(' ').append(localHostName);
+        sb.append(' ').append(appName);
+        sb.append(' ').append(NILVALUE);
+        sb.append(' ').append(NILVALUE);
+        sb.append(' ');
+        appendStructuredData(sb, event.getMDCPropertyMap());
+        sb.append(' ');
+        return sb.toString();
+    }
+
+    static boolean isPrintableAscii(String s, int maxLength) {
+        int len = s.length();
+        if (len > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c <= ' ' || c > '~') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void appendStructuredData(StringBuilder sb, Map<String, String> mdcPropertyMap) {
+        if (mdcPropertyMap == null || mdcPropertyMap.isEmpty()) {
+            sb.append(NILVALUE);
+            return;
+        }
+        sb.append('[').append(sdId);
+        for (Map.Entry<String, String> entry : mdcPropertyMap.entrySet()) {
+            sb.append(' ');
+            appendParamName(sb, entry.getKey());
+            sb.append("=\"");
+            appendParamValue(sb, entry.getValue());
+            sb.append('"');
+        }
+        sb.append(']');
+    }
+
+    /**
+     * PARAM-NAMEs are restricted to 32 printable US-ASCII characters other
+     * than '=', ' ', ']' and '"'. Offending characters are replaced by '_'.
+     */
+    static void appendParamName(StringBuilder sb, String name) {
+        int len = Math.min(name.length(), MAX_PARAM_NAME_LENGTH);
+        for (int i = 0; i < len; i++) {
+            char c = name.charAt(i);
+            if (c <= ' ' || c > '~' || c == '=' || c == ']' || c == '"') {
+                sb.append('_');
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Within PARAM-VALUEs, '"', '\' and ']' must be escaped with a backslash.
+     */
+    static void appendParamValue(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        int len = value.length();
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == ']') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+    }
+
+    /**
+     * This method gets the network name of the machine we are running on.
+     * Returns "UNKNOWN_LOCALHOST" in the unlikely case where the host name 
+     * cannot be found.
+     * @return String the name of the local host
+     */
+    public String getLocalHostname() {
+        try {
+            InetAddress addr = InetAddress.getLocalHost();
+            return addr.getHostName();
+        } catch (UnknownHostException uhe) {
+            addError("Could not determine local host name", uhe);
+            return "UNKNOWN_LOCALHOST";
+        }
+    }
+
+    void appendTimestamp(StringBuilder sb, long now) {
+        String seconds;
+        String zone;
+        synchronized (this) {
+            // the seconds and the time zone offset are cached, only the milliseconds vary
+            if ((now / 1000) != lastTimestamp) {
+                lastTimestamp = now / 1000;
+                Date nowDate = new Date(now);
+                secondsStr = secondsFormat.format(nowDate);
+                // RFC 3339 wants +hh:mm rather than +hhmm
+                String z = zoneFormat.format(nowDate);
+                zoneStr = z.substring(0, 3) + ':' + z.substring(3);
+            }
+            seconds = secondsStr;
+            zone = zoneStr;
+        }
+        int millis = (int) (now % 1000);
+        sb.append(seconds).append('.');
+        if (millis < 100) {
+            sb.append('0');
+        }
+        if (millis < 10) {
+            sb.append('0');
+        }
+        sb.append(millis).append(zone);
+    }
+}
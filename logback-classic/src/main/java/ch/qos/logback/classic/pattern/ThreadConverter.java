@@ -26,4 +26,9 @@ public class ThreadConverter extends ClassicConverter {
         return event.getThreadName();
     }
 
+    @Override
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(event.getThreadName());
+    }
+
 }
@@ -0,0 +1,109 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+
+/**
+ * Identity of a throwable proxy chain as far as its rendering is concerned:
+ * the class names and frames of the proxy, its suppressed proxies and its
+ * causes, optionally along with their messages.
+ * 
+ * <p>Frames of {@link ThrowableProxy} instances are taken as is, without
+ * creating {@link StackTraceElementProxy} instances.
+ * 
+ * @since 1.2.14
+ */
+final class ThrowableKey {
+
+    private final Object[] parts;
+    private final int hash;
+
+    private ThrowableKey(Object[] parts) {
+        this.parts = parts;
+        this.hash = Arrays.deepHashCode(parts);
+    }
+
+    static ThrowableKey of(IThrowableProxy tp, boolean includeMessages) {
+        List<Object> parts = new ArrayList<Object>();
+        collect(parts, tp, includeMessages);
+        return new ThrowableKey(parts.toArray());
+    }
+
+    private static void collect(List<Object> parts, IThrowableProxy tp, boolean includeMessages) {
+        if (tp == null) {
+            return;
+        }
+        parts.add(tp.getClassName());
+        if (includeMessages) {
+            parts.add(tp.getMessage());
+        }
+        parts.add(frames(tp));
+        parts.add(tp.getCommonFrames());
+        IThrowableProxy[] suppressed = tp.getSuppressed();
+        int suppressedCount = suppressed == null ? 0 : suppressed.length;
+        parts.add(suppressedCount);
+        for (int i = 0; i < suppressedCount; i++) {
+            collect(parts, suppressed[i], includeMessages);
+        }
+        collect(parts, tp.getCause(), includeMessages);
+    }
+
+    private static StackTraceElement[] frames(IThrowableProxy tp) {
+        if (tp instanceof ThrowableProxy) {
+            return ((ThrowableProxy) tp).getStackTrace();
+        }
+        StackTraceElementProxy[] stepArray = tp.getStackTraceElementProxyArray();
+        if (stepArray == null) {
+            return null;
+        }
+        StackTraceElement[] steArray = new StackTraceElement[stepArray.length];
+        for (int i = 0; i < stepArray.length; i++) {
+            steArray[i] = stepArray[i].getStackTraceElement();
+        }
+        return steArray;
+    }
+
+    /**
+     * A short reference to this key, as printed in place of traces seen
+     * before.
+     */
+    String reference() {
+        String hex = Integer.toHexString(hash);
+        return "00000000".substring(hex.length()) + hex;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ThrowableKey)) {
+            return false;
+        }
+        ThrowableKey other = (ThrowableKey) obj;
+        return hash == other.hash && Arrays.deepEquals(parts, other.parts);
+    }
+}
@@ -16,6 +16,7 @@ package ch.qos.logback.classic.pattern;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
@@ -26,9 +27,23 @@ import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.boolex.EvaluationException;
 import ch.qos.logback.core.boolex.EventEvaluator;
 import ch.qos.logback.core.status.ErrorStatus;
+import ch.qos.logback.core.util.Duration;
 
 /**
  * Add a stack trace in case the event contains a Throwable.
+ * 
+ * <p>Besides the length, evaluator names and ignored stack trace lines, the
+ * options may contain:
+ * <ul>
+ * <li><code>cacheSize=N</code>: the number of rendered stack traces kept for
+ * reuse, keyed by the class names, messages and frames of the throwable
+ * chain. The default is {@value #DEFAULT_CACHE_SIZE}, 0 disables the
+ * cache.</li>
+ * <li><code>seenBefore=DURATION</code>: a stack trace already printed in full
+ * within the given duration, e.g. <code>seenBefore=1 minute</code>, is replaced
+ * by its first line and a short reference to the full trace. Messages are
+ * ignored when comparing traces.</li>
+ * </ul>
  *
  * @author Ceki G&uuml;lc&uuml;
  */
@@ -36,12 +51,22 @@ public class ThrowableProxyConverter extends ThrowableHandlingConverter {
 
     protected static final int BUILDER_CAPACITY = 2048;
 
+    public static final int DEFAULT_CACHE_SIZE = 128;
+    static final String CACHE_SIZE_OPTION = "cacheSize=";
+    static final String SEEN_BEFORE_OPTION = "seenBefore=";
+    static final int MAX_SEEN_BEFORE_ENTRIES = 1024;
+
     int lengthOption;
     List<EventEvaluator<ILoggingEvent>> evaluatorList = null;
     List<String> ignoredStackTraceLines = null;
 
     int errorCount = 0;
 
+    int cacheSize = DEFAULT_CACHE_SIZE;
+    long seenBeforeMillis = 0;
+    private Map<ThrowableKey, String> renderedCache;
+    private Map<ThrowableKey, Long> lastFullTraceTimestamps;
+
     @SuppressWarnings("unchecked")
     public void start() {
 
@@ -65,12 +90,17 @@ public class ThrowableProxyConverter extends ThrowableHandlingConverter {
             }
         }
 
+        cacheSize = DEFAULT_CACHE_SIZE;
+        seenBeforeMillis = 0;
         final List<String> optionList = getOptionList();
 
         if (optionList != null && optionList.size() > 1) {
             final int optionListSize = optionList.size();
             for (int i = 1; i < optionListSize; i++) {
                 String evaluatorOrIgnoredStackTraceLine = (String) optionList.get(i);
+                if (parseCacheOption(evaluatorOrIgnoredStackTraceLine)) {
+                    continue;
+                }
                 Context context = getContext();
                 Map<String, EventEvaluator<?>> evaluatorMap = (Map<String, EventEvaluator<?>>) context.getObject(CoreConstants.EVALUATOR_MAP);
                 EventEvaluator<ILoggingEvent> ee = (EventEvaluator<ILoggingEvent>) evaluatorMap.get(evaluatorOrIgnoredStackTraceLine);
@@ -81,9 +111,28 @@ public class ThrowableProxyConverter extends ThrowableHandlingConverter {
                 }
             }
         }
+        renderedCache = cacheSize > 0 ? new ConcurrentHashMap<ThrowableKey, String>() : null;
+        lastFullTraceTimestamps = seenBeforeMillis > 0 ? new ConcurrentHashMap<ThrowableKey, Long>() : null;
         super.start();
     }
 
+    private boolean parseCacheOption(String option) {
+        try {
+            if (option.startsWith(CACHE_SIZE_OPTION)) {
+                cacheSize = Integer.parseInt(option.substring(CACHE_SIZE_OPTION.length()).trim());
+                return true;
+            }
+            if (option.startsWith(SEEN_BEFORE_OPTION)) {
+                seenBeforeMillis = Duration.valueOf(option.substring(SEEN_BEFORE_OPTION.length()).trim()).getMilliseconds();
+                return true;
+            }
+        } catch (IllegalArgumentException e) {
+            addError("Could not parse option [" + option + "]", e);
+            return true;
+        }
+        return false;
+    }
+
     private void addEvaluator(EventEvaluator<ILoggingEvent> ee) {
         if (evaluatorList == null) {
             evaluatorList = new ArrayList<EventEvaluator<ILoggingEvent>>();
@@ -100,6 +149,8 @@ public class ThrowableProxyConverter extends ThrowableHandlingConverter {
 
     public void stop() {
         evaluatorList = null;
+        renderedCache = null;
+        lastFullTraceTimestamps = null;
         super.stop();
     }
 
@@ -142,7 +193,49 @@ public class ThrowableProxyConverter extends ThrowableHandlingConverter {
             }
         }
 
-        return throwableProxyToString(tp);
+        if (lastFullTraceTimestamps != null) {
+            return renderOrReference(tp, event.getTimeStamp());
+        }
+        return cachedThrowableProxyToString(tp);
+    }
+
+    private String cachedThrowableProxyToString(IThrowableProxy tp) {
+        Map<ThrowableKey, String> cache = renderedCache;
+        if (cache == null) {
+            return throwableProxyToString(tp);
+        }
+        ThrowableKey key = ThrowableKey.of(tp, true);
+        String rendered = cache.get(key);
+        if (rendered == null) {
+            rendered = throwableProxyToString(tp);
+            if (cache.size() >= cacheSize) {
+                // crude but cheap bound, repeated traces quickly come back
+                cache.clear();
+            }
+            cache.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    private String renderOrReference(IThrowableProxy tp, long timestamp) {
+        ThrowableKey key = ThrowableKey.of(tp, false);
+        Long last = lastFullTraceTimestamps.get(key);
+        if (last != null && timestamp - last < seenBeforeMillis) {
+            StringBuilder sb = new StringBuilder(128);
+            subjoinFirstLine(sb, null, ThrowableProxyUtil.REGULAR_EXCEPTION_INDENT, tp);
+            sb.append(CoreConstants.LINE_SEPARATOR);
+            ThrowableProxyUtil.indent(sb, ThrowableProxyUtil.REGULAR_EXCEPTION_INDENT);
+            sb.append("[stack trace #").append(key.reference()).append(" seen before]").append(CoreConstants.LINE_SEPARATOR);
+            return sb.toString();
+        }
+        if (lastFullTraceTimestamps.size() >= MAX_SEEN_BEFORE_ENTRIES) {
+            lastFullTraceTimestamps.clear();
+        }
+        lastFullTraceTimestamps.put(key, timestamp);
+        StringBuilder sb = new StringBuilder(cachedThrowableProxyToString(tp));
+        ThrowableProxyUtil.indent(sb, ThrowableProxyUtil.REGULAR_EXCEPTION_INDENT);
+        sb.append("[stack trace #").append(key.reference()).append(']').append(CoreConstants.LINE_SEPARATOR);
+        return sb.toString();
     }
 
     protected String throwableProxyToString(IThrowableProxy tp) {
@@ -0,0 +1,168 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * An immutable view of a {@link TurboFilterList} specialized for one logger.
+ * 
+ * <p>For each printing level, and depending on whether a marker is passed or
+ * not, the chain retains only the filters which may influence the outcome of a
+ * call. Filters whose decision can be determined statically, see
+ * {@link TurboFilter#getStaticDecision(Logger, Level, boolean)}, are folded
+ * away. When no filter remains, the decision is computed once and reused for
+ * every subsequent call without invoking any filter.
+ * 
+ * <p>A compiled chain is valid as long as neither the turbo filter list nor the
+ * effective level of the logger change.
+ * 
+ * @since 1.2.14
+ */
+final public class CompiledTurboFilterChain {
+
+    private static final TurboFilter[] EMPTY = new TurboFilter[0];
+
+    // TRACE, DEBUG, INFO, WARN, ERROR times without/with marker
+    private static final int SLOT_COUNT = 10;
+
+    final int generation;
+    final int effectiveLevelInt;
+    final TurboFilter[] allFilters;
+
+    private final TurboFilter[][] filtersBySlot = new TurboFilter[SLOT_COUNT][];
+    private final FilterReply[] fallbackBySlot = new FilterReply[SLOT_COUNT];
+
+    CompiledTurboFilterChain(int generation, TurboFilter[] allFilters, Logger logger) {
+        this.generation = generation;
+        this.effectiveLevelInt = logger.getEffectiveLevel().levelInt;
+        this.allFilters = allFilters;
+        compileSlot(logger, Level.TRACE);
+        compileSlot(logger, Level.DEBUG);
+        compileSlot(logger, Level.INFO);
+        compileSlot(logger, Level.WARN);
+        compileSlot(logger, Level.ERROR);
+    }
+
+    /**
+     * Whether this chain was compiled for the given turbo filter list generation and
+     * effective level.
+     */
+    public boolean isValidFor(int generation, int effectiveLevelInt) {
+        return this.generation == generation && this.effectiveLevelInt == effectiveLevelInt;
+    }
+
+    /**
+     * Returns the decision for calls at <code>level</code> if it does not depend on
+     * per-call arguments, and <code>null</code> otherwise.
+     */
+    public FilterReply getStaticDecision(Level level, Marker marker) {
+        int slot = slot(level, marker);
+        if (slot < 0 || filtersBySlot[slot].length != 0) {
+            return null;
+        }
+        return fallbackBySlot[slot];
+    }
+
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format, final Object[] params, final Throwable t) {
+        int slot = slot(level, marker);
+        if (slot < 0) {
+            return TurboFilterList.decide(allFilters, marker, logger, level, format, params, t);
+        }
+        final TurboFilter[] filters = filtersBySlot[slot];
+        final int len = filters.length;
+        for (int i = 0; i < len; i++) {
+            final FilterReply r = filters[i].decide(marker, logger, level, format, params, t);
+            if (r == FilterReply.DENY || r == FilterReply.ACCEPT) {
+                return r;
+            }
+        }
+        return fallbackBySlot[slot];
+    }
+
+    private void compileSlot(Logger logger, Level level) {
+        compileSlot(logger, level, false);
+        compileSlot(logger, level, true);
+    }
+
+    private void compileSlot(Logger logger, Level level, boolean markerPresent) {
+        boolean enabled = effectiveLevelInt <= level.levelInt;
+        // the reply which leads to a different outcome than NEUTRAL
+        FilterReply decisive = enabled ? FilterReply.DENY : FilterReply.ACCEPT;
+
+        List<TurboFilter> retained = new ArrayList<TurboFilter>(allFilters.length);
+        FilterReply fallback = FilterReply.NEUTRAL;
+        for (TurboFilter tf : allFilters) {
+            FilterReply staticDecision = tf.getStaticDecision(logger, level, markerPresent);
+            if (staticDecision == null) {
+                retained.add(tf);
+            } else if (staticDecision != FilterReply.NEUTRAL) {
+                // filters further down the list are never reached
+                fallback = staticDecision;
+                break;
+            }
+        }
+
+        if (fallback != decisive) {
+            fallback = FilterReply.NEUTRAL;
+            // trailing filters which cannot reply with the decisive value do not
+            // change the outcome, whatever they reply
+            int end = retained.size();
+            while (end > 0 && !retained.get(end - 1).canReply(decisive)) {
+                end--;
+            }
+            retained = retained.subList(0, end);
+        }
+
+        int slot = slot(level, markerPresent);
+        filtersBySlot[slot] = retained.isEmpty() ? EMPTY : retained.toArray(new TurboFilter[retained.size()]);
+        fallbackBySlot[slot] = fallback;
+    }
+
+    private static int slot(Level level, Marker marker) {
+        return slot(level, marker != null);
+    }
+
+    private static int slot(Level level, boolean markerPresent) {
+        int index;
+        switch (level.levelInt) {
+        case Level.TRACE_INT:
+            index = 0;
+            break;
+        case Level.DEBUG_INT:
+            index = 2;
+            break;
+        case Level.INFO_INT:
+            index = 4;
+            break;
+        case Level.WARN_INT:
+            index = 6;
+            break;
+        case Level.ERROR_INT:
+            index = 8;
+            break;
+        default:
+            return -1;
+        }
+        return markerPresent ? index + 1 : index;
+    }
+}
@@ -27,12 +27,15 @@ import java.util.Set;
 public class ThrowableProxy implements IThrowableProxy {
 
 	static final StackTraceElementProxy[] EMPTY_STEP = new StackTraceElementProxy[0];
+	static final StackTraceElement[] EMPTY_STE = new StackTraceElement[0];
 
 	private Throwable throwable;
 	private String className;
 	private String message;
+	// the raw frames, wrapped into proxies only when first asked for
+	private StackTraceElement[] stackTrace;
 	// package-private because of ThrowableProxyUtil
-	StackTraceElementProxy[] stackTraceElementProxyArray;
+	volatile StackTraceElementProxy[] stackTraceElementProxyArray;
 	// package-private because of ThrowableProxyUtil
 	int commonFrames;
 	private ThrowableProxy cause;
@@ -68,6 +71,7 @@ public class ThrowableProxy implements IThrowableProxy {
 		this.throwable = circular;
 		this.className = circular.getClass().getName();
 		this.message = circular.getMessage();
+		this.stackTrace = EMPTY_STE;
 		this.stackTraceElementProxyArray = EMPTY_STEP;
 		this.circular = true;
 	}
@@ -77,7 +81,8 @@ public class ThrowableProxy implements IThrowableProxy {
 		this.throwable = throwable;
 		this.className = throwable.getClass().getName();
 		this.message = throwable.getMessage();
-		this.stackTraceElementProxyArray = ThrowableProxyUtil.steArrayToStepArray(throwable.getStackTrace());
+		StackTraceElement[] ste = throwable.getStackTrace();
+		this.stackTrace = ste == null ? EMPTY_STE : ste;
 		this.circular = false;
 
 		alreadyProcessedSet.add(throwable);
@@ -88,8 +93,7 @@ public class ThrowableProxy implements IThrowableProxy {
 				this.cause = new ThrowableProxy(nested, true);
 			} else {
 				this.cause = new ThrowableProxy(nested, alreadyProcessedSet);
-				this.cause.commonFrames = ThrowableProxyUtil.findNumberOfCommonFrames(nested.getStackTrace(),
-						stackTraceElementProxyArray);
+				this.cause.commonFrames = ThrowableProxyUtil.findNumberOfCommonFrames(cause.stackTrace, stackTrace);
 			}
 		}
 
@@ -105,8 +109,8 @@ public class ThrowableProxy implements IThrowableProxy {
 						suppressedList.add(throwableProxy);
 					} else {
 						ThrowableProxy throwableProxy = new ThrowableProxy(sup, alreadyProcessedSet);
-						throwableProxy.commonFrames = ThrowableProxyUtil.findNumberOfCommonFrames(sup.getStackTrace(),
-								stackTraceElementProxyArray);
+						throwableProxy.commonFrames = ThrowableProxyUtil.findNumberOfCommonFrames(throwableProxy.stackTrace,
+								stackTrace);
 						suppressedList.add(throwableProxy);
 					}
 				}
@@ -153,8 +157,39 @@ public class ThrowableProxy implements IThrowableProxy {
 		return className;
 	}
 
+	/**
+	 * The proxies are created on the first call, so that events whose stack
+	 * trace is never rendered do not pay for them.
+	 */
 	public StackTraceElementProxy[] getStackTraceElementProxyArray() {
-		return stackTraceElementProxyArray;
+		StackTraceElementProxy[] stepArray = stackTraceElementProxyArray;
+		if (stepArray == null) {
+			synchronized (this) {
+				stepArray = stackTraceElementProxyArray;
+				if (stepArray == null) {
+					stepArray = ThrowableProxyUtil.steArrayToStepArray(stackTrace);
+					stackTraceElementProxyArray = stepArray;
+				}
+			}
+		}
+		return stepArray;
+	}
+
+	/**
+	 * Returns the frames of the throwable without creating
+	 * {@link StackTraceElementProxy} instances. The returned array must not be
+	 * modified.
+	 * 
+	 * @since 1.2.14
+	 */
+	public StackTraceElement[] getStackTrace() {
+		return stackTrace;
+	}
+
+	// used by ThrowableProxyUtil
+	void setStackTrace(StackTraceElement[] stackTrace) {
+		this.stackTrace = stackTrace == null ? EMPTY_STE : stackTrace;
+		this.stackTraceElementProxyArray = null;
 	}
 
 	public boolean isCyclic() {
@@ -201,7 +236,7 @@ public class ThrowableProxy implements IThrowableProxy {
 
 	public void fullDump() {
 		StringBuilder builder = new StringBuilder();
-		for (StackTraceElementProxy step : stackTraceElementProxyArray) {
+		for (StackTraceElementProxy step : getStackTraceElementProxyArray()) {
 			String string = step.toString();
 			builder.append(CoreConstants.TAB).append(string);
 			ThrowableProxyUtil.subjoinPackagingData(builder, step);
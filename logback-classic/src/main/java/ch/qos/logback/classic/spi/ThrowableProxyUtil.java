@@ -33,11 +33,11 @@ public class ThrowableProxyUtil {
 
         int commonFramesCount = -1;
         if (parentTP != null) {
-            commonFramesCount = findNumberOfCommonFrames(nestedSTE, parentTP.getStackTraceElementProxyArray());
+            commonFramesCount = findNumberOfCommonFrames(nestedSTE, parentTP.getStackTrace());
         }
 
         nestedTP.commonFrames = commonFramesCount;
-        nestedTP.stackTraceElementProxyArray = steArrayToStepArray(nestedSTE);
+        nestedTP.setStackTrace(nestedSTE);
     }
 
     static StackTraceElementProxy[] steArrayToStepArray(StackTraceElement[] stea) {
@@ -73,6 +73,26 @@ public class ThrowableProxyUtil {
         return count;
     }
 
+    static int findNumberOfCommonFrames(StackTraceElement[] steArray, StackTraceElement[] parentSTEArray) {
+        if (parentSTEArray == null || steArray == null) {
+            return 0;
+        }
+
+        int steIndex = steArray.length - 1;
+        int parentIndex = parentSTEArray.length - 1;
+        int count = 0;
+        while (steIndex >= 0 && parentIndex >= 0) {
+            if (steArray[steIndex].equals(parentSTEArray[parentIndex])) {
+                count++;
+            } else {
+                break;
+            }
+            steIndex--;
+            parentIndex--;
+        }
+        return count;
+    }
+
     public static String asString(IThrowableProxy tp) {
         StringBuilder sb = new StringBuilder(BUILDER_CAPACITY);
 
@@ -13,12 +13,15 @@
  */
 package ch.qos.logback.classic.spi;
 
+import java.util.Collection;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Marker;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.turbo.TurboFilter;
 import ch.qos.logback.core.spi.FilterReply;
 
@@ -31,6 +34,24 @@ final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Incremented whenever the list or the state of one of its filters changes,
+     * invalidating all {@link CompiledTurboFilterChain} instances.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // the context owning this list, informed of changes so that loggers drop
+    // their cached enabled levels. May be null.
+    private final transient LoggerContext loggerContext;
+
+    public TurboFilterList() {
+        this(null);
+    }
+
+    public TurboFilterList(LoggerContext loggerContext) {
+        this.loggerContext = loggerContext;
+    }
+
     /**
      * Loop through the filters in the chain. As soon as a filter decides on
      * ACCEPT or DENY, then that value is returned. If all of the filters return
@@ -52,7 +73,11 @@ final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
             }
         }
 
-        Object[] tfa = toArray();
+        return decide(toArray(), marker, logger, level, format, params, t);
+    }
+
+    static FilterReply decide(final Object[] tfa, final Marker marker, final Logger logger, final Level level, final String format, final Object[] params,
+                    final Throwable t) {
         final int len = tfa.length;
         for (int i = 0; i < len; i++) {
             // for (TurboFilter tf : this) {
@@ -65,6 +90,142 @@ final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
         return FilterReply.NEUTRAL;
     }
 
+    /**
+     * Compile the current content of this list for the given logger.
+     */
+    public CompiledTurboFilterChain compile(Logger logger) {
+        // read the generation before taking the snapshot so that concurrent
+        // modifications invalidate the result
+        int gen = generation.get();
+        Object[] tfa = toArray();
+        TurboFilter[] filters = new TurboFilter[tfa.length];
+        System.arraycopy(tfa, 0, filters, 0, tfa.length);
+        return new CompiledTurboFilterChain(gen, filters, logger);
+    }
+
+    public int getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Invalidate compiled chains and the enabled levels cached by the loggers
+     * of the owning context, for example after a filter was started or stopped.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (loggerContext != null) {
+            loggerContext.invalidateEnabledLevels();
+        }
+    }
+
+    @Override
+    public boolean add(TurboFilter e) {
+        try {
+            return super.add(e);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void add(int index, TurboFilter element) {
+        try {
+            super.add(index, element);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean addIfAbsent(TurboFilter e) {
+        try {
+            return super.addIfAbsent(e);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TurboFilter> c) {
+        try {
+            return super.addAll(c);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends TurboFilter> c) {
+        try {
+            return super.addAll(index, c);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public int addAllAbsent(Collection<? extends TurboFilter> c) {
+        try {
+            return super.addAllAbsent(c);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public TurboFilter set(int index, TurboFilter element) {
+        try {
+            return super.set(index, element);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public TurboFilter remove(int index) {
+        try {
+            return super.remove(index);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        try {
+            return super.remove(o);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        try {
+            return super.removeAll(c);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        try {
+            return super.retainAll(c);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            super.clear();
+        } finally {
+            invalidate();
+        }
+    }
+
     // public boolean remove(TurboFilter turboFilter) {
     // return tfList.remove(turboFilter);
     // }
@@ -0,0 +1,277 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
+
+/**
+ * A lock-free variant of {@link DuplicateMessageFilter} suited to heavily
+ * concurrent applications.
+ * 
+ * <p>Instead of an LRU cache guarded by a lock, repetitions of a message
+ * format are counted in a count-min sketch made of {@value #DEPTH} rows of
+ * <b>sketchWidth</b> atomic counters, so that each call costs a few atomic
+ * reads, plus a few compare-and-sets for the calls let through, and allocates
+ * nothing. Counts are approximate: they may be overestimated when many
+ * distinct formats collide, never underestimated, even when the same message
+ * is logged concurrently.
+ * 
+ * <p>Counters are reset at the end of each window of <b>window</b> duration
+ * (one minute by default), so that up to <b>allowedRepetitions</b> repetitions
+ * of a message are let through per window. When some messages were suppressed
+ * during a window, a summary is logged at WARN level on the logger named by
+ * <b>summaryLoggerName</b>, which defaults to the name of this class. The
+ * summary is logged at the end of the window by a task running on the
+ * {@link CoreConstants#HOUSEKEEPING_EXECUTOR_NAME housekeeping} executor, even
+ * if no message is logged afterwards, and on stop.
+ * 
+ * @since 1.2.14
+ */
+public class ConcurrentDuplicateMessageFilter extends TurboFilter {
+
+    public static final int DEFAULT_SKETCH_WIDTH = 1024;
+    public static final int DEFAULT_ALLOWED_REPETITIONS = DuplicateMessageFilter.DEFAULT_ALLOWED_REPETITIONS;
+    public static final long DEFAULT_WINDOW = 60 * 1000;
+
+    static final int DEPTH = 4;
+    // odd multipliers used to derive one index per row from the format's hash
+    private static final int[] ROW_SEEDS = { 0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F };
+
+    int allowedRepetitions = DEFAULT_ALLOWED_REPETITIONS;
+    int sketchWidth = DEFAULT_SKETCH_WIDTH;
+    Duration window = new Duration(DEFAULT_WINDOW);
+    String summaryLoggerName = ConcurrentDuplicateMessageFilter.class.getName();
+
+    // sketchWidth rounded up to a power of two
+    private int tableWidth;
+    private int indexMask;
+    private final AtomicReference<Window> currentWindow = new AtomicReference<Window>();
+    // the end-of-window report of the most recent window with suppressed messages
+    private volatile ScheduledFuture<?> reportFuture;
+
+    @Override
+    public void start() {
+        if (sketchWidth < 1) {
+            addError("sketchWidth must be positive");
+            return;
+        }
+        if (window.getMilliseconds() <= 0) {
+            addError("window must be positive");
+            return;
+        }
+        // round the width up to a power of two
+        tableWidth = 1 << (32 - Integer.numberOfLeadingZeros(sketchWidth - 1));
+        indexMask = tableWidth - 1;
+        currentWindow.set(new Window(System.currentTimeMillis() + window.getMilliseconds(), tableWidth));
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> future = reportFuture;
+        if (future != null) {
+            future.cancel(false);
+            reportFuture = null;
+        }
+        Window w = currentWindow.getAndSet(null);
+        if (w != null) {
+            reportSuppressed(w);
+        }
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXXXEnabled invokes decide with a null format
+        if (format == null || !isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        return decide(format, System.currentTimeMillis());
+    }
+
+    FilterReply decide(String format, long now) {
+        Window w = currentWindow.get();
+        if (w == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (now >= w.end) {
+            w = rollover(w, now);
+        }
+
+        // String caches its hash code, for literals this is a field read
+        final int hash = format.hashCode();
+        final AtomicIntegerArray counters = w.counters;
+        while (true) {
+            int count = Integer.MAX_VALUE;
+            int minIndex = -1;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                int value = counters.get(index);
+                if (value < count) {
+                    count = value;
+                    minIndex = index;
+                }
+            }
+            if (count > allowedRepetitions) {
+                if (w.suppressed.incrementAndGet() == 1) {
+                    scheduleReport(w);
+                }
+                return FilterReply.DENY;
+            }
+            // raise the other rows before claiming the count on the lowest
+            // one, so that no concurrent caller can claim the same count
+            // through another row
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (index != minIndex) {
+                    raise(counters, index, count + 1);
+                }
+            }
+            if (counters.compareAndSet(minIndex, count, count + 1)) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+
+    private int index(int hash, int row) {
+        int mixed = hash * ROW_SEEDS[row];
+        return row * tableWidth + ((mixed ^ (mixed >>> 16)) & indexMask);
+    }
+
+    private static void raise(AtomicIntegerArray counters, int index, int value) {
+        while (true) {
+            int current = counters.get(index);
+            if (current >= value || counters.compareAndSet(index, current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes sure that the messages suppressed during <code>w</code> are
+     * reported when it ends, should no message be logged afterwards.
+     */
+    private void scheduleReport(final Window w) {
+        if (context == null) {
+            return;
+        }
+        long delay = Math.max(0, w.end - System.currentTimeMillis());
+        try {
+            reportFuture = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.HOUSEKEEPING_EXECUTOR_NAME).schedule(new Runnable() {
+                public void run() {
+                    // a no-op if a later call already rolled the window over
+                    if (currentWindow.get() == w) {
+                        rollover(w, System.currentTimeMillis());
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the context is being stopped, the filter reports on stop
+        }
+    }
+
+    private Window rollover(Window expired, long now) {
+        Window fresh = new Window(now + window.getMilliseconds(), tableWidth);
+        if (currentWindow.compareAndSet(expired, fresh)) {
+            reportSuppressed(expired);
+            return fresh;
+        }
+        // another thread won the race, or the filter was stopped
+        Window w = currentWindow.get();
+        return w == null ? fresh : w;
+    }
+
+    private void reportSuppressed(Window w) {
+        long suppressed = w.suppressed.get();
+        if (suppressed == 0 || !(context instanceof LoggerContext)) {
+            return;
+        }
+        Logger summaryLogger = ((LoggerContext) context).getLogger(summaryLoggerName);
+        summaryLogger.warn("{} duplicate messages suppressed during the last {}", suppressed, window);
+    }
+
+    /**
+     * Number of messages suppressed so far in the current window.
+     */
+    public long getSuppressedCount() {
+        Window w = currentWindow.get();
+        return w == null ? 0 : w.suppressed.get();
+    }
+
+    public int getAllowedRepetitions() {
+        return allowedRepetitions;
+    }
+
+    /**
+     * The allowed number of repetitions of a message per window.
+     */
+    public void setAllowedRepetitions(int allowedRepetitions) {
+        this.allowedRepetitions = allowedRepetitions;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    /**
+     * The number of counters per row of the sketch, rounded up to a power of
+     * two on start. Larger values reduce the odds of distinct messages being counted
+     * together.
+     */
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public String getSummaryLoggerName() {
+        return summaryLoggerName;
+    }
+
+    public void setSummaryLoggerName(String summaryLoggerName) {
+        this.summaryLoggerName = summaryLoggerName;
+    }
+
+    static final class Window {
+        final long end;
+        final AtomicIntegerArray counters;
+        final AtomicLong suppressed = new AtomicLong();
+
+        Window(long end, int width) {
+            this.end = end;
+            this.counters = new AtomicIntegerArray(DEPTH * width);
+        }
+    }
+}
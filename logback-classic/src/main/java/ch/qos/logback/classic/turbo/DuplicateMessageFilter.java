@@ -24,6 +24,9 @@ import ch.qos.logback.core.spi.FilterReply;
  * See {@link http://logback.qos.ch/manual/filters.html#DuplicateMessageFilter}
  * for details.
  * 
+ * <p>Every call goes through a synchronized LRU cache. Applications logging
+ * from many threads should consider {@link ConcurrentDuplicateMessageFilter}.
+ * 
  * @author Ceki Gulcu
  * 
  */
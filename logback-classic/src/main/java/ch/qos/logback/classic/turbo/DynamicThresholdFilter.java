@@ -211,6 +211,42 @@ public class DynamicThresholdFilter extends TurboFilter {
         super.start();
     }
 
+    /**
+     * Levels at or above the highest threshold, respectively below the lowest
+     * threshold, do not require looking up the MDC.
+     */
+    @Override
+    public FilterReply getStaticDecision(Logger logger, Level level, boolean markerPresent) {
+        if (!isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (onHigherOrEqual == onLower) {
+            return onLower;
+        }
+        Level lowest = defaultThreshold;
+        Level highest = defaultThreshold;
+        for (Level threshold : valueLevelMap.values()) {
+            if (threshold.levelInt < lowest.levelInt) {
+                lowest = threshold;
+            }
+            if (threshold.levelInt > highest.levelInt) {
+                highest = threshold;
+            }
+        }
+        if (level.isGreaterOrEqual(highest)) {
+            return onHigherOrEqual;
+        }
+        if (!level.isGreaterOrEqual(lowest)) {
+            return onLower;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canReply(FilterReply reply) {
+        return reply == FilterReply.NEUTRAL || reply == onHigherOrEqual || reply == onLower;
+    }
+
     /**
      * This method first finds the MDC value for 'key'. It then finds the level
      * threshold associated with this MDC value from the list of MDCValueLevelPair
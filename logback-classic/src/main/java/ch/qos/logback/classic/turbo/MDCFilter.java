@@ -61,6 +61,26 @@ public class MDCFilter extends MatchingFilter {
         return onMismatch;
     }
 
+    /**
+     * The MDC is consulted only if the reply on a match differs from the reply on
+     * a mismatch.
+     */
+    @Override
+    public FilterReply getStaticDecision(Logger logger, Level level, boolean markerPresent) {
+        if (MDCKey == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (onMatch == onMismatch) {
+            return onMatch;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canReply(FilterReply reply) {
+        return reply == FilterReply.NEUTRAL || reply == onMatch || reply == onMismatch;
+    }
+
     public void setValue(String value) {
         this.value = value;
     }
@@ -54,6 +54,25 @@ public class MarkerFilter extends MatchingFilter {
         }
     }
 
+    /**
+     * Calls without a marker always mismatch.
+     */
+    @Override
+    public FilterReply getStaticDecision(Logger logger, Level level, boolean markerPresent) {
+        if (!isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!markerPresent || onMatch == onMismatch) {
+            return onMismatch;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean canReply(FilterReply reply) {
+        return reply == FilterReply.NEUTRAL || reply == onMatch || reply == onMismatch;
+    }
+
     /**
      * The marker to match in the event.
      * 
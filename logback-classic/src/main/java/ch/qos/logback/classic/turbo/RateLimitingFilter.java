@@ -0,0 +1,106 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.core.util.Duration;
+
+/**
+ * Limits the rate of events with a token bucket per key, see
+ * {@link SuppressingFilterBase} for the meaning of keys.
+ * 
+ * <p>Each key may log up to <b>maxEvents</b> events per <b>period</b> on
+ * average, with bursts of up to <b>burst</b> events, which defaults to
+ * <b>maxEvents</b>. Events exceeding the rate are denied.
+ * 
+ * <p>A bucket is represented by a single {@link AtomicLong} holding its
+ * theoretical arrival time, as in the generic cell rate algorithm, so that
+ * taking a token amounts to one compare-and-set.
+ * 
+ * @since 1.2.14
+ */
+public class RateLimitingFilter extends SuppressingFilterBase<AtomicLong> {
+
+    public static final int DEFAULT_MAX_EVENTS = 100;
+    public static final long DEFAULT_PERIOD = 1000;
+
+    int maxEvents = DEFAULT_MAX_EVENTS;
+    Duration period = new Duration(DEFAULT_PERIOD);
+    int burst = 0;
+
+    private long intervalNanos;
+    private long toleranceNanos;
+
+    @Override
+    public void start() {
+        if (maxEvents < 1 || period.getMilliseconds() <= 0) {
+            addError("maxEvents and period must be positive for [" + getName() + "]");
+            return;
+        }
+        int effectiveBurst = burst > 0 ? burst : maxEvents;
+        intervalNanos = Math.max(1, period.getMilliseconds() * 1000000L / maxEvents);
+        toleranceNanos = intervalNanos * effectiveBurst;
+        super.start();
+    }
+
+    @Override
+    protected AtomicLong newState() {
+        return new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    protected boolean accept(AtomicLong theoreticalArrivalTime) {
+        return tryAcquire(theoreticalArrivalTime, System.nanoTime());
+    }
+
+    boolean tryAcquire(AtomicLong theoreticalArrivalTime, long now) {
+        for (;;) {
+            long tat = theoreticalArrivalTime.get();
+            // nanoTime values may only be compared through their difference
+            long base = tat - now < 0 ? now : tat;
+            long next = base + intervalNanos;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    public void setMaxEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+}
@@ -30,6 +30,7 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.core.joran.spi.JoranException;
 import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 import static ch.qos.logback.core.CoreConstants.MILLIS_IN_ONE_SECOND;
 
@@ -147,7 +148,7 @@ public class ReconfigureOnChangeFilter extends TurboFilter {
     // reader lock.
     void detachReconfigurationToNewThread() {
         addInfo("Detected change in [" + configurationWatchList.getCopyOfFileWatchList() + "]");
-        context.getExecutorService().submit(new ReconfiguringThread());
+        ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.HOUSEKEEPING_EXECUTOR_NAME).submit(new ReconfiguringThread());
     }
 
     void updateNextCheck(long now) {
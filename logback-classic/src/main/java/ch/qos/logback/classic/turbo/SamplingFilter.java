@@ -0,0 +1,96 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through a sample of the events of each key, see
+ * {@link SuppressingFilterBase} for the meaning of keys.
+ * 
+ * <p>When <b>keepOneIn</b> is set to N, exactly one event in N is kept,
+ * starting with the first. Otherwise each event is kept with the given
+ * <b>probability</b>.
+ * 
+ * <p>Both modes rely on a single atomic counter per key. In probabilistic
+ * mode, the counter value is scrambled by a mixing function in order to
+ * obtain a pseudo-random number, avoiding contention on a shared
+ * {@link Random}.
+ * 
+ * @since 1.2.14
+ */
+public class SamplingFilter extends SuppressingFilterBase<AtomicLong> {
+
+    int keepOneIn = 0;
+    double probability = 1.0;
+
+    private long probabilityThreshold;
+    private final Random seeds = new Random();
+
+    @Override
+    public void start() {
+        if (keepOneIn < 0 || probability < 0 || probability > 1) {
+            addError("keepOneIn must be positive and probability within [0, 1] for [" + getName() + "]");
+            return;
+        }
+        // compared against 53 bit uniform values
+        probabilityThreshold = (long) (probability * (1L << 53));
+        super.start();
+    }
+
+    @Override
+    protected AtomicLong newState() {
+        if (keepOneIn > 0) {
+            return new AtomicLong();
+        }
+        synchronized (seeds) {
+            return new AtomicLong(seeds.nextLong());
+        }
+    }
+
+    @Override
+    protected boolean accept(AtomicLong counter) {
+        long n = counter.getAndIncrement();
+        if (keepOneIn > 0) {
+            return n % keepOneIn == 0;
+        }
+        return (mix(n * 0x9E3779B97F4A7C15L) >>> 11) < probabilityThreshold;
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public int getKeepOneIn() {
+        return keepOneIn;
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    public void setProbability(double probability) {
+        this.probability = probability;
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
+
+/**
+ * Base class for turbo filters which let through only part of the events,
+ * tracking their decisions separately for each logger, level, marker or MDC
+ * value depending on the <b>keyBy</b> property.
+ * 
+ * <p>Only calls which would otherwise be enabled are taken into account, calls
+ * below the effective level of their logger are left alone. Calls made by
+ * <code>isXXXEnabled</code> methods are not taken into account either.
+ * 
+ * <p>Per-key state is created on first use and retained for the lifetime of
+ * the filter. Beyond <b>maxKeys</b> distinct keys, further keys share a single
+ * state.
+ * 
+ * <p>The number of suppressed events is reported at WARN level on the logger
+ * named by <b>summaryLoggerName</b>, which defaults to the name of the filter's
+ * class. A report is emitted every <b>summaryPeriod</b> by a task running on
+ * the {@link CoreConstants#HOUSEKEEPING_EXECUTOR_NAME housekeeping} executor,
+ * provided that events were suppressed in the meantime, and on stop. Events of
+ * the summary logger itself are never suppressed.
+ * 
+ * @param <S> the type of the per-key state
+ * @since 1.2.14
+ */
+public abstract class SuppressingFilterBase<S> extends TurboFilter {
+
+    public enum KeyBy {
+        LOGGER, LEVEL, MARKER, MDC
+    }
+
+    public static final int DEFAULT_MAX_KEYS = 1000;
+    public static final long DEFAULT_SUMMARY_PERIOD = 60 * 1000;
+
+    private static final String NO_KEY = "";
+
+    KeyBy keyBy = KeyBy.LOGGER;
+    String mdcKey;
+    int maxKeys = DEFAULT_MAX_KEYS;
+    String summaryLoggerName = getClass().getName();
+    Duration summaryPeriod = new Duration(DEFAULT_SUMMARY_PERIOD);
+
+    private final ConcurrentMap<String, S> stateMap = new ConcurrentHashMap<String, S>();
+    private final AtomicInteger keyCount = new AtomicInteger();
+    private S overflowState;
+
+    private final AtomicLong suppressedCount = new AtomicLong();
+    private ScheduledFuture<?> summaryFuture;
+
+    /**
+     * Create the state associated with a new key.
+     */
+    abstract protected S newState();
+
+    /**
+     * Whether the event associated with <code>state</code> should be let
+     * through. Invoked concurrently, must not block.
+     */
+    abstract protected boolean accept(S state);
+
+    @Override
+    public void start() {
+        if (keyBy == KeyBy.MDC && mdcKey == null) {
+            addError("The mdcKey property must be set when keying by MDC for [" + getName() + "]");
+            return;
+        }
+        stateMap.clear();
+        keyCount.set(0);
+        overflowState = newState();
+        scheduleSummary();
+        super.start();
+    }
+
+    private void scheduleSummary() {
+        long period = summaryPeriod.getMilliseconds();
+        if (context == null || period <= 0) {
+            return;
+        }
+        ScheduledExecutorService scheduledExecutorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.HOUSEKEEPING_EXECUTOR_NAME);
+        summaryFuture = scheduledExecutorService.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                reportSuppressed();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (summaryFuture != null) {
+            summaryFuture.cancel(false);
+            summaryFuture = null;
+        }
+        reportSuppressed();
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXXXEnabled invokes decide with a null format
+        if (!isStarted() || format == null || logger == null || level == null) {
+            return FilterReply.NEUTRAL;
+        }
+        // disabled calls are dropped anyway
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        if (logger.getName().equals(summaryLoggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        S state = getState(extractKey(marker, logger, level));
+        if (accept(state)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressedCount.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * This filter never accepts events outright.
+     */
+    @Override
+    public boolean canReply(FilterReply reply) {
+        return reply != FilterReply.ACCEPT;
+    }
+
+    String extractKey(Marker marker, Logger logger, Level level) {
+        String key;
+        switch (keyBy) {
+        case LEVEL:
+            key = level.levelStr;
+            break;
+        case MARKER:
+            key = marker == null ? null : marker.getName();
+            break;
+        case MDC:
+            key = MDC.get(mdcKey);
+            break;
+        default:
+            key = logger.getName();
+        }
+        return key == null ? NO_KEY : key;
+    }
+
+    S getState(String key) {
+        S state = stateMap.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (keyCount.get() >= maxKeys) {
+            return overflowState;
+        }
+        S newState = newState();
+        state = stateMap.putIfAbsent(key, newState);
+        if (state != null) {
+            return state;
+        }
+        keyCount.incrementAndGet();
+        return newState;
+    }
+
+    private void reportSuppressed() {
+        long suppressed = suppressedCount.getAndSet(0);
+        if (suppressed == 0 || !(context instanceof LoggerContext)) {
+            return;
+        }
+        Logger summaryLogger = ((LoggerContext) context).getLogger(summaryLoggerName);
+        summaryLogger.warn("{} events suppressed by [{}]", suppressed, getName() == null ? getClass().getSimpleName() : getName());
+    }
+
+    /**
+     * Number of events suppressed since the last summary.
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    public KeyBy getKeyBy() {
+        return keyBy;
+    }
+
+    /**
+     * Selects how events are grouped: by LOGGER name (the default), LEVEL,
+     * MARKER name or the value of the MDC entry designated by <b>mdcKey</b>.
+     */
+    public void setKeyBy(KeyBy keyBy) {
+        this.keyBy = keyBy;
+    }
+
+    public String getMdcKey() {
+        return mdcKey;
+    }
+
+    public void setMdcKey(String mdcKey) {
+        this.mdcKey = mdcKey;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public String getSummaryLoggerName() {
+        return summaryLoggerName;
+    }
+
+    public void setSummaryLoggerName(String summaryLoggerName) {
+        this.summaryLoggerName = summaryLoggerName;
+    }
+
+    public Duration getSummaryPeriod() {
+        return summaryPeriod;
+    }
+
+    public void setSummaryPeriod(Duration summaryPeriod) {
+        this.summaryPeriod = summaryPeriod;
+    }
+}
@@ -17,6 +17,7 @@ import org.slf4j.Marker;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.spi.FilterReply;
 import ch.qos.logback.core.spi.LifeCycle;
@@ -51,8 +52,42 @@ public abstract class TurboFilter extends ContextAwareBase implements LifeCycle
      */
     public abstract FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t);
 
+    /**
+     * Returns the reply {@link #decide} would give for every call made on 
+     * <code>logger</code> at <code>level</code>, irrespective of the marker
+     * (beyond its presence), message, arguments, throwable, MDC or time, or
+     * <code>null</code> if the reply depends on any of these.
+     * 
+     * <p>Filters returning a non-null value are not invoked on the 
+     * corresponding calls, so such a filter must not rely on side effects of
+     * {@link #decide}. The default implementation returns <code>null</code>.
+     * 
+     * <p>The result is cached until the filter is started or stopped, or the
+     * effective level of the logger changes. Filters should thus not be
+     * reconfigured once started.
+     * 
+     * @since 1.2.14
+     */
+    public FilterReply getStaticDecision(Logger logger, Level level, boolean markerPresent) {
+        return null;
+    }
+
+    /**
+     * Whether {@link #decide} may ever return <code>reply</code>. Filters answering
+     * <code>false</code> for some reply may be skipped when that reply is the only
+     * one which could alter the outcome of a call, so that overriding this 
+     * method only makes sense for filters without side effects. The default
+     * implementation returns <code>true</code>.
+     * 
+     * @since 1.2.14
+     */
+    public boolean canReply(FilterReply reply) {
+        return true;
+    }
+
     public void start() {
         this.start = true;
+        invalidateCompiledChains();
     }
 
     public boolean isStarted() {
@@ -61,6 +96,13 @@ public abstract class TurboFilter extends ContextAwareBase implements LifeCycle
 
     public void stop() {
         this.start = false;
+        invalidateCompiledChains();
+    }
+
+    private void invalidateCompiledChains() {
+        if (context instanceof LoggerContext) {
+            ((LoggerContext) context).getTurboFilterList().invalidate();
+        }
     }
 
     public String getName() {
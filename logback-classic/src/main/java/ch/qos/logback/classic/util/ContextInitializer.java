@@ -131,8 +131,15 @@ public class ContextInitializer {
         if (url != null) {
             return url;
         }
+        return findURLOfAutoConfigFile(myClassLoader, updateStatus);
+    }
+
+    /**
+     * 在类路径中寻找 logback-test.xml 或 logback.xml
+     */
+    URL findURLOfAutoConfigFile(ClassLoader myClassLoader, boolean updateStatus) {
         // 加载 logback-test.xml
-        url = getResource(TEST_AUTOCONFIG_FILE, myClassLoader, updateStatus);
+        URL url = getResource(TEST_AUTOCONFIG_FILE, myClassLoader, updateStatus);
         if (url != null) {
             return url;
         }
@@ -148,30 +155,50 @@ public class ContextInitializer {
         return url;
     }
 
+    /**
+     * The configuration file named by the <b>logback.configurationFile</b> system
+     * property comes first, then a {@link Configurator} registered with the
+     * ServiceLoader, e.g. one written by
+     * {@link ch.qos.logback.classic.joran.ConfiguratorGenerator}, then
+     * logback-test.xml and logback.xml. {@link BasicConfigurator} is used when
+     * none of them is found.
+     */
     public void autoConfig() throws JoranException {
         // 若配置了logback.statusListenerClass, 则为loggerContext添加状态监听器
         StatusListenerConfigHelper.installIfAsked(loggerContext);
+        ClassLoader myClassLoader = Loader.getClassLoaderOfObject(this);
+        // 根据系统参数  logback.configurationFile 指定的路径加载配置文件
+        URL url = findConfigFileURLFromSystemProperties(myClassLoader, true);
+        if (url != null) {
+            configureByResource(url);
+            return;
+        }
+        // 使用SPI方式加载Configurator的实现类(如果加载到多个，默认选择第一个)
+        Configurator c = EnvUtil.loadFromServiceLoader(Configurator.class);
+        if (c != null) {
+            URL ignored = findURLOfAutoConfigFile(myClassLoader, false);
+            if (ignored != null) {
+                loggerContext.getStatusManager().add(
+                                new WarnStatus("Ignoring [" + ignored + "] in favor of Configurator [" + c.getClass().getName()
+                                                + "] found using ServiceLoader", loggerContext));
+            }
+            try {
+                c.setContext(loggerContext);
+                c.configure(loggerContext);
+            } catch (Exception e) {
+                throw new LogbackException(String.format("Failed to initialize Configurator: %s using ServiceLoader", c.getClass().getCanonicalName()), e);
+            }
+            return;
+        }
         // 寻找配置文件URL
-        URL url = findURLOfDefaultConfigurationFile(true);
+        url = findURLOfAutoConfigFile(myClassLoader, true);
         if (url != null) {
             configureByResource(url);
         } else {
-            // 使用SPI方式加载Configurator的实现类(如果加载到多个，默认选择第一个)
-            Configurator c = EnvUtil.loadFromServiceLoader(Configurator.class);
-            if (c != null) {
-                try {
-                    c.setContext(loggerContext);
-                    c.configure(loggerContext);
-                } catch (Exception e) {
-                    throw new LogbackException(String.format("Failed to initialize Configurator: %s using ServiceLoader", c != null ? c.getClass()
-                                    .getCanonicalName() : "null"), e);
-                }
-            } else {
-                // // 重要代码: 使用默认的配置BasicConfigurator. 默认配置见 [补充: 默认配置BasicConfigurator类]
-                BasicConfigurator basicConfigurator = new BasicConfigurator();
-                basicConfigurator.setContext(loggerContext);
-                basicConfigurator.configure(loggerContext);
-            }
+            // // 重要代码: 使用默认的配置BasicConfigurator. 默认配置见 [补充: 默认配置BasicConfigurator类]
+            BasicConfigurator basicConfigurator = new BasicConfigurator();
+            basicConfigurator.setContext(loggerContext);
+            basicConfigurator.configure(loggerContext);
         }
     }
 
@@ -15,12 +15,14 @@ package ch.qos.logback.classic.util;
 
 import ch.qos.logback.classic.PatternLayout;
 import ch.qos.logback.classic.boolex.JaninoEventEvaluator;
+import ch.qos.logback.classic.boolex.OnErrorEvaluator;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import ch.qos.logback.core.filter.EvaluatorFilter;
 import ch.qos.logback.core.joran.spi.DefaultNestedComponentRegistry;
 import ch.qos.logback.core.net.ssl.SSLNestedComponentRegistryRules;
+import ch.qos.logback.core.read.FlightRecorderAppender;
 
 /**
  * Contains mappings for the default type of nested components in
@@ -39,6 +41,7 @@ public class DefaultNestedComponentRules {
         registry.add(UnsynchronizedAppenderBase.class, "encoder", PatternLayoutEncoder.class);
 
         registry.add(EvaluatorFilter.class, "evaluator", JaninoEventEvaluator.class);
+        registry.add(FlightRecorderAppender.class, "evaluator", OnErrorEvaluator.class);
 
         SSLNestedComponentRegistryRules.addDefaultNestedComponentRegistryRules(registry);
     }
@@ -0,0 +1,98 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import ch.qos.logback.classic.turbo.NOPTurboFilter;
+
+/**
+ * Measures the cost of disabled statements decided from the enabled levels
+ * mask of a logger, compared with the path taken when turbo filters are
+ * installed, and with the mask being refreshed after each level change.
+ */
+@Ignore
+public class EnabledLevelsPerfTest {
+
+    static final int WARM_UP_LENGTH = 2 * 1000 * 1000;
+    static final int RUN_LENGTH = 20 * 1000 * 1000;
+    // statements between two level changes when measuring refreshes
+    static final int REFRESH_PERIOD = 1000;
+
+    LoggerContext context = new LoggerContext();
+    Logger logger = context.getLogger("a.b.c.d");
+
+    double nanosPerDisabledDebug(int len) {
+        long start = System.nanoTime();
+        for (int i = 0; i < len; i++) {
+            logger.debug("disabled {}", i);
+        }
+        return (System.nanoTime() - start) / (double) len;
+    }
+
+    double nanosPerIsDebugEnabled(int len) {
+        int enabled = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < len; i++) {
+            if (logger.isDebugEnabled()) {
+                enabled++;
+            }
+        }
+        double result = (System.nanoTime() - start) / (double) len;
+        assertEquals(0, enabled);
+        return result;
+    }
+
+    double nanosPerDisabledDebugWithLevelChanges(int len) {
+        Logger parent = context.getLogger("a.b");
+        long start = System.nanoTime();
+        for (int i = 0; i < len; i++) {
+            if (i % REFRESH_PERIOD == 0) {
+                parent.setLevel((i / REFRESH_PERIOD & 1) == 0 ? Level.INFO : Level.WARN);
+            }
+            logger.debug("disabled {}", i);
+        }
+        return (System.nanoTime() - start) / (double) len;
+    }
+
+    @Test
+    public void disabledStatements() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+
+        nanosPerDisabledDebug(WARM_UP_LENGTH);
+        nanosPerIsDebugEnabled(WARM_UP_LENGTH);
+        nanosPerDisabledDebugWithLevelChanges(WARM_UP_LENGTH);
+
+        double maskAvg = nanosPerDisabledDebug(RUN_LENGTH);
+        double isEnabledAvg = nanosPerIsDebugEnabled(RUN_LENGTH);
+        double refreshAvg = nanosPerDisabledDebugWithLevelChanges(RUN_LENGTH);
+
+        NOPTurboFilter nop = new NOPTurboFilter();
+        nop.setContext(context);
+        nop.start();
+        context.addTurboFilter(nop);
+        nanosPerDisabledDebug(WARM_UP_LENGTH);
+        double turboAvg = nanosPerDisabledDebug(RUN_LENGTH);
+
+        System.out.println("disabled debug, mask:                " + maskAvg + " ns/statement");
+        System.out.println("isDebugEnabled, mask:                " + isEnabledAvg + " ns/statement");
+        System.out.println("disabled debug, mask with refreshes: " + refreshAvg + " ns/statement");
+        System.out.println("disabled debug, turbo filter:        " + turboAvg + " ns/statement");
+        assertTrue("mask slower than the turbo filter path", maskAvg <= turboAvg);
+    }
+}
@@ -16,10 +16,13 @@ package ch.qos.logback.classic;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
@@ -222,4 +225,94 @@ public class LoggerTest {
         assertEquals(root.getEffectiveLevel(), child.getEffectiveLevel());
     }
 
+    @Test
+    public void childCreatedAfterParentLevelChangeInheritsNewLevel() {
+        loggerTest.setLevel(Level.WARN);
+        Logger child = lc.getLogger(loggerTest.getName() + ".a.b");
+        assertEquals(Level.WARN, child.getEffectiveLevel());
+        root.setLevel(Level.TRACE);
+        assertEquals(Level.WARN, child.getEffectiveLevel());
+        loggerTest.setLevel(null);
+        assertEquals(Level.TRACE, child.getEffectiveLevel());
+        assertTrue(child.isTraceEnabled());
+    }
+
+    @Test
+    public void levelBatchIsAppliedAtomically() {
+        Logger a = lc.getLogger("batch.a");
+        Logger b = lc.getLogger("batch.b");
+        assertEquals(Level.DEBUG, a.getEffectiveLevel());
+        assertEquals(Level.DEBUG, b.getEffectiveLevel());
+
+        lc.beginLevelBatch();
+        try {
+            lc.getLogger("batch").setLevel(Level.ERROR);
+            b.setLevel(Level.TRACE);
+            // existing loggers keep their previous view until the batch ends
+            assertEquals(Level.DEBUG, a.getEffectiveLevel());
+            assertTrue(a.isDebugEnabled());
+            assertFalse(b.isTraceEnabled());
+        } finally {
+            lc.endLevelBatch();
+        }
+        assertEquals(Level.ERROR, a.getEffectiveLevel());
+        assertEquals(Level.TRACE, b.getEffectiveLevel());
+    }
+
+    @Test
+    public void stagedLevelsDoNotBlockOtherThreads() throws InterruptedException {
+        final Logger a = lc.getLogger("staged.a");
+        final Logger other = lc.getLogger("other");
+
+        lc.beginLevelStaging();
+        try {
+            a.setLevel(Level.ERROR);
+            assertNull(a.getLevel());
+            assertTrue(a.isDebugEnabled());
+
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    other.setLevel(Level.WARN);
+                }
+            });
+            t.start();
+            t.join(5000);
+            assertFalse("setLevel blocked by a staging thread", t.isAlive());
+            assertEquals(Level.WARN, other.getLevel());
+        } finally {
+            lc.endLevelStaging();
+        }
+        assertEquals(Level.ERROR, a.getLevel());
+        assertFalse(a.isWarnEnabled());
+    }
+
+    @Test
+    public void setLevels() {
+        Logger x = lc.getLogger("x.y.z");
+        Map<String, Level> levels = new HashMap<String, Level>();
+        levels.put("x", Level.INFO);
+        levels.put("x.y.z", Level.WARN);
+        levels.put(Logger.ROOT_LOGGER_NAME, Level.ERROR);
+        lc.setLevels(levels);
+        assertEquals(Level.WARN, x.getEffectiveLevel());
+        assertEquals(Level.INFO, lc.getLogger("x.y").getEffectiveLevel());
+        assertEquals(Level.ERROR, loggerTest.getEffectiveLevel());
+
+        levels.clear();
+        levels.put("x.y.z", null);
+        lc.setLevels(levels);
+        assertEquals(Level.INFO, x.getEffectiveLevel());
+    }
+
+    @Test
+    public void resetRestoresDebug() {
+        Logger child = lc.getLogger(loggerTest.getName() + ".child");
+        root.setLevel(Level.OFF);
+        loggerTest.setLevel(Level.ERROR);
+        assertFalse(child.isWarnEnabled());
+        lc.reset();
+        assertEquals(Level.DEBUG, child.getEffectiveLevel());
+        assertEquals(Level.DEBUG, root.getLevel());
+    }
+
 }
@@ -216,6 +216,14 @@ public class PatternLayoutTest extends AbstractPatternLayoutBaseTest<ILoggingEve
         assertEquals("A\n\tB", val);
     }
     
+    @Test
+    public void nestedReplaces() {
+        pl.setPattern("[%-12replace(%replace(%msg){'[\\r\\n]', ' '}){' ', '_'}] %replace(%msg){'a|b', '*'}");
+        pl.start();
+        String val = pl.doLayout(makeLoggingEvent("a b\nc", null));
+        assertEquals("[a_b_c       ] * *\nc", val);
+    }
+
     @Test
     public void replaceWithJoran() throws JoranException {
         configure(ClassicTestConstants.JORAN_INPUT_PREFIX + "pattern/replace0.xml");
@@ -162,6 +162,40 @@ public class TurboFilteringInLoggerTest {
         assertEquals(0, context.getTurboFilterList().size());
     }
 
+    @Test
+    public void enabledLevelsFollowTurboFilterChanges() {
+        logger.setLevel(Level.INFO);
+        assertFalse(logger.isDebugEnabled());
+
+        addYesFilter();
+        assertTrue(logger.isDebugEnabled());
+
+        YesFilter yesFilter = (YesFilter) context.getTurboFilterList().get(0);
+        context.getTurboFilterList().remove(yesFilter);
+        assertFalse(logger.isDebugEnabled());
+        assertTrue(logger.isInfoEnabled());
+
+        addNoFilter();
+        assertFalse(logger.isInfoEnabled());
+        context.resetTurboFilterList();
+        assertTrue(logger.isInfoEnabled());
+    }
+
+    @Test
+    public void enabledLevelsFollowLevelChanges() {
+        Logger child = context.getLogger(TurboFilteringInLoggerTest.class.getName() + ".child");
+        logger.setLevel(Level.WARN);
+        assertFalse(child.isInfoEnabled());
+        assertTrue(child.isWarnEnabled());
+
+        logger.setLevel(Level.TRACE);
+        assertTrue(child.isTraceEnabled());
+
+        logger.setLevel(Level.OFF);
+        assertFalse(child.isErrorEnabled());
+        assertTrue(child.isEnabledFor(Level.OFF));
+    }
+
 }
 
 class YesFilter extends TurboFilter {
@@ -15,6 +15,9 @@ package ch.qos.logback.classic.boolex;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -264,4 +267,47 @@ public class JaninoEventEvaluatorTest {
         LoggingEvent event = makeLoggingEvent(null);
         assertTrue(jee.evaluate(event));
     }
+
+    @Test
+    public void classBodyOnlyReadsReferencedVariables() {
+        jee.setExpression("level >= INFO && x.matches(message)");
+        jee.addMatcher(matcherX);
+        String classBody = jee.buildClassBody();
+        assertTrue(classBody, classBody.contains("final int level = event.getLevel().toInt();"));
+        assertTrue(classBody, classBody.contains("final int INFO = " + Level.INFO_INT + ";"));
+        assertTrue(classBody, classBody.contains("final String message = event.getMessage();"));
+        assertTrue(classBody, classBody.contains("x = matchers[0];"));
+        assertTrue(classBody, classBody.contains("return level >= INFO && x.matches(message);"));
+        assertFalse(classBody, classBody.contains("formattedMessage"));
+        assertFalse(classBody, classBody.contains("getMDCPropertyMap"));
+        assertFalse(classBody, classBody.contains("DEBUG"));
+    }
+
+    @Test
+    public void compiledClassesAreShared() throws Exception {
+        jee.setExpression("x.matches(message) && level > DEBUG");
+        jee.addMatcher(matcherX);
+        jee.start();
+
+        JaninoEventEvaluator other = new JaninoEventEvaluator();
+        other.setContext(loggerContext);
+        other.setExpression("x.matches(message) && level > DEBUG");
+        other.addMatcher(matcherX);
+        other.start();
+
+        assertNotNull(jee.predicate);
+        assertSame(jee.predicate.getClass(), other.predicate.getClass());
+        assertTrue(other.evaluate(makeLoggingEvent(null)));
+    }
+
+    @Test
+    public void scriptEvaluation() throws Exception {
+        jee.setCompiled(false);
+        jee.setExpression("x.matches(message)");
+        jee.addMatcher(matcherX);
+        jee.start();
+
+        assertNull(jee.predicate);
+        assertTrue(jee.evaluate(makeLoggingEvent(null)));
+    }
 }
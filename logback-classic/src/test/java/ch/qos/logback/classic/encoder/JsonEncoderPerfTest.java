@@ -0,0 +1,94 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+
+/**
+ * Compares the throughput of {@link JsonEncoder} with that of a
+ * {@link PatternLayoutEncoder} producing comparable content.
+ */
+@Ignore
+public class JsonEncoderPerfTest {
+
+    static final int WARM_UP_LENGTH = 200 * 1000;
+    static final int RUN_LENGTH = 1000 * 1000;
+
+    LoggerContext context = new LoggerContext();
+    Logger logger = context.getLogger(JsonEncoderPerfTest.class);
+
+    ILoggingEvent[] makeEvents() {
+        ILoggingEvent[] events = new ILoggingEvent[64];
+        MDC.put("requestId", "b5d8a3e4");
+        try {
+            for (int i = 0; i < events.length; i++) {
+                LoggingEvent le = new LoggingEvent(Logger.FQCN, logger, Level.INFO, "Processed order {} for \"{}\" in {} ms", null, new Object[] { i,
+                        "customer-" + i, 17 });
+                le.getMDCPropertyMap();
+                le.getFormattedMessage();
+                le.getThreadName();
+                events[i] = le;
+            }
+        } finally {
+            MDC.remove("requestId");
+        }
+        return events;
+    }
+
+    double nanosPerEvent(Encoder<ILoggingEvent> encoder, ILoggingEvent[] events, int len) {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < len; i++) {
+            bytes += encoder.encode(events[i & (events.length - 1)]).length;
+        }
+        double result = (System.nanoTime() - start) / (double) len;
+        // keep the encoded bytes alive
+        assertTrue(bytes > 0);
+        return result;
+    }
+
+    @Test
+    public void jsonVersusPattern() {
+        ILoggingEvent[] events = makeEvents();
+
+        PatternLayoutEncoder ple = new PatternLayoutEncoder();
+        ple.setContext(context);
+        ple.setPattern("%d{ISO8601} %level [%thread] %logger - %msg %mdc%n");
+        ple.start();
+
+        JsonEncoder json = new JsonEncoder();
+        json.setContext(context);
+        json.start();
+
+        nanosPerEvent(ple, events, WARM_UP_LENGTH);
+        nanosPerEvent(json, events, WARM_UP_LENGTH);
+
+        double patternAvg = nanosPerEvent(ple, events, RUN_LENGTH);
+        double jsonAvg = nanosPerEvent(json, events, RUN_LENGTH);
+        System.out.println("PatternLayoutEncoder: " + patternAvg + " ns/event");
+        System.out.println("JsonEncoder:          " + jsonAvg + " ns/event");
+        assertTrue("JsonEncoder slower than PatternLayoutEncoder", jsonAvg <= patternAvg);
+    }
+}
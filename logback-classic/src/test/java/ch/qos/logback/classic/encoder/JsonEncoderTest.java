@@ -0,0 +1,123 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.Charset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+
+public class JsonEncoderTest {
+
+    LoggerContext context = new LoggerContext();
+    Logger logger = context.getLogger("a.b.C");
+    JsonEncoder encoder = new JsonEncoder();
+    Charset utf8 = Charset.forName("UTF-8");
+
+    @Before
+    public void setUp() {
+        encoder.setContext(context);
+        encoder.setAppendLineSeparator(false);
+        encoder.start();
+    }
+
+    LoggingEvent makeLoggingEvent(Level level, String msg, Throwable t, Object... args) {
+        LoggingEvent le = new LoggingEvent(Logger.FQCN, logger, level, msg, t, args);
+        le.setThreadName("main");
+        le.setTimeStamp(1500000000000L);
+        return le;
+    }
+
+    String encode(LoggingEvent event) {
+        return new String(encoder.encode(event), utf8);
+    }
+
+    @Test
+    public void smoke() {
+        String json = encode(makeLoggingEvent(Level.INFO, "hello {}", null, "w\"orld"));
+        assertEquals("{\"timestamp\":1500000000000,\"level\":\"INFO\",\"thread\":\"main\",\"logger\":\"a.b.C\","
+                        + "\"message\":\"hello w\\\"orld\",\"arguments\":[\"w\\\"orld\"]}", json);
+    }
+
+    @Test
+    public void lineSeparator() {
+        encoder.setAppendLineSeparator(true);
+        String json = encode(makeLoggingEvent(Level.DEBUG, "x", null));
+        assertTrue(json.endsWith("}" + CoreConstants.LINE_SEPARATOR));
+    }
+
+    @Test
+    public void mdcAndMarkers() {
+        MDC.put("user", "alice");
+        try {
+            LoggingEvent le = makeLoggingEvent(Level.WARN, "x", null);
+            Marker marker = MarkerFactory.getDetachedMarker("AUDIT");
+            marker.add(MarkerFactory.getDetachedMarker("SECURITY"));
+            le.setMarker(marker);
+            String json = encode(le);
+            assertTrue(json, json.contains(",\"markers\":[\"AUDIT\",\"SECURITY\"],\"mdc\":{\"user\":\"alice\"}}"));
+        } finally {
+            MDC.remove("user");
+        }
+    }
+
+    @Test
+    public void excludedParts() {
+        encoder.setIncludeArguments(false);
+        encoder.setIncludeMdc(false);
+        MDC.put("user", "alice");
+        try {
+            String json = encode(makeLoggingEvent(Level.ERROR, "a {}", null, "b"));
+            assertEquals("{\"timestamp\":1500000000000,\"level\":\"ERROR\",\"thread\":\"main\",\"logger\":\"a.b.C\",\"message\":\"a b\"}", json);
+        } finally {
+            MDC.remove("user");
+        }
+    }
+
+    @Test
+    public void throwable() {
+        Exception cause = new IllegalStateException("inner");
+        Exception e = new RuntimeException("outer\n2", cause);
+        String json = encode(makeLoggingEvent(Level.ERROR, "failed", e));
+        assertTrue(json, json.contains(",\"throwable\":{\"class\":\"java.lang.RuntimeException\",\"message\":\"outer\\n2\",\"frames\":[\""
+                        + JsonEncoderTest.class.getName() + ".throwable(JsonEncoderTest.java:"));
+        assertTrue(json, json.contains("\"cause\":{\"class\":\"java.lang.IllegalStateException\",\"message\":\"inner\",\"frames\":["));
+        assertTrue(json, json.contains("\"commonFrames\":"));
+        assertTrue(json, json.endsWith("}}}"));
+    }
+
+    @Test
+    public void bufferReuse() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100 * 1000; i++) {
+            sb.append('x');
+        }
+        String big = encode(makeLoggingEvent(Level.INFO, sb.toString(), null));
+        assertTrue(big.contains(sb));
+        String small = encode(makeLoggingEvent(Level.INFO, "small", null));
+        assertTrue(small.contains("\"message\":\"small\"}"));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.flush;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.util.Duration;
+
+public class LevelFlushPolicyTest {
+
+    static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        int flushCount;
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+    }
+
+    LoggerContext loggerContext = new LoggerContext();
+    Logger logger = loggerContext.getLogger(this.getClass());
+    OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<ILoggingEvent>();
+    FlushCountingOutputStream os = new FlushCountingOutputStream();
+    LevelFlushPolicy policy = new LevelFlushPolicy();
+
+    @Before
+    public void setUp() {
+        appender.setContext(loggerContext);
+        appender.setEncoder(new EchoEncoder<ILoggingEvent>());
+        appender.setOutputStream(os);
+        policy.setContext(loggerContext);
+        policy.setMaxDelay(Duration.buildByMilliseconds(0));
+        appender.setFlushPolicy(policy);
+    }
+
+    @After
+    public void tearDown() {
+        appender.stop();
+    }
+
+    void append(Level level) {
+        appender.doAppend(new LoggingEvent("", logger, level, "msg", null, null));
+    }
+
+    @Test
+    public void flushesAtOrAboveLevel() {
+        appender.start();
+        append(Level.INFO);
+        append(Level.DEBUG);
+        assertEquals(0, os.flushCount);
+        append(Level.WARN);
+        assertEquals(1, os.flushCount);
+        append(Level.ERROR);
+        assertEquals(2, os.flushCount);
+    }
+
+    @Test
+    public void configuredLevel() {
+        policy.setLevel("ERROR");
+        appender.start();
+        append(Level.WARN);
+        assertEquals(0, os.flushCount);
+        append(Level.ERROR);
+        assertEquals(1, os.flushCount);
+    }
+}
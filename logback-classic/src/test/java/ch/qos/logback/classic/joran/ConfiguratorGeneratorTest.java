@@ -0,0 +1,254 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.joran;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.ClassicTestConstants;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.Configurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.testUtil.RandomUtil;
+
+public class ConfiguratorGeneratorTest {
+
+    LoggerContext loggerContext = new LoggerContext();
+    ConfiguratorGenerator generator = new ConfiguratorGenerator();
+    int diff = RandomUtil.getPositiveInt();
+
+    @Before
+    public void setUp() {
+        generator.setContext(loggerContext);
+    }
+
+    String generate(String xml) throws JoranException {
+        return generator.generate(new ByteArrayInputStream(xml.getBytes()), "com.example.GeneratedConfigurator");
+    }
+
+    @Test
+    public void appendersLoggersAndNestedComponents() throws JoranException {
+        String source = generate("<configuration>"
+                        + "  <appender name='CON' class='ch.qos.logback.core.ConsoleAppender'>"
+                        + "    <target>System.err</target>"
+                        + "    <encoder><pattern>%level - %msg \"${suffix}\"%n</pattern></encoder>"
+                        + "  </appender>"
+                        + "  <logger name='a.b' level='warn' additivity='false'><appender-ref ref='CON'/></logger>"
+                        + "  <logger name='a.c' level='INHERITED'/>"
+                        + "  <root level='${rootLevel:-INFO}'><appender-ref ref='CON'/></root>"
+                        + "</configuration>");
+
+        assertTrue(source.startsWith("package com.example;"));
+        assertTrue(source.contains("public class GeneratedConfigurator extends ch.qos.logback.core.spi.ContextAwareBase implements ch.qos.logback.classic.spi.Configurator"));
+        assertTrue(source.contains("ch.qos.logback.core.ConsoleAppender consoleAppender0 = new ch.qos.logback.core.ConsoleAppender();"));
+        assertTrue(source.contains("consoleAppender0.setTarget(\"System.err\");"));
+        // default nested component type, variables substituted at runtime
+        assertTrue(source.contains("ch.qos.logback.classic.encoder.PatternLayoutEncoder patternLayoutEncoder1 = new ch.qos.logback.classic.encoder.PatternLayoutEncoder();"));
+        assertTrue(source.contains("patternLayoutEncoder1.setPattern(subst(\"%level - %msg \\\"${suffix}\\\"%n\").trim());"));
+        assertTrue(source.contains("patternLayoutEncoder1.start();"));
+        assertTrue(source.contains("consoleAppender0.setEncoder(patternLayoutEncoder1);"));
+        assertTrue(source.contains("consoleAppender0.start();"));
+
+        assertTrue(source.contains(".setLevel(ch.qos.logback.classic.Level.WARN);"));
+        assertTrue(source.contains(".setAdditive(false);"));
+        assertTrue(source.contains(".setLevel(null);"));
+        assertTrue(source.contains(".setLevel(ch.qos.logback.classic.Level.toLevel(subst(\"${rootLevel:-INFO}\")));"));
+        assertTrue(source.contains(".addAppender(consoleAppender0);"));
+    }
+
+    @Test
+    public void basicPropertiesAreConvertedAtBuildTime() throws JoranException {
+        String source = generate("<configuration>"
+                        + "  <property name='dir' value='logs' />"
+                        + "  <appender name='FILE' class='ch.qos.logback.core.rolling.RollingFileAppender'>"
+                        + "    <append>false</append>"
+                        + "    <rollingPolicy class='ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy'>"
+                        + "      <fileNamePattern>${dir}/app-%d-%i.log</fileNamePattern>"
+                        + "      <maxHistory>${maxHistory}</maxHistory>"
+                        + "      <maxFileSize>10MB</maxFileSize>"
+                        + "    </rollingPolicy>"
+                        + "    <encoder><pattern>%msg%n</pattern></encoder>"
+                        + "  </appender>"
+                        + "</configuration>");
+
+        assertTrue(source.contains("properties.put(\"dir\", \"logs\");"));
+        assertTrue(source.contains("rollingFileAppender0.setAppend(false);"));
+        assertTrue(source.contains("sizeAndTimeBasedRollingPolicy1.setMaxHistory(Integer.valueOf(subst(\"${maxHistory}\").trim()));"));
+        assertTrue(source.contains("sizeAndTimeBasedRollingPolicy1.setMaxFileSize(ch.qos.logback.core.util.FileSize.valueOf(\"10MB\"));"));
+        assertTrue(source.contains("sizeAndTimeBasedRollingPolicy1.setParent(rollingFileAppender0);"));
+        assertTrue(source.contains("rollingFileAppender0.setRollingPolicy(sizeAndTimeBasedRollingPolicy1);"));
+    }
+
+    @Test
+    public void unsupportedElementsFailTheGeneration() {
+        assertFails("<configuration><if condition='true'><then/></if></configuration>");
+        assertFails("<configuration><include resource='other.xml'/></configuration>");
+        assertFails("<configuration scan='true'/>");
+        assertFails("<configuration><root><appender-ref ref='MISSING'/></root></configuration>");
+        assertFails("<configuration><appender name='A' class='ch.qos.logback.core.ConsoleAppender'><noSuchProperty>x</noSuchProperty></appender></configuration>");
+    }
+
+    void assertFails(String xml) {
+        try {
+            generate(xml);
+            fail("generation of [" + xml + "] should have failed");
+        } catch (JoranException e) {
+        }
+    }
+
+    @Test
+    public void writeRegistersTheConfigurator() throws JoranException, IOException {
+        File dir = new File(ClassicTestConstants.OUTPUT_DIR_PREFIX + "generator-" + diff);
+        String className = "com.example.GeneratedConfigurator";
+        String source = generate("<configuration><root level='debug'/></configuration>");
+        generator.write(className, source, dir, dir);
+
+        assertTrue(new File(dir, "com/example/GeneratedConfigurator.java").isFile());
+        BufferedReader reader = new BufferedReader(new FileReader(new File(dir, "META-INF/services/ch.qos.logback.classic.spi.Configurator")));
+        try {
+            assertEquals(className, reader.readLine());
+        } finally {
+            reader.close();
+        }
+        assertFalse(source.contains("${"));
+    }
+
+    @Test
+    public void generatedConfiguratorMatchesJoranConfigurator() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(compiler != null);
+
+        String outputDir = ClassicTestConstants.OUTPUT_DIR_PREFIX + "generator-" + diff;
+        String xml = "<configuration>"
+                        + "  <contextName>equivalence</contextName>"
+                        + "  <property name='dir' value='" + outputDir + "' />"
+                        + "  <appender name='FILE' class='ch.qos.logback.core.FileAppender'>"
+                        + "    <file>${dir}/${logName:-app}.log</file>"
+                        + "    <append>false</append>"
+                        + "    <encoder><pattern>%-5level %logger - %msg%n</pattern></encoder>"
+                        + "  </appender>"
+                        + "  <appender name='CON' class='ch.qos.logback.core.ConsoleAppender'>"
+                        + "    <target>System.err</target>"
+                        + "    <encoder><pattern>%msg%n</pattern></encoder>"
+                        + "  </appender>"
+                        + "  <logger name='a.b' level='warn' additivity='false'><appender-ref ref='FILE'/></logger>"
+                        + "  <logger name='a.b.c' level='INHERITED'/>"
+                        + "  <logger name='x.y' level='${xyLevel:-ERROR}'><appender-ref ref='CON'/></logger>"
+                        + "  <root level='debug'><appender-ref ref='FILE'/></root>"
+                        + "</configuration>";
+
+        LoggerContext joranContext = new LoggerContext();
+        joranContext.putProperty("logName", "joran");
+        JoranConfigurator joranConfigurator = new JoranConfigurator();
+        joranConfigurator.setContext(joranContext);
+        joranConfigurator.doConfigure(new ByteArrayInputStream(xml.getBytes()));
+
+        String className = "com.example.EquivalentConfigurator";
+        File dir = new File(outputDir);
+        generator.write(className, generator.generate(new ByteArrayInputStream(xml.getBytes()), className), dir, dir);
+        File sourceFile = new File(dir, "com/example/EquivalentConfigurator.java");
+        int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-d", dir.getPath(), sourceFile.getPath());
+        assertEquals("compilation of " + sourceFile, 0, result);
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, getClass().getClassLoader());
+        Configurator configurator = (Configurator) classLoader.loadClass(className).newInstance();
+        LoggerContext generatedContext = new LoggerContext();
+        generatedContext.putProperty("logName", "generated");
+        configurator.setContext(generatedContext);
+        configurator.configure(generatedContext);
+
+        assertEquals(joranContext.getName(), generatedContext.getName());
+        assertEquals(joranContext.getLoggerList().size(), generatedContext.getLoggerList().size());
+        for (Logger expected : joranContext.getLoggerList()) {
+            Logger actual = generatedContext.exists(expected.getName());
+            assertTrue(expected.getName() + " is missing", actual != null);
+            assertEquals(expected.getName(), expected.getLevel(), actual.getLevel());
+            assertEquals(expected.getName(), expected.getEffectiveLevel(), actual.getEffectiveLevel());
+            assertEquals(expected.getName(), expected.isAdditive(), actual.isAdditive());
+            assertEquals(expected.getName(), appenderClasses(expected), appenderClasses(actual));
+        }
+
+        FileAppender<ILoggingEvent> joranFile = (FileAppender<ILoggingEvent>) joranContext.getLogger("a.b").getAppender("FILE");
+        FileAppender<ILoggingEvent> generatedFile = (FileAppender<ILoggingEvent>) generatedContext.getLogger("a.b").getAppender("FILE");
+        assertEquals(outputDir + "/joran.log", joranFile.getFile());
+        assertEquals(outputDir + "/generated.log", generatedFile.getFile());
+        assertEquals(joranFile.isAppend(), generatedFile.isAppend());
+        assertEquals(joranFile.isStarted(), generatedFile.isStarted());
+        assertEquals(pattern(joranFile), pattern(generatedFile));
+        assertEquals(pattern(joranContext.getLogger("x.y").getAppender("CON")), pattern(generatedContext.getLogger("x.y").getAppender("CON")));
+
+        for (LoggerContext lc : new LoggerContext[] { joranContext, generatedContext }) {
+            lc.getLogger("a.b.c").info("filtered");
+            lc.getLogger("a.b.c").warn("written");
+            lc.getLogger("other").debug("inherited");
+            lc.stop();
+        }
+        String written = readLines(generatedFile.getFile());
+        assertEquals("WARN  a.b.c - written\nDEBUG other - inherited\n", written);
+        assertEquals(readLines(joranFile.getFile()), written);
+    }
+
+    Map<String, String> appenderClasses(Logger logger) {
+        Map<String, String> classes = new HashMap<String, String>();
+        for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext();) {
+            Appender<ILoggingEvent> appender = it.next();
+            classes.put(appender.getName(), appender.getClass().getName());
+        }
+        return classes;
+    }
+
+    String pattern(Appender<ILoggingEvent> appender) {
+        return ((PatternLayoutEncoder) ((OutputStreamAppender<ILoggingEvent>) appender).getEncoder()).getPattern();
+    }
+
+    String readLines(String fileName) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sb.append(line).append('\n');
+            }
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+}
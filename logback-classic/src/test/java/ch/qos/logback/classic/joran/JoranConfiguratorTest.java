@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -440,4 +441,18 @@ public class JoranConfiguratorTest {
         configure(configFileAsStr);
         checker.assertIsWarningOrErrorFree();
     }
+
+    @Test
+    public void namedExecutors() throws JoranException {
+        configure(ClassicTestConstants.JORAN_INPUT_PREFIX + "executors.xml");
+        checker.assertIsErrorFree();
+
+        ScheduledThreadPoolExecutor compression = (ScheduledThreadPoolExecutor) loggerContext
+                        .getScheduledExecutorService(CoreConstants.COMPRESSION_EXECUTOR_NAME);
+        assertEquals(2, compression.getCorePoolSize());
+        ScheduledThreadPoolExecutor network = (ScheduledThreadPoolExecutor) loggerContext.getScheduledExecutorService(CoreConstants.NETWORK_EXECUTOR_NAME);
+        assertEquals(4, network.getCorePoolSize());
+        assertTrue(compression != network);
+        assertTrue(loggerContext.getScheduledExecutorService(CoreConstants.IO_EXECUTOR_NAME) == loggerContext.getScheduledExecutorService());
+    }
 }
@@ -18,6 +18,6 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ JoranConfiguratorTest.class, EvaluatorJoranTest.class, ch.qos.logback.classic.joran.conditional.PackageTest.class })
+@SuiteClasses({ JoranConfiguratorTest.class, EvaluatorJoranTest.class, ConfiguratorGeneratorTest.class, ch.qos.logback.classic.joran.conditional.PackageTest.class })
 public class PackageTest {
 }
\ No newline at end of file
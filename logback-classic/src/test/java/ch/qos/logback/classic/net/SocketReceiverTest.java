@@ -41,9 +41,11 @@ import ch.qos.logback.classic.net.mock.MockAppender;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEventVO;
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.net.SocketConnector;
 import ch.qos.logback.core.net.server.ServerSocketUtil;
 import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.util.ExecutorConfig;
 
 /**
  * Unit tests for {@link SocketReceiver}.
@@ -178,6 +180,27 @@ public class SocketReceiverTest {
         assertEquals(event.getMessage(), rcvdEvent.getMessage());
     }
 
+    @Test
+    public void testSingleThreadNetworkExecutor() throws Exception {
+        // run() occupies the only network thread, the connector must run elsewhere
+        lc.addExecutorConfig(new ExecutorConfig(CoreConstants.NETWORK_EXECUTOR_NAME, 1));
+        receiver.setRemoteHost(InetAddress.getLocalHost().getHostName());
+        receiver.setPort(6000);
+        receiver.start();
+        assertTrue(receiver.awaitConnectorCreated(DELAY));
+        Socket socket = serverSocket.accept();
+
+        ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream());
+        logger.setLevel(Level.DEBUG);
+        ILoggingEvent event = new LoggingEvent(logger.getName(), logger, Level.DEBUG, "test message", null, new Object[0]);
+        oos.writeObject(LoggingEventVO.build(event));
+        oos.flush();
+
+        ILoggingEvent rcvdEvent = appender.awaitAppend(DELAY);
+        assertNotNull(rcvdEvent);
+        assertEquals(event.getMessage(), rcvdEvent.getMessage());
+    }
+
     @Test
     public void testNoDispatchEventForDisabledLevel() throws Exception {
         receiver.setRemoteHost(InetAddress.getLocalHost().getHostName());
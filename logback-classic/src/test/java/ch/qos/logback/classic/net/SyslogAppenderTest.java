@@ -20,16 +20,23 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import ch.qos.logback.classic.ClassicTestConstants;
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.classic.net.mock.MockSyslogServer;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.joran.spi.JoranException;
 import ch.qos.logback.core.net.SyslogConstants;
 import ch.qos.logback.core.recovery.RecoveryCoordinator;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusChecker;
 import ch.qos.logback.core.testUtil.RandomUtil;
 import ch.qos.logback.core.util.StatusPrinter;
 
@@ -209,6 +216,147 @@ public class SyslogAppenderTest {
         checkRegexMatch(msg, regex);
     }
 
+    @Test
+    public void rfc5424WithStructuredData() throws InterruptedException {
+        sa.setRfc5424(true);
+        sa.setAppName("myApp");
+        setMockServerAndConfigure(1);
+
+        // other tests running in the same JVM may have left entries behind
+        MDC.clear();
+        MDC.put("user", "a\"b]");
+        try {
+            logger.debug("hello");
+        } finally {
+            MDC.remove("user");
+        }
+
+        mockServer.join(8000);
+        assertTrue(mockServer.isFinished());
+        assertEquals(1, mockServer.getMessageList().size());
+        String msg = new String(mockServer.getMessageList().get(0));
+
+        String threadName = Thread.currentThread().getName();
+        String pri = "<" + (SyslogConstants.LOG_MAIL + SyslogConstants.DEBUG_SEVERITY) + ">";
+        String timestamp = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}[+-]\\d{2}:\\d{2}";
+        String sd = "\\[mdc@32473 user=\"a\\\\\"b\\\\]\"\\]";
+        checkRegexMatch(msg, pri + "1 " + timestamp + " [\\w.-]* myApp - - " + sd + " \\[" + threadName + "\\] " + loggerName + " hello");
+    }
+
+    String rfc5424AppName() {
+        sa.setRfc5424(true);
+        sa.setFacility("MAIL");
+        Layout<ILoggingEvent> layout = sa.buildLayout();
+        String header = layout.doLayout(new LoggingEvent(loggerName, logger, Level.DEBUG, "hello", null, null));
+        // <PRI>1 TIMESTAMP HOSTNAME APP-NAME
+        return header.split(" ")[3];
+    }
+
+    @Test
+    public void rfc5424OptionsAreQuoted() {
+        sa.setAppName("my}app,'v1'");
+        sa.setStructuredDataId("x@1}");
+        assertEquals("my}app,'v1'", rfc5424AppName());
+        new StatusChecker(lc).assertIsErrorFree();
+    }
+
+    @Test
+    public void rfc5424AppNameIsLimitedTo48PrintableAsciiChars() {
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 49; i++) {
+            longName.append('a');
+        }
+        sa.setAppName(longName.toString());
+        assertEquals("-", rfc5424AppName());
+        new StatusChecker(lc).assertContainsMatch(Status.ERROR, "APP-NAME \\[a{49}\\] is not made of at most 48 printable US-ASCII characters");
+    }
+
+    @Test
+    public void rfc5424AppNameWithNonAsciiChars() {
+        sa.setAppName("caf\u00e9");
+        assertEquals("-", rfc5424AppName());
+        new StatusChecker(lc).assertContainsMatch(Status.ERROR, "APP-NAME");
+    }
+
+    @Test
+    public void rfc5424AppNameWithBothQuotes() {
+        sa.setAppName("a'b\"c");
+        sa.setRfc5424(true);
+        sa.setFacility("MAIL");
+        sa.start();
+        assertEquals("-", rfc5424AppName());
+        new StatusChecker(lc).assertContainsMatch(Status.ERROR, "The appName \\[a'b\"c\\] contains both quote characters");
+        sa.stop();
+    }
+
+    @Test
+    public void tcpTransport() throws Exception {
+        java.net.ServerSocket serverSocket = new java.net.ServerSocket(0);
+        try {
+            sa.setSyslogHost("localhost");
+            sa.setFacility("MAIL");
+            sa.setPort(serverSocket.getLocalPort());
+            sa.setTransport("TCP");
+            sa.start();
+            assertTrue(sa.isStarted());
+            logger.addAppender(sa);
+
+            logger.debug("hello");
+            java.net.Socket socket = serverSocket.accept();
+            java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
+            char[] cbuf = new char[1024];
+            int len = reader.read(cbuf);
+            String frame = new String(cbuf, 0, len);
+            int sp = frame.indexOf(' ');
+            String msg = frame.substring(sp + 1);
+            assertEquals(Integer.parseInt(frame.substring(0, sp)), msg.getBytes().length);
+            checkRegexMatch(msg, SYSLOG_PREFIX_REGEX + "\\[" + Thread.currentThread().getName() + "\\] " + loggerName + " hello");
+            // the connection is established in the background, the count follows the write
+            for (int i = 0; i < 100 && sa.getSentCount() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, sa.getSentCount());
+            socket.close();
+        } finally {
+            sa.stop();
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void batchSizeAloneBatchesWithDefaultDelay() throws Exception {
+        java.net.ServerSocket serverSocket = new java.net.ServerSocket(0);
+        try {
+            sa.setSyslogHost("localhost");
+            sa.setFacility("MAIL");
+            sa.setPort(serverSocket.getLocalPort());
+            sa.setTransport("TCP");
+            sa.setBatchSize(4096);
+            sa.start();
+            assertTrue(sa.isStarted());
+            assertEquals(1000, sa.getMaxBatchDelay().getMilliseconds());
+        } finally {
+            sa.stop();
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void udpTruncationIsReported() throws Exception {
+        sa.setMaxMessageSize(2 * 65507);
+        setMockServerAndConfigure(1);
+        StringBuilder largeBuf = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            largeBuf.append('a');
+        }
+        logger.debug(largeBuf.toString());
+
+        mockServer.join(8000);
+        assertEquals(1, sa.getTruncatedCount());
+        StatusChecker checker = new StatusChecker(lc);
+        checker.assertContainsMatch(Status.WARN, "A message exceeded the maximum UDP payload");
+    }
+
     @Test
     public void LBCLASSIC_50() throws JoranException {
 
@@ -35,7 +35,9 @@ import ch.qos.logback.classic.net.mock.MockAppender;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEventVO;
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.net.server.ServerSocketUtil;
+import ch.qos.logback.core.util.ExecutorConfig;
 
 /**
  * A functional test for {@link ServerSocketReceiver}.
@@ -80,10 +82,27 @@ public class ServerSocketReceiverFunctionalTest {
         executor.shutdownNow();
         executor.awaitTermination(SHUTDOWN_DELAY, TimeUnit.MILLISECONDS);
         assertTrue(executor.isTerminated());
+        lc.stop();
     }
 
     @Test
     public void testLogEventFromClient() throws Exception {
+        sendAndReceive();
+    }
+
+    @Test
+    public void testSingleThreadNetworkExecutor() throws Exception {
+        // the runner occupies the only network thread, clients must be served elsewhere
+        receiver.stop();
+        lc.addExecutorConfig(new ExecutorConfig(CoreConstants.NETWORK_EXECUTOR_NAME, 1));
+        serverSocket = ServerSocketUtil.createServerSocket();
+        receiver = new InstrumentedServerSocketReceiver(serverSocket);
+        receiver.setContext(lc);
+        receiver.start();
+        sendAndReceive();
+    }
+
+    private void sendAndReceive() throws Exception {
         ILoggingEvent event = new LoggingEvent(logger.getName(), logger, Level.DEBUG, "test message", null, new Object[0]);
         Socket socket = new Socket(InetAddress.getLocalHost(), serverSocket.getLocalPort());
 
@@ -92,6 +92,99 @@ public class ConverterTest {
         }
     }
 
+    @Test
+    public void formattingIsAppliedInPlace() {
+        {
+            DynamicConverter<ILoggingEvent> converter = new LevelConverter();
+            converter.setFormattingInfo(new FormatInfo(6, Integer.MAX_VALUE, true, false));
+            StringBuilder buf = new StringBuilder("[");
+            converter.write(buf, le);
+            assertEquals("[  INFO", buf.toString());
+        }
+        {
+            DynamicConverter<ILoggingEvent> converter = new LevelConverter();
+            converter.setFormattingInfo(new FormatInfo(6, Integer.MAX_VALUE, false, false));
+            StringBuilder buf = new StringBuilder("[");
+            converter.write(buf, le);
+            assertEquals("[INFO  ", buf.toString());
+        }
+        {
+            DynamicConverter<ILoggingEvent> converter = new LevelConverter();
+            converter.setFormattingInfo(new FormatInfo(0, 2, true, true));
+            StringBuilder buf = new StringBuilder("[");
+            converter.write(buf, le);
+            assertEquals("[FO", buf.toString());
+        }
+        {
+            DynamicConverter<ILoggingEvent> converter = new LevelConverter();
+            converter.setFormattingInfo(new FormatInfo(0, 2, true, false));
+            StringBuilder buf = new StringBuilder("[");
+            converter.write(buf, le);
+            assertEquals("[IN", buf.toString());
+        }
+    }
+
+    @Test
+    public void appendToMatchesConvert() {
+        List<DynamicConverter<ILoggingEvent>> converters = new ArrayList<DynamicConverter<ILoggingEvent>>();
+        converters.add(new LineOfCallerConverter());
+        converters.add(new RelativeTimeConverter());
+        converters.add(new CallerDataConverter());
+        MDC.put("k", "v");
+        LoggingEvent event = makeLoggingEvent(null);
+        MDC.remove("k");
+        converters.add(new MDCConverter());
+        for (DynamicConverter<ILoggingEvent> converter : converters) {
+            converter.start();
+            StringBuilder buf = new StringBuilder();
+            converter.write(buf, event);
+            assertEquals(converter.convert(event), buf.toString());
+        }
+    }
+
+    @Test
+    public void appendToHonorsOverridingSubclasses() {
+        {
+            DynamicConverter<ILoggingEvent> converter = new ThreadConverter() {
+                @Override
+                public String convert(ILoggingEvent event) {
+                    return "custom-" + super.convert(event);
+                }
+            };
+            StringBuilder buf = new StringBuilder();
+            converter.write(buf, le);
+            assertEquals("custom-" + le.getThreadName(), buf.toString());
+        }
+        {
+            DynamicConverter<ILoggingEvent> converter = new CallerDataConverter() {
+                @Override
+                public String convert(ILoggingEvent event) {
+                    return super.convert(event).toUpperCase();
+                }
+            };
+            converter.start();
+            StringBuilder buf = new StringBuilder();
+            converter.write(buf, le);
+            assertEquals(converter.convert(le), buf.toString());
+            assertTrue(buf.toString().startsWith("CALLER+0"));
+        }
+        {
+            BracketingConverter converter = new BracketingConverter();
+            converter.setChildConverter(new LevelConverter());
+            StringBuilder buf = new StringBuilder();
+            converter.write(buf, le);
+            assertEquals("<INFO>", buf.toString());
+        }
+        {
+            // subclasses which do not override convert() keep the fast path
+            DynamicConverter<ILoggingEvent> converter = new LevelConverter() {
+            };
+            StringBuilder buf = new StringBuilder();
+            converter.write(buf, le);
+            assertEquals("INFO", buf.toString());
+        }
+    }
+
     @Test
     public void testThread() {
         DynamicConverter<ILoggingEvent> converter = new ThreadConverter();
@@ -398,4 +491,11 @@ public class ConverterTest {
         String result = converter.convert(event);
         assertEquals("v", result);
     }
+
+    static class BracketingConverter extends ch.qos.logback.core.pattern.color.RedCompositeConverter<ILoggingEvent> {
+        @Override
+        protected String transform(ILoggingEvent event, String in) {
+            return "<" + in + ">";
+        }
+    }
 }
@@ -237,6 +237,65 @@ public class ThrowableProxyConverterTest {
         assertThat(lines).hasSize(3 + 1);
     }
 
+    @Test
+    public void renderedStackTracesAreCached() throws Exception {
+        Exception[] exceptions = new Exception[3];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = new Exception(i < 2 ? "same" : "other");
+        }
+        String first = tpc.convert(createLoggingEvent(exceptions[0]));
+        assertSame(first, tpc.convert(createLoggingEvent(exceptions[1])));
+        String other = tpc.convert(createLoggingEvent(exceptions[2]));
+        assertNotSame(first, other);
+        assertEquals(first.replace("same", "other"), other);
+    }
+
+    @Test
+    public void disabledCache() throws Exception {
+        tpc.setOptionList(Arrays.asList("full", "cacheSize=0"));
+        tpc.start();
+        Exception e = new Exception("x");
+        String first = tpc.convert(createLoggingEvent(e));
+        String second = tpc.convert(createLoggingEvent(e));
+        assertNotSame(first, second);
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void seenBefore() throws Exception {
+        tpc.setOptionList(Arrays.asList("full", "seenBefore=1 minute"));
+        tpc.start();
+        Exception[] exceptions = new Exception[3];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = new Exception("m" + i, new IllegalStateException("cause"));
+        }
+        LoggingEvent le0 = (LoggingEvent) createLoggingEvent(exceptions[0]);
+        le0.setTimeStamp(1000);
+        LoggingEvent le1 = (LoggingEvent) createLoggingEvent(exceptions[1]);
+        le1.setTimeStamp(2000);
+        LoggingEvent le2 = (LoggingEvent) createLoggingEvent(exceptions[2]);
+        le2.setTimeStamp(1000 + 60 * 1000);
+
+        // the first occurrence is printed in full, followed by its reference
+        String full = tpc.convert(le0);
+        assertTrue(full, full.startsWith("java.lang.Exception: m0" + CoreConstants.LINE_SEPARATOR));
+        assertTrue(full, full.contains(CoreConstants.CAUSED_BY + "java.lang.IllegalStateException: cause"));
+        String reference = full.substring(full.lastIndexOf("[stack trace #"), full.lastIndexOf(']'));
+        assertTrue(full, full.endsWith(reference + "]" + CoreConstants.LINE_SEPARATOR));
+        assertFalse(full, full.contains(" seen before]"));
+
+        String repeated = tpc.convert(le1);
+        assertEquals("java.lang.Exception: m1" + CoreConstants.LINE_SEPARATOR + CoreConstants.TAB + reference + " seen before]"
+                        + CoreConstants.LINE_SEPARATOR, repeated);
+
+        // the window elapsed
+        String fullAgain = tpc.convert(le2);
+        assertTrue(fullAgain, fullAgain.startsWith("java.lang.Exception: m2" + CoreConstants.LINE_SEPARATOR));
+        assertTrue(fullAgain, fullAgain.contains(CoreConstants.CAUSED_BY + "java.lang.IllegalStateException: cause"));
+        assertTrue(fullAgain, fullAgain.endsWith(reference + "]" + CoreConstants.LINE_SEPARATOR));
+        assertFalse(fullAgain, fullAgain.contains(" seen before]"));
+    }
+
     void someMethod() throws Exception {
         throw new Exception("someMethod");
     }
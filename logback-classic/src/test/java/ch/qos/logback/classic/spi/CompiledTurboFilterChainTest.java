@@ -0,0 +1,175 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.DynamicThresholdFilter;
+import ch.qos.logback.classic.turbo.MDCFilter;
+import ch.qos.logback.classic.turbo.MDCValueLevelPair;
+import ch.qos.logback.classic.turbo.MarkerFilter;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+
+public class CompiledTurboFilterChainTest {
+
+    LoggerContext lc = new LoggerContext();
+    Logger logger = lc.getLogger(this.getClass());
+    ListAppender<ILoggingEvent> listAppender = new ListAppender<ILoggingEvent>();
+    Marker blue = MarkerFactory.getMarker("BLUE");
+
+    @Before
+    public void setUp() {
+        listAppender.setContext(lc);
+        listAppender.start();
+        logger.addAppender(listAppender);
+        logger.setLevel(Level.INFO);
+    }
+
+    @Test
+    public void markerFilterAcceptsBelowEffectiveLevel() {
+        MarkerFilter mf = new MarkerFilter();
+        mf.setContext(lc);
+        mf.setMarker("BLUE");
+        mf.setOnMatch("ACCEPT");
+        mf.start();
+        lc.addTurboFilter(mf);
+
+        logger.debug("no marker");
+        logger.debug(blue, "with marker");
+        assertEquals(1, listAppender.list.size());
+        assertEquals("with marker", listAppender.list.get(0).getMessage());
+
+        CompiledTurboFilterChain chain = lc.getTurboFilterList().compile(logger);
+        assertEquals(FilterReply.NEUTRAL, chain.getStaticDecision(Level.DEBUG, null));
+        assertNull(chain.getStaticDecision(Level.DEBUG, blue));
+        // accepting an enabled call has the same outcome as a neutral reply
+        assertEquals(FilterReply.NEUTRAL, chain.getStaticDecision(Level.INFO, blue));
+    }
+
+    @Test
+    public void filtersWithoutDeclaredTraitsAreAlwaysInvoked() {
+        CountingTurboFilter ctf = new CountingTurboFilter();
+        ctf.setContext(lc);
+        ctf.start();
+        lc.addTurboFilter(ctf);
+
+        logger.debug("a");
+        logger.info("b");
+        logger.isTraceEnabled();
+        assertEquals(3, ctf.count);
+        assertEquals(1, listAppender.list.size());
+    }
+
+    @Test
+    public void mdcFilterIsSkippedWhenItCannotChangeTheOutcome() {
+        MDCFilter mdcFilter = new MDCFilter();
+        mdcFilter.setContext(lc);
+        mdcFilter.setMDCKey("user");
+        mdcFilter.setValue("alice");
+        mdcFilter.setOnMatch("ACCEPT");
+        mdcFilter.start();
+        lc.addTurboFilter(mdcFilter);
+
+        CompiledTurboFilterChain chain = lc.getTurboFilterList().compile(logger);
+        assertNull(chain.getStaticDecision(Level.DEBUG, null));
+        assertEquals(FilterReply.NEUTRAL, chain.getStaticDecision(Level.WARN, null));
+
+        logger.debug("x");
+        MDC.put("user", "alice");
+        try {
+            logger.debug("y");
+        } finally {
+            MDC.remove("user");
+        }
+        assertEquals(1, listAppender.list.size());
+        assertEquals("y", listAppender.list.get(0).getMessage());
+    }
+
+    @Test
+    public void dynamicThresholdFilterBounds() {
+        DynamicThresholdFilter dtf = new DynamicThresholdFilter();
+        dtf.setContext(lc);
+        dtf.setKey("user");
+        dtf.setDefaultThreshold(Level.WARN);
+        MDCValueLevelPair pair = new MDCValueLevelPair();
+        pair.setValue("bob");
+        pair.setLevel(Level.DEBUG);
+        dtf.addMDCValueLevelPair(pair);
+        dtf.start();
+        lc.addTurboFilter(dtf);
+        logger.setLevel(Level.TRACE);
+
+        CompiledTurboFilterChain chain = lc.getTurboFilterList().compile(logger);
+        assertEquals(FilterReply.DENY, chain.getStaticDecision(Level.TRACE, null));
+        assertNull(chain.getStaticDecision(Level.INFO, null));
+        assertEquals(FilterReply.NEUTRAL, chain.getStaticDecision(Level.ERROR, null));
+
+        // denying a disabled call has the same outcome as a neutral reply
+        logger.setLevel(Level.INFO);
+        chain = lc.getTurboFilterList().compile(logger);
+        assertEquals(FilterReply.NEUTRAL, chain.getStaticDecision(Level.TRACE, null));
+    }
+
+    @Test
+    public void chainIsInvalidatedByListAndLevelChanges() {
+        TurboFilterList tfl = lc.getTurboFilterList();
+        int generation = tfl.getGeneration();
+        MarkerFilter mf = new MarkerFilter();
+        mf.setContext(lc);
+        mf.setMarker("BLUE");
+        mf.setOnMatch("DENY");
+        lc.addTurboFilter(mf);
+        assertNotSame(generation, tfl.getGeneration());
+
+        CompiledTurboFilterChain chain = tfl.compile(logger);
+        // not started, hence neutral
+        assertNotNull(chain.getStaticDecision(Level.INFO, blue));
+        int startedGeneration = tfl.getGeneration();
+        mf.start();
+        assertEquals(startedGeneration + 1, tfl.getGeneration());
+
+        logger.info(blue, "denied");
+        assertEquals(0, listAppender.list.size());
+
+        CompiledTurboFilterChain compiled = tfl.compile(logger);
+        assertTrue(compiled.isValidFor(tfl.getGeneration(), Level.INFO_INT));
+        assertFalse(compiled.isValidFor(tfl.getGeneration(), Level.DEBUG_INT));
+    }
+
+    static class CountingTurboFilter extends TurboFilter {
+        int count;
+
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+            count++;
+            return FilterReply.NEUTRAL;
+        }
+    }
+}
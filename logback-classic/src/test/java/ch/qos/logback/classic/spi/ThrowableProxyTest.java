@@ -15,6 +15,8 @@ package ch.qos.logback.classic.spi;
 
 import static ch.qos.logback.classic.util.TestHelper.addSuppressed;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assume.assumeTrue;
 
 import java.io.PrintWriter;
@@ -149,6 +151,19 @@ public class ThrowableProxyTest {
         new ThrowableProxy(top);
     }
 
+    @Test
+    public void stackTraceElementProxiesAreCreatedLazily() {
+        Exception e = new Exception("lazy", new Exception("cause"));
+        ThrowableProxy tp = new ThrowableProxy(e);
+        assertNull(tp.stackTraceElementProxyArray);
+        assertEquals(e.getStackTrace().length, tp.getStackTrace().length);
+        StackTraceElementProxy[] stepArray = tp.getStackTraceElementProxyArray();
+        assertEquals(e.getStackTrace()[0], stepArray[0].getStackTraceElement());
+        assertSame(stepArray, tp.getStackTraceElementProxyArray());
+        // both throwables were created on the same line
+        assertEquals(e.getStackTrace().length, tp.getCause().getCommonFrames());
+    }
+
     @Test
     public void multiNested() {
         Exception w = null;
@@ -0,0 +1,175 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.Duration;
+
+public class ConcurrentDuplicateMessageFilterTest {
+
+    LoggerContext lc = new LoggerContext();
+    ConcurrentDuplicateMessageFilter cdmf = new ConcurrentDuplicateMessageFilter();
+    ListAppender<ILoggingEvent> listAppender = new ListAppender<ILoggingEvent>();
+
+    @Before
+    public void setUp() {
+        cdmf.setContext(lc);
+        listAppender.setContext(lc);
+        listAppender.start();
+        Logger summaryLogger = lc.getLogger(ConcurrentDuplicateMessageFilter.class);
+        summaryLogger.addAppender(listAppender);
+        summaryLogger.setAdditive(false);
+    }
+
+    @After
+    public void tearDown() {
+        cdmf.stop();
+        lc.stop();
+    }
+
+    @Test
+    public void smoke() {
+        cdmf.setAllowedRepetitions(0);
+        cdmf.start();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "y", null, null));
+        assertEquals(FilterReply.DENY, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.DENY, cdmf.decide(null, null, null, "y", null, null));
+        assertEquals(2, cdmf.getSuppressedCount());
+    }
+
+    @Test
+    public void allowedRepetitions() {
+        cdmf.setAllowedRepetitions(2);
+        cdmf.start();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.DENY, cdmf.decide(null, null, null, "x", null, null));
+    }
+
+    @Test
+    public void countsResetAtEndOfWindow() {
+        cdmf.setAllowedRepetitions(0);
+        cdmf.setWindow(Duration.buildBySeconds(10));
+        cdmf.start();
+        long now = System.currentTimeMillis();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide("x", now));
+        assertEquals(FilterReply.DENY, cdmf.decide("x", now));
+        assertEquals(FilterReply.DENY, cdmf.decide("x", now));
+        assertEquals(0, listAppender.list.size());
+
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide("x", now + 20 * 1000));
+        assertEquals(1, listAppender.list.size());
+        assertEquals("2 duplicate messages suppressed during the last 10 seconds", listAppender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void singleCounterSketch() {
+        cdmf.setAllowedRepetitions(0);
+        cdmf.setSketchWidth(1);
+        cdmf.start();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        // all messages collide
+        assertEquals(FilterReply.DENY, cdmf.decide(null, null, null, "y", null, null));
+    }
+
+    @Test
+    public void nullFormat() {
+        cdmf.setAllowedRepetitions(0);
+        cdmf.start();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, null, null, null));
+    }
+
+    @Test
+    public void configuredSketchWidthIsKept() {
+        cdmf.setSketchWidth(1000);
+        cdmf.start();
+        assertEquals(1000, cdmf.getSketchWidth());
+        cdmf.stop();
+        cdmf.start();
+        assertEquals(1000, cdmf.getSketchWidth());
+    }
+
+    @Test
+    public void summaryIsLoggedAtEndOfWindowWithoutFurtherMessages() throws InterruptedException {
+        cdmf.setAllowedRepetitions(0);
+        cdmf.setWindow(Duration.buildByMilliseconds(50));
+        cdmf.start();
+        assertEquals(FilterReply.NEUTRAL, cdmf.decide(null, null, null, "x", null, null));
+        assertEquals(FilterReply.DENY, cdmf.decide(null, null, null, "x", null, null));
+        // no further activity, the summary is nonetheless reported
+        for (int i = 0; i < 200 && listAppender.list.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, listAppender.list.size());
+        assertEquals("1 duplicate messages suppressed during the last 50 milliseconds", listAppender.list.get(0).getFormattedMessage());
+    }
+
+    @Test
+    public void concurrentCallers() throws InterruptedException {
+        final int threadCount = 8;
+        final int callsPerThread = 10000;
+        final int formatCount = 10;
+        final int allowedRepetitions = 5;
+        cdmf.setAllowedRepetitions(allowedRepetitions);
+        cdmf.setSketchWidth(4096);
+        cdmf.start();
+
+        final AtomicIntegerArray letThrough = new AtomicIntegerArray(formatCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < callsPerThread; i++) {
+                        int f = i % formatCount;
+                        if (cdmf.decide(null, null, null, "message " + f, null, null) == FilterReply.NEUTRAL) {
+                            letThrough.incrementAndGet(f);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int f = 0; f < formatCount; f++) {
+            assertEquals("message " + f, allowedRepetitions + 1, letThrough.get(f));
+        }
+        assertEquals(threadCount * callsPerThread - formatCount * (allowedRepetitions + 1), cdmf.getSuppressedCount());
+    }
+}
@@ -18,6 +18,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ ReconfigureOnChangeTest.class, MarkerFilterTest.class, DuplicateMessageFilterTest.class })
+@SuiteClasses({ ReconfigureOnChangeTest.class, MarkerFilterTest.class, DuplicateMessageFilterTest.class, ConcurrentDuplicateMessageFilterTest.class,
+        RateLimitingFilterTest.class, SamplingFilterTest.class })
 public class PackageTest {
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.util.Duration;
+
+public class RateLimitingFilterTest {
+
+    LoggerContext lc = new LoggerContext();
+    RateLimitingFilter rlf = new RateLimitingFilter();
+    ListAppender<ILoggingEvent> listAppender = new ListAppender<ILoggingEvent>();
+    Logger root = lc.getLogger(Logger.ROOT_LOGGER_NAME);
+
+    @Before
+    public void setUp() {
+        rlf.setContext(lc);
+        listAppender.setContext(lc);
+        listAppender.start();
+        root.addAppender(listAppender);
+        root.setLevel(Level.INFO);
+    }
+
+    @Test
+    public void burstThenDeny() {
+        rlf.setMaxEvents(3);
+        rlf.setPeriod(Duration.buildByHours(1));
+        rlf.start();
+        lc.addTurboFilter(rlf);
+
+        Logger a = lc.getLogger("a");
+        for (int i = 0; i < 10; i++) {
+            a.info("hello");
+        }
+        assertEquals(3, listAppender.list.size());
+        assertEquals(7, rlf.getSuppressedCount());
+
+        // other loggers have their own bucket
+        lc.getLogger("b").info("hello");
+        assertEquals(4, listAppender.list.size());
+    }
+
+    @Test
+    public void disabledCallsDoNotConsumeTokens() {
+        rlf.setMaxEvents(1);
+        rlf.setPeriod(Duration.buildByHours(1));
+        rlf.start();
+        lc.addTurboFilter(rlf);
+
+        Logger a = lc.getLogger("a");
+        for (int i = 0; i < 10; i++) {
+            a.debug("hello");
+        }
+        a.info("hello");
+        assertEquals(1, listAppender.list.size());
+        assertEquals(0, rlf.getSuppressedCount());
+    }
+
+    @Test
+    public void keyByMarker() {
+        rlf.setMaxEvents(1);
+        rlf.setPeriod(Duration.buildByHours(1));
+        rlf.setKeyBy(SuppressingFilterBase.KeyBy.MARKER);
+        rlf.start();
+        lc.addTurboFilter(rlf);
+
+        Marker blue = MarkerFactory.getMarker("BLUE");
+        Logger a = lc.getLogger("a");
+        Logger b = lc.getLogger("b");
+        a.info(blue, "hello");
+        b.info(blue, "hello");
+        a.info("hello");
+        b.info("hello");
+        assertEquals(2, listAppender.list.size());
+    }
+
+    @Test
+    public void summaryIsLoggedOnStop() {
+        rlf.setMaxEvents(1);
+        rlf.setPeriod(Duration.buildByHours(1));
+        rlf.setName("rl");
+        rlf.start();
+        lc.addTurboFilter(rlf);
+
+        Logger a = lc.getLogger("a");
+        a.info("one");
+        a.info("two");
+        a.info("three");
+        rlf.stop();
+        assertEquals(2, listAppender.list.size());
+        assertEquals("2 events suppressed by [rl]", listAppender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void summaryIsLoggedPeriodically() throws InterruptedException {
+        rlf.setMaxEvents(1);
+        rlf.setPeriod(Duration.buildByHours(1));
+        rlf.setSummaryPeriod(Duration.buildByMilliseconds(50));
+        rlf.setName("rl");
+        rlf.start();
+        lc.addTurboFilter(rlf);
+
+        Logger a = lc.getLogger("a");
+        a.info("one");
+        a.info("two");
+        a.info("three");
+        // no further activity, the summary is nonetheless reported
+        for (int i = 0; i < 200 && listAppender.list.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, listAppender.list.size());
+        assertEquals("2 events suppressed by [rl]", listAppender.list.get(1).getFormattedMessage());
+        assertEquals(0, rlf.getSuppressedCount());
+        rlf.stop();
+        assertEquals(2, listAppender.list.size());
+    }
+
+    @Test
+    public void tokensAreReplenished() {
+        rlf.setMaxEvents(10);
+        rlf.setPeriod(Duration.buildBySeconds(1));
+        rlf.setBurst(1);
+        rlf.start();
+
+        long now = 0;
+        AtomicLong bucket = new AtomicLong(now);
+        assertTrue(rlf.tryAcquire(bucket, now));
+        assertFalse(rlf.tryAcquire(bucket, now));
+        // one token every 100 ms
+        assertFalse(rlf.tryAcquire(bucket, now + 50 * 1000000L));
+        assertTrue(rlf.tryAcquire(bucket, now + 100 * 1000000L));
+        assertFalse(rlf.tryAcquire(bucket, now + 100 * 1000000L));
+    }
+}
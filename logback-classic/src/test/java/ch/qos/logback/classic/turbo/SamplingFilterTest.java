@@ -0,0 +1,101 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.turbo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class SamplingFilterTest {
+
+    LoggerContext lc = new LoggerContext();
+    SamplingFilter sf = new SamplingFilter();
+    ListAppender<ILoggingEvent> listAppender = new ListAppender<ILoggingEvent>();
+    Logger logger = lc.getLogger("a");
+
+    @Before
+    public void setUp() {
+        sf.setContext(lc);
+        listAppender.setContext(lc);
+        listAppender.start();
+        logger.addAppender(listAppender);
+        logger.setAdditive(false);
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @Test
+    public void keepOneIn() {
+        sf.setKeepOneIn(10);
+        sf.start();
+        lc.addTurboFilter(sf);
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("{}", i);
+        }
+        assertEquals(10, listAppender.list.size());
+        assertEquals("0", listAppender.list.get(0).getFormattedMessage());
+        assertEquals("10", listAppender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    public void probability() {
+        sf.setProbability(0.25);
+        sf.start();
+        lc.addTurboFilter(sf);
+
+        int total = 10000;
+        for (int i = 0; i < total; i++) {
+            logger.info("hello");
+        }
+        int kept = listAppender.list.size();
+        assertTrue("kept " + kept, kept > total / 5 && kept < total * 3 / 10);
+        assertEquals(total - kept, sf.getSuppressedCount());
+    }
+
+    @Test
+    public void keyByMDC() {
+        sf.setKeepOneIn(2);
+        sf.setKeyBy(SuppressingFilterBase.KeyBy.MDC);
+        sf.setMdcKey("tenant");
+        sf.start();
+        lc.addTurboFilter(sf);
+
+        MDC.put("tenant", "x");
+        logger.info("a");
+        logger.info("b");
+        MDC.put("tenant", "y");
+        logger.info("c");
+        logger.info("d");
+        MDC.remove("tenant");
+        assertEquals(2, listAppender.list.size());
+        assertEquals("a", listAppender.list.get(0).getMessage());
+        assertEquals("c", listAppender.list.get(1).getMessage());
+    }
+
+    @Test
+    public void mdcKeyIsMandatory() {
+        sf.setKeyBy(SuppressingFilterBase.KeyBy.MDC);
+        sf.start();
+        assertEquals(false, sf.isStarted());
+    }
+}
@@ -14,6 +14,7 @@
 package ch.qos.logback.classic.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -43,7 +44,9 @@ import ch.qos.logback.core.ConsoleAppender;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.LogbackException;
 import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.status.Status;
 import ch.qos.logback.core.status.StatusListener;
+import ch.qos.logback.core.status.StatusUtil;
 import ch.qos.logback.core.status.TrivialStatusListener;
 import ch.qos.logback.core.util.Loader;
 
@@ -61,6 +64,7 @@ public class ContextInitializerTest {
         System.clearProperty(ContextInitializer.CONFIG_FILE_PROPERTY);
         System.clearProperty(CoreConstants.STATUS_LISTENER_CLASS_KEY);
         MockConfigurator.context = null;
+        EnvUtil.testServiceLoaderClassLoader = null;
     }
 
     @Test
@@ -117,6 +121,31 @@ public class ContextInitializerTest {
         assertNull(MockConfigurator.context);
     }
 
+    @Test
+    public void serviceLoaderConfiguratorIsPreferredOverConfigurationFiles() throws Exception {
+        assumeTrue(!isJDK5());
+        setupMockServiceLoader();
+        final URL configurationFileUrl = Loader.getResource("BOO_logback-test.xml", Thread.currentThread().getContextClassLoader());
+        new ContextInitializer(loggerContext) {
+            @Override
+            URL findURLOfAutoConfigFile(ClassLoader myClassLoader, boolean updateStatus) {
+                return configurationFileUrl;
+            }
+        }.autoConfig();
+        assertSame(loggerContext, MockConfigurator.context);
+        assertNull(loggerContext.getObject(CoreConstants.SAFE_JORAN_CONFIGURATION));
+        assertTrue(new StatusUtil(loggerContext).containsMatch(Status.WARN, "Ignoring \\[.*BOO_logback-test.xml\\] in favor of Configurator"));
+    }
+
+    @Test
+    public void systemPropertyIsPreferredOverServiceLoaderConfigurator() throws Exception {
+        assumeTrue(!isJDK5());
+        setupMockServiceLoader();
+        doAutoConfigFromSystemProperties(ClassicTestConstants.INPUT_PREFIX + "autoConfig.xml");
+        assertNull(MockConfigurator.context);
+        assertFalse(new StatusUtil(loggerContext).containsMatch(Status.WARN, "in favor of Configurator"));
+    }
+
     @Test
     public void autoStatusListener() throws JoranException {
         System.setProperty(CoreConstants.STATUS_LISTENER_CLASS_KEY, TrivialStatusListener.class.getName());
@@ -16,6 +16,8 @@ package ch.qos.logback.core;
 import java.util.List;
 
 import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.metrics.AppenderMetrics;
+import ch.qos.logback.core.metrics.MetricsRegistry;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.spi.FilterAttachableImpl;
 import ch.qos.logback.core.spi.FilterReply;
@@ -46,6 +48,12 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
 
     private FilterAttachableImpl<E> fai = new FilterAttachableImpl<E>();
 
+    /**
+     * The metrics of this appender, null unless metrics are enabled in the
+     * context when the appender is started.
+     */
+    protected AppenderMetrics metrics;
+
     public String getName() {
         return name;
     }
@@ -75,13 +83,22 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
             }
 
             if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
+                if (metrics != null) {
+                    metrics.incrementFiltered();
+                }
                 return;
             }
 
             // ok, we now invoke derived class' implementation of append
             this.append(eventObject);
+            if (metrics != null && !countsAppendedEvents()) {
+                metrics.incrementAppended();
+            }
 
         } catch (Exception e) {
+            if (metrics != null) {
+                metrics.incrementErrors();
+            }
             if (exceptionCount++ < ALLOWED_REPEATS) {
                 addError("Appender [" + name + "] failed to append.", e);
             }
@@ -92,6 +109,18 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
 
     abstract protected void append(E eventObject);
 
+    /**
+     * Returns true if {@link #append(Object)} counts the events it appended in
+     * {@link #metrics} itself, so that events it drops or fails to write are
+     * not counted as appended. Otherwise, every event for which append()
+     * returns normally is counted as appended.
+     * 
+     * @since 1.2.14
+     */
+    protected boolean countsAppendedEvents() {
+        return false;
+    }
+
     /**
      * Set the name of this appender.
      */
@@ -100,6 +129,7 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
     }
 
     public void start() {
+        metrics = MetricsRegistry.getAppenderMetrics(context, name);
         started = true;
     }
 
@@ -111,6 +141,13 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
         return started;
     }
 
+    /**
+     * @since 1.2.14
+     */
+    public AppenderMetrics getMetrics() {
+        return metrics;
+    }
+
     public String toString() {
         return this.getClass().getName() + "[" + name + "]";
     }
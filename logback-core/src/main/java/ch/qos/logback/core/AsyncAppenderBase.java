@@ -108,6 +108,9 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
         worker.setName("AsyncAppender-Worker-" + getName());
         // make sure this instance is marked as "started" before staring the worker Thread
         super.start();
+        if (metrics != null) {
+            metrics.setQueue(blockingQueue);
+        }
         worker.start();
     }
 
@@ -155,22 +158,36 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
     @Override
     protected void append(E eventObject) {
         if (isQueueBelowDiscardingThreshold() && isDiscardable(eventObject)) {
+            if (metrics != null) {
+                metrics.incrementDropped();
+            }
             return;
         }
         preprocess(eventObject);
-        put(eventObject);
+        if (put(eventObject)) {
+            if (metrics != null) {
+                metrics.incrementAppended();
+            }
+        } else if (metrics != null) {
+            metrics.incrementDropped();
+        }
+    }
+
+    @Override
+    protected boolean countsAppendedEvents() {
+        return true;
     }
 
     private boolean isQueueBelowDiscardingThreshold() {
         return (blockingQueue.remainingCapacity() < discardingThreshold);
     }
 
-    private void put(E eventObject) {
+    private boolean put(E eventObject) {
         if (neverBlock) {
-            blockingQueue.offer(eventObject);
-        } else {
-            putUninterruptibly(eventObject);
+            return blockingQueue.offer(eventObject);
         }
+        putUninterruptibly(eventObject);
+        return true;
     }
 
     private void putUninterruptibly(E eventObject) {
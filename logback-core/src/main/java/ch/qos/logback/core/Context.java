@@ -127,6 +127,7 @@ public interface Context extends PropertyContainer {
      * @deprecated use {@link#getScheduledExecutorService()} instead
      */
     ExecutorService getExecutorService();
+
     /**
      * Register a component that participates in the context's life cycle.
      * <p>
@@ -28,12 +28,15 @@ import java.util.concurrent.ScheduledFuture;
 
 import ch.qos.logback.core.rolling.helper.FileNamePattern;
 import ch.qos.logback.core.spi.LifeCycle;
+import ch.qos.logback.core.spi.NamedExecutorProvider;
 import ch.qos.logback.core.spi.LogbackLock;
 import ch.qos.logback.core.status.StatusManager;
 import ch.qos.logback.core.util.ContextUtil;
+import ch.qos.logback.core.util.ExecutorConfig;
+import ch.qos.logback.core.util.ExecutorRegistry;
 import ch.qos.logback.core.util.ExecutorServiceUtil;
 
-public class ContextBase implements Context, LifeCycle {
+public class ContextBase implements Context, LifeCycle, NamedExecutorProvider {
 
     private long birthTime = System.currentTimeMillis();
 
@@ -48,6 +51,7 @@ public class ContextBase implements Context, LifeCycle {
     LogbackLock configurationLock = new LogbackLock();
 
     private ScheduledExecutorService scheduledExecutorService;
+    private final ExecutorRegistry executorRegistry = new ExecutorRegistry(this);
     protected List<ScheduledFuture<?>> scheduledFutures = new ArrayList<ScheduledFuture<?>>(1);
     private LifeCycleManager lifeCycleManager;
     private boolean started;
@@ -173,6 +177,7 @@ public class ContextBase implements Context, LifeCycle {
 
         removeShutdownHook();
         getLifeCycleManager().reset();
+        executorRegistry.reset();
         propertyMap.clear();
         objectMap.clear();
     }
@@ -219,7 +224,27 @@ public class ContextBase implements Context, LifeCycle {
         return scheduledExecutorService;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * @since 1.2.14
+     */
+    public ScheduledExecutorService getScheduledExecutorService(String name) {
+        ScheduledExecutorService executor = executorRegistry.getExecutor(name);
+        return executor != null ? executor : getScheduledExecutorService();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @since 1.2.14
+     */
+    public void addExecutorConfig(ExecutorConfig config) {
+        executorRegistry.addExecutorConfig(config);
+    }
+
     private synchronized void stopExecutorService() {
+        executorRegistry.stop();
         if (scheduledExecutorService != null) {
             ExecutorServiceUtil.shutdown(scheduledExecutorService);
             scheduledExecutorService = null;
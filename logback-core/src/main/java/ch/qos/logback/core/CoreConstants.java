@@ -41,6 +41,19 @@ public class CoreConstants {
     // asking to make MAX_POOL_SIZE a parameter.
     public static final int MAX_POOL_SIZE = 32;
 
+    /**
+     * Names of the executors dedicated to a class of tasks, see
+     * {@link ch.qos.logback.core.spi.NamedExecutorProvider}. Tasks submitted to
+     * the network executor, such as receivers and server runners, may occupy
+     * a thread for the lifetime of their component. The tasks they spawn and
+     * wait for, e.g. connectors and client handlers, run on the shared
+     * executor so that they cannot be starved by their parent.
+     */
+    public static final String IO_EXECUTOR_NAME = "io";
+    public static final String COMPRESSION_EXECUTOR_NAME = "compression";
+    public static final String NETWORK_EXECUTOR_NAME = "network";
+    public static final String HOUSEKEEPING_EXECUTOR_NAME = "housekeeping";
+
     // Note that the line.separator property can be looked up even by
     // applets.
     public static final String LINE_SEPARATOR = System.getProperty("line.separator");
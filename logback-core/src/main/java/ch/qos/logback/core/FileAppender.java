@@ -16,17 +16,26 @@ package ch.qos.logback.core;
 import static ch.qos.logback.core.CoreConstants.CODES_URL;
 import static ch.qos.logback.core.CoreConstants.MORE_INFO_PREFIX;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import ch.qos.logback.core.recovery.ResilientFileOutputStream;
+import ch.qos.logback.core.spi.DeferredProcessingAware;
+import ch.qos.logback.core.status.ErrorStatus;
 import ch.qos.logback.core.util.ContextUtil;
+import ch.qos.logback.core.util.Duration;
 import ch.qos.logback.core.util.FileSize;
 import ch.qos.logback.core.util.FileUtil;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * FileAppender appends log events to a file.
@@ -58,6 +67,28 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
 
     private FileSize bufferSize = new FileSize(DEFAULT_BUFFER_SIZE);
 
+    /**
+     * In prudent mode, when set to a positive duration, events are buffered
+     * in memory and written in batches, one file lock being acquired per
+     * batch instead of per event.
+     */
+    private Duration prudentBatchWindow = null;
+    private FileSize prudentBatchSize = new FileSize(64 * FileSize.KB_COEFFICIENT);
+    private boolean prudentAtomicAppend = false;
+
+    // guarded by lock
+    private ByteArrayOutputStream prudentBatch;
+    private int prudentBatchEventCount;
+    private ScheduledFuture<?> prudentBatchFuture;
+
+    // prudent mode metrics, written under lock
+    private volatile long prudentLockCount;
+    private volatile long prudentLockWaitNanos;
+    private volatile long prudentMaxLockWaitNanos;
+    private volatile long prudentBatchCount;
+    private volatile long prudentBatchEventTotal;
+    private volatile int prudentMaxBatchEventCount;
+
     /**
      * The <b>File</b> property takes a string value which should be the name of
      * the file to append to.
@@ -115,6 +146,14 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
                     setAppend(true);
                     addWarn("Setting \"Append\" property to true on account of \"Prudent\" mode");
                 }
+                if (prudentAtomicAppend && !isPrudentBatching()) {
+                    addWarn("\"PrudentAtomicAppend\" requires a positive \"PrudentBatchWindow\", ignoring it");
+                }
+                if (flushPolicy != null) {
+                    // the file lock is released after each event
+                    flushPolicy = null;
+                    addWarn("Ignoring \"FlushPolicy\" on account of \"Prudent\" mode");
+                }
             }
 
             if (checkForFileCollisionInPreviousFileAppenders()) {
@@ -136,12 +175,44 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
         }
         if (errors == 0) {
             super.start();
+            if (isStarted() && isPrudentBatching()) {
+                startPrudentBatching();
+            }
         }
     }
 
+    private void startPrudentBatching() {
+        prudentBatch = new ByteArrayOutputStream((int) Math.min(prudentBatchSize.getSize(), DEFAULT_BUFFER_SIZE * 8));
+        prudentBatchEventCount = 0;
+        long period = (long) prudentBatchWindow.getMilliseconds();
+        Runnable flushTask = new Runnable() {
+            public void run() {
+                lock.lock();
+                try {
+                    flushPrudentBatch();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+        prudentBatchFuture = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.IO_EXECUTOR_NAME).scheduleAtFixedRate(flushTask, period, period, TimeUnit.MILLISECONDS);
+        addInfo("Writing events in batches every " + prudentBatchWindow + " in prudent mode");
+    }
+
     @Override
     public void stop() {
+        if (prudentBatchFuture != null) {
+            prudentBatchFuture.cancel(false);
+            prudentBatchFuture = null;
+        }
+        // pending events are written by closeOutputStream()
         super.stop();
+        lock.lock();
+        try {
+            prudentBatch = null;
+        } finally {
+            lock.unlock();
+        }
 
         Map<String, String> map = ContextUtil.getFilenameCollisionMap(context);
         if (map == null || getName() == null)
@@ -195,20 +266,31 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
     public void openFile(String file_name) throws IOException {
         lock.lock();
         try {
-            File file = new File(file_name);
-            boolean result = FileUtil.createMissingParentDirectories(file);
-            if (!result) {
-                addError("Failed to create parent directories for [" + file.getAbsolutePath() + "]");
-            }
-
-            ResilientFileOutputStream resilientFos = new ResilientFileOutputStream(file, append, bufferSize.getSize());
-            resilientFos.setContext(context);
-            setOutputStream(resilientFos);
+            setOutputStream(createFileOutputStream(file_name));
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Opens <code>file_name</code>, creating missing parent directories, with
+     * this appender's <b>Append</b> and <b>BufferSize</b> settings. The stream
+     * is not installed as the output stream of this appender.
+     * 
+     * @since 1.2.14
+     */
+    protected ResilientFileOutputStream createFileOutputStream(String file_name) throws IOException {
+        File file = new File(file_name);
+        boolean result = FileUtil.createMissingParentDirectories(file);
+        if (!result) {
+            addError("Failed to create parent directories for [" + file.getAbsolutePath() + "]");
+        }
+
+        ResilientFileOutputStream resilientFos = new ResilientFileOutputStream(file, append, bufferSize.getSize());
+        resilientFos.setContext(context);
+        return resilientFos;
+    }
+
     /**
      * @see #setPrudent(boolean)
      * 
@@ -237,6 +319,146 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
         this.bufferSize = bufferSize;
     }
 
+    boolean isPrudentBatching() {
+        return prudent && prudentBatchWindow != null && prudentBatchWindow.getMilliseconds() > 0;
+    }
+
+    @Override
+    protected void subAppend(E event) {
+        if (!prudent || !isStarted()) {
+            super.subAppend(event);
+            return;
+        }
+        try {
+            if (event instanceof DeferredProcessingAware) {
+                ((DeferredProcessingAware) event).prepareForDeferredProcessing();
+            }
+            if (prudentBatch != null) {
+                byte[] byteArray = this.encoder.encode(event);
+                addToPrudentBatch(byteArray);
+            } else {
+                // the file lock may not be requested concurrently from within
+                // the same JVM
+                lock.lock();
+                try {
+                    writeOut(event);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException ioe) {
+            if (metrics != null) {
+                metrics.incrementErrors();
+            }
+            this.started = false;
+            addStatus(new ErrorStatus("IO failure in appender", this, ioe));
+        }
+    }
+
+    private void addToPrudentBatch(byte[] byteArray) {
+        if (byteArray == null || byteArray.length == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (prudentBatch == null) {
+                return;
+            }
+            prudentBatch.write(byteArray, 0, byteArray.length);
+            prudentBatchEventCount++;
+            if (prudentBatch.size() >= prudentBatchSize.getSize()) {
+                flushPrudentBatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void closeOutputStream() {
+        lock.lock();
+        try {
+            flushPrudentBatch();
+        } finally {
+            lock.unlock();
+        }
+        super.closeOutputStream();
+    }
+
+    /**
+     * Writes pending events at the end of the file with a single write
+     * performed, unless <code>prudentAtomicAppend</code> is set, while
+     * holding an exclusive lock on the file. Must be called while holding
+     * {@link #lock}.
+     */
+    private void flushPrudentBatch() {
+        if (prudentBatch == null || prudentBatch.size() == 0) {
+            return;
+        }
+        OutputStream os = getOutputStream();
+        if (!(os instanceof ResilientFileOutputStream)) {
+            return;
+        }
+        ResilientFileOutputStream resilientFOS = (ResilientFileOutputStream) os;
+        FileChannel fileChannel = resilientFOS.getChannel();
+        if (fileChannel == null) {
+            return;
+        }
+        ByteBuffer batch = ByteBuffer.wrap(prudentBatch.toByteArray());
+        int eventCount = prudentBatchEventCount;
+        prudentBatch.reset();
+        prudentBatchEventCount = 0;
+
+        // Clear any current interrupt (see LOGBACK-875)
+        boolean interrupted = Thread.interrupted();
+
+        FileLock fileLock = null;
+        try {
+            // headers may still sit in the stream's buffer
+            resilientFOS.flush();
+            if (!prudentAtomicAppend) {
+                long before = System.nanoTime();
+                fileLock = fileChannel.lock();
+                recordLockWait(System.nanoTime() - before);
+            }
+            // the file is opened in append mode, each write lands at its end
+            while (batch.hasRemaining()) {
+                fileChannel.write(batch);
+            }
+            recordBatch(eventCount);
+        } catch (IOException e) {
+            // Mainly to catch FileLockInterruptionExceptions (see LOGBACK-875)
+            resilientFOS.postIOFailure(e);
+        } finally {
+            if (fileLock != null && fileLock.isValid()) {
+                try {
+                    fileLock.release();
+                } catch (IOException e) {
+                    resilientFOS.postIOFailure(e);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void recordLockWait(long nanos) {
+        prudentLockCount++;
+        prudentLockWaitNanos += nanos;
+        if (nanos > prudentMaxLockWaitNanos) {
+            prudentMaxLockWaitNanos = nanos;
+        }
+    }
+
+    private void recordBatch(int eventCount) {
+        prudentBatchCount++;
+        prudentBatchEventTotal += eventCount;
+        if (eventCount > prudentMaxBatchEventCount) {
+            prudentMaxBatchEventCount = eventCount;
+        }
+    }
+
     private void safeWrite(E event) throws IOException {
         ResilientFileOutputStream resilientFOS = (ResilientFileOutputStream) getOutputStream();
         FileChannel fileChannel = resilientFOS.getChannel();
@@ -249,13 +471,16 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
 
         FileLock fileLock = null;
         try {
+            long before = System.nanoTime();
             fileLock = fileChannel.lock();
+            recordLockWait(System.nanoTime() - before);
             long position = fileChannel.position();
             long size = fileChannel.size();
             if (size != position) {
                 fileChannel.position(size);
             }
             super.writeOut(event);
+            recordBatch(1);
         } catch (IOException e) {
             // Mainly to catch FileLockInterruptionExceptions (see LOGBACK-875)
             resilientFOS.postIOFailure(e);
@@ -279,4 +504,87 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
             super.writeOut(event);
         }
     }
+
+    public Duration getPrudentBatchWindow() {
+        return prudentBatchWindow;
+    }
+
+    /**
+     * In prudent mode, the maximum time events are buffered in memory before
+     * being written in a single batch. Disabled by default, in which case
+     * each event is written under its own file lock.
+     * 
+     * @since 1.2.14
+     */
+    public void setPrudentBatchWindow(Duration prudentBatchWindow) {
+        this.prudentBatchWindow = prudentBatchWindow;
+    }
+
+    public FileSize getPrudentBatchSize() {
+        return prudentBatchSize;
+    }
+
+    /**
+     * The number of buffered bytes which causes a batch to be written before
+     * the end of the batch window.
+     * 
+     * @since 1.2.14
+     */
+    public void setPrudentBatchSize(FileSize prudentBatchSize) {
+        this.prudentBatchSize = prudentBatchSize;
+    }
+
+    public boolean isPrudentAtomicAppend() {
+        return prudentAtomicAppend;
+    }
+
+    /**
+     * When true, batches are written without a file lock, relying on the
+     * operating system to append each write atomically at the end of the file.
+     * Local file systems provide this guarantee for files opened in append
+     * mode, network file systems such as NFS do not.
+     * 
+     * @since 1.2.14
+     */
+    public void setPrudentAtomicAppend(boolean prudentAtomicAppend) {
+        this.prudentAtomicAppend = prudentAtomicAppend;
+    }
+
+    /**
+     * The number of file locks acquired in prudent mode.
+     */
+    public long getPrudentLockCount() {
+        return prudentLockCount;
+    }
+
+    /**
+     * The total time spent waiting for file locks in prudent mode, in
+     * nanoseconds.
+     */
+    public long getPrudentLockWaitNanos() {
+        return prudentLockWaitNanos;
+    }
+
+    public long getPrudentMaxLockWaitNanos() {
+        return prudentMaxLockWaitNanos;
+    }
+
+    /**
+     * The number of writes, single events or batches, performed in prudent
+     * mode.
+     */
+    public long getPrudentBatchCount() {
+        return prudentBatchCount;
+    }
+
+    /**
+     * The number of events written in prudent mode.
+     */
+    public long getPrudentBatchEventTotal() {
+        return prudentBatchEventTotal;
+    }
+
+    public int getPrudentMaxBatchEventCount() {
+        return prudentMaxBatchEventCount;
+    }
 }
@@ -0,0 +1,399 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.FileUtil;
+import ch.qos.logback.core.util.InterruptUtil;
+
+/**
+ * GroupCommitFileAppender writes events to a file from a single writer
+ * thread, while encoding them on the threads producing them.
+ * 
+ * <p>Unlike {@link AsyncAppenderBase} wrapping a {@link FileAppender}, where
+ * the worker thread both encodes and writes, encoding here proceeds in
+ * parallel on the producing threads. Only the already encoded chunks go
+ * through a {@link BlockingQueue}. The writer thread drains up to
+ * <code>maxBatchSize</code> chunks at a time and writes them with one
+ * gathering write, see {@link FileChannel#write(ByteBuffer[], int, int)}. When
+ * <code>syncOnCommit</code> is true, each such batch is also forced to the
+ * storage device, so that a single fsync covers many events.
+ * 
+ * <p>As with {@link AsyncAppenderBase}, this appender should be stopped so that
+ * queued events are written before the application exits. Producers waiting
+ * for room in the queue give up, dropping their event, once the appender is
+ * stopped or its writer thread has died. Dropped events, including those
+ * discarded because of <code>neverBlock</code>, are counted, see
+ * {@link #getDroppedCount()}.
+ * 
+ * @since 1.2.14
+ */
+public class GroupCommitFileAppender<E> extends UnsynchronizedAppenderBase<E> {
+
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+
+    // marks the end of the stream of chunks
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+    // how often a blocked producer checks whether the writer is still there
+    static final long OFFER_RETRY_MILLIS = 100;
+
+    Encoder<E> encoder;
+    String fileName;
+    boolean append = true;
+    int queueSize = DEFAULT_QUEUE_SIZE;
+    int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    boolean syncOnCommit = false;
+    boolean neverBlock = false;
+    int maxFlushTime = AsyncAppenderBase.DEFAULT_MAX_FLUSH_TIME;
+
+    BlockingQueue<ByteBuffer> blockingQueue;
+    private FileOutputStream fileOutputStream;
+    private FileChannel channel;
+    private Writer writer;
+    private volatile long commitCount;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private int errorCount = 0;
+
+    @Override
+    public void start() {
+        if (isStarted())
+            return;
+        int errors = 0;
+        if (encoder == null) {
+            addError("No encoder set for the appender named \"" + name + "\".");
+            errors++;
+        }
+        if (fileName == null) {
+            addError("\"File\" property not set for appender named [" + name + "].");
+            errors++;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            errors++;
+        }
+        if (maxBatchSize < 1) {
+            addError("Invalid maxBatchSize [" + maxBatchSize + "]");
+            errors++;
+        }
+        if (errors > 0) {
+            return;
+        }
+
+        try {
+            File file = new File(fileName);
+            if (!FileUtil.createMissingParentDirectories(file)) {
+                addError("Failed to create parent directories for [" + file.getAbsolutePath() + "]");
+            }
+            fileOutputStream = new FileOutputStream(file, append);
+            channel = fileOutputStream.getChannel();
+            byte[] header = encoder.headerBytes();
+            if (header != null && header.length > 0) {
+                writeFully(new ByteBuffer[] { ByteBuffer.wrap(header) }, 1);
+            }
+        } catch (IOException e) {
+            addError("Failed to open file [" + fileName + "] for appender named [" + name + "].", e);
+            closeChannel();
+            return;
+        }
+
+        blockingQueue = new ArrayBlockingQueue<ByteBuffer>(queueSize);
+        commitCount = 0;
+        droppedCount.set(0);
+        writer = new Writer();
+        writer.setDaemon(true);
+        writer.setName("GroupCommitFileAppender-Writer-" + getName());
+        super.start();
+        if (metrics != null) {
+            metrics.setQueue(blockingQueue);
+        }
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted())
+            return;
+        super.stop();
+
+        // the writer is not interrupted as doing so would close the channel
+        offerUninterruptibly(END_OF_STREAM);
+
+        InterruptUtil interruptUtil = new InterruptUtil(context);
+        try {
+            interruptUtil.maskInterruptFlag();
+            writer.join(maxFlushTime);
+            if (writer.isAlive()) {
+                addWarn("Max queue flush timeout (" + maxFlushTime + " ms) exceeded. Approximately " + blockingQueue.size()
+                                + " queued events were possibly discarded.");
+            }
+        } catch (InterruptedException e) {
+            addError("Failed to join writer thread. " + blockingQueue.size() + " queued events may be discarded.", e);
+        } finally {
+            interruptUtil.unmaskInterruptFlag();
+        }
+        long dropped = droppedCount.get();
+        if (dropped > 0) {
+            addWarn(dropped + " events were dropped by the appender named [" + name + "].");
+        }
+    }
+
+    @Override
+    protected void append(E eventObject) {
+        byte[] bytes = encoder.encode(eventObject);
+        if (bytes == null || bytes.length == 0) {
+            return;
+        }
+        ByteBuffer chunk = ByteBuffer.wrap(bytes);
+        boolean queued = neverBlock ? blockingQueue.offer(chunk) : offerUninterruptibly(chunk);
+        if (queued) {
+            if (metrics != null) {
+                metrics.incrementAppended();
+            }
+        } else {
+            droppedCount.incrementAndGet();
+            if (metrics != null) {
+                metrics.incrementDropped();
+            }
+        }
+    }
+
+    @Override
+    protected boolean countsAppendedEvents() {
+        return true;
+    }
+
+    /**
+     * Waits for room in the queue, rechecking periodically that the writer is
+     * alive and, unless <code>chunk</code> ends the stream, that the appender
+     * is started.
+     * 
+     * @return false if the chunk could not be queued
+     */
+    private boolean offerUninterruptibly(ByteBuffer chunk) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (blockingQueue.offer(chunk, OFFER_RETRY_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (!writer.isAlive() || (chunk != END_OF_STREAM && !isStarted())) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer[] chunks, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            channel.write(chunks, offset, length - offset);
+            while (offset < length && !chunks[offset].hasRemaining()) {
+                offset++;
+            }
+        }
+    }
+
+    /**
+     * Writes the given chunks with a single gathering write, in the absence of
+     * short writes.
+     */
+    void commit(List<ByteBuffer> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writeFully(batch.toArray(new ByteBuffer[batch.size()]), batch.size());
+            if (syncOnCommit) {
+                channel.force(false);
+            }
+            commitCount++;
+        } catch (IOException e) {
+            errorCount++;
+            if (errorCount < CoreConstants.MAX_ERROR_COUNT) {
+                addError("Failed to write " + batch.size() + " events to [" + fileName + "]", e);
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if (fileOutputStream != null) {
+            try {
+                fileOutputStream.close();
+            } catch (IOException e) {
+                addError("Could not close [" + fileName + "].", e);
+            }
+            fileOutputStream = null;
+            channel = null;
+        }
+    }
+
+    // ByteBuffer.equals() compares contents, hence the identity check
+    private static boolean removeEndOfStream(List<ByteBuffer> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i) == END_OF_STREAM) {
+                batch.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    class Writer extends Thread {
+
+        public void run() {
+            GroupCommitFileAppender<E> parent = GroupCommitFileAppender.this;
+            List<ByteBuffer> batch = new ArrayList<ByteBuffer>(maxBatchSize);
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                try {
+                    batch.add(parent.blockingQueue.take());
+                } catch (InterruptedException ie) {
+                    continue;
+                }
+                parent.blockingQueue.drainTo(batch, maxBatchSize - 1);
+                endOfStream = removeEndOfStream(batch);
+                commit(batch);
+                batch.clear();
+            }
+
+            // chunks queued by producers racing with stop()
+            parent.blockingQueue.drainTo(batch);
+            commit(batch);
+
+            byte[] footer = encoder.footerBytes();
+            if (footer != null && footer.length > 0) {
+                batch.clear();
+                batch.add(ByteBuffer.wrap(footer));
+                commit(batch);
+            }
+            closeChannel();
+        }
+    }
+
+    /**
+     * The number of batches written so far.
+     */
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * The number of events dropped since the appender was started, either
+     * because the queue was full with <code>neverBlock</code> set, or because
+     * the appender was stopped or its writer had died while the producer was
+     * waiting for room in the queue.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public Encoder<E> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<E> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getFile() {
+        return fileName;
+    }
+
+    public void setFile(String file) {
+        this.fileName = file == null ? null : file.trim();
+    }
+
+    public boolean isAppend() {
+        return append;
+    }
+
+    public void setAppend(boolean append) {
+        this.append = append;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * The maximum number of encoded events waiting to be written.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * The maximum number of encoded events written by a single gathering write.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isSyncOnCommit() {
+        return syncOnCommit;
+    }
+
+    /**
+     * When true, each batch is forced to the storage device after being
+     * written.
+     */
+    public void setSyncOnCommit(boolean syncOnCommit) {
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    public boolean isNeverBlock() {
+        return neverBlock;
+    }
+
+    /**
+     * When true, events are dropped instead of blocking the producing thread
+     * if the queue is full.
+     */
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import ch.qos.logback.core.encoder.Encoder;
 import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.flush.FlushPolicy;
 import ch.qos.logback.core.spi.DeferredProcessingAware;
 import ch.qos.logback.core.status.ErrorStatus;
 
@@ -53,6 +54,12 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
 
     boolean immediateFlush = true;
 
+    /**
+     * When set, decides when the output stream is flushed instead of
+     * {@link #immediateFlush}.
+     */
+    protected FlushPolicy<E> flushPolicy;
+
     /**
     * The underlying output stream used by this appender.
     * 
@@ -79,6 +86,12 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         }
         // only error free appenders should be activated
         if (errors == 0) {
+            if (flushPolicy != null) {
+                flushPolicy.setParent(this);
+                if (!flushPolicy.isStarted()) {
+                    flushPolicy.start();
+                }
+            }
             super.start();
         }
     }
@@ -101,6 +114,15 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         }
         // 核心代码: 执行日志输出
         subAppend(eventObject);
+        // subAppend() stops the appender when writing fails
+        if (metrics != null && isStarted()) {
+            metrics.incrementAppended();
+        }
+    }
+
+    @Override
+    protected boolean countsAppendedEvents() {
+        return true;
     }
 
     /**
@@ -111,6 +133,9 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
      * Stopped appenders cannot be reused.
      */
     public void stop() {
+        if (flushPolicy != null) {
+            flushPolicy.stop();
+        }
         lock.lock();
         try {
             closeOutputStream();
@@ -175,6 +200,48 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         }
     }
 
+    /**
+     * Replaces the current output stream by <code>outputStream</code>, writing
+     * the encoder's header to the latter. Unlike
+     * {@link #setOutputStream(OutputStream)}, the previous stream is neither
+     * closed nor given a footer but handed back to the caller, who is expected
+     * to dispose of it with {@link #closeDetachedOutputStream(OutputStream)},
+     * possibly on another thread.
+     * 
+     * @since 1.2.14
+     */
+    protected OutputStream swapOutputStream(OutputStream outputStream) {
+        lock.lock();
+        try {
+            OutputStream previous = this.outputStream;
+            this.outputStream = outputStream;
+            encoderInit();
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the encoder's footer to a stream previously returned by
+     * {@link #swapOutputStream(OutputStream)} and closes it.
+     * 
+     * @since 1.2.14
+     */
+    protected void closeDetachedOutputStream(OutputStream detached) {
+        try {
+            if (encoder != null) {
+                byte[] footer = encoder.footerBytes();
+                if (footer != null && footer.length > 0) {
+                    detached.write(footer);
+                }
+            }
+            detached.close();
+        } catch (IOException e) {
+            addStatus(new ErrorStatus("Could not close detached output stream for OutputStreamAppender.", this, e));
+        }
+    }
+
     void encoderInit() {
         if (encoder != null && this.outputStream != null) {
             try {
@@ -188,10 +255,14 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
     }
     protected void writeOut(E event) throws IOException {
         byte[] byteArray = this.encoder.encode(event);
-        writeBytes(byteArray);
+        writeBytes(event, byteArray);
     }
 
     private void writeBytes(byte[] byteArray) throws IOException {
+        writeBytes(null, byteArray);
+    }
+
+    private void writeBytes(E event, byte[] byteArray) throws IOException {
         if(byteArray == null || byteArray.length == 0)
             return;
         // 上锁, 避免多线程写入写出时出现错误
@@ -200,9 +271,34 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
             // 写入输出流中
             this.outputStream.write(byteArray);
             //  若immediateFlush=true, 立即写出. 该属性默认值为true
-            if (immediateFlush) {
-                this.outputStream.flush();
+            if (flushPolicy != null ? flushPolicy.isFlushRequired(event, byteArray.length) : immediateFlush) {
+                flushOutputStream();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushOutputStream() throws IOException {
+        this.outputStream.flush();
+        if (flushPolicy != null) {
+            flushPolicy.flushed();
+        }
+    }
+
+    /**
+     * Flushes the underlying output stream, if any.
+     * 
+     * @since 1.2.14
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (this.outputStream != null) {
+                flushOutputStream();
             }
+        } catch (IOException ioe) {
+            addStatus(new ErrorStatus("Failed to flush appender named [" + name + "].", this, ioe));
         } finally {
             lock.unlock();
         }
@@ -229,17 +325,33 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
             }
             // 使用编码器的解析出最终的日志内容. 这里由于每个转换器都保证了线程安全, 故该方法不用上锁
             // 注: 后续假设Encoder的实现类为PatternLayoutEncoder
+            if (metrics != null) {
+                timedEncodeAndWrite(event);
+                return;
+            }
             byte[] byteArray = this.encoder.encode(event);
             //  使用流输出日志信息. 为避免多线程出现写入写出, 该方法需要使用同步锁
-            writeBytes(byteArray);
+            writeBytes(event, byteArray);
 
         } catch (IOException ioe) {
+            if (metrics != null) {
+                metrics.incrementErrors();
+            }
             // 异常则该appender就关闭掉了
             this.started = false;
             addStatus(new ErrorStatus("IO failure in appender", this, ioe));
         }
     }
 
+    private void timedEncodeAndWrite(E event) throws IOException {
+        long start = System.nanoTime();
+        byte[] byteArray = this.encoder.encode(event);
+        long encoded = System.nanoTime();
+        metrics.recordEncode(encoded - start);
+        writeBytes(event, byteArray);
+        metrics.recordWrite(System.nanoTime() - encoded);
+    }
+
     public Encoder<E> getEncoder() {
         return encoder;
     }
@@ -256,4 +368,18 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         this.immediateFlush = immediateFlush;
     }
 
+    public FlushPolicy<E> getFlushPolicy() {
+        return flushPolicy;
+    }
+
+    /**
+     * Sets the policy deciding when the output stream is flushed. Overrides
+     * the <code>immediateFlush</code> property.
+     * 
+     * @since 1.2.14
+     */
+    public void setFlushPolicy(FlushPolicy<E> flushPolicy) {
+        this.flushPolicy = flushPolicy;
+    }
+
 }
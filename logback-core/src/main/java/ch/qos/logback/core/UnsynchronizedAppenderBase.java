@@ -16,6 +16,8 @@ package ch.qos.logback.core;
 import java.util.List;
 
 import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.metrics.AppenderMetrics;
+import ch.qos.logback.core.metrics.MetricsRegistry;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.spi.FilterAttachableImpl;
 import ch.qos.logback.core.spi.FilterReply;
@@ -48,6 +50,12 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     private FilterAttachableImpl<E> fai = new FilterAttachableImpl<E>();
 
+    /**
+     * The metrics of this appender, null unless metrics are enabled in the
+     * context when the appender is started.
+     */
+    protected AppenderMetrics metrics;
+
     public String getName() {
         return name;
     }
@@ -78,12 +86,21 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
             }
             //  获取当前appender的所有过滤器, 判断是否可以通过. 较简单不展开
             if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
+                if (metrics != null) {
+                    metrics.incrementFiltered();
+                }
                 return;
             }
             // // 核心代码: 执行日志输出
             this.append(eventObject);
+            if (metrics != null && !countsAppendedEvents()) {
+                metrics.incrementAppended();
+            }
 
         } catch (Exception e) {
+            if (metrics != null) {
+                metrics.incrementErrors();
+            }
             if (exceptionCount++ < ALLOWED_REPEATS) {
                 addError("Appender [" + name + "] failed to append.", e);
             }
@@ -95,6 +112,18 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     abstract protected void append(E eventObject);
 
+    /**
+     * Returns true if {@link #append(Object)} counts the events it appended in
+     * {@link #metrics} itself, so that events it drops or fails to write are
+     * not counted as appended. Otherwise, every event for which append()
+     * returns normally is counted as appended.
+     * 
+     * @since 1.2.14
+     */
+    protected boolean countsAppendedEvents() {
+        return false;
+    }
+
     /**
      * Set the name of this appender.
      */
@@ -103,6 +132,7 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
     }
 
     public void start() {
+        metrics = MetricsRegistry.getAppenderMetrics(context, name);
         started = true;
     }
 
@@ -114,6 +144,13 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
         return started;
     }
 
+    /**
+     * @since 1.2.14
+     */
+    public AppenderMetrics getMetrics() {
+        return metrics;
+    }
+
     public String toString() {
         return this.getClass().getName() + "[" + name + "]";
     }
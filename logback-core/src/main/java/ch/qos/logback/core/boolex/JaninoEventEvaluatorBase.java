@@ -38,8 +38,18 @@ abstract public class JaninoEventEvaluatorBase<E> extends EventEvaluatorBase<E>
     private String expression;
 
     ScriptEvaluator scriptEvaluator;
+    CompiledExpression<E> compiledExpression;
     private int errorCount = 0;
 
+    /**
+     * An expression compiled by {@link JaninoEventEvaluatorBase#compile()}.
+     * 
+     * @since 1.2.14
+     */
+    public interface CompiledExpression<E> {
+        boolean evaluate(E event) throws Exception;
+    }
+
     abstract protected String getDecoratedExpression();
 
     abstract protected String[] getParameterNames();
@@ -54,18 +64,57 @@ abstract public class JaninoEventEvaluatorBase<E> extends EventEvaluatorBase<E>
     public void start() {
         try {
             assert context != null;
-            scriptEvaluator = new ScriptEvaluator(getDecoratedExpression(), EXPRESSION_TYPE, getParameterNames(), getParameterTypes(), THROWN_EXCEPTIONS);
+            scriptEvaluator = null;
+            compiledExpression = compile();
+            if (compiledExpression == null) {
+                ScriptEvaluator se = new ScriptEvaluator();
+                se.setReturnType(EXPRESSION_TYPE);
+                se.setParameters(getParameterNames(), getParameterTypes());
+                se.setThrownExceptions(THROWN_EXCEPTIONS);
+                se.setParentClassLoader(getParentClassLoader());
+                se.cook(getDecoratedExpression());
+                scriptEvaluator = se;
+            }
             super.start();
         } catch (Exception e) {
             addError("Could not start evaluator with expression [" + expression + "]", e);
         }
     }
 
+    /**
+     * The class loader classes referenced by the expression are resolved
+     * against, in script as well as in compiled mode. Defaults to the thread
+     * context class loader.
+     * 
+     * @since 1.2.14
+     */
+    protected ClassLoader getParentClassLoader() {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        return cl != null ? cl : getClass().getClassLoader();
+    }
+
+    /**
+     * Gives subclasses the opportunity to compile the expression into a class
+     * evaluating events directly, without building an array of parameter values
+     * and without a reflective call per event. Compiled classes are expected to
+     * use {@link #getParentClassLoader()} as parent class loader.
+     * 
+     * @return the compiled expression, or null to fall back to script
+     *         evaluation
+     * @since 1.2.14
+     */
+    protected CompiledExpression<E> compile() {
+        return null;
+    }
+
     public boolean evaluate(E event) throws EvaluationException {
         if (!isStarted()) {
             throw new IllegalStateException("Evaluator [" + name + "] was called in stopped state");
         }
         try {
+            if (compiledExpression != null) {
+                return compiledExpression.evaluate(event);
+            }
             Boolean result = (Boolean) scriptEvaluator.evaluate(getParameterValues(event));
             return result.booleanValue();
         } catch (Exception ex) {
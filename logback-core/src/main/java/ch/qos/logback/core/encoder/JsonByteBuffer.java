@@ -0,0 +1,219 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.encoder;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer holding UTF-8 encoded JSON. Strings are escaped and
+ * encoded in a single pass straight into the buffer, without intermediary
+ * <code>String</code>, <code>char[]</code> or <code>byte[]</code> instances.
+ * 
+ * <p>Instances are meant to be reused, see {@link #reset()}, and are not
+ * thread safe.
+ * 
+ * @since 1.2.14
+ */
+public class JsonByteBuffer {
+
+    static final byte[] NULL_BYTES = { 'n', 'u', 'l', 'l' };
+    static final byte[] TRUE_BYTES = { 't', 'r', 'u', 'e' };
+    static final byte[] FALSE_BYTES = { 'f', 'a', 'l', 's', 'e' };
+    static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+    static final byte[] MIN_LONG_BYTES = Long.toString(Long.MIN_VALUE).getBytes();
+
+    // strings are escaped by chunks so that a very long string does not require
+    // six times its length as free capacity
+    static final int ESCAPE_CHUNK_SIZE = 1024;
+    // the worst case is a control character escaped in the six characters long unicode form
+    static final int MAX_BYTES_PER_CHAR = 6;
+
+    private byte[] buf;
+    private int count;
+
+    public JsonByteBuffer(int initialCapacity) {
+        buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Returns the bytes of <code>"name":</code>, with the name escaped. Meant to
+     * be computed once per field.
+     */
+    public static byte[] fieldName(String name) {
+        JsonByteBuffer jbb = new JsonByteBuffer(name.length() + 3);
+        jbb.appendString(name);
+        jbb.append((byte) ':');
+        return jbb.toByteArray();
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return buf.length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = count + extra;
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length << 1));
+        }
+    }
+
+    public void append(byte b) {
+        ensureCapacity(1);
+        buf[count++] = b;
+    }
+
+    public void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    public void appendNull() {
+        append(NULL_BYTES);
+    }
+
+    public void appendBoolean(boolean value) {
+        append(value ? TRUE_BYTES : FALSE_BYTES);
+    }
+
+    /**
+     * Appends the decimal representation of <code>value</code>.
+     */
+    public void appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            append(MIN_LONG_BYTES);
+            return;
+        }
+        // at most 19 digits and a sign
+        ensureCapacity(20);
+        if (value < 0) {
+            buf[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int pos = count + digits;
+        count = pos;
+        do {
+            buf[--pos] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    /**
+     * Appends <code>s</code> as a quoted JSON string, or <code>null</code> if
+     * <code>s</code> is null.
+     */
+    public void appendString(String s) {
+        if (s == null) {
+            appendNull();
+            return;
+        }
+        append((byte) '"');
+        appendEscaped(s);
+        append((byte) '"');
+    }
+
+    /**
+     * Appends the characters of <code>s</code> escaped for use within a JSON
+     * string and encoded as UTF-8. Quotes are not added. Unpaired surrogates
+     * are written as unicode escapes.
+     */
+    public void appendEscaped(String s) {
+        final int len = s.length();
+        int i = 0;
+        while (i < len) {
+            final int end = Math.min(len, i + ESCAPE_CHUNK_SIZE);
+            ensureCapacity((end - i) * MAX_BYTES_PER_CHAR);
+            final byte[] b = buf;
+            int c = count;
+            for (; i < end; i++) {
+                final char ch = s.charAt(i);
+                if (ch < 0x80) {
+                    if (ch >= 0x20 && ch != '"' && ch != '\\') {
+                        b[c++] = (byte) ch;
+                    } else {
+                        c = escapeAscii(b, c, ch);
+                    }
+                } else if (ch < 0x800) {
+                    b[c++] = (byte) (0xC0 | (ch >> 6));
+                    b[c++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+                    b[c++] = (byte) (0xE0 | (ch >> 12));
+                    b[c++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                    b[c++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (Character.isHighSurrogate(ch) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // the pair takes 4 bytes for 2 chars, well within the
+                    // reserved capacity even if the low surrogate is past the chunk
+                    final int cp = Character.toCodePoint(ch, s.charAt(++i));
+                    b[c++] = (byte) (0xF0 | (cp >> 18));
+                    b[c++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    b[c++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    b[c++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    c = unicodeEscape(b, c, ch);
+                }
+            }
+            count = c;
+        }
+    }
+
+    private static int escapeAscii(byte[] b, int c, char ch) {
+        switch (ch) {
+        case '"':
+        case '\\':
+            b[c++] = '\\';
+            b[c++] = (byte) ch;
+            return c;
+        case '\n':
+            b[c++] = '\\';
+            b[c++] = 'n';
+            return c;
+        case '\r':
+            b[c++] = '\\';
+            b[c++] = 'r';
+            return c;
+        case '\t':
+            b[c++] = '\\';
+            b[c++] = 't';
+            return c;
+        default:
+            return unicodeEscape(b, c, ch);
+        }
+    }
+
+    private static int unicodeEscape(byte[] b, int c, char ch) {
+        b[c++] = '\\';
+        b[c++] = 'u';
+        b[c++] = HEX_DIGITS[(ch >> 12) & 0xF];
+        b[c++] = HEX_DIGITS[(ch >> 8) & 0xF];
+        b[c++] = HEX_DIGITS[(ch >> 4) & 0xF];
+        b[c++] = HEX_DIGITS[ch & 0xF];
+        return c;
+    }
+}
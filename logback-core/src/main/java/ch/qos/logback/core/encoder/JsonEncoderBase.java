@@ -0,0 +1,125 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.encoder;
+
+import ch.qos.logback.core.CoreConstants;
+
+/**
+ * Base class for encoders writing each event as one JSON object. Events are
+ * written into a {@link JsonByteBuffer} reused by the encoding thread, so
+ * that the only allocation per event on the encoder side is the returned
+ * byte array.
+ * 
+ * <p>By default each object is followed by a line separator, producing
+ * newline delimited JSON.
+ * 
+ * @since 1.2.14
+ */
+abstract public class JsonEncoderBase<E> extends EncoderBase<E> {
+
+    static final int INITIAL_BUFFER_SIZE = 1024;
+    /**
+     * Buffers grown beyond this size by an exceptionally large event are not
+     * kept for reuse.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    static final byte[] LINE_SEPARATOR_BYTES = CoreConstants.LINE_SEPARATOR.getBytes();
+
+    private final ThreadLocal<JsonByteBuffer> threadLocalBuffer = new ThreadLocal<JsonByteBuffer>() {
+        @Override
+        protected JsonByteBuffer initialValue() {
+            return new JsonByteBuffer(INITIAL_BUFFER_SIZE);
+        }
+    };
+
+    boolean appendLineSeparator = true;
+
+    public boolean isAppendLineSeparator() {
+        return appendLineSeparator;
+    }
+
+    /**
+     * Whether a line separator is written after each event. The default is
+     * true.
+     */
+    public void setAppendLineSeparator(boolean appendLineSeparator) {
+        this.appendLineSeparator = appendLineSeparator;
+    }
+
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    public byte[] encode(E event) {
+        JsonByteBuffer buffer = threadLocalBuffer.get();
+        buffer.reset();
+        writeEvent(buffer, event);
+        if (appendLineSeparator) {
+            buffer.append(LINE_SEPARATOR_BYTES);
+        }
+        byte[] result = buffer.toByteArray();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            threadLocalBuffer.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Writes <code>event</code> as a JSON object into <code>buffer</code>.
+     */
+    abstract protected void writeEvent(JsonByteBuffer buffer, E event);
+
+    /**
+     * Writes a string field preceded by its precomputed name, see
+     * {@link JsonByteBuffer#fieldName(String)}. Nothing is written if
+     * <code>value</code> is null.
+     * 
+     * @return true if the field was written
+     */
+    protected static boolean writeStringField(JsonByteBuffer buffer, byte[] separatorAndName, String value) {
+        if (value == null) {
+            return false;
+        }
+        buffer.append(separatorAndName);
+        buffer.appendString(value);
+        return true;
+    }
+
+    /**
+     * Returns the bytes of a comma followed by <code>"name":</code>.
+     */
+    protected static byte[] nextFieldName(String name) {
+        return concat(new byte[] { ',' }, JsonByteBuffer.fieldName(name));
+    }
+
+    /**
+     * Returns the bytes of <code>{"name":</code>, for the first field of an
+     * object.
+     */
+    protected static byte[] firstFieldName(String name) {
+        return concat(new byte[] { '{' }, JsonByteBuffer.fieldName(name));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.flush;
+
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.spi.LifeCycle;
+
+/**
+ * A <code>FlushPolicy</code> decides when an {@link OutputStreamAppender}
+ * flushes its output stream. When an appender has a flush policy, its
+ * <code>immediateFlush</code> property is ignored.
+ * 
+ * <p>Both {@link #isFlushRequired} and {@link #flushed} are invoked while the
+ * appender's lock is held.
+ * 
+ * @since 1.2.14
+ */
+public interface FlushPolicy<E> extends LifeCycle {
+
+    void setParent(OutputStreamAppender<E> parent);
+
+    /**
+     * Should the output stream be flushed after <code>byteCount</code> bytes
+     * were written on behalf of <code>event</code>?
+     * 
+     * @param event the event just written, null for headers and footers
+     * @param byteCount the number of bytes just written
+     * @return true if the output stream should be flushed now
+     */
+    boolean isFlushRequired(E event, int byteCount);
+
+    /**
+     * Invoked after the output stream was flushed, for whatever reason.
+     */
+    void flushed();
+}
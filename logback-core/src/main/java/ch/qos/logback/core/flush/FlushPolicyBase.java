@@ -0,0 +1,47 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.flush;
+
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.spi.ContextAwareBase;
+
+/**
+ * Base class for {@link FlushPolicy} implementations.
+ * 
+ * @since 1.2.14
+ */
+abstract public class FlushPolicyBase<E> extends ContextAwareBase implements FlushPolicy<E> {
+
+    protected OutputStreamAppender<E> parent;
+    private boolean started;
+
+    public void setParent(OutputStreamAppender<E> parent) {
+        this.parent = parent;
+    }
+
+    public void flushed() {
+    }
+
+    public void start() {
+        started = true;
+    }
+
+    public void stop() {
+        started = false;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+}
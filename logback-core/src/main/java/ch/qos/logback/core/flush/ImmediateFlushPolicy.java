@@ -0,0 +1,27 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.flush;
+
+/**
+ * Flushes after every event, the equivalent of setting
+ * <code>immediateFlush</code> to true.
+ * 
+ * @since 1.2.14
+ */
+public class ImmediateFlushPolicy<E> extends FlushPolicyBase<E> {
+
+    public boolean isFlushRequired(E event, int byteCount) {
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.flush;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
+
+/**
+ * Defers flushing until <code>maxBytes</code> bytes have been written since
+ * the last flush, or until a background task, run every
+ * <code>maxDelay</code>, finds unflushed bytes. Either limit can be disabled
+ * by setting it to zero. Output is always flushed when the appender stops.
+ * 
+ * @since 1.2.14
+ */
+public class PeriodicFlushPolicy<E> extends FlushPolicyBase<E> {
+
+    public static final Duration DEFAULT_MAX_DELAY = Duration.buildByMilliseconds(1000);
+    public static final FileSize DEFAULT_MAX_BYTES = new FileSize(64 * FileSize.KB_COEFFICIENT);
+
+    Duration maxDelay = DEFAULT_MAX_DELAY;
+    FileSize maxBytes = DEFAULT_MAX_BYTES;
+
+    // guarded by the appender's lock
+    private long unflushedBytes;
+    // written under the appender's lock, read by the flushing task
+    private volatile boolean dirty;
+    private ScheduledFuture<?> scheduledFuture;
+
+    @Override
+    public void start() {
+        long delay = maxDelay == null ? 0 : maxDelay.getMilliseconds();
+        if (delay > 0) {
+            ScheduledExecutorService executor = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.IO_EXECUTOR_NAME);
+            scheduledFuture = executor.scheduleAtFixedRate(new FlushTask(), delay, delay, TimeUnit.MILLISECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+        super.stop();
+    }
+
+    public boolean isFlushRequired(E event, int byteCount) {
+        unflushedBytes += byteCount;
+        dirty = true;
+        long max = maxBytes == null ? 0 : maxBytes.getSize();
+        return max > 0 && unflushedBytes >= max;
+    }
+
+    @Override
+    public void flushed() {
+        unflushedBytes = 0;
+        dirty = false;
+    }
+
+    class FlushTask implements Runnable {
+        public void run() {
+            if (dirty && parent != null) {
+                parent.flush();
+            }
+        }
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * The maximum time unflushed bytes may wait before being flushed. Zero
+     * disables periodic flushing.
+     */
+    public void setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public FileSize getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * The number of unflushed bytes which causes an immediate flush. Zero
+     * disables size based flushing.
+     */
+    public void setMaxBytes(FileSize maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+}
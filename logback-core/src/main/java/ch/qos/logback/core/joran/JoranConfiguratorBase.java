@@ -23,6 +23,8 @@ import ch.qos.logback.core.joran.action.AppenderRefAction;
 import ch.qos.logback.core.joran.action.ContextPropertyAction;
 import ch.qos.logback.core.joran.action.ConversionRuleAction;
 import ch.qos.logback.core.joran.action.DefinePropertyAction;
+import ch.qos.logback.core.joran.action.ExecutorAction;
+import ch.qos.logback.core.joran.action.MetricsAction;
 import ch.qos.logback.core.joran.action.NestedBasicPropertyIA;
 import ch.qos.logback.core.joran.action.NestedComplexPropertyIA;
 import ch.qos.logback.core.joran.action.NewRuleAction;
@@ -62,6 +64,8 @@ abstract public class JoranConfiguratorBase<E> extends GenericConfigurator {
 
         rs.addRule(new ElementSelector("configuration/timestamp"), new TimestampAction());
         rs.addRule(new ElementSelector("configuration/shutdownHook"), new ShutdownHookAction());
+        rs.addRule(new ElementSelector("configuration/executor"), new ExecutorAction());
+        rs.addRule(new ElementSelector("configuration/metrics"), new MetricsAction());
         rs.addRule(new ElementSelector("configuration/define"), new DefinePropertyAction());
 
         // the contextProperty pattern is deprecated. It is undocumented
@@ -0,0 +1,70 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.joran.action;
+
+import org.xml.sax.Attributes;
+
+import ch.qos.logback.core.joran.spi.ActionException;
+import ch.qos.logback.core.joran.spi.InterpretationContext;
+import ch.qos.logback.core.spi.NamedExecutorProvider;
+import ch.qos.logback.core.util.ExecutorConfig;
+import ch.qos.logback.core.util.OptionHelper;
+
+/**
+ * Action which handles &lt;executor&gt; elements in configuration files. The
+ * nested elements set the properties of an {@link ExecutorConfig}, which is
+ * then registered with the context.
+ * 
+ * @since 1.2.14
+ */
+public class ExecutorAction extends Action {
+
+    ExecutorConfig config;
+    private boolean inError;
+
+    @Override
+    public void begin(InterpretationContext ic, String name, Attributes attributes) throws ActionException {
+        config = null;
+        inError = false;
+
+        String executorName = ic.subst(attributes.getValue(NAME_ATTRIBUTE));
+        if (OptionHelper.isEmpty(executorName)) {
+            addError("Missing name for executor. Near [" + name + "] line " + getLineNumber(ic));
+            inError = true;
+            return;
+        }
+        config = new ExecutorConfig();
+        config.setName(executorName);
+        ic.pushObject(config);
+    }
+
+    @Override
+    public void end(InterpretationContext ic, String name) throws ActionException {
+        if (inError) {
+            return;
+        }
+
+        Object o = ic.peekObject();
+        if (o != config) {
+            addWarn("The object at the of the stack is not the executor configuration pushed earlier.");
+        } else {
+            ic.popObject();
+            if (context instanceof NamedExecutorProvider) {
+                ((NamedExecutorProvider) context).addExecutorConfig(config);
+            } else {
+                addWarn("Context [" + context.getName() + "] does not support named executors, ignoring " + config);
+            }
+        }
+    }
+}
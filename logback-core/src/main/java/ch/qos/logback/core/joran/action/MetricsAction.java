@@ -0,0 +1,52 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.joran.action;
+
+import org.xml.sax.Attributes;
+
+import ch.qos.logback.core.joran.spi.ActionException;
+import ch.qos.logback.core.joran.spi.InterpretationContext;
+import ch.qos.logback.core.metrics.MetricsRegistry;
+
+/**
+ * Action which handles the &lt;metrics&gt; element in configuration files,
+ * enabling appender metrics for the context.
+ * 
+ * @since 1.2.14
+ */
+public class MetricsAction extends Action {
+
+    MetricsRegistry registry;
+
+    @Override
+    public void begin(InterpretationContext ic, String name, Attributes attributes) throws ActionException {
+        registry = new MetricsRegistry();
+        registry.setContext(context);
+        ic.pushObject(registry);
+    }
+
+    @Override
+    public void end(InterpretationContext ic, String name) throws ActionException {
+        Object o = ic.peekObject();
+        if (o != registry) {
+            addWarn("The object at the of the stack is not the metrics registry pushed earlier.");
+            return;
+        }
+        ic.popObject();
+        registry.start();
+        // stopped, and unregistered from JMX, when the context is reset
+        context.register(registry);
+        addInfo("Appender metrics enabled");
+    }
+}
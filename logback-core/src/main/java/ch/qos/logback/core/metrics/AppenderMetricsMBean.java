@@ -0,0 +1,67 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.metrics;
+
+/**
+ * Management interface of {@link AppenderMetrics}. Durations are given in
+ * microseconds.
+ * 
+ * @since 1.2.14
+ */
+public interface AppenderMetricsMBean {
+
+    String getAppenderName();
+
+    long getAppendedCount();
+
+    long getFilteredCount();
+
+    long getDroppedCount();
+
+    long getErrorCount();
+
+    long getEncodeMeanMicros();
+
+    long getEncodeP99Micros();
+
+    long getEncodeMaxMicros();
+
+    long getWriteMeanMicros();
+
+    long getWriteP99Micros();
+
+    long getWriteMaxMicros();
+
+    long getRolloverCount();
+
+    long getRolloverMaxMicros();
+
+    long getCompressionCount();
+
+    long getCompressionMaxMicros();
+
+    /**
+     * The number of events waiting in the queue of an asynchronous appender,
+     * -1 for other appenders.
+     */
+    int getQueueSize();
+
+    /**
+     * The remaining capacity of the queue of an asynchronous appender, -1 for
+     * other appenders.
+     */
+    int getQueueRemainingCapacity();
+
+    void reset();
+}
@@ -0,0 +1,40 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.metrics;
+
+/**
+ * The measurements reported to a {@link MetricsListener}. Counts are reported
+ * with a value of 1, durations in nanoseconds.
+ * 
+ * @since 1.2.14
+ */
+public enum Metric {
+
+    /** An event was handed to the appender's append method. */
+    APPENDED,
+    /** An event was denied by the appender's filters. */
+    FILTERED,
+    /** An event was discarded, for example by a full AsyncAppender queue. */
+    DROPPED,
+    /** Appending an event failed. */
+    ERROR,
+    /** Time spent encoding an event. */
+    ENCODE_TIME,
+    /** Time spent writing an encoded event. */
+    WRITE_TIME,
+    /** Time spent rolling over. */
+    ROLLOVER_TIME,
+    /** Time spent compressing an archived file. */
+    COMPRESSION_TIME;
+}
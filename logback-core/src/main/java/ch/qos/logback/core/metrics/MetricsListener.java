@@ -0,0 +1,26 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.metrics;
+
+/**
+ * Receives every measurement recorded for the appenders of a context. It is
+ * invoked synchronously on the thread recording the measurement, often the
+ * logging thread, and should therefore return quickly.
+ * 
+ * @since 1.2.14
+ */
+public interface MetricsListener {
+
+    void metricRecorded(String appenderName, Metric metric, long value);
+}
@@ -0,0 +1,140 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.spi.LifeCycle;
+
+/**
+ * Holds the {@link AppenderMetrics} of the appenders of a context. Metrics are
+ * disabled unless a started registry is found in the context, which is what a
+ * <code>&lt;metrics&gt;</code> element placed before the appenders achieves:
+ * 
+ * <pre>
+ * &lt;metrics&gt;
+ *   &lt;jmx&gt;true&lt;/jmx&gt;
+ *   &lt;listener class="com.example.MyMetricsListener"/&gt;
+ * &lt;/metrics&gt;
+ * </pre>
+ * 
+ * With <code>jmx</code> set, each appender's metrics are registered as an MBean
+ * named
+ * <code>ch.qos.logback.core:Type=AppenderMetrics,Context=&lt;context&gt;,Name=&lt;appender&gt;</code>.
+ * 
+ * @since 1.2.14
+ */
+public class MetricsRegistry extends ContextAwareBase implements LifeCycle {
+
+    public static final String METRICS_REGISTRY_KEY = "METRICS_REGISTRY";
+
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<MetricsListener>();
+    private final Map<String, AppenderMetrics> metricsMap = new HashMap<String, AppenderMetrics>();
+    private final Map<String, ObjectName> objectNameMap = new HashMap<String, ObjectName>();
+    boolean jmx = false;
+    private volatile boolean started;
+
+    /**
+     * Returns the metrics of the named appender, or null if metrics are not
+     * enabled in <code>context</code>.
+     */
+    public static AppenderMetrics getAppenderMetrics(Context context, String appenderName) {
+        if (context == null || appenderName == null) {
+            return null;
+        }
+        Object o = context.getObject(METRICS_REGISTRY_KEY);
+        if (!(o instanceof MetricsRegistry)) {
+            return null;
+        }
+        MetricsRegistry registry = (MetricsRegistry) o;
+        return registry.isStarted() ? registry.getAppenderMetrics(appenderName) : null;
+    }
+
+    public synchronized AppenderMetrics getAppenderMetrics(String appenderName) {
+        AppenderMetrics metrics = metricsMap.get(appenderName);
+        if (metrics == null) {
+            metrics = new AppenderMetrics(appenderName, listeners);
+            metricsMap.put(appenderName, metrics);
+            if (jmx) {
+                register(metrics);
+            }
+        }
+        return metrics;
+    }
+
+    private void register(AppenderMetrics metrics) {
+        try {
+            ObjectName objectName = new ObjectName("ch.qos.logback.core:Type=AppenderMetrics,Context=" + context.getName() + ",Name="
+                            + metrics.getAppenderName());
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            if (mbs.isRegistered(objectName)) {
+                mbs.unregisterMBean(objectName);
+            }
+            mbs.registerMBean(metrics, objectName);
+            objectNameMap.put(metrics.getAppenderName(), objectName);
+        } catch (Exception e) {
+            addError("Failed to register metrics of appender [" + metrics.getAppenderName() + "] with JMX", e);
+        }
+    }
+
+    public void addListener(MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isJmx() {
+        return jmx;
+    }
+
+    public void setJmx(boolean jmx) {
+        this.jmx = jmx;
+    }
+
+    public void start() {
+        context.putObject(METRICS_REGISTRY_KEY, this);
+        started = true;
+    }
+
+    public synchronized void stop() {
+        started = false;
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : objectNameMap.values()) {
+            try {
+                if (mbs.isRegistered(objectName)) {
+                    mbs.unregisterMBean(objectName);
+                }
+            } catch (Exception e) {
+                addError("Failed to unregister [" + objectName + "] from JMX", e);
+            }
+        }
+        objectNameMap.clear();
+        metricsMap.clear();
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+}
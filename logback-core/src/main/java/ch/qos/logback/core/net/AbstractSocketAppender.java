@@ -27,9 +27,11 @@ import java.util.concurrent.TimeUnit;
 import javax.net.SocketFactory;
 
 import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
 import ch.qos.logback.core.util.CloseUtil;
 import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * An abstract base for module specific {@code SocketAppender}
@@ -144,7 +146,7 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
             deque = queueFactory.newLinkedBlockingDeque(queueSize);
             peerId = "remote peer " + remoteHost + ":" + port + ": ";
             connector = createConnector(address, port, 0, reconnectionDelay.getMilliseconds());
-            task = getContext().getExecutorService().submit(new Runnable() {
+            task = ExecutorServiceUtil.getScheduledExecutorService(getContext(), CoreConstants.NETWORK_EXECUTOR_NAME).submit(new Runnable() {
                 @Override
                 public void run() {
                     connectSocketAndDispatchEvents();
@@ -176,14 +178,29 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
 
         try {
             final boolean inserted = deque.offer(event, eventDelayLimit.getMilliseconds(), TimeUnit.MILLISECONDS);
-            if (!inserted) {
+            if (inserted) {
+                if (metrics != null) {
+                    metrics.incrementAppended();
+                }
+            } else {
+                if (metrics != null) {
+                    metrics.incrementDropped();
+                }
                 addInfo("Dropping event due to timeout limit of [" + eventDelayLimit + "] being exceeded");
             }
         } catch (InterruptedException e) {
+            if (metrics != null) {
+                metrics.incrementDropped();
+            }
             addError("Interrupted while appending event to SocketAppender", e);
         }
     }
 
+    @Override
+    protected boolean countsAppendedEvents() {
+        return true;
+    }
+
     private void connectSocketAndDispatchEvents() {
         try {
             while (socketConnectionCouldBeEstablished()) {
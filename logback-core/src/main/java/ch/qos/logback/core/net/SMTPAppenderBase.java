@@ -36,6 +36,7 @@ import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.boolex.EvaluationException;
 import ch.qos.logback.core.boolex.EventEvaluator;
 import ch.qos.logback.core.helpers.CyclicBuffer;
+import ch.qos.logback.core.metrics.MetricsRegistry;
 import ch.qos.logback.core.pattern.PatternLayoutBase;
 import ch.qos.logback.core.sift.DefaultDiscriminator;
 import ch.qos.logback.core.sift.Discriminator;
@@ -43,6 +44,7 @@ import ch.qos.logback.core.spi.CyclicBufferTracker;
 import ch.qos.logback.core.util.ContentTypeUtil;
 import ch.qos.logback.core.util.JNDIUtil;
 import ch.qos.logback.core.util.OptionHelper;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 // Contributors:
 // Andrey Rybin charset encoding support http://jira.qos.ch/browse/LBCORE-69
@@ -128,6 +130,7 @@ public abstract class SMTPAppenderBase<E> extends AppenderBase<E> {
 
         subjectLayout = makeSubjectLayout(subjectStr);
 
+        metrics = MetricsRegistry.getAppenderMetrics(context, name);
         started = true;
     }
 
@@ -206,7 +209,7 @@ public abstract class SMTPAppenderBase<E> extends AppenderBase<E> {
                 if (asynchronousSending) {
                     // perform actual sending asynchronously
                     SenderRunnable senderRunnable = new SenderRunnable(cbClone, eventObject);
-                    context.getScheduledExecutorService().execute(senderRunnable);
+                    ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.NETWORK_EXECUTOR_NAME).execute(senderRunnable);
                 } else {
                     // synchronous sending
                     sendBuffer(cbClone, eventObject);
@@ -15,13 +15,26 @@ package ch.qos.logback.core.net;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.ConnectException;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLContext;
 
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.net.ssl.ConfigurableSSLSocketFactory;
+import ch.qos.logback.core.net.ssl.SSLComponent;
+import ch.qos.logback.core.net.ssl.SSLConfiguration;
+import ch.qos.logback.core.net.ssl.SSLParametersConfiguration;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * Base class for SyslogAppender.
@@ -30,20 +43,35 @@ import ch.qos.logback.core.Layout;
  * 
  * @param <E>
  */
-public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
+public abstract class SyslogAppenderBase<E> extends AppenderBase<E> implements SSLComponent {
 
     final static String SYSLOG_LAYOUT_URL = CoreConstants.CODES_URL + "#syslog_layout";
     final static int MAX_MESSAGE_SIZE_LIMIT = 65000;
 
+    final static String UDP_TRANSPORT = "UDP";
+    final static String TCP_TRANSPORT = "TCP";
+    final static String TLS_TRANSPORT = "TLS";
+
+    final static long DEFAULT_MAX_BATCH_DELAY = 1000;
+
     Layout<E> layout;
     String facilityStr;
     String syslogHost;
     protected String suffixPattern;
-    SyslogOutputStream sos;
+    SyslogTransportBase sos;
     int port = SyslogConstants.SYSLOG_PORT;
     int maxMessageSize;
     Charset charset;
 
+    String transport = UDP_TRANSPORT;
+    SSLConfiguration ssl;
+    SocketFactory socketFactory;
+    int batchSize = 0;
+    Duration maxBatchDelay;
+    Duration reconnectionDelay = new Duration(SyslogTcpOutputStream.DEFAULT_RECONNECTION_DELAY);
+    ScheduledFuture<?> drainFuture;
+    boolean truncationReported;
+
     public void start() {
         int errorCount = 0;
         if (facilityStr == null) {
@@ -51,12 +79,42 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
             errorCount++;
         }
 
+        if (TLS_TRANSPORT.equalsIgnoreCase(transport)) {
+            try {
+                SSLContext sslContext = getSsl().createContext(this);
+                SSLParametersConfiguration parameters = getSsl().getParameters();
+                parameters.setContext(getContext());
+                socketFactory = new ConfigurableSSLSocketFactory(parameters, sslContext.getSocketFactory());
+            } catch (Exception ex) {
+                addError("Failed to create SSL socket factory", ex);
+                errorCount++;
+            }
+        } else if (TCP_TRANSPORT.equalsIgnoreCase(transport)) {
+            socketFactory = SocketFactory.getDefault();
+        } else if (!UDP_TRANSPORT.equalsIgnoreCase(transport)) {
+            addError("Unknown transport [" + transport + "]. Expected one of UDP, TCP or TLS");
+            errorCount++;
+        }
+
+        if (socketFactory != null && batchSize > 0) {
+            if (maxBatchDelay == null) {
+                maxBatchDelay = new Duration(DEFAULT_MAX_BATCH_DELAY);
+                addInfo("Defaulting maxBatchDelay to [" + maxBatchDelay + "]");
+            } else if (maxBatchDelay.getMilliseconds() <= 0) {
+                addWarn("A maxBatchDelay of zero sends every message at once, batchSize [" + batchSize + "] has no effect.");
+            }
+        }
+
         if (charset == null) {
             // Using defaultCharset() preserves the previous behavior when String.getBytes() was
             // called without arguments
             charset = Charset.defaultCharset();
         }
 
+        if (errorCount > 0) {
+            return;
+        }
+
         try {
             sos = createOutputStream();
 
@@ -79,12 +137,64 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
             layout = buildLayout();
         }
 
+        scheduleDrain();
+
         if (errorCount == 0) {
             super.start();
         }
     }
 
-    abstract public SyslogOutputStream createOutputStream() throws UnknownHostException, SocketException;
+    /**
+     * Creates the transport selected by the <b>transport</b> property.
+     */
+    public SyslogTransportBase createOutputStream() throws UnknownHostException, SocketException {
+        if (socketFactory == null) {
+            return new SyslogOutputStream(getSyslogHost(), getPort());
+        }
+        // connections are established in the background, never by a logging thread
+        ExecutorService executor = ExecutorServiceUtil.getScheduledExecutorService(getContext(), CoreConstants.NETWORK_EXECUTOR_NAME);
+        SyslogTcpOutputStream tcpStream = new SyslogTcpOutputStream(getSyslogHost(), getPort(), socketFactory, executor);
+        tcpStream.setBatchSize(batchSize);
+        tcpStream.setMaxBatchDelay(getMaxBatchDelayInMillis());
+        tcpStream.setReconnectionDelay(reconnectionDelay.getMilliseconds());
+        tcpStream.setExceptionHandler(new SocketConnector.ExceptionHandler() {
+            public void connectionFailed(SocketConnector connector, Exception ex) {
+                String peerId = "remote peer " + syslogHost + ":" + port + ": ";
+                if (ex instanceof ConnectException) {
+                    addInfo(peerId + "connection refused");
+                } else {
+                    addInfo(peerId + ex);
+                }
+            }
+        });
+        return tcpStream;
+    }
+
+    private long getMaxBatchDelayInMillis() {
+        return maxBatchDelay == null ? 0 : maxBatchDelay.getMilliseconds();
+    }
+
+    /**
+     * Partially filled batches of a stream transport are sent out at the
+     * latest after <b>maxBatchDelay</b>, even if no further event is logged.
+     */
+    private void scheduleDrain() {
+        if (!(sos instanceof SyslogTcpOutputStream) || getMaxBatchDelayInMillis() <= 0) {
+            return;
+        }
+        final SyslogTcpOutputStream tcpStream = (SyslogTcpOutputStream) sos;
+        Runnable drainTask = new Runnable() {
+            public void run() {
+                try {
+                    tcpStream.drain();
+                } catch (IOException e) {
+                    addError("Failed to send batch to " + syslogHost, e);
+                }
+            }
+        };
+        long delay = getMaxBatchDelayInMillis();
+        drainFuture = ExecutorServiceUtil.getScheduledExecutorService(getContext(), CoreConstants.NETWORK_EXECUTOR_NAME).scheduleWithFixedDelay(drainTask, delay, delay, TimeUnit.MILLISECONDS);
+    }
 
     abstract public Layout<E> buildLayout();
 
@@ -107,15 +217,36 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
             sos.write(msg.getBytes(charset));
             sos.flush();
             postProcess(eventObject, sos);
+            reportTruncation();
+            if (metrics != null) {
+                metrics.incrementAppended();
+            }
         } catch (IOException ioe) {
+            if (metrics != null) {
+                metrics.incrementErrors();
+            }
             addError("Failed to send diagram to " + syslogHost, ioe);
         }
     }
 
+    @Override
+    protected boolean countsAppendedEvents() {
+        return true;
+    }
+
     protected void postProcess(Object event, OutputStream sw) {
 
     }
 
+    private void reportTruncation() {
+        if (!truncationReported && sos.getTruncatedCount() > 0) {
+            truncationReported = true;
+            addWarn("A message exceeded the maximum UDP payload of " + SyslogOutputStream.MAX_DATAGRAM_SIZE
+                            + " bytes and was truncated. Further truncations are counted but not reported.");
+            addWarn("Consider lowering maxMessageSize or using the TCP transport.");
+        }
+    }
+
     /**
      * Returns the integer value corresponding to the named syslog facility.
      * 
@@ -264,12 +395,110 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
 
     @Override
     public void stop() {
+        if (drainFuture != null) {
+            drainFuture.cancel(false);
+            drainFuture = null;
+        }
         if (sos != null) {
             sos.close();
         }
         super.stop();
     }
 
+    /**
+     * Number of messages sent by the underlying transport.
+     */
+    public long getSentCount() {
+        return sos == null ? 0 : sos.getSentCount();
+    }
+
+    /**
+     * Number of messages dropped by the underlying transport.
+     */
+    public long getDroppedCount() {
+        return sos == null ? 0 : sos.getDroppedCount();
+    }
+
+    /**
+     * Number of messages truncated by the underlying transport.
+     */
+    public long getTruncatedCount() {
+        return sos == null ? 0 : sos.getTruncatedCount();
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * The <b>transport</b> option selects how messages reach the syslog
+     * server: UDP (the default), TCP or TLS. Stream based transports frame
+     * messages with octet counting as described in RFC 6587 and RFC 5425.
+     * Note that the standard port for syslog over TLS is 6514.
+     */
+    public void setTransport(String transport) {
+        if (transport != null) {
+            transport = transport.trim();
+        }
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the SSL configuration used by the TLS transport.
+     * @return SSL configuration; if no configuration has been set, a
+     *    default configuration is returned
+     */
+    public SSLConfiguration getSsl() {
+        if (ssl == null) {
+            ssl = new SSLConfiguration();
+        }
+        return ssl;
+    }
+
+    public void setSsl(SSLConfiguration ssl) {
+        this.ssl = ssl;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * With a stream transport, the number of bytes to accumulate before
+     * writing to the socket. The default, zero, sends every message at once.
+     * Unless <b>maxBatchDelay</b> is set as well, partial batches are sent
+     * after one second.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    /**
+     * With a stream transport, the maximum time a message may wait in a
+     * partially filled batch. Defaults to one second when <b>batchSize</b> is
+     * set. A value of zero disables batching.
+     */
+    public void setMaxBatchDelay(Duration maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    public Duration getReconnectionDelay() {
+        return reconnectionDelay;
+    }
+
+    /**
+     * With a stream transport, the time to wait after a failed connection
+     * before connecting again. Messages logged in the meantime are kept up
+     * to 64 KB and dropped beyond. The default is 30 seconds.
+     */
+    public void setReconnectionDelay(Duration reconnectionDelay) {
+        this.reconnectionDelay = reconnectionDelay;
+    }
+
     /**
        * See {@link #setSuffixPattern(String).
        * 
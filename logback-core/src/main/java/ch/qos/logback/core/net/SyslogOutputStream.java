@@ -13,79 +13,129 @@
  */
 package ch.qos.logback.core.net;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
 
 /**
- * SyslogOutputStream is a wrapper around the {@link DatagramSocket} class so that it
+ * SyslogOutputStream is a wrapper around a {@link DatagramChannel} so that it
  * behaves like an {@link OutputStream}.
+ * 
+ * <p>Bytes are accumulated in a single direct {@link ByteBuffer} which is
+ * handed to the channel as is on {@link #flush()} and then cleared. No
+ * intermediary array or {@link java.net.DatagramPacket} is created per message.
+ * Bytes exceeding the maximum UDP payload are discarded, such messages being
+ * counted as truncated. Should the
+ * channel be closed because the logging thread was interrupted, a new channel
+ * is opened for the next message.
  */
-public class SyslogOutputStream extends OutputStream {
+public class SyslogOutputStream extends SyslogTransportBase {
 
     /**
-     * The maximum length after which we discard the existing string buffer and
-     * start anew.
+     * The maximum payload of a UDP datagram over IPv4.
      */
-    private static final int MAX_LEN = 1024;
+    static final int MAX_DATAGRAM_SIZE = 65507;
 
-    private InetAddress address;
-    private DatagramSocket ds;
-    private ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    final private int port;
+    private final InetSocketAddress target;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+    private volatile DatagramChannel channel;
+    private boolean truncated;
 
     public SyslogOutputStream(String syslogHost, int port) throws UnknownHostException, SocketException {
-        this.address = InetAddress.getByName(syslogHost);
-        this.port = port;
-        this.ds = new DatagramSocket();
+        super(syslogHost, port);
+        this.target = new InetSocketAddress(InetAddress.getByName(syslogHost), port);
+        try {
+            this.channel = DatagramChannel.open();
+        } catch (SocketException e) {
+            throw e;
+        } catch (IOException e) {
+            SocketException se = new SocketException("Failed to open datagram channel");
+            se.initCause(e);
+            throw se;
+        }
     }
 
     public void write(byte[] byteArray, int offset, int len) throws IOException {
-        baos.write(byteArray, offset, len);
+        int n = Math.min(len, buffer.remaining());
+        buffer.put(byteArray, offset, n);
+        if (n < len) {
+            truncated = true;
+        }
     }
 
-    public void flush() throws IOException {
-        byte[] bytes = baos.toByteArray();
-        DatagramPacket packet = new DatagramPacket(bytes, bytes.length, address, port);
-
-        // clean up for next round
-        if (baos.size() > MAX_LEN) {
-            baos = new ByteArrayOutputStream();
+    @Override
+    public void write(int b) throws IOException {
+        if (buffer.hasRemaining()) {
+            buffer.put((byte) b);
         } else {
-            baos.reset();
-        }
-
-        // after a failure, it can happen that bytes.length is zero
-        // in that case, there is no point in sending out an empty message/
-        if (bytes.length == 0) {
-            return;
-        }
-        if (this.ds != null) {
-            ds.send(packet);
+            truncated = true;
         }
-
     }
 
-    public void close() {
-        address = null;
-        ds = null;
+    public void flush() throws IOException {
+        buffer.flip();
+        try {
+            // after a failure, it can happen that there is nothing to send
+            // in that case, there is no point in sending out an empty message
+            if (!buffer.hasRemaining()) {
+                return;
+            }
+            if (truncated) {
+                incrementTruncatedCount();
+            }
+            DatagramChannel c = channel;
+            if (c == null) {
+                incrementDroppedCount(1);
+                return;
+            }
+            try {
+                c.send(buffer, target);
+                incrementSentCount(1);
+            } catch (ClosedChannelException e) {
+                // an interrupt closes the channel, replace it unless close() was called
+                incrementDroppedCount(1);
+                reopen(c);
+                throw e;
+            } catch (IOException e) {
+                incrementDroppedCount(1);
+                throw e;
+            }
+        } finally {
+            // clean up for next round
+            buffer.clear();
+            truncated = false;
+        }
     }
 
-    public int getPort() {
-        return port;
+    private synchronized void reopen(DatagramChannel closed) throws IOException {
+        if (channel == closed) {
+            channel = DatagramChannel.open();
+        }
     }
 
-    @Override
-    public void write(int b) throws IOException {
-        baos.write(b);
+    public synchronized void close() {
+        DatagramChannel c = channel;
+        channel = null;
+        if (c != null) {
+            try {
+                c.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
     }
 
-    int getSendBufferSize() throws SocketException {
-        return ds.getSendBufferSize();
+    public int getSendBufferSize() throws SocketException {
+        DatagramChannel c = channel;
+        if (c == null) {
+            throw new SocketException("Datagram channel is closed");
+        }
+        return c.socket().getSendBufferSize();
     }
 }
@@ -0,0 +1,324 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.net.SocketFactory;
+
+import ch.qos.logback.core.util.CloseUtil;
+
+/**
+ * A syslog transport over a stream socket, either plain TCP or TLS depending
+ * on the {@link SocketFactory} it is given.
+ * 
+ * <p>Messages are framed using octet counting, i.e. each message is preceded
+ * by its length in bytes and a space, as mandated by RFC 5425 and described in
+ * RFC 6587. Framed messages are accumulated in a reusable batch buffer which is
+ * written to the socket in one go once it holds at least <b>batchSize</b> bytes
+ * or once its oldest message has waited for <b>maxBatchDelay</b> milliseconds.
+ * Callers are expected to invoke {@link #drain()} periodically so that a
+ * partial batch does not linger when logging activity stops.
+ * 
+ * <p>Connections are established by a {@link DefaultSocketConnector} running on
+ * the executor given at construction time, never by the thread writing
+ * messages. Until the connection is up, messages are kept in the batch buffer
+ * up to <b>maxPendingBytes</b>, further messages being dropped. When writing
+ * to the socket fails, the pending batch is dropped and the connector waits
+ * for <b>reconnectionDelay</b> milliseconds before its first attempt.
+ *
+ * @since 1.2.14
+ */
+public class SyslogTcpOutputStream extends SyslogTransportBase {
+
+    static final int DEFAULT_RECONNECTION_DELAY = 30000;
+    static final int DEFAULT_MAX_PENDING_BYTES = 64 * 1024;
+
+    private final InetAddress address;
+    private final SocketFactory socketFactory;
+    private final ExecutorService executor;
+    private SocketConnector.ExceptionHandler exceptionHandler;
+
+    private long reconnectionDelay = DEFAULT_RECONNECTION_DELAY;
+    private int batchSize = 0;
+    private long maxBatchDelay = 0;
+    private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+
+    private byte[] messageBuf = new byte[1024];
+    private int messageLen = 0;
+
+    private byte[] batchBuf = new byte[1024];
+    private int batchLen = 0;
+    private int batchedMessages = 0;
+    private long oldestBatchedTimestamp;
+
+    private Socket socket;
+    private OutputStream socketOut;
+    private Future<?> connectorTask;
+    private long nextConnectionDelay = 0;
+    private boolean closed = false;
+
+    public SyslogTcpOutputStream(String syslogHost, int port, SocketFactory socketFactory, ExecutorService executor) throws UnknownHostException {
+        super(syslogHost, port);
+        this.address = InetAddress.getByName(syslogHost);
+        this.socketFactory = socketFactory;
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void write(byte[] byteArray, int offset, int len) {
+        ensureMessageCapacity(messageLen + len);
+        System.arraycopy(byteArray, offset, messageBuf, messageLen, len);
+        messageLen += len;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensureMessageCapacity(messageLen + 1);
+        messageBuf[messageLen++] = (byte) b;
+    }
+
+    /**
+     * Frames the bytes written since the last call as one syslog message and
+     * adds it to the current batch, sending the batch if it is due.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (messageLen == 0) {
+            return;
+        }
+        if (closed || (socket == null && batchLen + messageLen > maxPendingBytes)) {
+            messageLen = 0;
+            incrementDroppedCount(1);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        appendFrame();
+        if (batchedMessages == 1) {
+            oldestBatchedTimestamp = now;
+        }
+        if (batchLen >= batchSize || now - oldestBatchedTimestamp >= maxBatchDelay) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes all batched messages to the socket. If there is no connection yet,
+     * the messages are kept and a connection attempt is started in the
+     * background.
+     */
+    public synchronized void drain() throws IOException {
+        if (batchedMessages == 0) {
+            return;
+        }
+        if (socket == null) {
+            startConnector();
+            return;
+        }
+        int messages = batchedMessages;
+        try {
+            socketOut.write(batchBuf, 0, batchLen);
+            socketOut.flush();
+            incrementSentCount(messages);
+        } catch (IOException e) {
+            incrementDroppedCount(messages);
+            disconnect();
+            nextConnectionDelay = reconnectionDelay;
+            throw e;
+        } finally {
+            batchLen = 0;
+            batchedMessages = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (socket != null) {
+            try {
+                drain();
+            } catch (IOException e) {
+                // the messages were counted as dropped
+            }
+        } else {
+            incrementDroppedCount(batchedMessages);
+            batchLen = 0;
+            batchedMessages = 0;
+        }
+        closed = true;
+        if (connectorTask != null) {
+            connectorTask.cancel(true);
+            connectorTask = null;
+        }
+        disconnect();
+    }
+
+    /**
+     * Stream transports do not limit the size of a message.
+     */
+    @Override
+    public int getSendBufferSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    public synchronized boolean isConnected() {
+        return socket != null;
+    }
+
+    private void startConnector() {
+        if (connectorTask != null || closed) {
+            return;
+        }
+        final DefaultSocketConnector connector = new DefaultSocketConnector(address, port, nextConnectionDelay, reconnectionDelay);
+        connector.setSocketFactory(socketFactory);
+        if (exceptionHandler != null) {
+            connector.setExceptionHandler(exceptionHandler);
+        }
+        try {
+            connectorTask = executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        connected(connector, connector.call());
+                    } catch (InterruptedException e) {
+                        // closed
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the executor is shutting down, messages remain pending until close()
+        }
+    }
+
+    private synchronized void connected(SocketConnector connector, Socket s) {
+        connectorTask = null;
+        if (s == null || closed) {
+            CloseUtil.closeQuietly(s);
+            return;
+        }
+        try {
+            socketOut = s.getOutputStream();
+            socket = s;
+            drain();
+        } catch (IOException e) {
+            disconnect();
+            CloseUtil.closeQuietly(s);
+            if (exceptionHandler != null) {
+                exceptionHandler.connectionFailed(connector, e);
+            }
+        }
+    }
+
+    private void disconnect() {
+        CloseUtil.closeQuietly(socket);
+        socket = null;
+        socketOut = null;
+    }
+
+    private void appendFrame() {
+        // at most 10 digits and a space
+        ensureBatchCapacity(batchLen + 11 + messageLen);
+        batchLen = appendDecimal(batchBuf, batchLen, messageLen);
+        batchBuf[batchLen++] = ' ';
+        System.arraycopy(messageBuf, 0, batchBuf, batchLen, messageLen);
+        batchLen += messageLen;
+        batchedMessages++;
+        messageLen = 0;
+    }
+    static int appendDecimal(byte[] buf, int pos, int value) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private void ensureMessageCapacity(int capacity) {
+        if (capacity > messageBuf.length) {
+            messageBuf = grow(messageBuf, capacity);
+        }
+    }
+
+    private void ensureBatchCapacity(int capacity) {
+        if (capacity > batchBuf.length) {
+            batchBuf = grow(batchBuf, capacity);
+        }
+    }
+
+    private static byte[] grow(byte[] buf, int capacity) {
+        byte[] newBuf = new byte[Math.max(capacity, buf.length * 2)];
+        System.arraycopy(buf, 0, newBuf, 0, buf.length);
+        return newBuf;
+    }
+
+    /**
+     * Receives the failures of connection attempts.
+     */
+    public void setExceptionHandler(SocketConnector.ExceptionHandler exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public long getReconnectionDelay() {
+        return reconnectionDelay;
+    }
+
+    public void setReconnectionDelay(long reconnectionDelay) {
+        this.reconnectionDelay = reconnectionDelay;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The number of bytes to accumulate before writing to the socket. The
+     * default, zero, writes each message as soon as it is flushed.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    /**
+     * The maximum time, in milliseconds, a message may wait in a partial batch.
+     */
+    public void setMaxBatchDelay(long maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    public int getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    /**
+     * The number of bytes kept while no connection is established. The
+     * default is 64 KB.
+     */
+    public void setMaxPendingBytes(int maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+    }
+}
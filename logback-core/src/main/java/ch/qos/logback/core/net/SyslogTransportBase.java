@@ -0,0 +1,90 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import java.io.OutputStream;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for the transports used by {@link SyslogAppenderBase}. A
+ * transport behaves like an {@link OutputStream}: bytes written between two
+ * calls to {@link #flush()} make up exactly one syslog message.
+ * 
+ * <p>Each transport keeps track of the number of messages it handed over to
+ * the network and of the number of messages it had to drop.
+ *
+ * @since 1.2.14
+ */
+public abstract class SyslogTransportBase extends OutputStream {
+
+    final protected String syslogHost;
+    final protected int port;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong truncatedCount = new AtomicLong();
+
+    protected SyslogTransportBase(String syslogHost, int port) {
+        this.syslogHost = syslogHost;
+        this.port = port;
+    }
+
+    /**
+     * The largest message, in bytes, this transport can deliver in one piece.
+     */
+    abstract public int getSendBufferSize() throws SocketException;
+
+    @Override
+    abstract public void close();
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Number of messages successfully handed over to the network.
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Number of messages which could not be delivered, either because of an
+     * I/O error or because the transport was closed or disconnected.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Number of messages which did not fit within the limits of the transport
+     * and were sent truncated.
+     */
+    public long getTruncatedCount() {
+        return truncatedCount.get();
+    }
+
+    protected void incrementSentCount(int n) {
+        sentCount.addAndGet(n);
+    }
+
+    protected void incrementDroppedCount(int n) {
+        droppedCount.addAndGet(n);
+    }
+
+    protected void incrementTruncatedCount() {
+        truncatedCount.incrementAndGet();
+    }
+}
@@ -23,8 +23,10 @@ import java.util.concurrent.Executor;
 import javax.net.ServerSocketFactory;
 
 import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.net.AbstractSocketAppender;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * 
@@ -61,9 +63,11 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
             ServerSocket socket = getServerSocketFactory().createServerSocket(getPort(), getBacklog(), getInetAddress());
             ServerListener<RemoteReceiverClient> listener = createServerListener(socket);
 
-            runner = createServerRunner(listener, getContext().getExecutorService());
+            // clients are served on the shared executor, the runner itself
+            // occupies a thread of the network executor
+            runner = createServerRunner(listener, getContext().getScheduledExecutorService());
             runner.setContext(getContext());
-            getContext().getExecutorService().execute(runner);
+            ExecutorServiceUtil.getScheduledExecutorService(getContext(), CoreConstants.NETWORK_EXECUTOR_NAME).execute(runner);
             super.start();
         } catch (Exception ex) {
             addError("server startup error: " + ex, ex);
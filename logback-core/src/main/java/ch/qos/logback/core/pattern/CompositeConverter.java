@@ -19,12 +19,22 @@ abstract public class CompositeConverter<E> extends DynamicConverter<E> {
 
     public String convert(E event) {
         StringBuilder buf = new StringBuilder();
+        appendChildren(buf, event);
+        String intermediary = buf.toString();
+        return transform(event, intermediary);
+    }
 
+    /**
+     * Renders the child converters directly into <code>buf</code>. Derived
+     * classes whose transformation only surrounds the output of the children
+     * use it from {@link #appendTo} to avoid the intermediary String.
+     *
+     * @since 1.2.14
+     */
+    protected void appendChildren(StringBuilder buf, E event) {
         for (Converter<E> c = childConverter; c != null; c = c.next) {
             c.write(buf, event);
         }
-        String intermediary = buf.toString();
-        return transform(event, intermediary);
     }
 
     abstract protected String transform(E event, String in);
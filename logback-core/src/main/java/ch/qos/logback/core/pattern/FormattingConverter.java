@@ -13,12 +13,21 @@
  */
 package ch.qos.logback.core.pattern;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 abstract public class FormattingConverter<E> extends Converter<E> {
 
     static final int INITIAL_BUF_SIZE = 256;
     static final int MAX_CAPACITY = 1024;
 
+    // converter classes overriding convert() or transform() below the class
+    // declaring appendTo(), computed once per class
+    private static final ConcurrentMap<Class<?>, Boolean> CONVERT_OVERRIDDEN = new ConcurrentHashMap<Class<?>, Boolean>();
+
     FormatInfo formattingInfo;
+    private final boolean convertOverridden = isConvertOverridden(getClass());
 
     final public FormatInfo getFormattingInfo() {
         return formattingInfo;
@@ -33,9 +42,7 @@ abstract public class FormattingConverter<E> extends Converter<E> {
 
     @Override
     final public void write(StringBuilder buf, E event) {
-        // 执行子类convert方法获取内容
-        String s = convert(event);
-        // 根据配置的格式格式化内容
+        // 执行子类appendTo方法将内容直接追加到buf, 再根据配置的格式就地格式化内容
         // FormatInfo属性
         //  min: 小数点前的正整数, 表示最小长度. min前面的"-"表示leftPad取反, 即左对齐
         //  max: 小数点后的正整数, 表示最大长度. max前面的"-"表示leftTruncate取反, 即截掉右边, 保留左边(长度超出时)
@@ -49,8 +56,8 @@ abstract public class FormattingConverter<E> extends Converter<E> {
         //          "s"方法                    -> " s"
         //          "soLongMethodNameIsMy"方法 -> "soLon"
         if (formattingInfo == null) {
-            // 没有配置格式化信息, 直接返回
-            buf.append(s);
+            // 没有配置格式化信息, 直接追加
+            doAppend(buf, event);
             return;
         }
         // 小数点左边的数字 (示例%-2.5level中的 2)
@@ -58,34 +65,105 @@ abstract public class FormattingConverter<E> extends Converter<E> {
         // 小数点右边的数字 (示例%-2.5level中的 5)
         int max = formattingInfo.getMax();
 
-        if (s == null) {
-            if (0 < min)
-                // 补充min个空格. 不展开
-                SpacePadder.spacePad(buf, min);
-            return;
-        }
-
-        int len = s.length();
+        int start = buf.length();
+        doAppend(buf, event);
+        int len = buf.length() - start;
 
         if (len > max) {
             // 截掉左边, 保留右边
             if (formattingInfo.isLeftTruncate()) {
-                buf.append(s.substring(len - max));
+                buf.delete(start, start + len - max);
             } else {
                 // 截掉右边, 保留左边
-                buf.append(s.substring(0, max));
+                buf.setLength(start + max);
             }
         // min控制最小长度. 小于最小长度则添加空格
         } else if (len < min) {
             if (formattingInfo.isLeftPad()) {
                 // 右对齐, 则左边加空格
-                SpacePadder.leftPad(buf, s, min);
+                SpacePadder.insertSpaces(buf, start, min - len);
             } else {
                 // 左对齐, 则右边加空格
-                SpacePadder.rightPad(buf, s, min);
+                SpacePadder.spacePad(buf, min - len);
             }
+        }
+    }
+
+    /**
+     * Appends the data extracted from the event to <code>buf</code>, padding
+     * and truncation are then applied in place by {@link #write}.
+     * 
+     * <p>The default implementation appends the result of {@link #convert}.
+     * Converters which can render their data without creating an intermediate
+     * String, for example numbers or composite converters, override this method.
+     * Implementations must append the same characters as <code>convert</code>
+     * returns.
+     * 
+     * @param buf the buffer to append to
+     * @param event the event from where data is extracted
+     * @since 1.2.14
+     */
+    public void appendTo(StringBuilder buf, E event) {
+        appendConverted(buf, event);
+    }
+
+    /**
+     * Subclasses overriding <code>convert</code> (or <code>transform</code> for
+     * composite converters) below the class which implements
+     * <code>appendTo</code> expect their override to be honored, so that
+     * <code>appendTo</code> is bypassed for them.
+     */
+    private void doAppend(StringBuilder buf, E event) {
+        if (convertOverridden) {
+            appendConverted(buf, event);
         } else {
-            buf.append(s);
+            appendTo(buf, event);
+        }
+    }
+
+    private void appendConverted(StringBuilder buf, E event) {
+        String s = convert(event);
+        if (s == null && formattingInfo != null) {
+            // a null value is rendered as padding only
+            return;
+        }
+        buf.append(s);
+    }
+
+    static boolean isConvertOverridden(Class<?> converterClass) {
+        Boolean overridden = CONVERT_OVERRIDDEN.get(converterClass);
+        if (overridden == null) {
+            overridden = computeConvertOverridden(converterClass);
+            CONVERT_OVERRIDDEN.putIfAbsent(converterClass, overridden);
+        }
+        return overridden;
+    }
+
+    private static boolean computeConvertOverridden(Class<?> converterClass) {
+        try {
+            boolean convertDeclared = false;
+            for (Class<?> c = converterClass; c != FormattingConverter.class; c = c.getSuperclass()) {
+                Method[] methods = c.getDeclaredMethods();
+                if (declares(methods, "appendTo", 2)) {
+                    // only overrides in subclasses of c bypass its appendTo()
+                    return convertDeclared;
+                }
+                convertDeclared |= declares(methods, "convert", 1) || declares(methods, "transform", 2);
+            }
+            // appendTo() is not overridden, it goes through convert() anyway
+            return false;
+        } catch (SecurityException e) {
+            // convert() is always correct, if slower
+            return true;
+        }
+    }
+
+    private static boolean declares(Method[] methods, String name, int parameterCount) {
+        for (Method m : methods) {
+            if (m.getName().equals(name) && m.getParameterTypes().length == parameterCount) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -19,4 +19,9 @@ public class IdentityCompositeConverter<E> extends CompositeConverter<E> {
     protected String transform(E event, String in) {
         return in;
     }
+
+    @Override
+    public void appendTo(StringBuilder buf, E event) {
+        appendChildren(buf, event);
+    }
 }
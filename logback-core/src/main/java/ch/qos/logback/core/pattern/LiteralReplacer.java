@@ -0,0 +1,407 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces the matches of simple regular expressions without going through
+ * {@link java.util.regex.Matcher}. Supported expressions are literals,
+ * alternations of literals such as <code>password|secret</code>, and character
+ * classes such as <code>[\r\n]</code>, with a replacement free of group
+ * references. Matches are searched for in the order of the alternatives, as
+ * the regex engine would, and replaced in place.
+ * 
+ * <p>Replacers of single characters can be fused, see {@link #andThen}.
+ * 
+ * @since 1.2.14
+ */
+final class LiteralReplacer {
+
+    static final int MAX_CLASS_SIZE = 256;
+    static final int ASCII = 128;
+
+    // single character mode: the replacement of each matched character
+    private final String[] asciiReplacements;
+    private final char[] otherChars;
+    private final String[] otherReplacements;
+
+    // literal mode: alternatives in declaration order
+    private final String[] literals;
+    private final boolean[] asciiFirstChars;
+    private final String replacement;
+
+    private LiteralReplacer(String[] asciiReplacements, char[] otherChars, String[] otherReplacements) {
+        this.asciiReplacements = asciiReplacements;
+        this.otherChars = otherChars;
+        this.otherReplacements = otherReplacements;
+        this.literals = null;
+        this.asciiFirstChars = null;
+        this.replacement = null;
+    }
+
+    private LiteralReplacer(String[] literals, String replacement) {
+        this.asciiReplacements = null;
+        this.otherChars = null;
+        this.otherReplacements = null;
+        this.literals = literals;
+        this.replacement = replacement;
+        this.asciiFirstChars = new boolean[ASCII];
+        for (String literal : literals) {
+            char first = literal.charAt(0);
+            if (first < ASCII) {
+                asciiFirstChars[first] = true;
+            }
+        }
+    }
+
+    /**
+     * @return a replacer equivalent to
+     *         <code>Pattern.compile(regex).matcher(s).replaceAll(replacement)</code>,
+     *         or null if <code>regex</code> or <code>replacement</code> is not
+     *         simple enough
+     */
+    static LiteralReplacer compile(String regex, String replacement) {
+        String literalReplacement = parseReplacement(replacement);
+        if (literalReplacement == null) {
+            return null;
+        }
+        List<String> alternatives = parseCharClass(regex);
+        if (alternatives == null) {
+            alternatives = parseAlternatives(regex);
+        }
+        if (alternatives == null) {
+            return null;
+        }
+        for (String alternative : alternatives) {
+            if (alternative.length() != 1) {
+                return new LiteralReplacer(alternatives.toArray(new String[alternatives.size()]), literalReplacement);
+            }
+        }
+        CharMapBuilder builder = new CharMapBuilder();
+        for (String alternative : alternatives) {
+            builder.put(alternative.charAt(0), literalReplacement);
+        }
+        return builder.build();
+    }
+
+    static String parseReplacement(String replacement) {
+        StringBuilder buf = new StringBuilder(replacement.length());
+        for (int i = 0; i < replacement.length(); i++) {
+            char c = replacement.charAt(i);
+            if (c == '$') {
+                return null;
+            }
+            if (c == '\\') {
+                if (++i == replacement.length()) {
+                    return null;
+                }
+                c = replacement.charAt(i);
+            }
+            buf.append(c);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * @return the character denoted by <code>\c</code>, -1 if it does not
+     *         denote a single literal character
+     */
+    static int unescape(char c) {
+        switch (c) {
+        case 'n':
+            return '\n';
+        case 't':
+            return '\t';
+        case 'r':
+            return '\r';
+        case 'f':
+            return '\f';
+        case 'a':
+            return '\u0007';
+        case 'e':
+            return '\u001B';
+        default:
+            // \d, \s, \b, back references, octal and hexadecimal escapes...
+            return Character.isLetterOrDigit(c) ? -1 : c;
+        }
+    }
+
+    static List<String> parseAlternatives(String regex) {
+        List<String> alternatives = new ArrayList<String>();
+        StringBuilder current = new StringBuilder();
+        int len = regex.length();
+        for (int i = 0; i < len; i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+            case '\\':
+                if (++i == len) {
+                    return null;
+                }
+                int unescaped = unescape(regex.charAt(i));
+                if (unescaped < 0) {
+                    return null;
+                }
+                current.append((char) unescaped);
+                break;
+            case '|':
+                if (current.length() == 0) {
+                    return null;
+                }
+                alternatives.add(current.toString());
+                current.setLength(0);
+                break;
+            case '.':
+            case '^':
+            case '$':
+            case '*':
+            case '+':
+            case '?':
+            case '(':
+            case ')':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                return null;
+            default:
+                current.append(c);
+            }
+        }
+        if (current.length() == 0) {
+            return null;
+        }
+        alternatives.add(current.toString());
+        return alternatives;
+    }
+
+    static List<String> parseCharClass(String regex) {
+        int end = regex.length() - 1;
+        if (end < 2 || regex.charAt(0) != '[' || regex.charAt(end) != ']' || regex.charAt(1) == '^') {
+            return null;
+        }
+        List<String> chars = new ArrayList<String>();
+        boolean afterRange = false;
+        for (int i = 1; i < end; i++) {
+            char c = regex.charAt(i);
+            if (c == '-' && !chars.isEmpty() && i + 1 < end) {
+                if (afterRange) {
+                    return null;
+                }
+                int rangeEnd = classChar(regex, ++i, end);
+                if (rangeEnd < 0) {
+                    return null;
+                }
+                if (regex.charAt(i) == '\\') {
+                    i++;
+                }
+                char rangeStart = chars.get(chars.size() - 1).charAt(0);
+                if (rangeEnd < rangeStart || chars.size() + rangeEnd - rangeStart > MAX_CLASS_SIZE) {
+                    return null;
+                }
+                for (int r = rangeStart + 1; r <= rangeEnd; r++) {
+                    if (isSurrogate(r)) {
+                        return null;
+                    }
+                    chars.add(String.valueOf((char) r));
+                }
+                afterRange = true;
+                continue;
+            }
+            int single = classChar(regex, i, end);
+            if (single < 0) {
+                return null;
+            }
+            if (c == '\\') {
+                i++;
+            }
+            chars.add(String.valueOf((char) single));
+            afterRange = false;
+        }
+        return chars.size() > MAX_CLASS_SIZE ? null : chars;
+    }
+
+    /**
+     * @return the class member at <code>i</code>, -1 if it cannot be matched
+     * one char at a time. Surrogates are rejected: a class member made of a
+     * surrogate pair matches the pair as a whole, not each half on its own.
+     */
+    private static int classChar(String regex, int i, int end) {
+        char c = regex.charAt(i);
+        if (isSurrogate(c)) {
+            return -1;
+        }
+        switch (c) {
+        case '\\':
+            if (i + 1 == end) {
+                return -1;
+            }
+            int unescaped = unescape(regex.charAt(i + 1));
+            return isSurrogate(unescaped) ? -1 : unescaped;
+        case '[':
+        case ']':
+        case '&':
+            return -1;
+        default:
+            return c;
+        }
+    }
+
+    private static boolean isSurrogate(int c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    private String charReplacement(char c) {
+        if (c < ASCII) {
+            return asciiReplacements[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? null : otherReplacements[index];
+    }
+
+    /**
+     * @return the length of the match at <code>index</code>, -1 if none
+     */
+    private int matchAt(CharSequence s, int index) {
+        char c = s.charAt(index);
+        if (literals == null) {
+            return charReplacement(c) == null ? -1 : 1;
+        }
+        if (c < ASCII && !asciiFirstChars[c]) {
+            return -1;
+        }
+        int remaining = s.length() - index;
+        for (String literal : literals) {
+            int len = literal.length();
+            if (len <= remaining && regionMatches(s, index, literal)) {
+                return len;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence s, int index, String literal) {
+        for (int j = 0; j < literal.length(); j++) {
+            if (s.charAt(index + j) != literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces, in place, the matches found in <code>buf</code> from index
+     * <code>from</code> onwards. Nothing is allocated unless
+     * <code>buf</code> needs to grow.
+     */
+    void replace(StringBuilder buf, int from) {
+        int i = from;
+        while (i < buf.length()) {
+            int matchLength = matchAt(buf, i);
+            if (matchLength < 0) {
+                i++;
+                continue;
+            }
+            String r = literals == null ? charReplacement(buf.charAt(i)) : replacement;
+            if (r.length() == matchLength) {
+                for (int j = 0; j < matchLength; j++) {
+                    buf.setCharAt(i + j, r.charAt(j));
+                }
+            } else {
+                buf.replace(i, i + matchLength, r);
+            }
+            i += r.length();
+        }
+    }
+
+    String replace(String in) {
+        for (int i = 0; i < in.length(); i++) {
+            if (matchAt(in, i) >= 0) {
+                StringBuilder buf = new StringBuilder(in.length() + 16).append(in);
+                replace(buf, i);
+                return buf.toString();
+            }
+        }
+        return in;
+    }
+
+    /**
+     * Fuses this replacer with <code>next</code>, applied to the output of this
+     * one, into a single pass. Only replacers of single characters can be
+     * fused.
+     * 
+     * @return the fused replacer, or null
+     */
+    LiteralReplacer andThen(LiteralReplacer next) {
+        if (literals != null || next.literals != null) {
+            return null;
+        }
+        CharMapBuilder builder = new CharMapBuilder();
+        // characters replaced by this replacer, then by next
+        for (char c = 0; c < ASCII; c++) {
+            if (asciiReplacements[c] != null) {
+                builder.put(c, next.replace(asciiReplacements[c]));
+            }
+        }
+        for (int i = 0; i < otherChars.length; i++) {
+            builder.put(otherChars[i], next.replace(otherReplacements[i]));
+        }
+        // characters left alone by this replacer but not by next
+        for (char c = 0; c < ASCII; c++) {
+            if (next.asciiReplacements[c] != null) {
+                builder.put(c, next.asciiReplacements[c]);
+            }
+        }
+        for (int i = 0; i < next.otherChars.length; i++) {
+            builder.put(next.otherChars[i], next.otherReplacements[i]);
+        }
+        return builder.build();
+    }
+
+    static class CharMapBuilder {
+        final String[] ascii = new String[ASCII];
+        final List<Character> others = new ArrayList<Character>();
+        final List<String> otherReplacements = new ArrayList<String>();
+
+        /**
+         * Maps <code>c</code> to <code>r</code> unless already mapped.
+         */
+        void put(char c, String r) {
+            if (c < ASCII) {
+                if (ascii[c] == null) {
+                    ascii[c] = r;
+                }
+            } else if (!others.contains(c)) {
+                others.add(c);
+                otherReplacements.add(r);
+            }
+        }
+
+        LiteralReplacer build() {
+            int n = others.size();
+            char[] sortedChars = new char[n];
+            for (int i = 0; i < n; i++) {
+                sortedChars[i] = others.get(i);
+            }
+            Arrays.sort(sortedChars);
+            String[] sortedReplacements = new String[n];
+            for (int i = 0; i < n; i++) {
+                sortedReplacements[i] = otherReplacements.get(others.indexOf(sortedChars[i]));
+            }
+            return new LiteralReplacer(ascii, sortedChars, sortedReplacements);
+        }
+    }
+}
@@ -111,6 +111,15 @@ abstract public class PatternLayoutBase<E> extends LayoutBase<E> {
         ConverterUtil.setContextForConverters(getContext(), head);
     }
 
+    /**
+     * @return the first converter of the compiled pattern, null if this layout
+     *         is not started
+     * @since 1.2.14
+     */
+    protected Converter<E> getHead() {
+        return head;
+    }
+
     protected String writeLoopOnConverters(E event) {
         StringBuilder strBuilder = new StringBuilder(INTIAL_STRING_BUILDER_SIZE);
         Converter<E> c = head;
@@ -21,6 +21,8 @@ public class ReplacingCompositeConverter<E> extends CompositeConverter<E> {
     Pattern pattern;
     String regex;
     String replacement;
+    // regex-free equivalent of pattern and replacement, null if there is none
+    LiteralReplacer literalReplacer;
 
     public void start() {
         final List<String> optionList = getOptionList();
@@ -38,13 +40,48 @@ public class ReplacingCompositeConverter<E> extends CompositeConverter<E> {
         regex = optionList.get(0);
         pattern = Pattern.compile(regex);
         replacement = optionList.get(1);
+        literalReplacer = LiteralReplacer.compile(regex, replacement);
+        fuseWithChild();
         super.start();
     }
 
+    /**
+     * Absorbs a nested %replace whose replacements are, like ours, on single
+     * characters, so that both are applied in one pass.
+     */
+    private void fuseWithChild() {
+        if (literalReplacer == null || !(childConverter instanceof ReplacingCompositeConverter) || childConverter.getNext() != null) {
+            return;
+        }
+        ReplacingCompositeConverter<E> child = (ReplacingCompositeConverter<E>) childConverter;
+        if (!child.isStarted() || child.literalReplacer == null || child.getFormattingInfo() != null) {
+            return;
+        }
+        LiteralReplacer fused = child.literalReplacer.andThen(literalReplacer);
+        if (fused != null) {
+            literalReplacer = fused;
+            childConverter = child.getChildConverter();
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder buf, E event) {
+        if (!started || literalReplacer == null) {
+            super.appendTo(buf, event);
+            return;
+        }
+        int start = buf.length();
+        appendChildren(buf, event);
+        literalReplacer.replace(buf, start);
+    }
+
     @Override
     protected String transform(E event, String in) {
         if (!started)
             return in;
+        if (literalReplacer != null) {
+            return literalReplacer.replace(in);
+        }
         return pattern.matcher(in).replaceAll(replacement);
     }
-}
\ No newline at end of file
+}
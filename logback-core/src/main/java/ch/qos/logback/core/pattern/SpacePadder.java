@@ -46,6 +46,25 @@ public class SpacePadder {
         }
     }
 
+    /**
+     * Inserts <code>length</code> spaces into <code>sbuf</code> at the given
+     * index.
+     *
+     * @since 1.2.14
+     */
+    final static public void insertSpaces(StringBuilder sbuf, int index, int length) {
+        while (length >= 32) {
+            sbuf.insert(index, SPACES[5]);
+            length -= 32;
+        }
+
+        for (int i = 4; i >= 0; i--) {
+            if ((length & (1 << i)) != 0) {
+                sbuf.insert(index, SPACES[i]);
+            }
+        }
+    }
+
     /**
      * Fast space padding method.
      */
@@ -37,6 +37,15 @@ abstract public class ForegroundCompositeConverterBase<E> extends CompositeConve
         return sb.toString();
     }
 
+    @Override
+    public void appendTo(StringBuilder buf, E event) {
+        buf.append(ESC_START);
+        buf.append(getForegroundColorCode(event));
+        buf.append(ESC_END);
+        appendChildren(buf, event);
+        buf.append(SET_DEFAULT_COLOR);
+    }
+
     /**
      * Derived classes return the foreground color specific to the derived class instance.
      * @return  the foreground color for this instance
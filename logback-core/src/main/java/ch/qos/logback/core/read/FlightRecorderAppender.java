@@ -0,0 +1,486 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.read;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.boolex.EvaluationException;
+import ch.qos.logback.core.boolex.EventEvaluator;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
+import ch.qos.logback.core.util.FileUtil;
+
+/**
+ * A "flight recorder" keeping the most recent events, encoded, in a fixed
+ * size ring outside of the java heap. Unlike {@link CyclicBufferAppender} it
+ * retains no event objects and takes no appender-wide lock: a producer takes
+ * a sequence number with a single atomic increment, claims the slot of that
+ * sequence number with a compare-and-set, copies the encoded event into it and
+ * releases the slot. Readers claim slots the same way, so that a slot is never
+ * read while it is written. Producers wait only when another thread holds
+ * their slot, i.e. when the ring wraps around during a write or a dump.
+ * 
+ * <p>The ring consists of <code>slotCount</code> slots of
+ * <code>slotSize</code> bytes, the slot count being rounded up to a power of
+ * two. Encoded events longer than a slot are truncated. Each slot starts with
+ * a stamp holding the sequence number of its event. The stamp is invalidated
+ * before the event is copied into the slot and written back only once the copy
+ * is complete, so that slots torn by a crash can be told from complete ones.
+ * 
+ * <p>If <code>file</code> is set, the ring is a memory-mapped view of that
+ * file. As the operating system keeps the pages of the mapping, its contents
+ * survive a crash of the JVM, though not of the operating system: when an
+ * appender with the same <code>slotSize</code> and <code>slotCount</code> is
+ * started on that file, the complete slots left by the previous run are
+ * recovered and included in subsequent dumps. Otherwise the ring is a direct
+ * buffer.
+ * 
+ * <p>The events of the ring not dumped yet are appended, oldest first, to
+ * <code>dumpFile</code>:
+ * <ul>
+ * <li>on demand, see {@link #dump()},</li>
+ * <li>after an event for which the <code>evaluator</code>, if any, returns
+ * true, for example an ERROR event. Such dumps run on the
+ * {@link CoreConstants#IO_EXECUTOR_NAME io} executor, not on the logging
+ * thread,</li>
+ * <li>when the appender is stopped, e.g. when a shutdown hook stops the
+ * context, unless <code>dumpOnStop</code> is set to false.</li>
+ * </ul>
+ * Dumps are best effort: slots overwritten before they are read are skipped.
+ * 
+ * @since 1.2.14
+ */
+public class FlightRecorderAppender<E> extends UnsynchronizedAppenderBase<E> {
+
+    public static final int DEFAULT_SLOT_SIZE = 512;
+    public static final int DEFAULT_SLOT_COUNT = 8192;
+
+    // each slot starts with a stamp, i.e. the sequence number of its event
+    // plus one, followed by the length of the encoded event
+    static final int SLOT_HEADER_SIZE = 12;
+    static final int LENGTH_OFFSET = 8;
+    // value of published for a slot claimed by a producer or a reader
+    static final long IN_PROGRESS = -1L;
+    // value of published for a slot holding no event
+    static final long EMPTY = -2L;
+    // stamp of a slot which is empty or being written
+    static final long INVALID_STAMP = 0L;
+
+    Encoder<E> encoder;
+    EventEvaluator<E> evaluator;
+    int slotSize = DEFAULT_SLOT_SIZE;
+    int slotCount = DEFAULT_SLOT_COUNT;
+    String file;
+    String dumpFile;
+    boolean dumpOnStop = true;
+
+    private ByteBuffer ring;
+    private ThreadLocal<ByteBuffer> threadLocalView;
+    // sequence number of the event held by each slot, EMPTY or IN_PROGRESS
+    private AtomicLongArray published;
+    private int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicBoolean dumping = new AtomicBoolean();
+    private final AtomicBoolean dumpScheduled = new AtomicBoolean();
+    // events below this sequence number were dumped to dumpFile, guarded by dumping
+    private long dumpedSequence = 0;
+    // the last dump triggered by the evaluator
+    Future<?> dumpTask;
+    private int errorCount = 0;
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named \"" + name + "\".");
+            return;
+        }
+        if (slotSize <= SLOT_HEADER_SIZE) {
+            addError("slotSize must be larger than " + SLOT_HEADER_SIZE);
+            return;
+        }
+        if (slotCount < 1 || slotCount > (1 << 30)) {
+            addError("Invalid slotCount " + slotCount);
+            return;
+        }
+        int count = Integer.highestOneBit(slotCount);
+        if (count < slotCount) {
+            count <<= 1;
+        }
+        long capacity = (long) count * slotSize;
+        if (capacity > Integer.MAX_VALUE) {
+            addError("slotSize * slotCount may not exceed " + Integer.MAX_VALUE + " bytes");
+            return;
+        }
+        try {
+            ring = allocateRing((int) capacity);
+        } catch (IOException e) {
+            addError("Could not map file [" + file + "]", e);
+            return;
+        }
+        final ByteBuffer sharedRing = ring;
+        threadLocalView = new ThreadLocal<ByteBuffer>() {
+            @Override
+            protected ByteBuffer initialValue() {
+                return sharedRing.duplicate();
+            }
+        };
+        published = new AtomicLongArray(count);
+        mask = count - 1;
+        nextSequence.set(recover(count));
+        dumpedSequence = 0;
+        super.start();
+    }
+
+    /**
+     * Publishes the complete slots found in the ring, i.e. those left by a
+     * previous run when the ring is mapped onto a file.
+     * 
+     * @return the sequence number of the next event
+     */
+    private long recover(int count) {
+        // a direct buffer holds nothing worth recovering
+        boolean mapped = file != null;
+        long next = 0;
+        for (int slot = 0; slot < count; slot++) {
+            int offset = slot * slotSize;
+            long sequence = ring.getLong(offset) - 1;
+            int len = ring.getInt(offset + LENGTH_OFFSET);
+            if (mapped && sequence >= 0 && (sequence & mask) == slot && len >= 0 && len <= slotSize - SLOT_HEADER_SIZE) {
+                published.set(slot, sequence);
+                next = Math.max(next, sequence + 1);
+            } else {
+                published.set(slot, EMPTY);
+            }
+        }
+        if (next > 0) {
+            addInfo("Recovered events up to sequence number " + (next - 1) + " from [" + file + "]");
+        }
+        return next;
+    }
+
+    private ByteBuffer allocateRing(int capacity) throws IOException {
+        if (file == null) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        File f = new File(file);
+        FileUtil.createMissingParentDirectories(f);
+        RandomAccessFile raf = new RandomAccessFile(f, "rw");
+        try {
+            // a mapping remains valid after its channel is closed
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (dumpOnStop && dumpFile != null) {
+            dump();
+        }
+        // the ring is kept so that it can still be dumped
+    }
+
+    @Override
+    protected void append(E eventObject) {
+        byte[] bytes = encoder.encode(eventObject);
+        if (bytes != null) {
+            write(bytes);
+        }
+        if (evaluator != null && isTrigger(eventObject)) {
+            scheduleDump();
+        }
+    }
+
+    /**
+     * Hands a dump to the io executor. Triggers occurring while a dump is
+     * pending are coalesced into it, and each dump only writes the events
+     * recorded since the previous one.
+     */
+    private void scheduleDump() {
+        if (!dumpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dumpTask = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.IO_EXECUTOR_NAME).submit(new Runnable() {
+                public void run() {
+                    dumpScheduled.set(false);
+                    dump();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the context is being stopped, dump on the calling thread
+            dumpScheduled.set(false);
+            dump();
+        }
+    }
+
+    private void write(byte[] bytes) {
+        final long sequence = nextSequence.getAndIncrement();
+        final int slot = (int) (sequence & mask);
+        final int offset = slot * slotSize;
+        final int len = Math.min(bytes.length, slotSize - SLOT_HEADER_SIZE);
+
+        if (!claimForWriting(slot, sequence)) {
+            // a producer which lapped us already wrote a more recent event
+            return;
+        }
+        ByteBuffer view = threadLocalView.get();
+        view.putLong(offset, INVALID_STAMP);
+        view.putInt(offset + LENGTH_OFFSET, len);
+        view.position(offset + SLOT_HEADER_SIZE);
+        view.put(bytes, 0, len);
+        view.putLong(offset, sequence + 1);
+        // the volatile write publishes the payload to the next claimant
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Claims the slot for the event with the given sequence number, waiting
+     * while another thread holds it.
+     * 
+     * @return false if the slot already holds a more recent event
+     */
+    private boolean claimForWriting(int slot, long sequence) {
+        while (true) {
+            long current = published.get(slot);
+            if (current >= sequence) {
+                return false;
+            }
+            if (current != IN_PROGRESS && published.compareAndSet(slot, current, IN_PROGRESS)) {
+                return true;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Copies the payload of the slot holding the event with the given
+     * sequence number into <code>buf</code>. The slot is claimed during the
+     * copy so that no producer can write it concurrently.
+     * 
+     * @return the length of the payload, or -1 if the slot does not hold that
+     *         event
+     */
+    private int readSlot(ByteBuffer view, long sequence, byte[] buf) {
+        final int slot = (int) (sequence & mask);
+        final int offset = slot * slotSize;
+        while (true) {
+            long current = published.get(slot);
+            if (current != IN_PROGRESS && current != sequence) {
+                return -1;
+            }
+            if (current == sequence && published.compareAndSet(slot, sequence, IN_PROGRESS)) {
+                break;
+            }
+            Thread.yield();
+        }
+        try {
+            final int len = view.getInt(offset + LENGTH_OFFSET);
+            if (len < 0 || len > slotSize - SLOT_HEADER_SIZE) {
+                return -1;
+            }
+            view.position(offset + SLOT_HEADER_SIZE);
+            view.get(buf, 0, len);
+            return len;
+        } finally {
+            published.set(slot, sequence);
+        }
+    }
+
+    private boolean isTrigger(E eventObject) {
+        try {
+            return evaluator.evaluate(eventObject);
+        } catch (EvaluationException ex) {
+            errorCount++;
+            if (errorCount < CoreConstants.MAX_ERROR_COUNT) {
+                addError("Exception thrown by evaluator of appender named [" + name + "]", ex);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Appends the events recorded since the previous dump to
+     * <code>dumpFile</code>. Does nothing if another dump is in progress.
+     * 
+     * @return the number of events written
+     */
+    public int dump() {
+        if (dumpFile == null) {
+            addWarn("No dumpFile set for the appender named [" + name + "]");
+            return 0;
+        }
+        if (ring == null || !dumping.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            final long end = nextSequence.get();
+            if (end <= dumpedSequence) {
+                return 0;
+            }
+            File f = new File(dumpFile);
+            FileUtil.createMissingParentDirectories(f);
+            OutputStream os = new BufferedOutputStream(new FileOutputStream(f, true));
+            try {
+                int count = dump(os, dumpedSequence, end);
+                dumpedSequence = end;
+                addInfo("Dumped " + count + " events of appender named [" + name + "] to [" + dumpFile + "]");
+                return count;
+            } finally {
+                os.close();
+            }
+        } catch (IOException e) {
+            addError("Failed to dump the appender named [" + name + "] to [" + dumpFile + "]", e);
+            return 0;
+        } finally {
+            dumping.set(false);
+        }
+    }
+
+    /**
+     * Writes the contents of the ring, oldest first, to <code>os</code>,
+     * surrounded by the header and footer of the encoder.
+     * 
+     * @return the number of events written
+     */
+    public int dump(OutputStream os) throws IOException {
+        if (ring == null) {
+            return 0;
+        }
+        return dump(os, 0, nextSequence.get());
+    }
+
+    private int dump(OutputStream os, long from, long end) throws IOException {
+        writeIfNotNull(os, encoder.headerBytes());
+        final long start = Math.max(from, end - (mask + 1));
+        final ByteBuffer view = ring.duplicate();
+        final byte[] buf = new byte[slotSize];
+        int count = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            final int len = readSlot(view, sequence, buf);
+            if (len < 0) {
+                continue;
+            }
+            os.write(buf, 0, len);
+            count++;
+        }
+        writeIfNotNull(os, encoder.footerBytes());
+        os.flush();
+        return count;
+    }
+
+    private void writeIfNotNull(OutputStream os, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * The sequence number of the next event, i.e. the number of events
+     * appended since the appender was started plus those recovered from
+     * <code>file</code>.
+     */
+    public long getEventCount() {
+        return nextSequence.get();
+    }
+
+    public Encoder<E> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<E> encoder) {
+        this.encoder = encoder;
+    }
+
+    public EventEvaluator<E> getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * An event for which the evaluator returns true triggers a dump, after
+     * having been recorded. The dump is performed asynchronously.
+     */
+    public void setEvaluator(EventEvaluator<E> evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    public void setSlotSize(int slotSize) {
+        this.slotSize = slotSize;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public void setSlotCount(int slotCount) {
+        this.slotCount = slotCount;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * If set, the ring is memory-mapped onto this file.
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public String getDumpFile() {
+        return dumpFile;
+    }
+
+    /**
+     * The file dumps are appended to.
+     */
+    public void setDumpFile(String dumpFile) {
+        this.dumpFile = dumpFile;
+    }
+
+    public boolean isDumpOnStop() {
+        return dumpOnStop;
+    }
+
+    /**
+     * Whether the events not dumped yet are dumped when the appender is
+     * stopped. True by default.
+     */
+    public void setDumpOnStop(boolean dumpOnStop) {
+        this.dumpOnStop = dumpOnStop;
+    }
+}
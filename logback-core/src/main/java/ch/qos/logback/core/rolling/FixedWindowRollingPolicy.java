@@ -144,6 +144,7 @@ public class FixedWindowRollingPolicy extends RollingPolicyBase {
             }
 
             // move active file name to min
+            compressor.setMetrics(getParentsMetrics());
             switch (compressionMode) {
             case NONE:
                 util.rename(getActiveFileName(), fileNamePattern.convertInt(minIndex));
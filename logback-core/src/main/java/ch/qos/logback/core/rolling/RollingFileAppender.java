@@ -18,14 +18,22 @@ import static ch.qos.logback.core.CoreConstants.MORE_INFO_PREFIX;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.recovery.ResilientFileOutputStream;
 import ch.qos.logback.core.rolling.helper.CompressionMode;
 import ch.qos.logback.core.rolling.helper.FileNamePattern;
 import ch.qos.logback.core.util.ContextUtil;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * <code>RollingFileAppender</code> extends {@link FileAppender} to backup the
@@ -40,12 +48,27 @@ import ch.qos.logback.core.util.ContextUtil;
  */
 public class RollingFileAppender<E> extends FileAppender<E> {
     // 当前正在使用的问题
-    File currentlyActiveFile;
+    volatile File currentlyActiveFile;
     // 触发滚动策略     测试：TimeBasedRollingPolicy@1037324811
     TriggeringPolicy<E> triggeringPolicy;
     // 滚动策略
     RollingPolicy rollingPolicy;
 
+    /**
+     * How long before the end of a period the next period's file is opened
+     * when rolling over without blocking.
+     */
+    static final long PRE_OPEN_LEAD_MILLIS = 1000;
+
+    // see setNonBlockingRollover
+    boolean nonBlockingRollover = false;
+    // closing and archiving of the previous file, run on the io executor
+    volatile Future<?> pendingRollover;
+    private volatile ScheduledFuture<?> preOpenFuture;
+    private final Object preOpenLock = new Object();
+    // guarded by preOpenLock
+    private PreOpenedFile preOpened;
+
     static private String RFA_NO_TP_URL = CODES_URL + "#rfa_no_tp";
     static private String RFA_NO_RP_URL = CODES_URL + "#rfa_no_rp";
     static private String COLLISION_URL = CODES_URL + "#rfa_collision";
@@ -98,9 +121,25 @@ public class RollingFileAppender<E> extends FileAppender<E> {
             }
         }
 
+        if (nonBlockingRollover && !supportsNonBlockingRollover()) {
+            addWarn("Non-blocking rollover requires a TimeBasedRollingPolicy, an empty \"File\" property and prudent mode off. Rolling over in place.");
+            nonBlockingRollover = false;
+        }
+
+        if (rollingPolicy instanceof TimeBasedRollingPolicy) {
+            ((TimeBasedRollingPolicy<?>) rollingPolicy).archiveStagedFiles();
+        }
+
         currentlyActiveFile = new File(getFile());
         addInfo("Active log file name: " + getFile());
         super.start();
+        if (isStarted() && nonBlockingRollover) {
+            schedulePreOpen();
+        }
+    }
+
+    private boolean supportsNonBlockingRollover() {
+        return !isPrudent() && rawFileProperty() == null && rollingPolicy instanceof TimeBasedRollingPolicy;
     }
 
     private boolean checkForFileAndPatternCollisions() {
@@ -150,6 +189,10 @@ public class RollingFileAppender<E> extends FileAppender<E> {
     @Override
     public void stop() {
         super.stop();
+        if (nonBlockingRollover) {
+            awaitPendingRollover();
+            cancelPreOpen();
+        }
         
         if (rollingPolicy != null)
             rollingPolicy.stop();
@@ -183,6 +226,7 @@ public class RollingFileAppender<E> extends FileAppender<E> {
      */
     public void rollover() {
         // 上锁. 关流和打开文件必须在同一个代码块内, 不关流(打开的文件)无法完成重命名
+        long start = metrics != null ? System.nanoTime() : 0L;
         lock.lock();
         try {
             // 关闭输出流
@@ -194,6 +238,191 @@ public class RollingFileAppender<E> extends FileAppender<E> {
         } finally {
             lock.unlock();
         }
+        if (metrics != null) {
+            metrics.recordRollover(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Rolls over without holding the appender's lock for anything but
+     * exchanging output streams. The next active file is normally opened
+     * ahead of time, see {@link #schedulePreOpen()}. Closing the previous file
+     * and the work of the rolling policy are carried out on the
+     * {@link CoreConstants#IO_EXECUTOR_NAME io} executor.
+     *
+     * <p>Must be called while holding the triggering policy's monitor.
+     */
+    private void rolloverBySwapping() {
+        long start = metrics != null ? System.nanoTime() : 0L;
+        String nextFileName = rollingPolicy.getActiveFileName();
+        if (currentlyActiveFile != null && nextFileName.equals(currentlyActiveFile.getPath())) {
+            rollover();
+            return;
+        }
+
+        OutputStream next = takePreOpened(nextFileName);
+        if (next == null) {
+            try {
+                next = createFileOutputStream(nextFileName);
+            } catch (IOException e) {
+                addError("Failed to open [" + nextFileName + "], rolling over in place.", e);
+                rollover();
+                return;
+            }
+        }
+
+        // the triggering policy moves on with the next trigger check, capture
+        // what the background job needs to know about the elapsed period
+        final TimeBasedRollingPolicy<?> tbrp = (TimeBasedRollingPolicy<?>) rollingPolicy;
+        final String elapsedPeriodsFileName = tbrp.getTimeBasedFileNamingAndTriggeringPolicy().getElapsedPeriodsFileName();
+        final Date now = new Date(tbrp.getTimeBasedFileNamingAndTriggeringPolicy().getCurrentTime());
+
+        currentlyActiveFile = new File(nextFileName);
+        final OutputStream previous = swapOutputStream(next);
+        pendingRollover = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.IO_EXECUTOR_NAME).submit(new Runnable() {
+            public void run() {
+                if (previous != null) {
+                    closeDetachedOutputStream(previous);
+                }
+                try {
+                    tbrp.rollover(elapsedPeriodsFileName, now);
+                } catch (RolloverFailure rf) {
+                    addWarn("RolloverFailure occurred while archiving [" + elapsedPeriodsFileName + "].", rf);
+                }
+            }
+        });
+        if (metrics != null) {
+            metrics.recordRollover(System.nanoTime() - start);
+        }
+        schedulePreOpen();
+    }
+
+    /**
+     * Waits for the background part of the previous rollover so that
+     * archiving jobs do not pile up when rollovers follow each other closely.
+     */
+    private void awaitPendingRollover() {
+        Future<?> pending = pendingRollover;
+        if (pending == null || pending.isDone()) {
+            return;
+        }
+        try {
+            pending.get(CoreConstants.SECONDS_TO_WAIT_FOR_COMPRESSION_JOBS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            addError("Timeout while waiting for rollover job to finish", e);
+        } catch (Exception e) {
+            addError("Unexpected exception while waiting for rollover job to finish", e);
+        }
+    }
+
+    /**
+     * Arranges for the next period's file to be opened shortly before the
+     * period begins. Must be called while holding the triggering policy's
+     * monitor or before the appender is started.
+     */
+    private void schedulePreOpen() {
+        TimeBasedRollingPolicy<?> tbrp = (TimeBasedRollingPolicy<?>) rollingPolicy;
+        final String nextFileName = tbrp.getNextPeriodsActiveFileName();
+        long millisUntilNextPeriod = tbrp.getMillisUntilNextPeriod();
+        if (nextFileName == null || millisUntilNextPeriod < 0) {
+            return;
+        }
+
+        ScheduledFuture<?> previousFuture = preOpenFuture;
+        if (previousFuture != null) {
+            previousFuture.cancel(false);
+        }
+        synchronized (preOpenLock) {
+            if (preOpened != null) {
+                if (preOpened.fileName.equals(nextFileName)) {
+                    return;
+                }
+                discard(preOpened);
+                preOpened = null;
+            }
+        }
+
+        long delay = Math.max(0, millisUntilNextPeriod - PRE_OPEN_LEAD_MILLIS);
+        Runnable preOpenTask = new Runnable() {
+            public void run() {
+                preOpen(nextFileName);
+            }
+        };
+        preOpenFuture = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.IO_EXECUTOR_NAME).schedule(preOpenTask, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void preOpen(String fileName) {
+        ResilientFileOutputStream stream;
+        try {
+            stream = createFileOutputStream(fileName);
+        } catch (IOException e) {
+            addWarn("Failed to open [" + fileName + "] ahead of rollover.", e);
+            return;
+        }
+        synchronized (preOpenLock) {
+            if (!isStarted()) {
+                // raced with stop()
+                discard(new PreOpenedFile(fileName, stream));
+                return;
+            }
+            PreOpenedFile stale = preOpened;
+            preOpened = new PreOpenedFile(fileName, stream);
+            if (stale != null) {
+                discard(stale);
+            }
+        }
+    }
+
+    private OutputStream takePreOpened(String fileName) {
+        synchronized (preOpenLock) {
+            if (preOpened == null || !preOpened.fileName.equals(fileName)) {
+                // e.g. a size triggered rollover, keep it for its period
+                return null;
+            }
+            OutputStream stream = preOpened.stream;
+            preOpened = null;
+            return stream;
+        }
+    }
+
+    private void cancelPreOpen() {
+        ScheduledFuture<?> future = preOpenFuture;
+        if (future != null) {
+            future.cancel(false);
+            preOpenFuture = null;
+        }
+        synchronized (preOpenLock) {
+            if (preOpened != null) {
+                discard(preOpened);
+                preOpened = null;
+            }
+        }
+    }
+
+    /**
+     * Closes a pre-opened file which will not be used, removing it unless
+     * something was written to it in the meantime.
+     */
+    private void discard(PreOpenedFile unused) {
+        try {
+            unused.stream.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        File file = unused.stream.getFile();
+        if (file.length() == 0 && !file.equals(currentlyActiveFile)) {
+            file.delete();
+        }
+    }
+
+    static class PreOpenedFile {
+        final String fileName;
+        final ResilientFileOutputStream stream;
+
+        PreOpenedFile(String fileName, ResilientFileOutputStream stream) {
+            this.fileName = fileName;
+            this.stream = stream;
+        }
     }
 
     private void attemptOpenFile() {
@@ -232,13 +461,37 @@ public class RollingFileAppender<E> extends FileAppender<E> {
             // 重要代码: 判断是否达到滚动时机
             if (triggeringPolicy.isTriggeringEvent(currentlyActiveFile, event)) {
                 // 重要代码： 滚动文件
-                rollover();
+                if (nonBlockingRollover) {
+                    awaitPendingRollover();
+                    rolloverBySwapping();
+                } else {
+                    rollover();
+                }
             }
         }
         // 核心代码: 执行父类代码进行日志输出
         super.subAppend(event);
     }
 
+    public boolean isNonBlockingRollover() {
+        return nonBlockingRollover;
+    }
+
+    /**
+     * When set, time based rollovers no longer stall logging threads while
+     * the previous file is closed and archived. The next period's file is
+     * opened shortly before the period begins and output is switched to it
+     * at the boundary, the rest of the rollover being carried out in the
+     * background. Requires a {@link TimeBasedRollingPolicy} and an empty
+     * <b>File</b> property, so that each period writes to a file of its own.
+     * Default is false.
+     *
+     * @since 1.2.14
+     */
+    public void setNonBlockingRollover(boolean nonBlockingRollover) {
+        this.nonBlockingRollover = nonBlockingRollover;
+    }
+
     public RollingPolicy getRollingPolicy() {
         return rollingPolicy;
     }
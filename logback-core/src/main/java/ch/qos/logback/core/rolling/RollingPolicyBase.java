@@ -14,6 +14,7 @@
 package ch.qos.logback.core.rolling;
 
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.metrics.AppenderMetrics;
 import ch.qos.logback.core.rolling.helper.CompressionMode;
 import ch.qos.logback.core.rolling.helper.FileNamePattern;
 import ch.qos.logback.core.spi.ContextAwareBase;
@@ -93,4 +94,11 @@ public abstract class RollingPolicyBase extends ContextAwareBase implements Roll
     public String getParentsRawFileProperty() {
         return parent.rawFileProperty();
     }
+
+    /**
+     * @return the metrics of the parent appender, null if metrics are disabled
+     */
+    protected AppenderMetrics getParentsMetrics() {
+        return parent == null ? null : parent.getMetrics();
+    }
 }
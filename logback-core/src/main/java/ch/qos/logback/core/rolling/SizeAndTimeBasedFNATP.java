@@ -176,6 +176,12 @@ public class SizeAndTimeBasedFNATP<E> extends TimeBasedFileNamingAndTriggeringPo
         return tbrp.fileNamePatternWithoutCompSuffix.convertMultipleArguments(dateInCurrentPeriod, currentPeriodsCounter);
     }
 
+    @Override
+    public String getNextPeriodsFileNameWithoutCompressionSuffix() {
+        // the counter starts over with each period
+        return tbrp.fileNamePatternWithoutCompSuffix.convertMultipleArguments(new Date(nextCheck), 0);
+    }
+
     public void setMaxFileSize(FileSize aMaxFileSize) {
         this.maxFileSize = aMaxFileSize;
     }
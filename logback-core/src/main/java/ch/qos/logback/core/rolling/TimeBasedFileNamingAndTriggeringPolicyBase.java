@@ -104,6 +104,22 @@ abstract public class TimeBasedFileNamingAndTriggeringPolicyBase<E> extends Cont
         return tbrp.fileNamePatternWithoutCompSuffix.convert(dateInCurrentPeriod);
     }
 
+    /**
+     * Returns the time at which the current period ends.
+     */
+    public long getNextCheck() {
+        return nextCheck;
+    }
+
+    /**
+     * Returns the name the active file will have once the current period has
+     * elapsed, i.e. what {@link #getCurrentPeriodsFileNameWithoutCompressionSuffix()}
+     * will return after the next time based rollover.
+     */
+    public String getNextPeriodsFileNameWithoutCompressionSuffix() {
+        return tbrp.fileNamePatternWithoutCompSuffix.convert(new Date(nextCheck));
+    }
+
     public void setCurrentTime(long timeInMillis) {
         artificialCurrentTime = timeInMillis;
     }
@@ -17,8 +17,12 @@ import static ch.qos.logback.core.CoreConstants.UNBOUND_HISTORY;
 import static ch.qos.logback.core.CoreConstants.UNBOUNDED_TOTAL_SIZE_CAP;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -30,6 +34,7 @@ import ch.qos.logback.core.rolling.helper.FileFilterUtil;
 import ch.qos.logback.core.rolling.helper.FileNamePattern;
 import ch.qos.logback.core.rolling.helper.RenameUtil;
 import ch.qos.logback.core.util.FileSize;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * <code>TimeBasedRollingPolicy</code> is both easy to configure and quite
@@ -49,8 +54,9 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
     // 压缩器
     private Compressor compressor;
     private RenameUtil renameUtil = new RenameUtil();
-    Future<?> compressionFuture;
-    Future<?> cleanUpFuture;
+    volatile Future<?> compressionFuture;
+    // set from the compression thread once the archive is in place
+    volatile Future<?> cleanUpFuture;
     // 最大保留的文件数量
     private int maxHistory = UNBOUND_HISTORY;
     // 最大文件大小限制
@@ -161,47 +167,167 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
     }
 
     public void rollover() throws RolloverFailure {
+        // 出需要滚动文件的替换文件名, 在前面isTriggeringEvent方法已经得到该名字了  ./logs//info/info.2023-11-13 09:25.log
+        String elapsedPeriodsFileName = timeBasedFileNamingAndTriggeringPolicy.getElapsedPeriodsFileName();
+        rollover(elapsedPeriodsFileName, new Date(timeBasedFileNamingAndTriggeringPolicy.getCurrentTime()));
+    }
+
+    /**
+     * Archives the file of an elapsed period. The name of the file and the
+     * time of the rollover are read from the triggering policy by the caller,
+     * so that this method may run after the policy has moved on to a later
+     * period.
+     */
+    void rollover(String elapsedPeriodsFileName, Date now) throws RolloverFailure {
 
         // when rollover is called the elapsed period's file has
         // been already closed. This is a working assumption of this method.
-        // 出需要滚动文件的替换文件名, 在前面isTriggeringEvent方法已经得到该名字了  ./logs//info/info.2023-11-13 09:25.log
-        String elapsedPeriodsFileName = timeBasedFileNamingAndTriggeringPolicy.getElapsedPeriodsFileName();
         // 获取elapsedPeriodsFileName中最后"/"后的文件名
         String elapsedPeriodStem = FileFilterUtil.afterLastSlash(elapsedPeriodsFileName);
+        ArchivingRunnable archiving = null;
         // 配置的滚动文件名没有gz. zip后缀, 则不需要压缩
         if (compressionMode == CompressionMode.NONE) {
             // // getParentsRawFileProperty()获取的是<file>标签体内的文件名 ./logs//info/info.log
             if (getParentsRawFileProperty() != null) {
                 //  直接修改文件名. 注意: 系统禁止的文件名符号重命名会失败, 例如window系统下":"
-                renameUtil.rename(getParentsRawFileProperty(), elapsedPeriodsFileName);
+                //  跨卷时只在锁内改为同卷的临时文件名, 复制留给异步任务完成
+                String staged = renameUtil.renameOrStage(getParentsRawFileProperty(), elapsedPeriodsFileName);
+                if (staged != null) {
+                    archiving = new ArchivingRunnable(staged, elapsedPeriodsFileName, null, now);
+                }
             } // else { nothing to do if CompressionMode == NONE and parentsRawFileProperty == null }
         } else {
+            compressor.setMetrics(getParentsMetrics());
             if (getParentsRawFileProperty() == null) {
                 // 使用压缩器进行文件压缩. 不展开
                 //    这里使用日志上下文中的线程池异步进行文件压缩
                 //    gz包使用java的GZIPOutputStream压缩, zip包使用java的ZipOutputStream压缩
-                compressionFuture = compressor.asyncCompress(elapsedPeriodsFileName, elapsedPeriodsFileName, elapsedPeriodStem);
+                archiving = new ArchivingRunnable(elapsedPeriodsFileName, elapsedPeriodsFileName, elapsedPeriodStem, now);
             } else {
-                // 先将滚动文件改为临时文件名, 再进行压缩(执行compressor.asyncCompress), 不展开
-                compressionFuture = renameRawAndAsyncCompress(elapsedPeriodsFileName, elapsedPeriodStem);
+                // 先将滚动文件改为同目录下的临时文件名, 再异步进行压缩, 压缩本身即完成跨卷传输
+                archiving = renameRawForAsyncCompression(elapsedPeriodsFileName, elapsedPeriodStem, now);
             }
         }
 
-        if (archiveRemover != null) {
+        if (archiving != null) {
+            // 传输/压缩完成后由该任务提交归档清理
+            ExecutorService executorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.COMPRESSION_EXECUTOR_NAME);
+            compressionFuture = executorService.submit(archiving);
+        } else if (archiveRemover != null) {
             // 使用归档删除器将过期的文件删除掉, future用于appender销毁时阻塞线程. 不展开
             //   这里会使用日志上下文中的线程池异步进行文件删除.
             //   删除过程会调用clean方法删除超出时间范围内的文件(文件保留数为maxHistory+1),
             //   capTotalCap会删除超过总文件大小的旧文件(需配置maxHistory和totalSizeCap才有效)
-            Date now = new Date(timeBasedFileNamingAndTriggeringPolicy.getCurrentTime());
             this.cleanUpFuture = archiveRemover.cleanAsynchronously(now);
         }
     }
 
-    Future<?> renameRawAndAsyncCompress(String nameOfCompressedFile, String innerEntryName) throws RolloverFailure {
+    ArchivingRunnable renameRawForAsyncCompression(String nameOfCompressedFile, String innerEntryName, Date now) throws RolloverFailure {
         String parentsRawFile = getParentsRawFileProperty();
-        String tmpTarget = nameOfCompressedFile + System.nanoTime() + ".tmp";
+        String tmpTarget = RenameUtil.stagingNameFor(parentsRawFile);
         renameUtil.rename(parentsRawFile, tmpTarget);
-        return compressor.asyncCompress(tmpTarget, nameOfCompressedFile, innerEntryName);
+        return new ArchivingRunnable(tmpTarget, nameOfCompressedFile, innerEntryName, now);
+    }
+
+    /**
+     * Completes a rollover outside of the appender's lock: the file left behind
+     * by {@link #rollover()} is compressed into, or else copied to, its archive
+     * name. Archive removal is only scheduled once the archive exists, so that
+     * it never races against the file it is supposed to account for.
+     */
+    class ArchivingRunnable implements Runnable {
+        final String source;
+        final String target;
+        final String innerEntryName;
+        final Date now;
+
+        ArchivingRunnable(String source, String target, String innerEntryName, Date now) {
+            this.source = source;
+            this.target = target;
+            this.innerEntryName = innerEntryName;
+            this.now = now;
+        }
+
+        public void run() {
+            try {
+                archive();
+            } finally {
+                if (archiveRemover != null) {
+                    try {
+                        cleanUpFuture = archiveRemover.cleanAsynchronously(now);
+                    } catch (RejectedExecutionException e) {
+                        addWarn("Could not schedule archive removal", e);
+                    }
+                }
+            }
+        }
+
+        void archive() {
+            try {
+                if (compressionMode == CompressionMode.NONE) {
+                    renameUtil.renameByCopying(source, target);
+                } else {
+                    compressor.compress(source, target, innerEntryName);
+                }
+            } catch (RolloverFailure rf) {
+                addError("Failed to archive [" + source + "] as [" + target + "]", rf);
+            }
+        }
+    }
+
+    /**
+     * Archives the files staged by rollovers whose {@link ArchivingRunnable}
+     * never ran, typically because the JVM exited first. The archive name is
+     * derived from the last modification time of the staged file, which
+     * falls within the elapsed period. Invoked by the parent appender on
+     * start, once its file property is known.
+     */
+    void archiveStagedFiles() {
+        String parentsRawFile = getParentsRawFileProperty();
+        if (!isStarted() || parentsRawFile == null) {
+            return;
+        }
+        File[] stagedFiles = RenameUtil.findStagedFiles(parentsRawFile);
+        if (stagedFiles.length == 0) {
+            return;
+        }
+        final List<ArchivingRunnable> leftovers = new ArrayList<ArchivingRunnable>();
+        for (File staged : stagedFiles) {
+            Date periodDate = new Date(staged.lastModified());
+            String target;
+            String nameWithoutCompSuffix;
+            if (fileNamePattern.hasIntegerTokenCOnverter()) {
+                // the index of the interrupted rollover is unknown, take the next free one
+                int index = 0;
+                do {
+                    target = fileNamePattern.convertMultipleArguments(periodDate, index);
+                    nameWithoutCompSuffix = fileNamePatternWithoutCompSuffix.convertMultipleArguments(periodDate, index);
+                    index++;
+                } while (new File(target).exists() || new File(nameWithoutCompSuffix).exists());
+            } else {
+                target = fileNamePattern.convert(periodDate);
+                nameWithoutCompSuffix = fileNamePatternWithoutCompSuffix.convert(periodDate);
+                // only an interrupted archiving job can have produced it
+                File partial = new File(target);
+                if (partial.exists() && !partial.delete()) {
+                    addWarn("Could not delete the incomplete archive [" + target + "], leaving [" + staged + "] in place");
+                    continue;
+                }
+            }
+            addInfo("Found [" + staged + "] left behind by an earlier rollover, archiving it as [" + target + "]");
+            leftovers.add(new ArchivingRunnable(staged.getPath(), target, FileFilterUtil.afterLastSlash(nameWithoutCompSuffix), null));
+        }
+        if (leftovers.isEmpty()) {
+            return;
+        }
+        ExecutorService executorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.COMPRESSION_EXECUTOR_NAME);
+        compressionFuture = executorService.submit(new Runnable() {
+            public void run() {
+                for (ArchivingRunnable leftover : leftovers) {
+                    leftover.archive();
+                }
+            }
+        });
     }
 
     /**
@@ -233,6 +359,30 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
         }
     }
 
+    /**
+     * Returns the name of the active file for the period following the
+     * current one, or null if it cannot be known in advance, in particular
+     * when the active file name is fixed by the parent's <b>File</b> property.
+     */
+    String getNextPeriodsActiveFileName() {
+        if (getParentsRawFileProperty() != null || !(timeBasedFileNamingAndTriggeringPolicy instanceof TimeBasedFileNamingAndTriggeringPolicyBase)) {
+            return null;
+        }
+        return ((TimeBasedFileNamingAndTriggeringPolicyBase<E>) timeBasedFileNamingAndTriggeringPolicy).getNextPeriodsFileNameWithoutCompressionSuffix();
+    }
+
+    /**
+     * Returns the number of milliseconds left in the current period, or -1 if
+     * unknown.
+     */
+    long getMillisUntilNextPeriod() {
+        if (!(timeBasedFileNamingAndTriggeringPolicy instanceof TimeBasedFileNamingAndTriggeringPolicyBase)) {
+            return -1;
+        }
+        long nextCheck = ((TimeBasedFileNamingAndTriggeringPolicyBase<E>) timeBasedFileNamingAndTriggeringPolicy).getNextCheck();
+        return nextCheck - timeBasedFileNamingAndTriggeringPolicy.getCurrentTime();
+    }
+
     public boolean isTriggeringEvent(File activeFile, final E event) {
         // 调用DefaultTimeBasedFileNamingAndTriggeringPolicy的isTriggeringEvent(File, E)方法
         return timeBasedFileNamingAndTriggeringPolicy.isTriggeringEvent(activeFile, event);
@@ -24,11 +24,14 @@ import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.metrics.AppenderMetrics;
 import ch.qos.logback.core.rolling.RolloverFailure;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.status.ErrorStatus;
 import ch.qos.logback.core.status.WarnStatus;
 import ch.qos.logback.core.util.FileUtil;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * The <code>Compression</code> class implements ZIP and GZ file
@@ -42,10 +45,20 @@ public class Compressor extends ContextAwareBase {
 
     static final int BUFFER_SIZE = 8192;
 
+    private volatile AppenderMetrics metrics;
+
     public Compressor(CompressionMode compressionMode) {
         this.compressionMode = compressionMode;
     }
 
+    /**
+     * Metrics of the owning appender, compression durations are recorded there.
+     * May be null, in which case no timing takes place.
+     */
+    public void setMetrics(AppenderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * @param nameOfFile2Compress
      * @param nameOfCompressedFile
@@ -53,6 +66,8 @@ public class Compressor extends ContextAwareBase {
      *            The name of the file within the zip file. Use for ZIP compression.
      */
     public void compress(String nameOfFile2Compress, String nameOfCompressedFile, String innerEntryName) {
+        AppenderMetrics m = metrics;
+        long start = m != null ? System.nanoTime() : 0L;
         switch (compressionMode) {
         case GZ:
             gzCompress(nameOfFile2Compress, nameOfCompressedFile);
@@ -63,6 +78,9 @@ public class Compressor extends ContextAwareBase {
         case NONE:
             throw new UnsupportedOperationException("compress method called in NONE compression mode");
         }
+        if (m != null) {
+            m.recordCompression(System.nanoTime() - start);
+        }
     }
 
     private void zipCompress(String nameOfFile2zip, String nameOfZippedFile, String innerEntryName) {
@@ -260,7 +278,7 @@ public class Compressor extends ContextAwareBase {
     
     public Future<?> asyncCompress(String nameOfFile2Compress, String nameOfCompressedFile, String innerEntryName) throws RolloverFailure {
         CompressionRunnable runnable = new CompressionRunnable(nameOfFile2Compress, nameOfCompressedFile, innerEntryName);
-        ExecutorService executorService = context.getScheduledExecutorService();
+        ExecutorService executorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.COMPRESSION_EXECUTOR_NAME);
         Future<?> future = executorService.submit(runnable);
         return future;
     }
@@ -19,7 +19,6 @@ import java.util.TimeZone;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.pattern.DynamicConverter;
-import ch.qos.logback.core.util.CachingDateFormatter;
 import ch.qos.logback.core.util.DatePatternToRegexUtil;
 
 /**
@@ -38,7 +37,7 @@ public class DateTokenConverter<E> extends DynamicConverter<E> implements MonoTy
 
     private String datePattern;
     private TimeZone timeZone;
-    private CachingDateFormatter cdf;
+    private PeriodFormatCache formatCache;
     // is this token converter primary or auxiliary? Only the primary converter
     // determines the rolling period
     private boolean primary = true;
@@ -61,14 +60,11 @@ public class DateTokenConverter<E> extends DynamicConverter<E> implements MonoTy
             }
         }
 
-        cdf = new CachingDateFormatter(datePattern);
-        if (timeZone != null) {
-            cdf.setTimeZone(timeZone);
-        }
+        formatCache = new PeriodFormatCache(datePattern, timeZone);
     }
 
     public String convert(Date date) {
-        return cdf.format(date.getTime());
+        return formatCache.format(date.getTime());
     }
 
     public String convert(Object o) {
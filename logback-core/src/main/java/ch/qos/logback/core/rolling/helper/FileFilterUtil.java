@@ -79,17 +79,20 @@ public class FileFilterUtil {
         if (!file.exists() || !file.isDirectory()) {
             return new File[0];
         }
+        // compiled once for the whole folder
+        final Pattern p = Pattern.compile(stemRegex);
         return file.listFiles(new FilenameFilter() {
             public boolean accept(File dir, String name) {
-                return name.matches(stemRegex);
+                return p.matcher(name).matches();
             }
         });
     }
 
     static public int findHighestCounter(File[] matchingFileArray, final String stemRegex) {
+        Pattern p = Pattern.compile(stemRegex);
         int max = Integer.MIN_VALUE;
         for (File aFile : matchingFileArray) {
-            int aCounter = FileFilterUtil.extractCounter(aFile, stemRegex);
+            int aCounter = FileFilterUtil.extractCounter(aFile, p);
             if (max < aCounter)
                 max = aCounter;
         }
@@ -97,12 +100,15 @@ public class FileFilterUtil {
     }
 
     static public int extractCounter(File file, final String stemRegex) {
-        Pattern p = Pattern.compile(stemRegex);
+        return extractCounter(file, Pattern.compile(stemRegex));
+    }
+
+    static int extractCounter(File file, Pattern p) {
         String lastFileName = file.getName();
 
         Matcher m = p.matcher(lastFileName);
         if (!m.matches()) {
-            throw new IllegalStateException("The regex [" + stemRegex + "] should match [" + lastFileName + "]");
+            throw new IllegalStateException("The regex [" + p.pattern() + "] should match [" + lastFileName + "]");
         }
         String counterAsStr = m.group(1);
         return new Integer(counterAsStr).intValue();
@@ -45,6 +45,8 @@ public class FileNamePattern extends ContextAwareBase {
 
     String pattern;
     Converter<Object> headTokenConverter;
+    // see toRegex(), computed once
+    private volatile String regex;
 
     public FileNamePattern(String patternArg, Context contextArg) {
         // the pattern is slashified
@@ -212,6 +214,15 @@ public class FileNamePattern extends ContextAwareBase {
      * Given date, convert this instance to a regular expression
      */
     public String toRegex() {
+        String result = regex;
+        if (result == null) {
+            result = computeRegex();
+            regex = result;
+        }
+        return result;
+    }
+
+    private String computeRegex() {
         StringBuilder buf = new StringBuilder();
         Converter<Object> p = headTokenConverter;
         while (p != null) {
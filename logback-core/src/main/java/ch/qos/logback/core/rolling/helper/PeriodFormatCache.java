@@ -0,0 +1,106 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.rolling.helper;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Formats dates according to a date pattern and remembers, for the last few
+ * periods formatted, the time range over which the result does not change.
+ * Periods are those of a {@link RollingCalendar} for the same pattern, i.e.
+ * the ones file names are rolled over on.
+ *
+ * <p>File names for a handful of periods are requested over and over again,
+ * e.g. on rollover and during archive removal. Once computed, such a name is
+ * returned without locking nor formatting. This class is thread safe.
+ *
+ * @since 1.2.14
+ */
+final class PeriodFormatCache {
+
+    static final int SIZE = 8;
+
+    // guarded by this
+    private final SimpleDateFormat sdf;
+    // null if periods cannot be told from the pattern
+    private final RollingCalendar rc;
+    private final AtomicReferenceArray<FormattedPeriod> periods = new AtomicReferenceArray<FormattedPeriod>(SIZE);
+    // guarded by this
+    private int nextSlot;
+
+    PeriodFormatCache(String datePattern, TimeZone timeZone) {
+        sdf = new SimpleDateFormat(datePattern);
+        TimeZone tz = timeZone != null ? timeZone : TimeZone.getDefault();
+        sdf.setTimeZone(tz);
+        RollingCalendar calendar = new RollingCalendar(datePattern, tz, Locale.getDefault());
+        rc = isCacheable(calendar.getPeriodicityType()) ? calendar : null;
+    }
+
+    private static boolean isCacheable(PeriodicityType periodicityType) {
+        switch (periodicityType) {
+        case TOP_OF_SECOND:
+        case TOP_OF_MINUTE:
+        case TOP_OF_HOUR:
+        case TOP_OF_DAY:
+        case TOP_OF_WEEK:
+        case TOP_OF_MONTH:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    String format(long time) {
+        for (int i = 0; i < SIZE; i++) {
+            FormattedPeriod period = periods.get(i);
+            if (period != null && period.start <= time && time < period.end) {
+                return period.text;
+            }
+        }
+        return formatAndRemember(time);
+    }
+
+    private synchronized String formatAndRemember(long time) {
+        String text = sdf.format(new Date(time));
+        if (rc == null) {
+            return text;
+        }
+        Date date = new Date(time);
+        long start = rc.getEndOfNextNthPeriod(date, 0).getTime();
+        long end = rc.getEndOfNextNthPeriod(date, 1).getTime();
+        // the periodicity is derived from the pattern, make sure that the
+        // result indeed holds over the whole period, e.g. not so with "dd a"
+        if (start <= time && time < end && text.equals(sdf.format(new Date(start))) && text.equals(sdf.format(new Date(end - 1)))) {
+            periods.set(nextSlot, new FormattedPeriod(start, end, text));
+            nextSlot = (nextSlot + 1) % SIZE;
+        }
+        return text;
+    }
+
+    static final class FormattedPeriod {
+        final long start;
+        final long end;
+        final String text;
+
+        FormattedPeriod(long start, long end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+}
@@ -14,6 +14,10 @@
 package ch.qos.logback.core.rolling.helper;
 
 import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Pattern;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.rolling.RollingFileAppender;
@@ -72,8 +76,90 @@ public class RenameUtil extends ContextAwareBase {
         }
     }
 
-    
-    
+    /**
+     * Like {@link #rename(String, String)} except that a cross-volume move is
+     * not carried out by the caller's thread. In that case <code>src</code> is
+     * renamed to a staging name next to itself, i.e. on the same volume, and
+     * the staging name is returned. It is then up to the caller to complete the
+     * move, typically asynchronously, by invoking
+     * {@link #renameByCopying(String, String)}.
+     *
+     * @param src
+     * @param target
+     * @return the name of the staged file, or null if no further work is required
+     * @throws RolloverFailure
+     */
+    public String renameOrStage(String src, String target) throws RolloverFailure {
+        if (src.equals(target)) {
+            addWarn("Source and target files are the same [" + src + "]. Skipping.");
+            return null;
+        }
+        File srcFile = new File(src);
+        if (!srcFile.exists()) {
+            throw new RolloverFailure("File [" + src + "] does not exist.");
+        }
+
+        File targetFile = new File(target);
+        createMissingTargetDirsIfNecessary(targetFile);
+
+        addInfo("Renaming file [" + srcFile + "] to [" + targetFile + "]");
+        if (srcFile.renameTo(targetFile)) {
+            return null;
+        }
+
+        addWarn("Failed to rename file [" + srcFile + "] as [" + targetFile + "].");
+        Boolean areOnDifferentVolumes = areOnDifferentVolumes(srcFile, targetFile);
+        if (!Boolean.TRUE.equals(areOnDifferentVolumes)) {
+            addWarn("Please consider leaving the [file] option of " + RollingFileAppender.class.getSimpleName() + " empty.");
+            addWarn("See also " + RENAMING_ERROR_URL);
+            return null;
+        }
+
+        String staged = stagingNameFor(src);
+        addWarn("Detected different file systems for source [" + src + "] and target [" + target + "]. Staging as [" + staged + "] before copying.");
+        if (srcFile.renameTo(new File(staged))) {
+            return staged;
+        }
+        addWarn("Failed to stage [" + src + "]. Renaming by copying in place.");
+        renameByCopying(src, target);
+        return null;
+    }
+
+    /**
+     * Returns a fresh temporary name located in the same directory as
+     * <code>src</code>, hence on the same volume.
+     */
+    public static String stagingNameFor(String src) {
+        return src + "." + System.nanoTime() + ".tmp";
+    }
+
+    /**
+     * Returns the files still carrying a name handed out by
+     * {@link #stagingNameFor(String)}, e.g. because the JVM exited before
+     * they were moved to their archive name, oldest first.
+     */
+    public static File[] findStagedFiles(String src) {
+        File srcFile = new File(src).getAbsoluteFile();
+        File dir = srcFile.getParentFile();
+        final Pattern stagingPattern = Pattern.compile(Pattern.quote(srcFile.getName()) + "\\.\\d+\\.tmp");
+        File[] staged = dir == null ? null : dir.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return stagingPattern.matcher(name).matches();
+            }
+        });
+        if (staged == null) {
+            return new File[0];
+        }
+        Arrays.sort(staged, new Comparator<File>() {
+            public int compare(File f1, File f2) {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        return staged;
+    }
+
     /**
      * Attempts to determine whether both files are on different volumes. Returns true if we could determine that
      * the files are on different volumes. Returns false otherwise or if an error occurred while doing the check.
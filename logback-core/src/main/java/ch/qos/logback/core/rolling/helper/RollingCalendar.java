@@ -46,6 +46,12 @@ public class RollingCalendar extends GregorianCalendar {
     PeriodicityType periodicityType = PeriodicityType.ERRONEOUS;
     String datePattern;
 
+    // boundaries around the most recently requested period, see getEndOfNextNthPeriod()
+    transient volatile PeriodBoundaries cachedBoundaries;
+
+    // larger windows are not worth keeping
+    static final int MAX_CACHED_PERIODS = 1024;
+
     public RollingCalendar(String datePattern) {
         super();
         this.datePattern = datePattern;
@@ -282,8 +288,113 @@ public class RollingCalendar extends GregorianCalendar {
         return cal.getTime();
     }
 
+    /**
+     * Returns the start of the <code>periods</code>-th period following the one
+     * <code>now</code> falls in, the current period's start for 0.
+     *
+     * <p>Except for millisecond periodicity, the answer depends only on the
+     * period of <code>now</code>. Boundaries are thus computed once for the
+     * period last asked about and returned as is until a date outside of it
+     * comes along. This method is thread safe.
+     */
     public Date getEndOfNextNthPeriod(Date now, int periods) {
-        return innerGetEndOfNextNthPeriod(this, this.periodicityType, now, periods);
+        if (periodicityType == PeriodicityType.TOP_OF_MILLISECOND || periodicityType == PeriodicityType.ERRONEOUS) {
+            synchronized (this) {
+                return innerGetEndOfNextNthPeriod(this, this.periodicityType, now, periods);
+            }
+        }
+        PeriodBoundaries boundaries = cachedBoundaries;
+        if (boundaries == null || !boundaries.covers(now.getTime(), periods)) {
+            boundaries = computeBoundaries(now, periods, boundaries);
+            if (boundaries == null) {
+                synchronized (this) {
+                    return innerGetEndOfNextNthPeriod(this, this.periodicityType, now, periods);
+                }
+            }
+            cachedBoundaries = boundaries;
+        }
+        return new Date(boundaries.endOfNextNthPeriod(periods));
+    }
+
+    private synchronized PeriodBoundaries computeBoundaries(Date now, int periods, PeriodBoundaries previous) {
+        long start = innerGetEndOfNextNthPeriod(this, periodicityType, now, 0).getTime();
+        int from = Math.min(periods, 0);
+        int to = Math.max(periods, 1);
+        if (previous == null || previous.start() != start) {
+            if ((long) to - from >= MAX_CACHED_PERIODS) {
+                return null;
+            }
+            return new PeriodBoundaries(from, computeEnds(now, from, to, null, 0));
+        }
+
+        // same period, widen the window rather than start over, keeping the
+        // boundaries already computed
+        from = Math.min(from, previous.from);
+        to = Math.max(to, previous.to());
+        if ((long) to - from >= MAX_CACHED_PERIODS) {
+            return null;
+        }
+        // callers such as TimeBasedArchiveRemover walk away from the anchor
+        // one period at a time, grow by at least the current size so that
+        // their walk costs linear time
+        int size = previous.ends.length;
+        if (from < previous.from) {
+            from = Math.max(Math.min(from, previous.from - size), to - MAX_CACHED_PERIODS + 1);
+        }
+        if (to > previous.to()) {
+            to = Math.min(Math.max(to, previous.to() + size), from + MAX_CACHED_PERIODS - 1);
+        }
+        return new PeriodBoundaries(from, computeEnds(now, from, to, previous.ends, previous.from - from));
+    }
+
+    /**
+     * Computes the ends of periods <code>from</code> to <code>to</code>,
+     * copying those already known from <code>known</code> which starts at
+     * index <code>knownOffset</code> of the result.
+     */
+    private long[] computeEnds(Date now, int from, int to, long[] known, int knownOffset) {
+        long[] ends = new long[to - from + 1];
+        int knownEnd = knownOffset;
+        if (known != null) {
+            System.arraycopy(known, 0, ends, knownOffset, known.length);
+            knownEnd = knownOffset + known.length;
+        }
+        for (int i = 0; i < ends.length; i++) {
+            if (i < knownOffset || i >= knownEnd) {
+                ends[i] = innerGetEndOfNextNthPeriod(this, periodicityType, now, from + i).getTime();
+            }
+        }
+        return ends;
+    }
+
+    /**
+     * Immutable starts of consecutive periods, <code>ends[i - from]</code>
+     * being the end of the i-th period after the anchor period.
+     */
+    static final class PeriodBoundaries {
+        final int from;
+        final long[] ends;
+
+        PeriodBoundaries(int from, long[] ends) {
+            this.from = from;
+            this.ends = ends;
+        }
+
+        long start() {
+            return ends[-from];
+        }
+
+        int to() {
+            return from + ends.length - 1;
+        }
+
+        boolean covers(long time, int periods) {
+            return start() <= time && time < ends[1 - from] && periods >= from && periods <= to();
+        }
+
+        long endOfNextNthPeriod(int periods) {
+            return ends[periods - from];
+        }
     }
 
     public Date getNextTriggeringDate(Date now) {
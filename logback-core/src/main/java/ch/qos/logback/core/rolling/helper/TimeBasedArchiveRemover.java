@@ -27,6 +27,7 @@ import ch.qos.logback.core.pattern.Converter;
 import ch.qos.logback.core.pattern.LiteralConverter;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.util.FileSize;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 public class TimeBasedArchiveRemover extends ContextAwareBase implements ArchiveRemover {
 
@@ -225,7 +226,7 @@ public class TimeBasedArchiveRemover extends ContextAwareBase implements Archive
 
     public Future<?> cleanAsynchronously(Date now) {
         ArhiveRemoverRunnable runnable = new ArhiveRemoverRunnable(now);
-        ExecutorService executorService = context.getScheduledExecutorService();
+        ExecutorService executorService = ExecutorServiceUtil.getScheduledExecutorService(context, CoreConstants.HOUSEKEEPING_EXECUTOR_NAME);
         Future<?> future = executorService.submit(runnable);
         return future;
     }
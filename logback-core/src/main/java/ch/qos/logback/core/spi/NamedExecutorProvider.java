@@ -0,0 +1,48 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.spi;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.util.ExecutorConfig;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
+
+/**
+ * Implemented by contexts which run each class of tasks, for example
+ * {@link CoreConstants#COMPRESSION_EXECUTOR_NAME}, on an executor of its own.
+ * Components should obtain their executor through
+ * {@link ExecutorServiceUtil#getScheduledExecutorService(Context, String)},
+ * which falls back to the shared executor of contexts not implementing this
+ * interface.
+ * 
+ * @since 1.2.14
+ */
+public interface NamedExecutorProvider {
+
+    /**
+     * Returns the executor dedicated to the tasks of the given class. Unless an
+     * executor was configured under this name, see
+     * {@link #addExecutorConfig(ExecutorConfig)}, the shared executor returned
+     * by {@link Context#getScheduledExecutorService()} is returned.
+     */
+    ScheduledExecutorService getScheduledExecutorService(String name);
+
+    /**
+     * Configures a named executor, replacing any previous configuration
+     * under the same name.
+     */
+    void addExecutorConfig(ExecutorConfig config);
+}
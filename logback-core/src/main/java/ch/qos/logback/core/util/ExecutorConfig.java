@@ -0,0 +1,96 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+/**
+ * Configuration of a named executor, as given by an
+ * <code>&lt;executor&gt;</code> element:
+ * 
+ * <pre>
+ * &lt;executor name="compression"&gt;
+ *   &lt;poolSize&gt;2&lt;/poolSize&gt;
+ *   &lt;virtualThreads&gt;false&lt;/virtualThreads&gt;
+ *   &lt;jmx&gt;true&lt;/jmx&gt;
+ * &lt;/executor&gt;
+ * </pre>
+ * 
+ * Executor elements should precede the components using them, since
+ * components look up their executor when started. Note that each socket
+ * appender, receiver or server occupies a thread of the <code>network</code>
+ * executor for as long as it runs, its pool size should thus be at least the
+ * number of such components.
+ * 
+ * @see ExecutorRegistry
+ * @since 1.2.14
+ */
+public class ExecutorConfig {
+
+    public static final int DEFAULT_POOL_SIZE = 1;
+
+    String name;
+    int poolSize = DEFAULT_POOL_SIZE;
+    boolean virtualThreads = false;
+    boolean jmx = false;
+
+    public ExecutorConfig() {
+    }
+
+    public ExecutorConfig(String name, int poolSize) {
+        this.name = name;
+        this.poolSize = poolSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Run tasks on virtual threads, if the JVM supports them.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isJmx() {
+        return jmx;
+    }
+
+    /**
+     * Register the executor's metrics with the platform MBean server.
+     */
+    public void setJmx(boolean jmx) {
+        this.jmx = jmx;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorConfig[name=" + name + ", poolSize=" + poolSize + ", virtualThreads=" + virtualThreads + ", jmx=" + jmx + "]";
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.spi.NamedExecutorProvider;
+
+/**
+ * Holds the named executors of a context, see {@link NamedExecutorProvider}.
+ * Executors are created lazily from the {@link ExecutorConfig} registered
+ * under their name. Names
+ * without configuration are not known to the registry, the context then
+ * falls back on its shared executor.
+ * 
+ * @since 1.2.14
+ */
+public class ExecutorRegistry extends ContextAwareBase {
+
+    private final Map<String, ExecutorConfig> configMap = new HashMap<String, ExecutorConfig>();
+    private final Map<String, InstrumentedScheduledExecutor> executorMap = new HashMap<String, InstrumentedScheduledExecutor>();
+    private final Map<String, ObjectName> objectNameMap = new HashMap<String, ObjectName>();
+
+    public ExecutorRegistry(Context context) {
+        setContext(context);
+    }
+
+    /**
+     * Registers the configuration of a named executor. An executor already
+     * created under the same name is shut down, letting its queued tasks
+     * complete, and replaced upon next use.
+     */
+    public synchronized void addExecutorConfig(ExecutorConfig config) {
+        if (config.getName() == null) {
+            addError("Executor configuration without a name");
+            return;
+        }
+        if (config.getPoolSize() < 1) {
+            addError("Invalid pool size [" + config.getPoolSize() + "] for executor [" + config.getName() + "]");
+            return;
+        }
+        configMap.put(config.getName(), config);
+        InstrumentedScheduledExecutor previous = executorMap.remove(config.getName());
+        if (previous != null) {
+            unregister(config.getName());
+            previous.shutdown();
+        }
+        addInfo("Registered executor " + config);
+    }
+
+    /**
+     * Returns the executor configured under <code>name</code>, or null if
+     * there is no such configuration.
+     */
+    public synchronized ScheduledExecutorService getExecutor(String name) {
+        InstrumentedScheduledExecutor executor = executorMap.get(name);
+        if (executor != null) {
+            return executor;
+        }
+        ExecutorConfig config = configMap.get(name);
+        if (config == null) {
+            return null;
+        }
+        LogbackThreadFactory threadFactory = new LogbackThreadFactory("logback-" + name + "-", config.isVirtualThreads());
+        if (config.isVirtualThreads() && !threadFactory.isVirtual()) {
+            addWarn("Virtual threads are not available, executor [" + name + "] uses platform threads");
+        }
+        executor = new InstrumentedScheduledExecutor(name, config.getPoolSize(), threadFactory);
+        executorMap.put(name, executor);
+        if (config.isJmx()) {
+            register(executor);
+        }
+        return executor;
+    }
+
+    private void register(InstrumentedScheduledExecutor executor) {
+        try {
+            ObjectName objectName = new ObjectName("ch.qos.logback.core:Type=Executor,Context=" + context.getName() + ",Name=" + executor.getName());
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            if (mbs.isRegistered(objectName)) {
+                mbs.unregisterMBean(objectName);
+            }
+            mbs.registerMBean(executor, objectName);
+            objectNameMap.put(executor.getName(), objectName);
+        } catch (Exception e) {
+            addError("Failed to register executor [" + executor.getName() + "] with JMX", e);
+        }
+    }
+
+    private void unregister(String name) {
+        ObjectName objectName = objectNameMap.remove(name);
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            if (mbs.isRegistered(objectName)) {
+                mbs.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            addError("Failed to unregister executor [" + name + "] from JMX", e);
+        }
+    }
+
+    /**
+     * Shuts down all executors. Configurations are kept, so executors are
+     * created again upon use.
+     */
+    public synchronized void stop() {
+        for (Map.Entry<String, InstrumentedScheduledExecutor> entry : executorMap.entrySet()) {
+            unregister(entry.getKey());
+            ExecutorServiceUtil.shutdown(entry.getValue());
+        }
+        executorMap.clear();
+    }
+
+    /**
+     * Forgets all configurations and shuts down the executors created from
+     * them, letting their queued tasks complete. Subsequent lookups fall back
+     * to the shared executor of the context.
+     */
+    public synchronized void reset() {
+        configMap.clear();
+        for (Map.Entry<String, InstrumentedScheduledExecutor> entry : executorMap.entrySet()) {
+            unregister(entry.getKey());
+            entry.getValue().shutdown();
+        }
+        executorMap.clear();
+    }
+}
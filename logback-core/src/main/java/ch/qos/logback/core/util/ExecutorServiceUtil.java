@@ -14,16 +14,15 @@
 package ch.qos.logback.core.util;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
+import ch.qos.logback.core.Context;
 import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.spi.NamedExecutorProvider;
 
 /**
  * Static utility methods for manipulating an {@link ExecutorService}.
@@ -33,23 +32,10 @@ import ch.qos.logback.core.CoreConstants;
  */
 public class ExecutorServiceUtil {
 
-    private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
-
-        private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-
-        public Thread newThread(Runnable r) {
-            Thread thread = defaultFactory.newThread(r);
-            if (!thread.isDaemon()) {
-                thread.setDaemon(true);
-            }
-            thread.setName("logback-" + threadNumber.getAndIncrement());
-            return thread;
-        }
-    };
+    private static final ThreadFactory THREAD_FACTORY = new LogbackThreadFactory("logback-");
 
     static public ScheduledExecutorService newScheduledExecutorService() {
-        return new ScheduledThreadPoolExecutor(CoreConstants.SCHEDULED_EXECUTOR_POOL_SIZE, THREAD_FACTORY);
+        return new InstrumentedScheduledExecutor("default", CoreConstants.SCHEDULED_EXECUTOR_POOL_SIZE, THREAD_FACTORY);
     }
 
 
@@ -62,6 +48,21 @@ public class ExecutorServiceUtil {
                         THREAD_FACTORY);
     }
 
+    /**
+     * Returns the executor of <code>context</code> dedicated to the given class
+     * of tasks, or its shared executor if the context does not support named
+     * executors.
+     * 
+     * @see NamedExecutorProvider
+     * @since 1.2.14
+     */
+    static public ScheduledExecutorService getScheduledExecutorService(Context context, String name) {
+        if (context instanceof NamedExecutorProvider) {
+            return ((NamedExecutorProvider) context).getScheduledExecutorService(name);
+        }
+        return context.getScheduledExecutorService();
+    }
+
     /**
      * Shuts down an executor service.
      * <p>
@@ -21,6 +21,7 @@ import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
 
 public class FileUtil extends ContextAwareBase {
 
@@ -92,40 +93,50 @@ public class FileUtil extends ContextAwareBase {
         return null;
     }
 
-    static final int BUF_SIZE = 32 * 1024;
-
+    /**
+     * Copies <code>src</code> to <code>destination</code>. The bytes are moved
+     * by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     * so that, where the platform supports it, they never transit through the
+     * Java heap.
+     */
     public void copy(String src, String destination) throws RolloverFailure {
-        BufferedInputStream bis = null;
-        BufferedOutputStream bos = null;
+        FileInputStream fis = null;
+        FileOutputStream fos = null;
         try {
-            bis = new BufferedInputStream(new FileInputStream(src));
-            bos = new BufferedOutputStream(new FileOutputStream(destination));
-            byte[] inbuf = new byte[BUF_SIZE];
-            int n;
-
-            while ((n = bis.read(inbuf)) != -1) {
-                bos.write(inbuf, 0, n);
+            fis = new FileInputStream(src);
+            fos = new FileOutputStream(destination);
+            FileChannel in = fis.getChannel();
+            FileChannel out = fos.getChannel();
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long n = in.transferTo(position, size - position, out);
+                if (n <= 0) {
+                    // the source shrank underneath us
+                    break;
+                }
+                position += n;
             }
 
-            bis.close();
-            bis = null;
-            bos.close();
-            bos = null;
+            fis.close();
+            fis = null;
+            fos.close();
+            fos = null;
         } catch (IOException ioe) {
             String msg = "Failed to copy [" + src + "] to [" + destination + "]";
             addError(msg, ioe);
             throw new RolloverFailure(msg);
         } finally {
-            if (bis != null) {
+            if (fis != null) {
                 try {
-                    bis.close();
+                    fis.close();
                 } catch (IOException e) {
                     // ignore
                 }
             }
-            if (bos != null) {
+            if (fos != null) {
                 try {
-                    bos.close();
+                    fos.close();
                 } catch (IOException e) {
                     // ignore
                 }
@@ -0,0 +1,126 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ScheduledThreadPoolExecutor} keeping track of its queue depth, of
+ * the latency of its tasks and of their execution time.
+ * 
+ * @since 1.2.14
+ */
+public class InstrumentedScheduledExecutor extends ScheduledThreadPoolExecutor implements InstrumentedScheduledExecutorMBean {
+
+    private final String name;
+
+    private final AtomicLong startedTaskCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong finishedTaskCount = new AtomicLong();
+    private final AtomicLong totalExecutionNanos = new AtomicLong();
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    private final ThreadLocal<long[]> startTime = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    public InstrumentedScheduledExecutor(String name, int corePoolSize, ThreadFactory threadFactory) {
+        super(corePoolSize, threadFactory);
+        this.name = name;
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof Delayed) {
+            long latency = -((Delayed) r).getDelay(TimeUnit.NANOSECONDS);
+            if (latency < 0) {
+                latency = 0;
+            }
+            startedTaskCount.incrementAndGet();
+            totalLatencyNanos.addAndGet(latency);
+            updateMax(maxLatencyNanos, latency);
+        }
+        startTime.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        long elapsed = System.nanoTime() - startTime.get()[0];
+        finishedTaskCount.incrementAndGet();
+        totalExecutionNanos.addAndGet(elapsed);
+        updateMax(maxExecutionNanos, elapsed);
+        super.afterExecute(r, t);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    private static long averageMicros(AtomicLong total, AtomicLong count) {
+        long n = count.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total.get() / n);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    public long getAverageTaskLatencyMicros() {
+        return averageMicros(totalLatencyNanos, startedTaskCount);
+    }
+
+    public long getMaxTaskLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get());
+    }
+
+    public long getAverageExecutionTimeMicros() {
+        return averageMicros(totalExecutionNanos, finishedTaskCount);
+    }
+
+    public long getMaxExecutionTimeMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxExecutionNanos.get());
+    }
+
+    public void resetMetrics() {
+        startedTaskCount.set(0);
+        totalLatencyNanos.set(0);
+        maxLatencyNanos.set(0);
+        finishedTaskCount.set(0);
+        totalExecutionNanos.set(0);
+        maxExecutionNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedScheduledExecutor[" + name + "]";
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+/**
+ * Management interface of {@link InstrumentedScheduledExecutor}. Latencies
+ * measure how late tasks start compared to the time they were due, which for
+ * tasks submitted for immediate execution is the time spent in the queue.
+ * 
+ * @since 1.2.14
+ */
+public interface InstrumentedScheduledExecutorMBean {
+
+    String getName();
+
+    int getCorePoolSize();
+
+    int getPoolSize();
+
+    int getActiveCount();
+
+    int getQueueDepth();
+
+    long getCompletedTaskCount();
+
+    long getAverageTaskLatencyMicros();
+
+    long getMaxTaskLatencyMicros();
+
+    long getAverageExecutionTimeMicros();
+
+    long getMaxExecutionTimeMicros();
+
+    void resetMetrics();
+}
@@ -0,0 +1,79 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadFactory} creating daemon threads named after a prefix, for
+ * example "logback-compression-1". When asked to create virtual threads and
+ * running on JDK 21 or later, it delegates to the factory returned by
+ * <code>Thread.ofVirtual().factory()</code>, looked up by reflection.
+ * 
+ * @since 1.2.14
+ */
+public class LogbackThreadFactory implements ThreadFactory {
+
+    private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    private final String namePrefix;
+    private final ThreadFactory virtualThreadFactory;
+
+    public LogbackThreadFactory(String namePrefix) {
+        this(namePrefix, false);
+    }
+
+    public LogbackThreadFactory(String namePrefix, boolean virtualThreads) {
+        this.namePrefix = namePrefix;
+        this.virtualThreadFactory = virtualThreads ? findVirtualThreadFactory(namePrefix) : null;
+    }
+
+    /**
+     * Returns a factory of virtual threads, or null if the running JVM does not
+     * support them.
+     */
+    static ThreadFactory findVirtualThreadFactory(String namePrefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Does this factory create virtual threads?
+     */
+    public boolean isVirtual() {
+        return virtualThreadFactory != null;
+    }
+
+    public Thread newThread(Runnable r) {
+        if (virtualThreadFactory != null) {
+            return virtualThreadFactory.newThread(r);
+        }
+        Thread thread = defaultFactory.newThread(r);
+        if (!thread.isDaemon()) {
+            thread.setDaemon(true);
+        }
+        thread.setName(namePrefix + threadNumber.getAndIncrement());
+        return thread;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.testUtil.RandomUtil;
+import ch.qos.logback.core.util.CoreTestConstants;
+
+public class GroupCommitFileAppenderTest {
+
+    Context context = new ContextBase();
+    GroupCommitFileAppender<Object> appender = new GroupCommitFileAppender<Object>();
+    int diff = RandomUtil.getPositiveInt();
+    String fileName = CoreTestConstants.OUTPUT_DIR_PREFIX + "groupCommit-" + diff + "/out.log";
+
+    @Before
+    public void setUp() {
+        appender.setContext(context);
+        appender.setName("GC");
+        appender.setEncoder(new EchoEncoder<Object>());
+        appender.setFile(fileName);
+    }
+
+    List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    @Test
+    public void eventsAreWrittenInOrder() throws IOException {
+        appender.start();
+        assertTrue(appender.isStarted());
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend("event" + i);
+        }
+        appender.stop();
+
+        List<String> lines = readLines();
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("event" + i, lines.get(i));
+        }
+        assertTrue(appender.getCommitCount() <= 1000);
+    }
+
+    @Test
+    public void concurrentProducers() throws Exception {
+        final int threadCount = 4;
+        final int eventsPerThread = 2000;
+        appender.setQueueSize(64);
+        appender.setSyncOnCommit(true);
+        appender.start();
+
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        appender.doAppend(id + "-" + i);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.stop();
+
+        List<String> lines = readLines();
+        assertEquals(threadCount * eventsPerThread, lines.size());
+        // events of each producer keep their relative order
+        int[] next = new int[threadCount];
+        for (String line : lines) {
+            int dash = line.indexOf('-');
+            int id = Integer.parseInt(line.substring(0, dash));
+            assertEquals(next[id]++, Integer.parseInt(line.substring(dash + 1)));
+        }
+    }
+
+    @Test
+    public void neverBlockCountsDroppedEvents() throws Exception {
+        final CountDownLatch committing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        appender = new GroupCommitFileAppender<Object>() {
+            @Override
+            void commit(List<ByteBuffer> batch) {
+                committing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.commit(batch);
+            }
+        };
+        setUp();
+        appender.setQueueSize(1);
+        appender.setNeverBlock(true);
+        appender.start();
+
+        appender.doAppend("a");
+        // the writer holds "a", the queue then has room for a single event
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        appender.doAppend("b");
+        appender.doAppend("c");
+        appender.doAppend("d");
+        assertEquals(2, appender.getDroppedCount());
+
+        release.countDown();
+        appender.stop();
+        assertEquals(2, readLines().size());
+    }
+
+    @Test(timeout = 10000)
+    public void producersDoNotBlockOnADeadWriter() throws Exception {
+        appender = new GroupCommitFileAppender<Object>() {
+            @Override
+            void commit(List<ByteBuffer> batch) {
+                throw new IllegalStateException("writer failure");
+            }
+        };
+        setUp();
+        appender.setQueueSize(1);
+        appender.start();
+
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend("e" + i);
+        }
+        assertTrue(appender.getDroppedCount() > 0);
+        appender.stop();
+    }
+
+    @Test
+    public void noEncoder() {
+        appender.setEncoder(null);
+        appender.start();
+        assertFalse(appender.isStarted());
+    }
+}
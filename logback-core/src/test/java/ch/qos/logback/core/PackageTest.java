@@ -19,6 +19,6 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ ContextBaseTest.class, OutputStreamAppenderTest.class, FileAppenderResilienceTest.class, FileAppenderResilience_AS_ROOT_Test.class,
-        AsyncAppenderBaseTest.class })
+        AsyncAppenderBaseTest.class, GroupCommitFileAppenderTest.class })
 public class PackageTest {
 }
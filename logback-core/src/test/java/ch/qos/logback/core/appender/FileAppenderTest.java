@@ -17,21 +17,29 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 
 import ch.qos.logback.core.status.StatusChecker;
 
 import org.junit.Test;
 
 import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ContextBase;
 import ch.qos.logback.core.FileAppender;
 import ch.qos.logback.core.encoder.DummyEncoder;
+import ch.qos.logback.core.encoder.EchoEncoder;
 import ch.qos.logback.core.encoder.NopEncoder;
 import ch.qos.logback.core.status.Status;
 import ch.qos.logback.core.status.StatusManager;
 import ch.qos.logback.core.testUtil.RandomUtil;
 import ch.qos.logback.core.util.CoreTestConstants;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
 import ch.qos.logback.core.util.StatusPrinter;
 
 public class FileAppenderTest extends AbstractAppenderTest<Object> {
@@ -154,4 +162,98 @@ public class FileAppenderTest extends AbstractAppenderTest<Object> {
         checker.assertContainsMatch(Status.ERROR, "'File' option has the same value");
 
     }
+
+    FileAppender<Object> buildPrudentAppender(String filename) {
+        FileAppender<Object> appender = new FileAppender<Object>();
+        appender.setEncoder(new EchoEncoder<Object>());
+        appender.setFile(filename);
+        appender.setName("prudent");
+        appender.setContext(context);
+        appender.setPrudent(true);
+        return appender;
+    }
+
+    int countLines(String filename) throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(filename));
+        try {
+            int count = 0;
+            while (reader.readLine() != null) {
+                count++;
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void prudentModeLocksPerEvent() throws IOException {
+        String filename = CoreTestConstants.OUTPUT_DIR_PREFIX + diff + "prudentModeLocksPerEvent.log";
+        FileAppender<Object> appender = buildPrudentAppender(filename);
+        appender.start();
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend("event" + i);
+        }
+        appender.stop();
+        assertEquals(10, countLines(filename));
+        assertEquals(10, appender.getPrudentLockCount());
+        assertEquals(10, appender.getPrudentBatchCount());
+    }
+
+    @Test
+    public void prudentModeBatching() throws IOException {
+        String filename = CoreTestConstants.OUTPUT_DIR_PREFIX + diff + "prudentModeBatching.log";
+        FileAppender<Object> appender = buildPrudentAppender(filename);
+        appender.setPrudentBatchWindow(Duration.buildByMilliseconds(60 * 1000));
+        appender.setPrudentBatchSize(new FileSize(100));
+        appender.start();
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend("event" + i);
+        }
+        appender.stop();
+        assertEquals(100, countLines(filename));
+        assertEquals(100, appender.getPrudentBatchEventTotal());
+        assertTrue(appender.getPrudentBatchCount() < 100);
+        assertEquals(appender.getPrudentBatchCount(), appender.getPrudentLockCount());
+        assertTrue(appender.getPrudentMaxBatchEventCount() > 1);
+    }
+
+    @Test
+    public void prudentModeAtomicAppend() throws IOException {
+        String filename = CoreTestConstants.OUTPUT_DIR_PREFIX + diff + "prudentModeAtomicAppend.log";
+        FileAppender<Object> appender = buildPrudentAppender(filename);
+        appender.setPrudentBatchWindow(Duration.buildByMilliseconds(10));
+        appender.setPrudentAtomicAppend(true);
+        appender.start();
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend("event" + i);
+        }
+        appender.stop();
+        assertEquals(20, countLines(filename));
+        assertEquals(0, appender.getPrudentLockCount());
+        assertEquals(20, appender.getPrudentBatchEventTotal());
+    }
+
+    @Test
+    public void prudentModeBatchingWithinContextsNotTrackingScheduledFutures() throws IOException {
+        String filename = CoreTestConstants.OUTPUT_DIR_PREFIX + diff + "prudentModeBatchingValve.log";
+        FileAppender<Object> appender = new FileAppender<Object>();
+        appender.setEncoder(new EchoEncoder<Object>());
+        appender.setFile(filename);
+        appender.setName("prudent");
+        // as LogbackValve of logback-access
+        appender.setContext(new ContextBase() {
+            @Override
+            public void addScheduledFuture(ScheduledFuture<?> scheduledFuture) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        appender.setPrudent(true);
+        appender.setPrudentBatchWindow(Duration.buildByMilliseconds(60 * 1000));
+        appender.start();
+        assertTrue(appender.isStarted());
+        appender.doAppend("event");
+        appender.stop();
+        assertEquals(1, countLines(filename));
+    }
 }
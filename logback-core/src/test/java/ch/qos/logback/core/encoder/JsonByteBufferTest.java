@@ -0,0 +1,97 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.encoder;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+public class JsonByteBufferTest {
+
+    Charset utf8 = Charset.forName("UTF-8");
+    JsonByteBuffer buffer = new JsonByteBuffer(16);
+
+    String contents() {
+        return new String(buffer.toByteArray(), utf8);
+    }
+
+    @Test
+    public void escapesQuotesBackslashesAndControlCharacters() {
+        buffer.appendString("a\"b\\c\nd\re\tf\u0001");
+        assertEquals("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001\"", contents());
+    }
+
+    @Test
+    public void encodesUtf8() {
+        String s = "\u00e9\u03b1\u20ac\ud83d\ude00";
+        buffer.appendString(s);
+        assertEquals("\"" + s + "\"", contents());
+    }
+
+    @Test
+    public void unpairedSurrogatesAreEscaped() {
+        buffer.appendString("x\ud83dy\ude00");
+        assertEquals("\"x\\ud83dy\\ude00\"", contents());
+    }
+
+    @Test
+    public void longStringsSpanningSeveralChunks() {
+        StringBuilder sb = new StringBuilder();
+        StringBuilder expected = new StringBuilder("\"");
+        for (int i = 0; i < 3 * JsonByteBuffer.ESCAPE_CHUNK_SIZE; i++) {
+            char c = (i % 3 == 0) ? '"' : (i % 3 == 1) ? '\u20ac' : 'a';
+            sb.append(c);
+            expected.append(c == '"' ? "\\\"" : String.valueOf(c));
+        }
+        // a surrogate pair straddling the chunk boundary
+        sb.insert(JsonByteBuffer.ESCAPE_CHUNK_SIZE - 1, "\ud83d\ude00");
+        expected.insert(1 + JsonByteBuffer.ESCAPE_CHUNK_SIZE - 1 + countQuotes(sb, JsonByteBuffer.ESCAPE_CHUNK_SIZE - 1), "\ud83d\ude00");
+        expected.append('"');
+        buffer.appendString(sb.toString());
+        assertEquals(expected.toString(), contents());
+    }
+
+    private int countQuotes(CharSequence cs, int end) {
+        int n = 0;
+        for (int i = 0; i < end; i++) {
+            if (cs.charAt(i) == '"') {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    public void longs() {
+        long[] values = { 0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE };
+        for (long v : values) {
+            buffer.reset();
+            buffer.appendLong(v);
+            assertEquals(Long.toString(v), contents());
+        }
+    }
+
+    @Test
+    public void fieldName() {
+        assertEquals("\"a\\\"b\":", new String(JsonByteBuffer.fieldName("a\"b"), utf8));
+    }
+
+    @Test
+    public void nullString() {
+        buffer.appendString(null);
+        assertEquals("null", contents());
+    }
+}
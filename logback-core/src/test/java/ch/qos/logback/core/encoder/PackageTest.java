@@ -17,6 +17,6 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ ByteArrayUtilTest.class})
+@Suite.SuiteClasses({ ByteArrayUtilTest.class, JsonByteBufferTest.class })
 public class PackageTest {
 }
@@ -0,0 +1,118 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.flush;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.ContextBase;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
+
+public class PeriodicFlushPolicyTest {
+
+    static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        volatile int flushCount;
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+    }
+
+    Context context = new ContextBase();
+    OutputStreamAppender<Object> appender = new OutputStreamAppender<Object>();
+    FlushCountingOutputStream os = new FlushCountingOutputStream();
+    PeriodicFlushPolicy<Object> policy = new PeriodicFlushPolicy<Object>();
+
+    @Before
+    public void setUp() {
+        appender.setContext(context);
+        appender.setEncoder(new EchoEncoder<Object>());
+        appender.setOutputStream(os);
+        policy.setContext(context);
+        appender.setFlushPolicy(policy);
+    }
+
+    @After
+    public void tearDown() {
+        appender.stop();
+    }
+
+    @Test
+    public void flushesWhenMaxBytesReached() {
+        policy.setMaxDelay(Duration.buildByMilliseconds(0));
+        policy.setMaxBytes(new FileSize(2 * (4 + CoreConstants.LINE_SEPARATOR_LEN) + 1));
+        appender.start();
+        appender.doAppend("abcd");
+        appender.doAppend("efgh");
+        assertEquals(0, os.flushCount);
+        appender.doAppend("ijkl");
+        assertEquals(1, os.flushCount);
+        appender.doAppend("mnop");
+        assertEquals(1, os.flushCount);
+    }
+
+    @Test
+    public void flushesPeriodically() throws InterruptedException {
+        policy.setMaxDelay(Duration.buildByMilliseconds(20));
+        policy.setMaxBytes(new FileSize(0));
+        appender.start();
+        appender.doAppend("abcd");
+        assertEquals(0, os.flushCount);
+        for (int i = 0; i < 100 && os.flushCount == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, os.flushCount);
+        // nothing left to flush
+        Thread.sleep(60);
+        assertEquals(1, os.flushCount);
+    }
+
+    @Test
+    public void stopCancelsTask() {
+        appender.start();
+        assertTrue(policy.isStarted());
+        appender.stop();
+        assertTrue(!policy.isStarted());
+    }
+
+    @Test
+    public void startsWithinContextsNotTrackingScheduledFutures() {
+        // as LogbackValve of logback-access
+        Context valveLikeContext = new ContextBase() {
+            @Override
+            public void addScheduledFuture(ScheduledFuture<?> scheduledFuture) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        PeriodicFlushPolicy<Object> valvePolicy = new PeriodicFlushPolicy<Object>();
+        valvePolicy.setContext(valveLikeContext);
+        valvePolicy.start();
+        assertTrue(valvePolicy.isStarted());
+        valvePolicy.stop();
+        assertTrue(!valvePolicy.isStarted());
+    }
+}
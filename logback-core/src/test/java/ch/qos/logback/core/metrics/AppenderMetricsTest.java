@@ -0,0 +1,196 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.AsyncAppenderBase;
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.ContextBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+public class AppenderMetricsTest {
+
+    Context context = new ContextBase();
+    MetricsRegistry registry = new MetricsRegistry();
+    OutputStreamAppender<Object> appender = new OutputStreamAppender<Object>();
+    List<Metric> recorded = Collections.synchronizedList(new ArrayList<Metric>());
+
+    @Before
+    public void setUp() {
+        registry.setContext(context);
+        registry.start();
+        context.register(registry);
+
+        appender.setContext(context);
+        appender.setName("OS");
+        appender.setEncoder(new EchoEncoder<Object>());
+        appender.setOutputStream(new ByteArrayOutputStream());
+        appender.addFilter(new Filter<Object>() {
+            @Override
+            public FilterReply decide(Object event) {
+                return "deny".equals(event) ? FilterReply.DENY : FilterReply.NEUTRAL;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        appender.stop();
+        registry.stop();
+    }
+
+    @Test
+    public void disabledWithoutRegistry() {
+        OutputStreamAppender<Object> other = new OutputStreamAppender<Object>();
+        other.setContext(new ContextBase());
+        other.setName("other");
+        other.setEncoder(new EchoEncoder<Object>());
+        other.setOutputStream(new ByteArrayOutputStream());
+        other.start();
+        assertNull(other.getMetrics());
+        other.stop();
+    }
+
+    @Test
+    public void countsAndTimings() {
+        appender.start();
+        AppenderMetrics metrics = appender.getMetrics();
+        assertNotNull(metrics);
+        assertSame(metrics, registry.getAppenderMetrics("OS"));
+
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend("hello" + i);
+        }
+        appender.doAppend("deny");
+
+        assertEquals(10, metrics.getAppendedCount());
+        assertEquals(1, metrics.getFilteredCount());
+        assertEquals(0, metrics.getErrorCount());
+        assertEquals(10, metrics.getEncodeHistogram().getCount());
+        assertEquals(10, metrics.getWriteHistogram().getCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getAppendedCount());
+        assertEquals(0, metrics.getEncodeHistogram().getCount());
+    }
+
+    @Test
+    public void writeFailuresAreNotCountedAsAppended() {
+        appender.setOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("failing on purpose");
+            }
+        });
+        appender.setImmediateFlush(true);
+        appender.start();
+        AppenderMetrics metrics = appender.getMetrics();
+
+        appender.doAppend("hello");
+
+        assertEquals(0, metrics.getAppendedCount());
+        assertEquals(1, metrics.getErrorCount());
+    }
+
+    @Test
+    public void droppedEventsAreNotCountedAsAppended() {
+        final CountDownLatch release = new CountDownLatch(1);
+        AppenderBase<Object> blocked = new AppenderBase<Object>() {
+            @Override
+            protected void append(Object event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blocked.setContext(context);
+        blocked.start();
+
+        AsyncAppenderBase<Object> async = new AsyncAppenderBase<Object>();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(1);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(blocked);
+        async.start();
+        AppenderMetrics metrics = async.getMetrics();
+        try {
+            for (int i = 0; i < 10; i++) {
+                async.doAppend("hello" + i);
+            }
+            assertTrue(metrics.getDroppedCount() > 0);
+            assertEquals(10, metrics.getAppendedCount() + metrics.getDroppedCount());
+        } finally {
+            release.countDown();
+            async.stop();
+        }
+    }
+
+    @Test
+    public void listenersAreNotified() {
+        registry.addListener(new MetricsListener() {
+            public void metricRecorded(String appenderName, Metric metric, long value) {
+                assertEquals("OS", appenderName);
+                recorded.add(metric);
+            }
+        });
+        appender.start();
+        appender.doAppend("hello");
+        appender.doAppend("deny");
+
+        assertTrue(recorded.contains(Metric.ENCODE_TIME));
+        assertTrue(recorded.contains(Metric.WRITE_TIME));
+        assertTrue(recorded.contains(Metric.APPENDED));
+        assertTrue(recorded.contains(Metric.FILTERED));
+    }
+
+    @Test
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000000, histogram.getMaxNanos());
+        assertTrue(histogram.getPercentileNanos(50) < 2048);
+        assertTrue(histogram.getPercentileNanos(100) >= 1000000);
+        assertTrue(histogram.getMeanNanos() > 1000);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SyslogTcpOutputStreamTest {
+
+    ServerSocket serverSocket;
+    SyslogTcpOutputStream sos;
+    ExecutorService executor = Executors.newCachedThreadPool();
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+        sos = new SyslogTcpOutputStream("localhost", serverSocket.getLocalPort(), SocketFactory.getDefault(), executor);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sos.close();
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void messagesAreOctetCounted() throws Exception {
+        sos.write("hello".getBytes("US-ASCII"));
+        sos.flush();
+        sos.write("syslog world".getBytes("US-ASCII"));
+        sos.flush();
+
+        Socket s = serverSocket.accept();
+        assertEquals("5 hello12 syslog world", read(s.getInputStream(), 22));
+        s.close();
+        waitForSentCount(2);
+        assertEquals(0, sos.getDroppedCount());
+    }
+
+    @Test
+    public void messagesAreBatched() throws Exception {
+        sos.setBatchSize(20);
+        sos.setMaxBatchDelay(60 * 1000);
+        sos.write("abc".getBytes("US-ASCII"));
+        sos.flush();
+        sos.write("def".getBytes("US-ASCII"));
+        sos.flush();
+        assertEquals(0, sos.getSentCount());
+
+        sos.write("0123456789".getBytes("US-ASCII"));
+        sos.flush();
+
+        Socket s = serverSocket.accept();
+        assertEquals("3 abc3 def10 0123456789", read(s.getInputStream(), 23));
+        s.close();
+        waitForSentCount(3);
+    }
+
+    @Test
+    public void drainSendsPartialBatch() throws Exception {
+        sos.setBatchSize(1000);
+        sos.setMaxBatchDelay(60 * 1000);
+        sos.write("abc".getBytes("US-ASCII"));
+        sos.flush();
+        assertEquals(0, sos.getSentCount());
+        sos.drain();
+        Socket s = serverSocket.accept();
+        waitForSentCount(1);
+        s.close();
+    }
+
+    @Test
+    public void flushDoesNotWaitForTheConnection() throws Exception {
+        int port = serverSocket.getLocalPort();
+        serverSocket.close();
+        sos = new SyslogTcpOutputStream("localhost", port, SocketFactory.getDefault(), executor);
+        sos.setReconnectionDelay(60 * 1000);
+        sos.setMaxPendingBytes(10);
+        sos.write("abc".getBytes("US-ASCII"));
+        sos.flush();
+        sos.write("def".getBytes("US-ASCII"));
+        sos.flush();
+        // beyond the pending limit
+        sos.write("ghijk".getBytes("US-ASCII"));
+        sos.flush();
+        assertEquals(0, sos.getSentCount());
+        assertEquals(1, sos.getDroppedCount());
+
+        sos.close();
+        assertEquals(3, sos.getDroppedCount());
+    }
+
+    @Test
+    public void appendDecimal() {
+        byte[] buf = new byte[12];
+        int end = SyslogTcpOutputStream.appendDecimal(buf, 1, 1234567890);
+        assertEquals(11, end);
+        assertEquals("1234567890", new String(buf, 1, 10));
+        end = SyslogTcpOutputStream.appendDecimal(buf, 0, 0);
+        assertEquals(1, end);
+        assertEquals('0', buf[0]);
+    }
+
+    private void waitForSentCount(long expected) throws InterruptedException {
+        for (int i = 0; i < 200 && sos.getSentCount() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, sos.getSentCount());
+    }
+
+    private String read(InputStream in, int len) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        while (baos.size() < len) {
+            int b = in.read();
+            if (b == -1) {
+                break;
+            }
+            baos.write(b);
+        }
+        return baos.toString("US-ASCII");
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class LiteralReplacerTest {
+
+    static final String[] INPUTS = { "", "a", "hello world", "line1\nline2\r\nline3\n", "password=secret passw", "a.b.c", "a-b_c", "été €",
+            "aaaa", "foobar foo" };
+
+    void assertSameAsRegex(String regex, String replacement) {
+        LiteralReplacer replacer = LiteralReplacer.compile(regex, replacement);
+        assertNotNull(regex, replacer);
+        for (String in : INPUTS) {
+            String expected = Pattern.compile(regex).matcher(in).replaceAll(replacement);
+            assertEquals(regex + " on " + in, expected, replacer.replace(in));
+            StringBuilder buf = new StringBuilder("prefix").append(in);
+            replacer.replace(buf, "prefix".length());
+            assertEquals("prefix" + expected, buf.toString());
+        }
+    }
+
+    @Test
+    public void literals() {
+        assertSameAsRegex("\\n", " ");
+        assertSameAsRegex("\n", "\n\t");
+        assertSameAsRegex("o", "0");
+        assertSameAsRegex("\\.", "");
+        assertSameAsRegex("world", "there");
+        assertSameAsRegex("aa", "b");
+        assertSameAsRegex("€", "EUR");
+        assertSameAsRegex("a", "\\$");
+    }
+
+    @Test
+    public void alternations() {
+        assertSameAsRegex("password|secret", "****");
+        assertSameAsRegex("foo|foobar", "X");
+        assertSameAsRegex("foobar|foo", "X");
+        assertSameAsRegex("\\r\\n|\\n", " ");
+        assertSameAsRegex("a|é", "_");
+    }
+
+    @Test
+    public void characterClasses() {
+        assertSameAsRegex("[\\r\\n]", " ");
+        assertSameAsRegex("[a-c]", "#");
+        assertSameAsRegex("[-_.]", "");
+        assertSameAsRegex("[a\\-z]", "?");
+        assertSameAsRegex("[é€]", "e");
+    }
+
+    @Test
+    public void unsupportedExpressions() {
+        assertNull(LiteralReplacer.compile("\\d{4}", "XXXX"));
+        assertNull(LiteralReplacer.compile("a.b", "X"));
+        assertNull(LiteralReplacer.compile("[^a]", "X"));
+        assertNull(LiteralReplacer.compile("a|", "X"));
+        assertNull(LiteralReplacer.compile("(a)", "$1"));
+        assertNull(LiteralReplacer.compile("a", "$0"));
+        assertNull(LiteralReplacer.compile("\\s", " "));
+        assertNull(LiteralReplacer.compile("[a-z&&[^b]]", " "));
+        // class members made of surrogate pairs
+        assertNull(LiteralReplacer.compile("[\uD83D\uDE00]", "X"));
+        assertNull(LiteralReplacer.compile("[a\uD83D\uDE00]", "X"));
+        assertNull(LiteralReplacer.compile("[\uD7FF-\uD800]", "X"));
+    }
+
+    @Test
+    public void fusedCharacterReplacers() {
+        LiteralReplacer first = LiteralReplacer.compile("[\\r\\n]", " ");
+        LiteralReplacer second = LiteralReplacer.compile(" ", "_");
+        LiteralReplacer fused = first.andThen(second);
+        for (String in : INPUTS) {
+            assertEquals(second.replace(first.replace(in)), fused.replace(in));
+        }
+        assertNull(LiteralReplacer.compile("password", "*").andThen(second));
+    }
+
+    @Test
+    public void noMatchNoCopy() {
+        String in = "hello world";
+        assertSame(in, LiteralReplacer.compile("\\n", " ").replace(in));
+    }
+}
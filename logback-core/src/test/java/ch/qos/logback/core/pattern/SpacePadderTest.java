@@ -55,6 +55,16 @@ public class SpacePadderTest {
         }
     }
 
+    @Test
+    public void insertSpaces() {
+        StringBuilder buf = new StringBuilder("ab");
+        SpacePadder.insertSpaces(buf, 1, 35);
+        StringBuilder expected = new StringBuilder("a");
+        SpacePadder.spacePad(expected, 35);
+        expected.append('b');
+        assertEquals(expected.toString(), buf.toString());
+    }
+
     @Test
     public void nullString() {
         String s = null;
@@ -0,0 +1,273 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.read;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.ContextBase;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.boolex.EvaluationException;
+import ch.qos.logback.core.boolex.EventEvaluatorBase;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.testUtil.RandomUtil;
+import ch.qos.logback.core.util.CoreTestConstants;
+
+public class FlightRecorderAppenderTest {
+
+    static final String LS = CoreConstants.LINE_SEPARATOR;
+
+    Context context = new ContextBase();
+    FlightRecorderAppender<String> fra = new FlightRecorderAppender<String>();
+    int diff = RandomUtil.getPositiveInt();
+    String dumpFile = CoreTestConstants.OUTPUT_DIR_PREFIX + "flightRecorder-" + diff + ".log";
+
+    @Before
+    public void setUp() {
+        EchoEncoder<String> encoder = new EchoEncoder<String>();
+        encoder.setContext(context);
+        encoder.start();
+        fra.setContext(context);
+        fra.setName("FR");
+        fra.setEncoder(encoder);
+        fra.setDumpFile(dumpFile);
+    }
+
+    String dumpToString() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        fra.dump(baos);
+        return baos.toString();
+    }
+
+    @Test
+    public void slotCountIsRoundedUpToPowerOfTwo() throws IOException {
+        fra.setSlotCount(3);
+        fra.start();
+        for (int i = 0; i < 4; i++) {
+            fra.doAppend("e" + i);
+        }
+        assertEquals("e0" + LS + "e1" + LS + "e2" + LS + "e3" + LS, dumpToString());
+    }
+
+    @Test
+    public void keepsMostRecentEvents() throws IOException {
+        fra.setSlotCount(4);
+        fra.start();
+        for (int i = 0; i < 10; i++) {
+            fra.doAppend("e" + i);
+        }
+        assertEquals(10, fra.getEventCount());
+        assertEquals("e6" + LS + "e7" + LS + "e8" + LS + "e9" + LS, dumpToString());
+    }
+
+    @Test
+    public void longEventsAreTruncated() throws IOException {
+        fra.setSlotSize(FlightRecorderAppender.SLOT_HEADER_SIZE + 5);
+        fra.setSlotCount(2);
+        fra.start();
+        fra.doAppend("0123456789");
+        assertEquals("01234", dumpToString());
+    }
+
+    @Test
+    public void evaluatorTriggersDump() throws Exception {
+        EventEvaluatorBase<String> evaluator = new EventEvaluatorBase<String>() {
+            public boolean evaluate(String event) throws NullPointerException, EvaluationException {
+                return event.startsWith("ERROR");
+            }
+        };
+        evaluator.setContext(context);
+        evaluator.start();
+        fra.setEvaluator(evaluator);
+        fra.start();
+        fra.doAppend("a");
+        assertTrue(!new File(dumpFile).exists());
+        fra.doAppend("ERROR b");
+        // the dump runs in the background
+        fra.dumpTask.get(5, TimeUnit.SECONDS);
+        assertEquals("a" + LS + "ERROR b" + LS, read(dumpFile));
+    }
+
+    @Test
+    public void dumpsOnlyNewEvents() throws IOException {
+        fra.start();
+        fra.doAppend("a");
+        assertEquals(1, fra.dump());
+        fra.doAppend("b");
+        fra.doAppend("c");
+        assertEquals(2, fra.dump());
+        // nothing new, the dump file is left alone
+        assertEquals(0, fra.dump());
+        assertEquals("a" + LS + "b" + LS + "c" + LS, read(dumpFile));
+    }
+
+    @Test
+    public void dumpOnStop() throws IOException {
+        fra.start();
+        fra.doAppend("a");
+        fra.dump();
+        fra.doAppend("b");
+        fra.stop();
+        assertEquals("a" + LS + "b" + LS, read(dumpFile));
+    }
+
+    @Test
+    public void noDumpOnStopIfDisabled() {
+        fra.setDumpOnStop(false);
+        fra.start();
+        fra.doAppend("a");
+        fra.stop();
+        assertTrue(!new File(dumpFile).exists());
+    }
+
+    @Test
+    public void memoryMappedRing() throws IOException {
+        fra.setFile(CoreTestConstants.OUTPUT_DIR_PREFIX + "flightRecorder-" + diff + ".ring");
+        fra.setSlotCount(2);
+        fra.start();
+        fra.doAppend("a");
+        fra.doAppend("b");
+        fra.doAppend("c");
+        assertEquals("b" + LS + "c" + LS, dumpToString());
+    }
+
+    @Test
+    public void eventsSurviveARestart() throws IOException {
+        String ringFile = CoreTestConstants.OUTPUT_DIR_PREFIX + "flightRecorder-" + diff + ".ring";
+        fra.setFile(ringFile);
+        fra.setSlotCount(4);
+        fra.start();
+        fra.doAppend("a");
+        fra.doAppend("b");
+        fra.doAppend("c");
+        // as if the JVM died, the appender is neither stopped nor dumped
+        corruptStamp(ringFile, 1);
+
+        FlightRecorderAppender<String> next = new FlightRecorderAppender<String>();
+        next.setContext(context);
+        next.setEncoder(fra.getEncoder());
+        next.setFile(ringFile);
+        next.setSlotCount(4);
+        next.start();
+        // the slot of "b" looks torn and is skipped
+        assertEquals(3, next.getEventCount());
+        next.doAppend("d");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        next.dump(baos);
+        assertEquals("a" + LS + "c" + LS + "d" + LS, baos.toString());
+    }
+
+    private void corruptStamp(String ringFile, int slot) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(ringFile, "rw");
+        try {
+            raf.seek((long) slot * FlightRecorderAppender.DEFAULT_SLOT_SIZE);
+            raf.writeLong(FlightRecorderAppender.INVALID_STAMP);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void concurrentProducersAndDumps() throws Exception {
+        final int threadCount = 4;
+        final int eventsPerThread = 20000;
+        fra.setSlotCount(64);
+        fra.start();
+
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] producers = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final String prefix = "t" + t + "-";
+            producers[t] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        fra.doAppend(prefix + i + "-" + prefix + i);
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        startLatch.countDown();
+
+        // dump while the producers run, no dumped line may be torn
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread producer : producers) {
+                running |= producer.isAlive();
+            }
+            assertWellFormed(dumpToString(), Integer.MAX_VALUE);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(threadCount * eventsPerThread, fra.getEventCount());
+        assertWellFormed(dumpToString(), 64);
+    }
+
+    private void assertWellFormed(String dump, int expectedLines) {
+        String[] lines = dump.split(LS);
+        if (expectedLines != Integer.MAX_VALUE) {
+            assertEquals(expectedLines, lines.length);
+        }
+        Map<String, Integer> lastByThread = new HashMap<String, Integer>();
+        for (String line : lines) {
+            if (line.length() == 0) {
+                continue;
+            }
+            String[] parts = line.split("-");
+            assertEquals(line, 4, parts.length);
+            assertEquals(line, parts[0], parts[2]);
+            assertEquals(line, parts[1], parts[3]);
+            // dumps are ordered, so are the events of each thread
+            int i = Integer.parseInt(parts[1]);
+            Integer last = lastByThread.put(parts[0], i);
+            assertTrue(line, last == null || last < i);
+        }
+    }
+
+    String read(String filename) throws IOException {
+        FileInputStream fis = new FileInputStream(filename);
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = fis.read(buf)) != -1) {
+                baos.write(buf, 0, n);
+            }
+            return baos.toString();
+        } finally {
+            fis.close();
+        }
+    }
+}
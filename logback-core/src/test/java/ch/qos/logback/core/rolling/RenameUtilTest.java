@@ -34,6 +34,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class RenameUtilTest {
@@ -70,6 +72,29 @@ public class RenameUtilTest {
         assertTrue(statusChecker.isErrorFree(0));
     }
 
+    @Test
+    public void renameOrStageOnSameVolumeRenamesDirectly() throws IOException, RolloverFailure {
+        RenameUtil renameUtil = new RenameUtil();
+        renameUtil.setContext(context);
+
+        String src = randomOutputDirAsStr + "staged-src.txt";
+        String target = randomOutputDirAsStr + "sub/staged-target.txt";
+        makeFile(src);
+
+        assertNull(renameUtil.renameOrStage(src, target));
+        assertFalse(new File(src).exists());
+        assertTrue(new File(target).exists());
+        assertTrue(statusChecker.isErrorFree(0));
+    }
+
+    @Test
+    public void stagingNameIsInSourceDirectory() {
+        String src = randomOutputDirAsStr + "active.log";
+        File staged = new File(RenameUtil.stagingNameFor(src));
+        assertEquals(new File(src).getAbsoluteFile().getParentFile(), staged.getAbsoluteFile().getParentFile());
+        assertTrue(!staged.getPath().equals(src));
+    }
+
     
     @Test //  LOGBACK-1054 
     public void renameLockedAbstractFile_LOGBACK_1054 () throws IOException, RolloverFailure {
@@ -18,6 +18,16 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.concurrent.FutureTask;
+import java.util.zip.GZIPInputStream;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -25,8 +35,12 @@ import org.junit.Test;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.Context;
 import ch.qos.logback.core.ContextBase;
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.appender.AbstractAppenderTest;
 import ch.qos.logback.core.encoder.DummyEncoder;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import ch.qos.logback.core.rolling.helper.FileNamePattern;
+import ch.qos.logback.core.rolling.helper.RenameUtil;
 import ch.qos.logback.core.status.Status;
 import ch.qos.logback.core.status.StatusChecker;
 import ch.qos.logback.core.testUtil.RandomUtil;
@@ -262,5 +276,159 @@ public class RollingFileAppenderTest extends AbstractAppenderTest<Object> {
         StatusChecker checker = new StatusChecker(context);
         checker.assertContainsMatch(Status.ERROR, "'FileNamePattern' option has the same value");
     }
-    
+
+    @Test
+    public void nonBlockingRolloverWritesEachPeriodToItsOwnFile() throws IOException {
+        long now = (System.currentTimeMillis() / 1000) * 1000;
+        String pattern = randomOutputDir + "nb-%d{yyyy-MM-dd_HH_mm_ss}.log";
+        rfa.setContext(context);
+        rfa.setEncoder(new EchoEncoder<Object>());
+        rfa.setNonBlockingRollover(true);
+        tbrp.setFileNamePattern(pattern);
+        tbrp.timeBasedFileNamingAndTriggeringPolicy = new DefaultTimeBasedFileNamingAndTriggeringPolicy<Object>();
+        tbrp.timeBasedFileNamingAndTriggeringPolicy.setCurrentTime(now);
+        rfa.setRollingPolicy(tbrp);
+        tbrp.start();
+        rfa.start();
+        assertTrue(rfa.isNonBlockingRollover());
+
+        FileNamePattern fnp = new FileNamePattern(pattern, context);
+        for (int i = 0; i < 3; i++) {
+            tbrp.timeBasedFileNamingAndTriggeringPolicy.setCurrentTime(now + i * 1000);
+            rfa.doAppend("period" + i);
+        }
+        rfa.stop();
+
+        for (int i = 0; i < 3; i++) {
+            String fileName = fnp.convert(new Date(now + i * 1000));
+            assertEquals("period" + i + CoreConstants.LINE_SEPARATOR, new String(readFully(fileName)));
+        }
+        StatusChecker checker = new StatusChecker(context);
+        assertTrue(checker.isErrorFree(0));
+    }
+
+    @Test
+    public void nonBlockingRolloverDoesNotWaitForArchivingWithinAPeriod() throws IOException {
+        long now = (System.currentTimeMillis() / 1000) * 1000;
+        String pattern = randomOutputDir + "nbw-%d{yyyy-MM-dd_HH_mm_ss}.log";
+        rfa.setContext(context);
+        rfa.setEncoder(new EchoEncoder<Object>());
+        rfa.setNonBlockingRollover(true);
+        tbrp.setFileNamePattern(pattern);
+        tbrp.timeBasedFileNamingAndTriggeringPolicy = new DefaultTimeBasedFileNamingAndTriggeringPolicy<Object>();
+        tbrp.timeBasedFileNamingAndTriggeringPolicy.setCurrentTime(now);
+        rfa.setRollingPolicy(tbrp);
+        tbrp.start();
+        rfa.start();
+
+        // a previous rollover whose archiving never completes
+        rfa.pendingRollover = new FutureTask<Object>(new Runnable() {
+            public void run() {
+            }
+        }, null);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            rfa.doAppend("same period");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        rfa.pendingRollover = null;
+        rfa.stop();
+
+        assertTrue("logging waited " + elapsed + "ms", elapsed < CoreConstants.SECONDS_TO_WAIT_FOR_COMPRESSION_JOBS * 1000L / 2);
+        FileNamePattern fnp = new FileNamePattern(pattern, context);
+        assertEquals(10, new String(readFully(fnp.convert(new Date(now)))).split(CoreConstants.LINE_SEPARATOR).length);
+    }
+
+    @Test
+    public void nonBlockingRolloverRequiresEmptyFileProperty() {
+        rfa.setContext(context);
+        rfa.setFile(randomOutputDir + "active.log");
+        rfa.setNonBlockingRollover(true);
+        tbrp.setFileNamePattern(randomOutputDir + "active-%d.log");
+        tbrp.start();
+        rfa.setRollingPolicy(tbrp);
+        rfa.start();
+
+        assertTrue(rfa.isStarted());
+        assertFalse(rfa.isNonBlockingRollover());
+        StatusChecker checker = new StatusChecker(context);
+        checker.assertContainsMatch(Status.WARN, "Non-blocking rollover requires");
+        rfa.stop();
+    }
+
+    // a file staged by a rollover whose archiving job never ran
+    private File createStagedFile(String activeFile, String content, long lastModified) throws IOException {
+        File staged = new File(RenameUtil.stagingNameFor(activeFile));
+        staged.getParentFile().mkdirs();
+        FileOutputStream fos = new FileOutputStream(staged);
+        try {
+            fos.write(content.getBytes());
+        } finally {
+            fos.close();
+        }
+        assertTrue(staged.setLastModified(lastModified));
+        return staged;
+    }
+
+    @Test
+    public void stagedFileLeftBehindIsArchivedOnStart() throws IOException {
+        long periodTime = new Date().getTime() - CoreConstants.MILLIS_IN_ONE_DAY;
+        String activeFile = randomOutputDir + "staged.log";
+        String pattern = randomOutputDir + "staged-%d.log";
+        File staged = createStagedFile(activeFile, "hello", periodTime);
+
+        rfa.setContext(context);
+        rfa.setFile(activeFile);
+        tbrp.setFileNamePattern(pattern);
+        tbrp.start();
+        rfa.setRollingPolicy(tbrp);
+        rfa.start();
+        rfa.stop();
+
+        assertFalse(staged.exists());
+        String archive = new FileNamePattern(pattern, context).convert(new Date(periodTime));
+        assertEquals("hello", new String(readFully(archive)));
+        StatusChecker checker = new StatusChecker(context);
+        checker.assertContainsMatch(Status.INFO, "Found \\[.*\\] left behind by an earlier rollover");
+    }
+
+    @Test
+    public void stagedFileLeftBehindReplacesIncompleteCompressedArchive() throws IOException {
+        long periodTime = new Date().getTime() - CoreConstants.MILLIS_IN_ONE_DAY;
+        String activeFile = randomOutputDir + "stagedgz.log";
+        String pattern = randomOutputDir + "stagedgz-%d.log.gz";
+        File staged = createStagedFile(activeFile, "hello", periodTime);
+        String archive = new FileNamePattern(pattern, context).convert(new Date(periodTime));
+        // the job was interrupted while compressing
+        new FileOutputStream(archive).close();
+
+        rfa.setContext(context);
+        rfa.setFile(activeFile);
+        tbrp.setFileNamePattern(pattern);
+        tbrp.start();
+        rfa.setRollingPolicy(tbrp);
+        rfa.start();
+        rfa.stop();
+
+        assertFalse(staged.exists());
+        assertEquals("hello", new String(readFully(new GZIPInputStream(new FileInputStream(archive)))));
+    }
+
+    private byte[] readFully(String fileName) throws IOException {
+        return readFully(new FileInputStream(fileName));
+    }
+
+    private byte[] readFully(InputStream fis) throws IOException {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[256];
+            int n;
+            while ((n = fis.read(buf)) != -1) {
+                baos.write(buf, 0, n);
+            }
+            return baos.toByteArray();
+        } finally {
+            fis.close();
+        }
+    }
 }
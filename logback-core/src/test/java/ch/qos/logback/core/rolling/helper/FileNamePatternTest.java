@@ -14,10 +14,15 @@
 package ch.qos.logback.core.rolling.helper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
 import java.util.TimeZone;
 
 import org.junit.Test;
@@ -195,4 +200,40 @@ public class FileNamePatternTest {
         FileNamePattern fnp = new FileNamePattern("%d{hh, " + tz.getID() + "}", context);
         assertEquals(tz, fnp.getPrimaryDateTokenConverter().getTimeZone());
     }
+
+    @Test
+    public void repeatedConversionsWithinAPeriodAgree() {
+        FileNamePattern fnp = new FileNamePattern("foo-%d{yyyy-MM-dd_HH, UTC}.log", context);
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(2003, 4, 20, 17, 0);
+        long topOfHour = cal.getTimeInMillis();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("foo-2003-05-20_17.log", fnp.convert(new Date(topOfHour)));
+            assertEquals("foo-2003-05-20_17.log", fnp.convert(new Date(topOfHour + 59 * 60 * 1000)));
+            assertEquals("foo-2003-05-20_18.log", fnp.convert(new Date(topOfHour + 60 * 60 * 1000)));
+            assertEquals("foo-2003-05-20_16.log", fnp.convert(new Date(topOfHour - 1)));
+        }
+    }
+
+    @Test
+    public void tokensChangingWithinThePeriodAreNotCached() {
+        // the periodicity of this pattern is daily, but the text changes at noon
+        FileNamePattern fnp = new FileNamePattern("%d{yyyy-MM-dd_a, UTC}", context);
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"), Locale.US);
+        cal.clear();
+        cal.set(2003, 4, 20, 10, 0);
+        String morning = fnp.convert(cal.getTime());
+        cal.set(Calendar.HOUR_OF_DAY, 14);
+        String afternoon = fnp.convert(cal.getTime());
+        assertFalse(morning.equals(afternoon));
+    }
+
+    @Test
+    public void regexIsComputedOnce() {
+        FileNamePattern fnp = new FileNamePattern("foo-%d{yyyy-MM-dd}.%i.log", context);
+        String regex = fnp.toRegex();
+        assertSame(regex, fnp.toRegex());
+        assertTrue("foo-2003-05-20.3.log".matches(regex));
+    }
 }
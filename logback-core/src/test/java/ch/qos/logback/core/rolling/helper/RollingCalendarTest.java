@@ -241,4 +241,37 @@ public class RollingCalendarTest {
         
         
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cachedBoundariesAgreeWithFreshComputation() {
+        TimeZone cet = TimeZone.getTimeZone("CET");
+        RollingCalendar cached = new RollingCalendar(dailyPattern, cet, Locale.US);
+        // Sun Mar 26 22:18:38 CEST 2017, right after entering daylight saving
+        long start = 1490559518333L;
+        for (int hour = -72; hour < 72; hour += 5) {
+            Date now = new Date(start + hour * CoreConstants.MILLIS_IN_ONE_HOUR);
+            for (int p = -40; p <= 3; p++) {
+                RollingCalendar fresh = new RollingCalendar(dailyPattern, cet, Locale.US);
+                assertEquals("hour=" + hour + ", p=" + p, fresh.getEndOfNextNthPeriod(now, p), cached.getEndOfNextNthPeriod(now, p));
+            }
+        }
+    }
+
+    @Test
+    public void walkingAwayFromTheAnchorExtendsTheCachedWindowGeometrically() {
+        RollingCalendar rc = new RollingCalendar(dailyPattern);
+        Date now = new Date(1490559518333L);
+        int windows = 0;
+        RollingCalendar.PeriodBoundaries last = null;
+        // as TimeBasedArchiveRemover does with maxHistory=1000
+        for (int offset = 0; offset > -1000; offset--) {
+            Date expected = new RollingCalendar(dailyPattern).getEndOfNextNthPeriod(now, offset);
+            assertEquals("offset=" + offset, expected, rc.getEndOfNextNthPeriod(now, offset));
+            if (rc.cachedBoundaries != last) {
+                last = rc.cachedBoundaries;
+                windows++;
+            }
+        }
+        assertTrue("window computed " + windows + " times", windows <= 12);
+    }
+}
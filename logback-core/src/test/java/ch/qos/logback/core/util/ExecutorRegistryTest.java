@@ -0,0 +1,145 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ch.qos.logback.core.ContextBase;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.testUtil.RandomUtil;
+
+public class ExecutorRegistryTest {
+
+    ContextBase context = new ContextBase();
+
+    @After
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    public void unconfiguredNameFallsBackOnSharedExecutor() {
+        assertSame(context.getScheduledExecutorService(), context.getScheduledExecutorService(CoreConstants.COMPRESSION_EXECUTOR_NAME));
+    }
+
+    @Test
+    public void configuredNameHasDedicatedExecutor() throws Exception {
+        context.addExecutorConfig(new ExecutorConfig(CoreConstants.COMPRESSION_EXECUTOR_NAME, 2));
+        ScheduledExecutorService compression = context.getScheduledExecutorService(CoreConstants.COMPRESSION_EXECUTOR_NAME);
+        assertNotSame(context.getScheduledExecutorService(), compression);
+        assertSame(compression, context.getScheduledExecutorService(CoreConstants.COMPRESSION_EXECUTOR_NAME));
+
+        String threadName = compression.submit(new Callable<String>() {
+            public String call() {
+                return Thread.currentThread().getName();
+            }
+        }).get();
+        assertTrue(threadName, threadName.startsWith("logback-compression-"));
+
+        InstrumentedScheduledExecutor executor = (InstrumentedScheduledExecutor) compression;
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void reconfigurationReplacesExecutor() {
+        context.addExecutorConfig(new ExecutorConfig("io", 1));
+        ScheduledExecutorService first = context.getScheduledExecutorService("io");
+        context.addExecutorConfig(new ExecutorConfig("io", 3));
+        ScheduledExecutorService second = context.getScheduledExecutorService("io");
+        assertNotSame(first, second);
+        assertTrue(first.isShutdown());
+        assertEquals(3, ((InstrumentedScheduledExecutor) second).getCorePoolSize());
+    }
+
+    @Test
+    public void stopShutsDownExecutors() {
+        context.addExecutorConfig(new ExecutorConfig("network", 1));
+        ScheduledExecutorService network = context.getScheduledExecutorService("network");
+        context.stop();
+        assertTrue(network.isShutdown());
+    }
+
+    @Test
+    public void resetShutsDownConfiguredExecutors() {
+        context.addExecutorConfig(new ExecutorConfig("io", 2));
+        ScheduledExecutorService io = context.getScheduledExecutorService("io");
+        context.reset();
+        assertTrue(io.isShutdown());
+        assertSame(context.getScheduledExecutorService(), context.getScheduledExecutorService("io"));
+    }
+
+    @Test
+    public void metrics() throws Exception {
+        context.addExecutorConfig(new ExecutorConfig("housekeeping", 1));
+        InstrumentedScheduledExecutor executor = (InstrumentedScheduledExecutor) context.getScheduledExecutorService("housekeeping");
+        executor.submit(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                }
+            }
+        }).get();
+        // afterExecute runs after the future completes
+        for (int i = 0; i < 100 && executor.getMaxExecutionTimeMicros() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(executor.getMaxExecutionTimeMicros() >= 15000);
+        assertTrue(executor.getAverageExecutionTimeMicros() > 0);
+        executor.resetMetrics();
+        assertEquals(0, executor.getMaxExecutionTimeMicros());
+    }
+
+    @Test
+    public void jmxRegistration() throws Exception {
+        context.setName("executorTest" + RandomUtil.getPositiveInt());
+        ExecutorConfig config = new ExecutorConfig("io", 1);
+        config.setJmx(true);
+        context.addExecutorConfig(config);
+        context.getScheduledExecutorService("io");
+
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("ch.qos.logback.core:Type=Executor,Context=" + context.getName() + ",Name=io");
+        assertTrue(mbs.isRegistered(objectName));
+        assertEquals(0, mbs.getAttribute(objectName, "QueueDepth"));
+        context.stop();
+        assertFalse(mbs.isRegistered(objectName));
+    }
+
+    @Test
+    public void platformThreadsWithoutVirtualThreadSupport() {
+        LogbackThreadFactory factory = new LogbackThreadFactory("test-", false);
+        Thread thread = factory.newThread(new Runnable() {
+            public void run() {
+            }
+        });
+        assertTrue(thread.isDaemon());
+        assertEquals("test-1", thread.getName());
+    }
+}